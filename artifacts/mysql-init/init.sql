@@ -112,7 +112,11 @@ CREATE TABLE `kardex` (
   `total_price` decimal(38,2) NOT NULL,
   `type_movement` enum('INCOME','OUTCOME','RETURN') NOT NULL,
   `unit_price` decimal(38,2) NOT NULL,
-  PRIMARY KEY (`id`)
+  `balance_quantity` int DEFAULT NULL,
+  `balance_value` decimal(38,2) DEFAULT NULL,
+  `cost_of_goods_sold` decimal(38,2) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_kardex_product_position` (`product_id`,`movement_date`,`id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
@@ -122,10 +126,74 @@ CREATE TABLE `kardex` (
 
 LOCK TABLES `kardex` WRITE;
 /*!40000 ALTER TABLE `kardex` DISABLE KEYS */;
-INSERT INTO `kardex` VALUES (0xD7900E60082411F0B6DC4851C5F70A21,'2025-03-23','ELEC-001',50,32500.00,'INCOME',650.00),(0xD7901086082411F0B6DC4851C5F70A21,'2025-03-23','ELEC-002',100,18000.00,'INCOME',180.00),(0xD79010EF082411F0B6DC4851C5F70A21,'2025-03-23','ROPA-001',75,6000.00,'INCOME',80.00),(0xD7901135082411F0B6DC4851C5F70A21,'2025-03-23','ROPA-002',120,2400.00,'INCOME',20.00),(0xD7901178082411F0B6DC4851C5F70A21,'2025-03-23','ELEC-001',1,899.99,'OUTCOME',899.99),(0xD790123C082411F0B6DC4851C5F70A21,'2025-03-23','ROPA-001',3,389.97,'OUTCOME',129.99),(0xD7901283082411F0B6DC4851C5F70A21,'2025-03-23','ELEC-001',3,2699.97,'OUTCOME',899.99),(0xD79012C9082411F0B6DC4851C5F70A21,'2025-03-22','DEP-001',1,29.99,'RETURN',29.99);
+INSERT INTO `kardex` VALUES (0xD7900E60082411F0B6DC4851C5F70A21,'2025-03-23','ELEC-001',50,32500.00,'INCOME',650.00,NULL,NULL,NULL),(0xD7901086082411F0B6DC4851C5F70A21,'2025-03-23','ELEC-002',100,18000.00,'INCOME',180.00,NULL,NULL,NULL),(0xD79010EF082411F0B6DC4851C5F70A21,'2025-03-23','ROPA-001',75,6000.00,'INCOME',80.00,NULL,NULL,NULL),(0xD7901135082411F0B6DC4851C5F70A21,'2025-03-23','ROPA-002',120,2400.00,'INCOME',20.00,NULL,NULL,NULL),(0xD7901178082411F0B6DC4851C5F70A21,'2025-03-23','ELEC-001',1,899.99,'OUTCOME',899.99,NULL,NULL,NULL),(0xD790123C082411F0B6DC4851C5F70A21,'2025-03-23','ROPA-001',3,389.97,'OUTCOME',129.99,NULL,NULL,NULL),(0xD7901283082411F0B6DC4851C5F70A21,'2025-03-23','ELEC-001',3,2699.97,'OUTCOME',899.99,NULL,NULL,NULL),(0xD79012C9082411F0B6DC4851C5F70A21,'2025-03-22','DEP-001',1,29.99,'RETURN',29.99,NULL,NULL,NULL);
 /*!40000 ALTER TABLE `kardex` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `kardex_daily_rollup`
+--
+
+DROP TABLE IF EXISTS `kardex_daily_rollup`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `kardex_daily_rollup` (
+  `movement_date` date NOT NULL,
+  `product_id` varchar(255) NOT NULL,
+  `type_movement` enum('INCOME','OUTCOME','RETURN') NOT NULL,
+  `max_unit_price` decimal(38,2) NOT NULL,
+  `min_unit_price` decimal(38,2) NOT NULL,
+  `quantity` int NOT NULL,
+  `total_price` decimal(38,2) NOT NULL,
+  `cost_of_goods_sold` decimal(38,2) NOT NULL DEFAULT '0.00',
+  PRIMARY KEY (`movement_date`,`product_id`,`type_movement`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `kardex_ledger_head`
+--
+
+DROP TABLE IF EXISTS `kardex_ledger_head`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `kardex_ledger_head` (
+  `product_id` varchar(255) NOT NULL,
+  `version` bigint NOT NULL DEFAULT '0',
+  PRIMARY KEY (`product_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `kardex_outbox`
+--
+
+DROP TABLE IF EXISTS `kardex_outbox`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `kardex_outbox` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `created_at` datetime(6) NOT NULL,
+  `kardex` json NOT NULL,
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `kardex_valuation_checkpoint`
+--
+
+DROP TABLE IF EXISTS `kardex_valuation_checkpoint`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `kardex_valuation_checkpoint` (
+  `as_of` date NOT NULL,
+  `product_id` varchar(255) NOT NULL,
+  `layers` json NOT NULL,
+  PRIMARY KEY (`product_id`,`as_of`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `products`
 --
@@ -218,6 +286,20 @@ INSERT INTO `purchases` VALUES (0xBC66E5BD082411F0B6DC4851C5F70A21,'2025-03-23 1
 /*!40000 ALTER TABLE `purchases` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `reservation_hold`
+--
+
+DROP TABLE IF EXISTS `reservation_hold`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `reservation_hold` (
+  `product_id` varchar(255) NOT NULL,
+  `held_qty` int NOT NULL,
+  PRIMARY KEY (`product_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `sale_details`
 --
@@ -262,6 +344,7 @@ CREATE TABLE `sales` (
   `sale_date` datetime(6) NOT NULL,
   `total_amount` decimal(38,2) NOT NULL,
   `discount_percentage` decimal(38,2) DEFAULT NULL,
+  `inventory_status` varchar(10) DEFAULT NULL,
   PRIMARY KEY (`id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
@@ -272,7 +355,7 @@ CREATE TABLE `sales` (
 
 LOCK TABLES `sales` WRITE;
 /*!40000 ALTER TABLE `sales` DISABLE KEYS */;
-INSERT INTO `sales` VALUES (0xCA26B5A1082411F0B6DC4851C5F70A21,'María García','Tarjeta','2025-03-23 16:24:15.000000',949.99,5.00),(0xCA26BC18082411F0B6DC4851C5F70A21,'Juan Rodríguez','Efectivo','2025-03-23 16:24:15.000000',479.97,0.00),(0xCA26BC81082411F0B6DC4851C5F70A21,'Ana Martínez','Transferencia','2025-03-22 16:24:15.000000',2999.96,10.00),(0xCA26BCC2082411F0B6DC4851C5F70A21,'Carlos López','Tarjeta','2025-03-21 16:24:15.000000',129.97,0.00);
+INSERT INTO `sales` VALUES (0xCA26B5A1082411F0B6DC4851C5F70A21,'María García','Tarjeta','2025-03-23 16:24:15.000000',949.99,5.00,'REGISTERED'),(0xCA26BC18082411F0B6DC4851C5F70A21,'Juan Rodríguez','Efectivo','2025-03-23 16:24:15.000000',479.97,0.00,'REGISTERED'),(0xCA26BC81082411F0B6DC4851C5F70A21,'Ana Martínez','Transferencia','2025-03-22 16:24:15.000000',2999.96,10.00,'REGISTERED'),(0xCA26BCC2082411F0B6DC4851C5F70A21,'Carlos López','Tarjeta','2025-03-21 16:24:15.000000',129.97,0.00,'REGISTERED');
 /*!40000 ALTER TABLE `sales` ENABLE KEYS */;
 UNLOCK TABLES;
 
@@ -292,6 +375,7 @@ CREATE TABLE `stock` (
   `purchase_unit_cost` decimal(38,2) NOT NULL,
   `quantity` int DEFAULT NULL,
   `total_purchase_cost` decimal(38,2) NOT NULL,
+  `version` bigint NOT NULL DEFAULT '0',
   PRIMARY KEY (`id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
@@ -302,9 +386,51 @@ CREATE TABLE `stock` (
 
 LOCK TABLES `stock` WRITE;
 /*!40000 ALTER TABLE `stock` DISABLE KEYS */;
-INSERT INTO `stock` VALUES (0xB34D9C46082411F0B6DC4851C5F70A21,NULL,'ELEC-001',0x6B63236F082411F0B6DC4851C5F70A21,'2025-03-23',650.00,50,32500.00),(0xB34DA300082411F0B6DC4851C5F70A21,NULL,'ELEC-002',0x6B63236F082411F0B6DC4851C5F70A21,'2025-03-23',180.00,100,18000.00),(0xB34DA402082411F0B6DC4851C5F70A21,NULL,'ROPA-001',0x6B632463082411F0B6DC4851C5F70A21,'2025-03-23',80.00,75,6000.00),(0xB34DA487082411F0B6DC4851C5F70A21,NULL,'ROPA-002',0x6B632463082411F0B6DC4851C5F70A21,'2025-03-23',20.00,120,2400.00),(0xB34DA4FF082411F0B6DC4851C5F70A21,'2026-03-23','ALIM-001',0x6B6323F7082411F0B6DC4851C5F70A21,'2025-03-23',3.50,200,700.00),(0xB34DA590082411F0B6DC4851C5F70A21,'2027-03-23','ALIM-002',0x6B6323F7082411F0B6DC4851C5F70A21,'2025-03-23',8.00,150,1200.00),(0xB34DA62A082411F0B6DC4851C5F70A21,'2025-09-23','BEB-001',0x6B6323F7082411F0B6DC4851C5F70A21,'2025-03-23',0.75,500,375.00),(0xB34DA6FD082411F0B6DC4851C5F70A21,'2025-06-23','BEB-002',0x6B6323F7082411F0B6DC4851C5F70A21,'2025-03-23',2.00,200,400.00),(0xB34DA77F082411F0B6DC4851C5F70A21,NULL,'DEP-001',0x6B632463082411F0B6DC4851C5F70A21,'2025-03-23',18.00,50,900.00),(0xB34DA7F1082411F0B6DC4851C5F70A21,NULL,'DEP-002',0x6B632463082411F0B6DC4851C5F70A21,'2025-03-23',100.00,30,3000.00);
+INSERT INTO `stock` VALUES (0xB34D9C46082411F0B6DC4851C5F70A21,NULL,'ELEC-001',0x6B63236F082411F0B6DC4851C5F70A21,'2025-03-23',650.00,50,32500.00,0),(0xB34DA300082411F0B6DC4851C5F70A21,NULL,'ELEC-002',0x6B63236F082411F0B6DC4851C5F70A21,'2025-03-23',180.00,100,18000.00,0),(0xB34DA402082411F0B6DC4851C5F70A21,NULL,'ROPA-001',0x6B632463082411F0B6DC4851C5F70A21,'2025-03-23',80.00,75,6000.00,0),(0xB34DA487082411F0B6DC4851C5F70A21,NULL,'ROPA-002',0x6B632463082411F0B6DC4851C5F70A21,'2025-03-23',20.00,120,2400.00,0),(0xB34DA4FF082411F0B6DC4851C5F70A21,'2026-03-23','ALIM-001',0x6B6323F7082411F0B6DC4851C5F70A21,'2025-03-23',3.50,200,700.00,0),(0xB34DA590082411F0B6DC4851C5F70A21,'2027-03-23','ALIM-002',0x6B6323F7082411F0B6DC4851C5F70A21,'2025-03-23',8.00,150,1200.00,0),(0xB34DA62A082411F0B6DC4851C5F70A21,'2025-09-23','BEB-001',0x6B6323F7082411F0B6DC4851C5F70A21,'2025-03-23',0.75,500,375.00,0),(0xB34DA6FD082411F0B6DC4851C5F70A21,'2025-06-23','BEB-002',0x6B6323F7082411F0B6DC4851C5F70A21,'2025-03-23',2.00,200,400.00,0),(0xB34DA77F082411F0B6DC4851C5F70A21,NULL,'DEP-001',0x6B632463082411F0B6DC4851C5F70A21,'2025-03-23',18.00,50,900.00,0),(0xB34DA7F1082411F0B6DC4851C5F70A21,NULL,'DEP-002',0x6B632463082411F0B6DC4851C5F70A21,'2025-03-23',100.00,30,3000.00,0);
 /*!40000 ALTER TABLE `stock` ENABLE KEYS */;
 UNLOCK TABLES;
+
+--
+-- Table structure for table `stock_reservation`
+--
+
+DROP TABLE IF EXISTS `stock_reservation`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `stock_reservation` (
+  `id` binary(16) NOT NULL,
+  `expires_at` datetime(6) NOT NULL,
+  `product_id` varchar(255) NOT NULL,
+  `quantity` int NOT NULL,
+  `reservation_id` binary(16) NOT NULL,
+  `status` varchar(20) NOT NULL,
+  `unit_price` decimal(38,2) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_stock_reservation_reservation_id` (`reservation_id`),
+  KEY `idx_stock_reservation_due` (`status`,`expires_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `stock_summary`
+--
+
+DROP TABLE IF EXISTS `stock_summary`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `stock_summary` (
+  `product_id` varchar(255) NOT NULL,
+  `expired_qty` int NOT NULL,
+  `lot_count` int NOT NULL,
+  `oldest_expiry` date DEFAULT NULL,
+  `valid_qty` int NOT NULL,
+  `weighted_avg_cost` decimal(38,2) NOT NULL,
+  `total_qty` bigint NOT NULL,
+  `total_cost` decimal(38,2) NOT NULL,
+  PRIMARY KEY (`product_id`),
+  KEY `idx_stock_summary_oldest_expiry` (`oldest_expiry`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
 /*!40103 SET TIME_ZONE=@OLD_TIME_ZONE */;
 
 /*!40101 SET SQL_MODE=@OLD_SQL_MODE */;
@@ -0,0 +1,188 @@
+package com.tienda.compraservice.application.services;
+
+import com.tienda.compraservice.infraestructure.adapters.exception.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+@Slf4j
+@Service
+public class FanOutExecutor {
+
+    public static final String PRODUCT_SERVICE = "producto-service";
+
+    private final Map<String, Semaphore> limits;
+    private final Duration deadline;
+
+    public FanOutExecutor(@Value("${purchase.fan-out.max-concurrency.producto-service:8}") int productServiceLimit,
+                          @Value("${purchase.fan-out.deadline-ms:5000}") long deadlineMs) {
+        this.limits = Map.of(PRODUCT_SERVICE, new Semaphore(productServiceLimit));
+        this.deadline = Duration.ofMillis(deadlineMs);
+    }
+
+    /**
+     * Runs a remote call for every input on its own virtual thread, bounded by the concurrency limit of the downstream
+     *
+     * @param downstream The service the calls go to
+     * @param inputs     The inputs of the calls
+     * @param call       The remote call
+     * @return The results in the same order as the inputs
+     * @throws ValidationException with the messages of every failed call, or when the deadline expires
+     */
+    public <T, R> List<R> invokeAll(String downstream, List<T> inputs, Function<T, R> call) {
+        return invokeAll(downstream, inputs, call, result -> {});
+    }
+
+    /**
+     * Runs a remote call for every input on its own virtual thread, bounded by the concurrency limit of the downstream
+     * When a call fails the calls that succeeded are undone, including the ones that finish after the failure
+     *
+     * @param downstream The service the calls go to
+     * @param inputs     The inputs of the calls
+     * @param call       The remote call
+     * @param undo       Reverts the effect of a successful call
+     * @return The results in the same order as the inputs
+     * @throws ValidationException with the messages of every failed call and of the results that could not be undone
+     */
+    public <T, R> List<R> invokeAll(String downstream, List<T> inputs, Function<T, R> call, Consumer<R> undo) {
+        var limit = limits.get(downstream);
+        if (limit == null) throw new IllegalArgumentException("Servicio sin limite configurado: " + downstream);
+        var expiresAt = System.nanoTime() + deadline.toNanos();
+        var batch = new Batch<R>(undo);
+        var executor = Executors.newVirtualThreadPerTaskExecutor();
+        var futures = new ArrayList<Future<R>>(inputs.size());
+        for (var input : inputs)
+            futures.add(executor.submit(() -> callWithin(limit, call, input, batch)));
+        executor.shutdown();
+        var results = new ArrayList<R>(inputs.size());
+        var errors = new ArrayList<String>();
+        try {
+            for (var future : futures) {
+                try {
+                    results.add(future.get(Math.max(0, expiresAt - System.nanoTime()), TimeUnit.NANOSECONDS));
+                } catch (ExecutionException e) {
+                    errors.add(e.getCause().getMessage());
+                }
+            }
+        } catch (TimeoutException e) {
+            errors.add("Tiempo de espera agotado con " + downstream);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errors.add("Operacion interrumpida con " + downstream);
+        }
+        if (errors.isEmpty()) return results;
+        var notUndone = batch.abort();
+        if (!notUndone.isEmpty())
+            errors.add("No se pudieron revertir: " + String.join(", ", notUndone));
+        throw new ValidationException(String.join("; ", errors));
+    }
+
+    /**
+     * Runs a single call once the downstream has a free slot, unless the batch was aborted while it waited
+     *
+     * @param limit The concurrency limit of the downstream
+     * @param call  The remote call
+     * @param input The input of the call
+     * @param batch The batch the call belongs to
+     * @return The result of the call
+     */
+    private <T, R> R callWithin(Semaphore limit, Function<T, R> call, T input, Batch<R> batch)
+            throws InterruptedException {
+        limit.acquire();
+        try {
+            if (batch.isAborted()) throw new IllegalStateException("Operacion cancelada");
+            return batch.completed(call.apply(input));
+        } finally {
+            limit.release();
+        }
+    }
+
+    /**
+     * Results of a batch that succeeded, so they can be undone when another call of the batch fails
+     * Calls still in flight are not interrupted, a call that finishes after the abort undoes its own result
+     */
+    private static final class Batch<R> {
+
+        private final Consumer<R> undo;
+        private final List<R> completed = new ArrayList<>();
+        private boolean aborted;
+
+        private Batch(Consumer<R> undo) {
+            this.undo = undo;
+        }
+
+        /**
+         * Checks whether the batch already failed
+         *
+         * @return True when the batch was aborted
+         */
+        private synchronized boolean isAborted() {
+            return aborted;
+        }
+
+        /**
+         * Records a successful result, or undoes it right away when the batch already failed
+         *
+         * @param result The result of the call
+         * @return The same result
+         */
+        private R completed(R result) {
+            synchronized (this) {
+                if (!aborted) {
+                    completed.add(result);
+                    return result;
+                }
+            }
+            if (!undoQuietly(result))
+                log.warn("No se pudo revertir el resultado {} de una operacion cancelada", result);
+            return result;
+        }
+
+        /**
+         * Marks the batch as failed and undoes every result recorded so far
+         *
+         * @return The results that could not be undone
+         */
+        private List<String> abort() {
+            List<R> toUndo;
+            synchronized (this) {
+                aborted = true;
+                toUndo = List.copyOf(completed);
+                completed.clear();
+            }
+            var notUndone = new ArrayList<String>();
+            for (var result : toUndo)
+                if (!undoQuietly(result)) notUndone.add(String.valueOf(result));
+            return notUndone;
+        }
+
+        /**
+         * Undoes a result without propagating the failure
+         *
+         * @param result The result to undo
+         * @return True when the result was undone
+         */
+        private boolean undoQuietly(R result) {
+            try {
+                undo.accept(result);
+                return true;
+            } catch (RuntimeException e) {
+                log.warn("Error al revertir el resultado {}", result, e);
+                return false;
+            }
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.tienda.compraservice.application.validator.FeignValidator;
 import com.tienda.compraservice.domain.model.dto.Purchase;
 import com.tienda.compraservice.domain.model.dto.request.CreateCompletePurchase;
 import com.tienda.compraservice.domain.model.dto.request.CreatePurchaseRequest;
+import com.tienda.compraservice.domain.model.dto.request.DetailPurchaseRequest;
 import com.tienda.compraservice.domain.model.dto.request.PurchaseInventoryRequest;
 import com.tienda.compraservice.domain.model.dto.response.DetailPurchaseResponse;
 import com.tienda.compraservice.domain.model.dto.response.PurchasesResponse;
@@ -18,7 +19,6 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -30,6 +30,7 @@ public class PurchaseService implements PurchaseUseCases {
     private final ProviderPersistancePort providerPersistancePort;
     private final PurchaseDomainMapper purchaseDomainMapper;
     private final FeignValidator feignValidator;
+    private final FanOutExecutor fanOutExecutor;
 
     /**
      * Creates a purchase from existing products by verifying the provider and calculating the total cost
@@ -42,9 +43,10 @@ public class PurchaseService implements PurchaseUseCases {
         var provider = providerPersistancePort.findProviderByName(request.getProvider());
         if (provider == null) throw new ProviderNotFoundException("Proveedor no encontrado");
         var purchaseDomain = purchaseDomainMapper.createPurchaseRequestToDomain(request, provider);
+        feignValidator.verifyProductsIntoService(request.getItems().stream()
+                .map(DetailPurchaseRequest::getProductId).toList());
         BigDecimal total = BigDecimal.ZERO;
         for (var item : request.getItems()) {
-            feignValidator.verifyProductIntoService(item.getProductId());
             BigDecimal itemTotal = item.getUnitPrice().multiply(new BigDecimal(item.getQuantity()));
             total = total.add(itemTotal);
         }
@@ -69,7 +71,8 @@ public class PurchaseService implements PurchaseUseCases {
     }
 
     /**
-     * Creates a purchase from new products, validates provider, and calculates the total cost
+     * Creates a purchase from new products, validates provider, and calculates the total cost.
+     * The products are created concurrently in the product service
      *
      * @param request The complete purchase request
      * @return The created purchase response
@@ -78,11 +81,9 @@ public class PurchaseService implements PurchaseUseCases {
     public PurchasesResponse createPurchaseFromNewProducts(CreateCompletePurchase request) {
         var provider = providerPersistancePort.findProviderByName(request.getProvider());
         if (provider == null) throw new ProviderNotFoundException("Proveedor no encontrado");
-        var productResponses = new ArrayList<String>();
-        for (var item : request.getItems()) {
-            var prod = feignValidator.createProductIntoService(item.getProduct());
-            productResponses.add(prod.getCod());
-        }
+        var productResponses = fanOutExecutor.invokeAll(FanOutExecutor.PRODUCT_SERVICE, request.getItems(),
+                item -> feignValidator.createProductIntoService(item.getProduct()).getCod(),
+                feignValidator::deleteProductIntoService);
         var purchaseDomain = purchaseDomainMapper.createCompletePurchaseToDomain(request, provider, productResponses);
         BigDecimal total = BigDecimal.ZERO;
         for (int i = 0; i < purchaseDomain.getItems().size(); i++) {
@@ -149,16 +150,17 @@ public class PurchaseService implements PurchaseUseCases {
      */
     public void registerOnInventoryServiceFullCreation(PurchasesResponse response) {
         List<DetailPurchaseResponse> listDetailsOregister = response.getItems();
+        if (listDetailsOregister.isEmpty()) return;
         var provider = providerPersistancePort.findProviderByName(response.getProvider().getName());
-        for (DetailPurchaseResponse item : listDetailsOregister) {
-            var request = PurchaseInventoryRequest.builder()
-                    .quantity(item.getQuantity())
-                    .purchaseUnitCost(item.getUnitPrice())
-                    .providerId(provider.getId())
-                    .productId(item.getProductId())
-                    .expiryDate(item.getExpirationDate()).build();
-            feignValidator.registerPurchase(request);
-        }
+        var requests = listDetailsOregister.stream()
+                .map(item -> PurchaseInventoryRequest.builder()
+                        .quantity(item.getQuantity())
+                        .purchaseUnitCost(item.getUnitPrice())
+                        .providerId(provider.getId())
+                        .productId(item.getProductId())
+                        .expiryDate(item.getExpirationDate()).build())
+                .toList();
+        feignValidator.registerPurchaseBatch(requests);
     }
 
     /**
@@ -12,6 +12,12 @@ import feign.FeignException;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @AllArgsConstructor
 @Service
 public class FeignValidator {
@@ -32,6 +38,19 @@ public class FeignValidator {
         }
     }
 
+    /**
+     * Registers all lines of a purchase in the inventory service at once
+     *
+     * @param requests The purchase inventory requests
+     */
+    public void registerPurchaseBatch(List<PurchaseInventoryRequest> requests) {
+        try {
+            inventoryFeignClient.registerInputInventoryBatch(requests);
+        } catch (FeignException e) {
+            throw new ValidationException("Error en informacion del producto: " + extractErrorMessage(e));
+        }
+    }
+
     /**
      * Extracts the error message from a Feign exception
      *
@@ -62,6 +81,19 @@ public class FeignValidator {
         }
     }
 
+    /**
+     * Deletes a product created in the external service, used to undo it when the purchase fails
+     *
+     * @param cod The product code
+     */
+    public void deleteProductIntoService(String cod) {
+        try {
+            productFeignClient.deleteProduct(cod);
+        } catch (FeignException e) {
+            throw new ValidationException("Error al eliminar el producto " + cod + ": " + extractErrorMessage(e));
+        }
+    }
+
     /**
      * Verifies if a product exists in the external service by its code
      *
@@ -74,4 +106,24 @@ public class FeignValidator {
             throw new ValidationException("Error al crear el producto: " + extractErrorMessage(e));
         }
     }
+
+    /**
+     * Verifies that all the products exist in the external service with a single request
+     *
+     * @param cods The product codes
+     */
+    public void verifyProductsIntoService(Collection<String> cods) {
+        if (cods.isEmpty()) return;
+        Set<String> foundCods;
+        try {
+            foundCods = productFeignClient.getProductsByCods(new LinkedHashSet<>(cods)).stream()
+                    .map(ProductResponse::getCod).collect(Collectors.toSet());
+        } catch (FeignException e) {
+            throw new ValidationException("Error al crear el producto: " + extractErrorMessage(e));
+        }
+        var missingCods = cods.stream().filter(cod -> !foundCods.contains(cod)).distinct().toList();
+        if (!missingCods.isEmpty())
+            throw new ValidationException("Error al crear el producto: Producto no encontrado con Cod: "
+                    + String.join(", ", missingCods));
+    }
 }
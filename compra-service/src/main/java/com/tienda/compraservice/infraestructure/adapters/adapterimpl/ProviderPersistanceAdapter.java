@@ -81,8 +81,7 @@ public class ProviderPersistanceAdapter implements ProviderPersistancePort {
     public Provider update(Provider request, UUID uuid) {
         var providerToUpdate = providerRepository.findById(uuid).orElseThrow(
                 () -> new ProviderNotFoundException("Proveedor no encontrada"));
-        var requestEntity = providerMapper.toEntity(request);
-        UpdateHelper.updateNonNullFields(requestEntity, providerToUpdate);
+        providerMapper.updateEntity(request, providerToUpdate);
         var providerUpdated = providerRepository.save(providerToUpdate);
         return providerMapper.toDomain(providerUpdated);
     }
@@ -6,6 +6,8 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.List;
+
 @FeignClient(name = "inventory-service")
 public interface InventoryFeignClient {
 
@@ -17,4 +19,13 @@ public interface InventoryFeignClient {
      */
     @PostMapping("inventory/register-purchase")
     String registerInputInventory(@RequestBody PurchaseInventoryRequest request);
+
+    /**
+     * Registers all lines of a purchase in the inventory service with a single request
+     *
+     * @param requests The request objects containing the details of each purchase line
+     * @return A string response indicating the result of the registration
+     */
+    @PostMapping("inventory/register-purchase-batch")
+    String registerInputInventoryBatch(@RequestBody List<PurchaseInventoryRequest> requests);
 }
@@ -4,11 +4,15 @@ package com.tienda.compraservice.infraestructure.adapters.client;
 import com.tienda.compraservice.domain.model.dto.request.ProductRequest;
 import com.tienda.compraservice.domain.model.dto.response.ProductResponse;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.Collection;
+import java.util.List;
+
 @FeignClient(name = "producto-service")
 public interface ProductFeignClient {
 
@@ -21,6 +25,14 @@ public interface ProductFeignClient {
     @PostMapping("/product")
     ProductResponse createProduct(@RequestBody ProductRequest productRequest);
 
+    /**
+     * Deletes a product by its code on Product service
+     *
+     * @param cod The product code
+     */
+    @DeleteMapping("/product/{cod}")
+    void deleteProduct(@PathVariable String cod);
+
     /**
      * Gets product details by product code of Product service
      *
@@ -29,4 +41,13 @@ public interface ProductFeignClient {
      */
     @GetMapping("/product/{cod}")
     ProductResponse getProductByCod(@PathVariable String cod);
+
+    /**
+     * Gets the details of several products by their codes of Product service with a single request
+     *
+     * @param cods The product codes
+     * @return The response objects of the products found
+     */
+    @PostMapping("/product/batch")
+    List<ProductResponse> getProductsByCods(@RequestBody Collection<String> cods);
 }
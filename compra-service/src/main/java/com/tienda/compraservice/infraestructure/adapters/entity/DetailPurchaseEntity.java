@@ -19,7 +19,7 @@ import java.util.UUID;
 public class DetailPurchaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     private String productId;
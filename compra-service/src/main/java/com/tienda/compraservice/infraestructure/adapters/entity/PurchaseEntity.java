@@ -21,7 +21,7 @@ import java.util.UUID;
 public class PurchaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     private BigDecimal total;
@@ -0,0 +1,79 @@
+package com.tienda.compraservice.infraestructure.adapters.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+
+/**
+ * Generates UUIDv7 identifiers: a 48-bit Unix millisecond timestamp, a 12-bit counter that keeps
+ * identifiers of the same millisecond increasing, and 62 random bits
+ * Kept in sync with the generator of inventory-service, whose TimeOrderedUuidGeneratorTest covers it,
+ * because every service builds on its own
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int MAX_COUNTER = 0xFFF;
+
+    private static long lastMillis = -1;
+    private static int counter;
+
+    /**
+     * Generates a new time-ordered identifier for an entity being inserted
+     *
+     * @param session The current session
+     * @param owner The entity being inserted
+     * @param currentValue The current identifier value
+     * @param eventType The event that triggered the generation
+     * @return A new UUIDv7
+     */
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next();
+    }
+
+    /**
+     * Identifiers are only generated on insert
+     *
+     * @return The insert event type
+     */
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    /**
+     * Builds the next UUIDv7, later calls always returning greater identifiers within this process
+     * When the counter of a millisecond is exhausted the timestamp borrows the next millisecond
+     *
+     * @return A new UUIDv7
+     */
+    public static UUID next() {
+        long millis;
+        int sequence;
+        synchronized (TimeOrderedUuidGenerator.class) {
+            millis = Math.max(System.currentTimeMillis(), lastMillis);
+            if (millis == lastMillis) {
+                if (counter == MAX_COUNTER) {
+                    millis++;
+                    counter = RANDOM.nextInt(MAX_COUNTER / 2);
+                } else {
+                    counter++;
+                }
+            } else {
+                counter = RANDOM.nextInt(MAX_COUNTER / 2);
+            }
+            lastMillis = millis;
+            sequence = counter;
+        }
+        long mostSigBits = (millis << 16) | 0x7000L | sequence;
+        long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -2,9 +2,12 @@ package com.tienda.compraservice.infraestructure.adapters.mapper;
 
 import com.tienda.compraservice.domain.model.dto.Provider;
 import com.tienda.compraservice.infraestructure.adapters.entity.ProviderEntity;
+import org.mapstruct.BeanMapping;
 import org.mapstruct.InheritInverseConfiguration;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 
 @Mapper(componentModel = "spring")
 public interface ProviderMapper {
@@ -31,4 +34,14 @@ public interface ProviderMapper {
      */
     @InheritInverseConfiguration
     ProviderEntity toEntity(Provider provider);
+
+    /**
+     * Copies the non-null fields of a Provider domain object onto an existing ProviderEntity
+     *
+     * @param provider The provider domain object with the values to copy
+     * @param providerEntity The provider entity to update
+     */
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "id", ignore = true)
+    void updateEntity(Provider provider, @MappingTarget ProviderEntity providerEntity);
 }
@@ -0,0 +1,140 @@
+package com.tienda.compraservice.application.services;
+
+import com.tienda.compraservice.infraestructure.adapters.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FanOutExecutorTest {
+
+    @Test
+    void invokeAll_ShouldReturnResultsInInputOrder() {
+        var fanOutExecutor = new FanOutExecutor(4, 5000);
+
+        var results = fanOutExecutor.invokeAll(FanOutExecutor.PRODUCT_SERVICE, List.of(3, 1, 2), value -> {
+            sleep(value * 10L);
+            return "P" + value;
+        });
+
+        assertEquals(List.of("P3", "P1", "P2"), results);
+    }
+
+    @Test
+    void invokeAll_ShouldRunCallsConcurrentlyUpToTheDownstreamLimit() {
+        var fanOutExecutor = new FanOutExecutor(2, 5000);
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+
+        fanOutExecutor.invokeAll(FanOutExecutor.PRODUCT_SERVICE, List.of(1, 2, 3, 4, 5, 6), value -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(50);
+            running.decrementAndGet();
+            return value;
+        });
+
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    void invokeAll_ShouldAggregateEveryFailureIntoOneValidationException() {
+        var fanOutExecutor = new FanOutExecutor(4, 5000);
+
+        var exception = assertThrows(ValidationException.class,
+                () -> fanOutExecutor.invokeAll(FanOutExecutor.PRODUCT_SERVICE, List.of("A", "B", "C"), cod -> {
+                    if (cod.equals("B")) return cod;
+                    throw new ValidationException("Error al crear el producto " + cod);
+                }));
+
+        assertEquals("Error al crear el producto A; Error al crear el producto C", exception.getMessage());
+    }
+
+    @Test
+    void invokeAll_WhenACallFails_ShouldUndoTheCallsThatSucceeded() {
+        var fanOutExecutor = new FanOutExecutor(4, 5000);
+        var undone = new CopyOnWriteArrayList<String>();
+
+        assertThrows(ValidationException.class,
+                () -> fanOutExecutor.invokeAll(FanOutExecutor.PRODUCT_SERVICE, List.of("A", "C", "B"), cod -> {
+                    if (cod.equals("B")) throw new ValidationException("Error al crear el producto B");
+                    return cod;
+                }, undone::add));
+
+        assertEquals(Set.of("A", "C"), Set.copyOf(undone));
+    }
+
+    @Test
+    void invokeAll_WhenAnUndoFails_ShouldReportTheResultsLeftBehind() {
+        var fanOutExecutor = new FanOutExecutor(4, 5000);
+
+        var exception = assertThrows(ValidationException.class,
+                () -> fanOutExecutor.invokeAll(FanOutExecutor.PRODUCT_SERVICE, List.of("A", "B"), cod -> {
+                    if (cod.equals("B")) throw new ValidationException("Error al crear el producto B");
+                    return cod;
+                }, cod -> {
+                    throw new ValidationException("Error al eliminar el producto " + cod);
+                }));
+
+        assertEquals("Error al crear el producto B; No se pudieron revertir: A", exception.getMessage());
+    }
+
+    @Test
+    void invokeAll_WhenACallFinishesAfterTheDeadline_ShouldUndoIt() throws InterruptedException {
+        var fanOutExecutor = new FanOutExecutor(4, 50);
+        var release = new CountDownLatch(1);
+        var undone = new CountDownLatch(1);
+
+        assertThrows(ValidationException.class,
+                () -> fanOutExecutor.invokeAll(FanOutExecutor.PRODUCT_SERVICE, List.of("A"), cod -> {
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return cod;
+                }, cod -> undone.countDown()));
+        release.countDown();
+
+        assertTrue(undone.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void invokeAll_ShouldFailWhenTheDeadlineExpires() {
+        var fanOutExecutor = new FanOutExecutor(4, 50);
+        var release = new CountDownLatch(1);
+
+        var exception = assertThrows(ValidationException.class,
+                () -> fanOutExecutor.invokeAll(FanOutExecutor.PRODUCT_SERVICE, List.of(1), value -> {
+                    try {
+                        return release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }));
+
+        assertEquals("Tiempo de espera agotado con producto-service", exception.getMessage());
+    }
+
+    @Test
+    void invokeAll_WithUnknownDownstream_ShouldThrow() {
+        var fanOutExecutor = new FanOutExecutor(4, 5000);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> fanOutExecutor.invokeAll("unknown-service", List.of(1), value -> value));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -4,22 +4,28 @@ import com.tienda.compraservice.application.mapper.PurchaseDomainMapper;
 import com.tienda.compraservice.application.validator.FeignValidator;
 import com.tienda.compraservice.domain.model.dto.Provider;
 import com.tienda.compraservice.domain.model.dto.Purchase;
+import com.tienda.compraservice.domain.model.dto.request.CreateCompletePurchase;
 import com.tienda.compraservice.domain.model.dto.request.CreatePurchaseRequest;
 import com.tienda.compraservice.domain.model.dto.request.DetailPurchaseRequest;
+import com.tienda.compraservice.domain.model.dto.request.ProductRequest;
+import com.tienda.compraservice.domain.model.dto.request.ProductsAndDetails;
 import com.tienda.compraservice.domain.model.dto.request.PurchaseInventoryRequest;
 import com.tienda.compraservice.domain.model.dto.response.DetailPurchaseResponse;
+import com.tienda.compraservice.domain.model.dto.response.ProductResponse;
 import com.tienda.compraservice.domain.model.dto.response.ProviderResponse;
 import com.tienda.compraservice.domain.model.dto.response.PurchasesResponse;
 import com.tienda.compraservice.domain.port.ProviderPersistancePort;
 import com.tienda.compraservice.domain.port.PurchasePersistancePort;
 import com.tienda.compraservice.infraestructure.adapters.exception.ProviderNotFoundException;
 import com.tienda.compraservice.infraestructure.adapters.exception.PurchaseNotFoundException;
+import com.tienda.compraservice.infraestructure.adapters.exception.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -49,6 +55,9 @@ class PurchaseServiceTest {
     @Mock
     private FeignValidator feignValidator;
 
+    @Spy
+    private FanOutExecutor fanOutExecutor = new FanOutExecutor(2, 5000);
+
     @InjectMocks
     private PurchaseService purchaseService;
 
@@ -131,8 +140,8 @@ class PurchaseServiceTest {
                 .thenReturn(mockPurchase);
         when(purchasePersistancePort.create(any(Purchase.class))).thenReturn(mockPurchase);
         when(purchaseDomainMapper.domainToResponse(mockPurchase)).thenReturn(mockPurchaseResponse);
-        doNothing().when(feignValidator).verifyProductIntoService(anyString());
-        doNothing().when(feignValidator).registerPurchase(any(PurchaseInventoryRequest.class));
+        doNothing().when(feignValidator).verifyProductsIntoService(anyCollection());
+        doNothing().when(feignValidator).registerPurchaseBatch(anyList());
 
         PurchasesResponse result = purchaseService.createPurchaseFromExistinProducst(mockCreateRequest);
 
@@ -145,8 +154,69 @@ class PurchaseServiceTest {
         verify(purchaseDomainMapper).createPurchaseRequestToDomain(mockCreateRequest, mockProvider);
         verify(purchasePersistancePort).create(any(Purchase.class));
         verify(purchaseDomainMapper).domainToResponse(mockPurchase);
-        verify(feignValidator).verifyProductIntoService("PROD001");
-        verify(feignValidator).registerPurchase(any(PurchaseInventoryRequest.class));
+        verify(feignValidator).verifyProductsIntoService(List.of("PROD001"));
+        verify(feignValidator, never()).verifyProductIntoService(anyString());
+        verify(feignValidator).registerPurchaseBatch(anyList());
+        verify(feignValidator, never()).registerPurchase(any(PurchaseInventoryRequest.class));
+    }
+
+    @Test
+    void createPurchaseFromNewProducts_CreatesProductsConcurrentlyKeepingItemOrder() {
+        var first = ProductRequest.builder().name("Leche").build();
+        var second = ProductRequest.builder().name("Pan").build();
+        var request = CreateCompletePurchase.builder().provider("Test Provider").items(List.of(
+                ProductsAndDetails.builder().product(first).quantity(10).unitPrice(new BigDecimal("15.00")).build(),
+                ProductsAndDetails.builder().product(second).quantity(1).unitPrice(new BigDecimal("2.00")).build()))
+                .build();
+        when(providerPersistancePort.findProviderByName("Test Provider")).thenReturn(mockProvider);
+        when(feignValidator.createProductIntoService(first)).thenReturn(ProductResponse.builder().cod("PROD001").build());
+        when(feignValidator.createProductIntoService(second)).thenReturn(ProductResponse.builder().cod("PROD002").build());
+        when(purchaseDomainMapper.createCompletePurchaseToDomain(request, mockProvider, List.of("PROD001", "PROD002")))
+                .thenReturn(mockPurchase);
+        when(purchasePersistancePort.create(any(Purchase.class))).thenReturn(mockPurchase);
+        when(purchaseDomainMapper.domainToResponse(mockPurchase)).thenReturn(mockPurchaseResponse);
+
+        PurchasesResponse result = purchaseService.createPurchaseFromNewProducts(request);
+
+        assertEquals(purchaseId, result.getId());
+        verify(fanOutExecutor).invokeAll(eq(FanOutExecutor.PRODUCT_SERVICE), eq(request.getItems()), any(), any());
+        verify(feignValidator).registerPurchaseBatch(anyList());
+    }
+
+    @Test
+    void createPurchaseFromNewProducts_FailedProductCreation_ShouldNotCreatePurchase() {
+        var product = ProductRequest.builder().name("Leche").build();
+        var request = CreateCompletePurchase.builder().provider("Test Provider").items(List.of(
+                ProductsAndDetails.builder().product(product).quantity(10).unitPrice(new BigDecimal("15.00")).build()))
+                .build();
+        when(providerPersistancePort.findProviderByName("Test Provider")).thenReturn(mockProvider);
+        when(feignValidator.createProductIntoService(product))
+                .thenThrow(new ValidationException("Error al crear el producto: Error desconocido"));
+
+        var exception = assertThrows(ValidationException.class,
+                () -> purchaseService.createPurchaseFromNewProducts(request));
+
+        assertEquals("Error al crear el producto: Error desconocido", exception.getMessage());
+        verify(purchasePersistancePort, never()).create(any());
+    }
+
+    @Test
+    void createPurchaseFromNewProducts_FailedProductCreation_ShouldDeleteTheProductsAlreadyCreated() {
+        var first = ProductRequest.builder().name("Leche").build();
+        var second = ProductRequest.builder().name("Pan").build();
+        var request = CreateCompletePurchase.builder().provider("Test Provider").items(List.of(
+                ProductsAndDetails.builder().product(first).quantity(10).unitPrice(new BigDecimal("15.00")).build(),
+                ProductsAndDetails.builder().product(second).quantity(1).unitPrice(new BigDecimal("2.00")).build()))
+                .build();
+        when(providerPersistancePort.findProviderByName("Test Provider")).thenReturn(mockProvider);
+        when(feignValidator.createProductIntoService(first)).thenReturn(ProductResponse.builder().cod("PROD001").build());
+        when(feignValidator.createProductIntoService(second))
+                .thenThrow(new ValidationException("Error al crear el producto: Error desconocido"));
+
+        assertThrows(ValidationException.class, () -> purchaseService.createPurchaseFromNewProducts(request));
+
+        verify(feignValidator).deleteProductIntoService("PROD001");
+        verify(purchasePersistancePort, never()).create(any());
     }
 
     @Test
@@ -246,17 +316,18 @@ class PurchaseServiceTest {
     @Test
     void registerOnInventoryServiceFullCreation_Success() {
         when(providerPersistancePort.findProviderByName("Test Provider")).thenReturn(mockProvider);
-        doNothing().when(feignValidator).registerPurchase(any(PurchaseInventoryRequest.class));
+        doNothing().when(feignValidator).registerPurchaseBatch(anyList());
 
         purchaseService.registerOnInventoryServiceFullCreation(mockPurchaseResponse);
 
         verify(providerPersistancePort).findProviderByName("Test Provider");
 
-        ArgumentCaptor<PurchaseInventoryRequest> requestCaptor =
-                ArgumentCaptor.forClass(PurchaseInventoryRequest.class);
-        verify(feignValidator).registerPurchase(requestCaptor.capture());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PurchaseInventoryRequest>> requestCaptor = ArgumentCaptor.forClass(List.class);
+        verify(feignValidator).registerPurchaseBatch(requestCaptor.capture());
 
-        PurchaseInventoryRequest capturedRequest = requestCaptor.getValue();
+        assertEquals(1, requestCaptor.getValue().size());
+        PurchaseInventoryRequest capturedRequest = requestCaptor.getValue().getFirst();
         assertEquals(10, capturedRequest.getQuantity());
         assertEquals(new BigDecimal("15.00"), capturedRequest.getPurchaseUnitCost());
         assertEquals(mockProvider.getId(), capturedRequest.getProviderId());
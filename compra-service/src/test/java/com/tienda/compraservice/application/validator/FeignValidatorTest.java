@@ -15,6 +15,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -55,6 +57,14 @@ class FeignValidatorTest {
         assertThrows(ValidationException.class, () -> feignValidator.registerPurchase(request));
     }
 
+    @Test
+    void registerPurchaseBatch_ShouldThrowValidationExceptionWhenFeignExceptionOccurs() {
+        List<PurchaseInventoryRequest> requests = List.of(new PurchaseInventoryRequest(
+                10, BigDecimal.TEN, UUID.randomUUID(), "prod123", null));
+        doThrow(FeignException.class).when(inventoryFeignClient).registerInputInventoryBatch(any());
+        assertThrows(ValidationException.class, () -> feignValidator.registerPurchaseBatch(requests));
+    }
+
     @Test
     void createProductIntoService_ShouldReturnProductResponse() {
         ProductRequest productRequest = new ProductRequest(
@@ -78,6 +88,13 @@ class FeignValidatorTest {
         assertThrows(ValidationException.class, () -> feignValidator.createProductIntoService(productRequest));
     }
 
+    @Test
+    void deleteProductIntoService_ShouldThrowValidationExceptionWhenFeignExceptionOccurs() {
+        doThrow(FeignException.class).when(productFeignClient).deleteProduct("prod123");
+
+        assertThrows(ValidationException.class, () -> feignValidator.deleteProductIntoService("prod123"));
+    }
+
     @Test
     void verifyProductIntoService_ShouldNotThrowExceptionWhenProductExists() {
         assertDoesNotThrow(() -> feignValidator.verifyProductIntoService("prod123"));
@@ -89,4 +106,22 @@ class FeignValidatorTest {
 
         assertThrows(ValidationException.class, () -> feignValidator.verifyProductIntoService("prod123"));
     }
+
+    @Test
+    void verifyProductsIntoService_ShouldNotThrowExceptionWhenAllProductsExist() {
+        when(productFeignClient.getProductsByCods(Set.of("prod123", "prod456"))).thenReturn(List.of(
+                ProductResponse.builder().cod("prod123").build(), ProductResponse.builder().cod("prod456").build()));
+
+        assertDoesNotThrow(() -> feignValidator.verifyProductsIntoService(List.of("prod123", "prod456", "prod123")));
+    }
+
+    @Test
+    void verifyProductsIntoService_ShouldThrowValidationExceptionWhenProductIsMissing() {
+        when(productFeignClient.getProductsByCods(Set.of("prod123", "prod456")))
+                .thenReturn(List.of(ProductResponse.builder().cod("prod123").build()));
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> feignValidator.verifyProductsIntoService(List.of("prod123", "prod456")));
+        assertEquals("Error al crear el producto: Producto no encontrado con Cod: prod456", exception.getMessage());
+    }
 }
\ No newline at end of file
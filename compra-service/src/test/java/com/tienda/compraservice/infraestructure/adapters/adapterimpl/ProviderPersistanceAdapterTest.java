@@ -130,19 +130,9 @@ class ProviderPersistanceAdapterTest {
                 .active(true)
                 .build();
 
-        ProviderEntity updatedProviderEntity = ProviderEntity.builder()
-                .id(providerId)
-                .name("UpdatedProvider")
-                .address("New Address")
-                .phone("987654")
-                .email("newemail@example.com")
-                .active(true)
-                .build();
-
         Mockito.when(providerRepository.findById(providerId)).thenReturn(Optional.of(providerToUpdate));
-        Mockito.when(providerMapper.toEntity(provider)).thenReturn(updatedProviderEntity);
-        Mockito.when(providerRepository.save(updatedProviderEntity)).thenReturn(updatedProviderEntity);
-        Mockito.when(providerMapper.toDomain(updatedProviderEntity)).thenReturn(
+        Mockito.when(providerRepository.save(providerToUpdate)).thenReturn(providerToUpdate);
+        Mockito.when(providerMapper.toDomain(providerToUpdate)).thenReturn(
                 Provider.builder()
                         .id(providerId)
                         .name("UpdatedProvider")
@@ -156,6 +146,7 @@ class ProviderPersistanceAdapterTest {
         assertNotNull(result);
         assertEquals("UpdatedProvider", result.getName());
         assertEquals("New Address", result.getAddress());
+        Mockito.verify(providerMapper).updateEntity(provider, providerToUpdate);
     }
 
     @Test
@@ -0,0 +1,91 @@
+package com.tienda.compraservice.infraestructure.adapters.mapper;
+
+import com.tienda.compraservice.domain.model.dto.Provider;
+import com.tienda.compraservice.infraestructure.adapters.entity.ProviderEntity;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+
+import java.beans.PropertyDescriptor;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput and allocation of the generated entity update with the reflective copy it replaced
+ * Excluded from the regular build, run it with mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityUpdateBenchmark {
+
+    private ProviderMapper providerMapper;
+    private Provider providerRequest;
+    private ProviderEntity providerEntity;
+
+    @Test
+    void entityUpdates_ReflectiveVersusGenerated() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EntityUpdateBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Setup
+    public void setUp() {
+        providerMapper = Mappers.getMapper(ProviderMapper.class);
+        providerRequest = Provider.builder().phone("76543210").email("ventas@proveedor.com").build();
+        providerEntity = ProviderEntity.builder().id(UUID.randomUUID()).name("Proveedor").address("Av. Siempre Viva")
+                .phone("71234567").email("contacto@proveedor.com").active(true).build();
+    }
+
+    @Benchmark
+    public ProviderEntity providerReflective() {
+        copyNonNullFields(providerMapper.toEntity(providerRequest), providerEntity);
+        return providerEntity;
+    }
+
+    @Benchmark
+    public ProviderEntity providerGenerated() {
+        providerMapper.updateEntity(providerRequest, providerEntity);
+        return providerEntity;
+    }
+
+    /**
+     * The reflective copy the persistence adapters used before the generated updates, kept as the baseline
+     *
+     * @param source Source object with the values to copy from
+     * @param target Target object where the values will be set
+     */
+    private static void copyNonNullFields(Object source, Object target) {
+        BeanWrapper sourceWrapper = new BeanWrapperImpl(source);
+        BeanWrapper targetWrapper = new BeanWrapperImpl(target);
+        for (PropertyDescriptor descriptor : sourceWrapper.getPropertyDescriptors()) {
+            String propertyName = descriptor.getName();
+            if (!"class".equals(propertyName)) {
+                Object sourceValue = sourceWrapper.getPropertyValue(propertyName);
+                if (sourceValue != null) targetWrapper.setPropertyValue(propertyName, sourceValue);
+            }
+        }
+    }
+}
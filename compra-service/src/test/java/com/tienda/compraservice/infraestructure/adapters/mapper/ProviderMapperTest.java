@@ -0,0 +1,60 @@
+package com.tienda.compraservice.infraestructure.adapters.mapper;
+
+import com.tienda.compraservice.domain.model.dto.Provider;
+import com.tienda.compraservice.infraestructure.adapters.entity.ProviderEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ProviderMapperTest {
+
+    private final ProviderMapper providerMapper = Mappers.getMapper(ProviderMapper.class);
+    private final UUID providerId = UUID.randomUUID();
+    private ProviderEntity targetProvider;
+
+    @BeforeEach
+    void setUp() {
+        targetProvider = ProviderEntity.builder()
+                .id(providerId)
+                .name("ProviderName")
+                .address("Address")
+                .phone("123456")
+                .email("email@example.com")
+                .active(true)
+                .build();
+    }
+
+    @Test
+    void updateEntity_ShouldCopyEveryNonNullFieldExceptTheId() {
+        var provider = Provider.builder()
+                .id(UUID.randomUUID())
+                .name("UpdatedProvider")
+                .address("New Address")
+                .phone("987654")
+                .email("newemail@example.com")
+                .active(false)
+                .build();
+        providerMapper.updateEntity(provider, targetProvider);
+        assertEquals(providerId, targetProvider.getId());
+        assertEquals("UpdatedProvider", targetProvider.getName());
+        assertEquals("New Address", targetProvider.getAddress());
+        assertEquals("987654", targetProvider.getPhone());
+        assertEquals("newemail@example.com", targetProvider.getEmail());
+        assertFalse(targetProvider.getActive());
+    }
+
+    @Test
+    void updateEntity_ShouldKeepFieldsThatAreNullInTheRequest() {
+        providerMapper.updateEntity(Provider.builder().phone("987654").build(), targetProvider);
+        assertEquals("ProviderName", targetProvider.getName());
+        assertEquals("Address", targetProvider.getAddress());
+        assertEquals("987654", targetProvider.getPhone());
+        assertEquals("email@example.com", targetProvider.getEmail());
+        assertEquals(true, targetProvider.getActive());
+    }
+}
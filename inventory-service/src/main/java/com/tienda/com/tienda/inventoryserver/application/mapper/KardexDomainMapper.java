@@ -28,6 +28,8 @@ public abstract class KardexDomainMapper {
      * @return A Kardex entity
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "balanceQuantity", ignore = true)
+    @Mapping(target = "balanceValue", ignore = true)
     public abstract Kardex kardexRequestToKardex(KardexRequest kardexRequest);
 
     /**
@@ -68,6 +70,7 @@ public abstract class KardexDomainMapper {
     @Mapping(target = "productId", source = "productId")
     @Mapping(target = "unitPrice", source = "purchaseUnitCost")
     @Mapping(target = "movementDate", ignore = true)
+    @Mapping(target = "costOfGoodsSold", ignore = true)
     public abstract KardexRequest createPurchaseKardex(PurchaseInventoryRequest kardexResponse);
 
     /**
@@ -80,5 +83,6 @@ public abstract class KardexDomainMapper {
     @Mapping(target = "productId", source = "productId")
     @Mapping(target = "unitPrice", source = "unitPrice")
     @Mapping(target = "movementDate", ignore = true)
+    @Mapping(target = "costOfGoodsSold", ignore = true)
     public abstract KardexRequest createSaleKardex(SaleInventoryRequest kardexResponse);
 }
@@ -26,6 +26,7 @@ public abstract class StockDomainMapper {
      * @return A Stock entity
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "productId", source = "productId")
     public abstract Stock stockRequestToStock(StockRequest stockRequest);
 
@@ -1,11 +1,12 @@
 package com.tienda.com.tienda.inventoryserver.application.services;
 
 import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
-import com.tienda.com.tienda.inventoryserver.domain.model.dto.Kardex;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.KardexDailyRollup;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Product;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.ReportInventoryResponse;
 import com.tienda.com.tienda.inventoryserver.domain.port.KardexPersistancePort;
 import com.tienda.com.tienda.inventoryserver.application.useCases.ReportEarings;
-import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.client.ProductFeignClient;
+import com.tienda.com.tienda.inventoryserver.application.validation.FeignValidator;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -16,17 +17,19 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class EarningsReport implements ReportEarings {
 
     private final KardexPersistancePort kardexPersistancePort;
-    private final ProductFeignClient productFeignClient;
+    private final FeignValidator feignValidator;
 
 
     /**
      * Retrieves earnings details between two dates, including sales, costs, and profit margins
+     * Costs are the cost of goods sold recorded with each sale, so the report only sums the sales of the range
      *
      * @param startDate Start date of the report
      * @param endDate End date of the report
@@ -34,49 +37,66 @@ public class EarningsReport implements ReportEarings {
      */
     @Override
     public ReportInventoryResponse earningsBetweenDatesDetailsProducts(LocalDate startDate, LocalDate endDate) {
-        List<Kardex> movements = getMovementsBetweenDates(startDate, endDate);
+        List<KardexDailyRollup> rollups = getRollupsBetweenDates(startDate, endDate);
+        Map<String, Product> products = getSoldProducts(rollups);
 
         BigDecimal totalEarnings = BigDecimal.ZERO;
         BigDecimal totalCosts = BigDecimal.ZERO;
         int totalProductsSold = 0;
         Map<String, ReportInventoryResponse.ProductSalesDetail> productSalesMap = new HashMap<>();
+        Map<String, BigDecimal> costsByProduct = new HashMap<>();
         Map<String, BigDecimal> earningsByCategory = new HashMap<>();
 
-        for (Kardex movement : movements) {
-            if (movement.getTypeMovement() == TypeMove.OUTCOME) {
-                totalEarnings = totalEarnings.add(movement.getTotalPrice());
-                totalProductsSold += movement.getQuantity();
-                processSale(movement, productSalesMap, earningsByCategory);
-            } else if (movement.getTypeMovement() == TypeMove.INCOME) {
-                totalCosts = totalCosts.add(movement.getTotalPrice());
-                processIncome(movement, productSalesMap);
-            }
+        for (KardexDailyRollup rollup : rollups) {
+            if (rollup.getTypeMovement() != TypeMove.OUTCOME) continue;
+            totalEarnings = totalEarnings.add(rollup.getTotalPrice());
+            totalCosts = totalCosts.add(rollup.getCostOfGoodsSold());
+            totalProductsSold += rollup.getQuantity();
+            costsByProduct.merge(rollup.getProductId(), rollup.getCostOfGoodsSold(), BigDecimal::add);
+            processSale(rollup, products.get(rollup.getProductId()), productSalesMap, earningsByCategory);
         }
+        productSalesMap.forEach((productId, detail) ->
+                detail.setProfitMargin(calculateProfitMargin(costsByProduct.get(productId), detail)));
 
         return buildResponse(startDate, endDate, totalEarnings, totalCosts, totalProductsSold, productSalesMap, earningsByCategory);
     }
 
     /**
-     * Fetches all movements within a given date range
+     * Fetches the daily rollups of the movements within a given date range
+     * Movements are recorded per day, so every day of the range is covered by its rollups
      *
      * @param startDate Start date
      * @param endDate End date
-     * @return List of Kardex movements
+     * @return List of daily rollups ordered by day
      */
-    private List<Kardex> getMovementsBetweenDates(LocalDate startDate, LocalDate endDate) {
-        return kardexPersistancePort.findAllKardexByMovementDateBetween(startDate, endDate);
+    private List<KardexDailyRollup> getRollupsBetweenDates(LocalDate startDate, LocalDate endDate) {
+        return kardexPersistancePort.findAllDailyRollupsBetween(startDate, endDate);
     }
 
     /**
-     * Processes a sale movement and updates product sales details
+     * Resolves the distinct products sold in the rollups with a single request to the product service
      *
-     * @param movement Kardex movement
+     * @param rollups Daily rollups
+     * @return Map of the sold products by their code
+     */
+    private Map<String, Product> getSoldProducts(List<KardexDailyRollup> rollups) {
+        var productIds = rollups.stream()
+                .filter(rollup -> rollup.getTypeMovement() == TypeMove.OUTCOME)
+                .map(KardexDailyRollup::getProductId)
+                .collect(Collectors.toSet());
+        return feignValidator.findProductsByCods(productIds);
+    }
+
+    /**
+     * Processes the sales of a product in a day and updates product sales details
+     *
+     * @param movement Daily rollup of the sales
+     * @param product Product sold, null if it no longer exists
      * @param productSalesMap Map containing product sales details
      * @param earningsByCategory Map tracking earnings by product category
      */
-    private void processSale(Kardex movement, Map<String,
+    private void processSale(KardexDailyRollup movement, Product product, Map<String,
             ReportInventoryResponse.ProductSalesDetail> productSalesMap, Map<String, BigDecimal> earningsByCategory) {
-        var product = productFeignClient.getProductByCod(movement.getProductId());
         String productId = movement.getProductId();
 
         ReportInventoryResponse.ProductSalesDetail detail = productSalesMap.getOrDefault(productId,
@@ -91,39 +111,23 @@ public class EarningsReport implements ReportEarings {
         detail.setTotalRevenue(detail.getTotalRevenue().add(movement.getTotalPrice()));
         productSalesMap.put(productId, detail);
 
+        if (product == null || product.getCategory() == null) return;
         String category = product.getCategory().getName();
         BigDecimal categoryEarnings = earningsByCategory.getOrDefault(category, BigDecimal.ZERO);
         earningsByCategory.put(category, categoryEarnings.add(movement.getTotalPrice()));
     }
 
     /**
-     * Processes an income movement and updates product cost details
-     *
-     * @param movement Kardex movement
-     * @param productSalesMap Map containing product sales details
-     */
-    private void processIncome(Kardex movement, Map<String, ReportInventoryResponse.ProductSalesDetail> productSalesMap) {
-        String productId = movement.getProductId();
-        if (productSalesMap.containsKey(productId)) {
-            var detail = productSalesMap.get(productId);
-            BigDecimal margin = calculateProfitMargin(movement.getUnitPrice(), detail);
-            detail.setProfitMargin(margin);
-        }
-    }
-
-    /**
-     * Calculates the profit margin for a product
+     * Calculates the profit margin for a product from its revenue and the cost of the units sold
      *
-     * @param costPerUnit Cost per unit of the product
+     * @param costOfGoodsSold Cost of the units sold
      * @param detail Product sales detail
      * @return Profit margin as a percentage
      */
-    private BigDecimal calculateProfitMargin(BigDecimal costPerUnit, ReportInventoryResponse.ProductSalesDetail detail) {
-        if (detail.getQuantitySold() == 0) return BigDecimal.ZERO;
-        BigDecimal revenuePerUnit = detail.getTotalRevenue()
-                .divide(new BigDecimal(detail.getQuantitySold()), 2, RoundingMode.HALF_UP);
-        return revenuePerUnit.subtract(costPerUnit)
-                .divide(revenuePerUnit, 4, RoundingMode.HALF_UP)
+    private BigDecimal calculateProfitMargin(BigDecimal costOfGoodsSold, ReportInventoryResponse.ProductSalesDetail detail) {
+        if (detail.getTotalRevenue().signum() == 0) return BigDecimal.ZERO;
+        return detail.getTotalRevenue().subtract(costOfGoodsSold)
+                .divide(detail.getTotalRevenue(), 4, RoundingMode.HALF_UP)
                 .multiply(new BigDecimal("100"));
     }
 
@@ -133,7 +137,7 @@ public class EarningsReport implements ReportEarings {
      * @param startDate Start date
      * @param endDate End date
      * @param totalEarnings Total earnings
-     * @param totalCosts Total costs
+     * @param totalCosts Total cost of goods sold
      * @param totalProductsSold Total products sold
      * @param productSalesMap Map containing product sales details
      * @param earningsByCategory Map tracking earnings by product category
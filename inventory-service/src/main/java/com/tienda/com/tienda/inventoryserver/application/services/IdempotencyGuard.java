@@ -0,0 +1,243 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.IdempotentResult;
+import com.tienda.com.tienda.inventoryserver.domain.port.IdempotencyKeyPort;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.IdempotencyKeyInProgress;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.IdempotencyKeyMismatch;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.ValidationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@Service
+public class IdempotencyGuard {
+
+    static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyKeyPort idempotencyKeyPort;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+    private final Map<String, IdempotentResult> recentResults;
+
+    public IdempotencyGuard(IdempotencyKeyPort idempotencyKeyPort,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${inventory.idempotency.ttl-hours:24}") long ttlHours,
+                            @Value("${inventory.idempotency.claim-timeout-seconds:300}") long claimTimeoutSeconds,
+                            @Value("${inventory.idempotency.cache-size:10000}") int cacheSize) {
+        this.idempotencyKeyPort = idempotencyKeyPort;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.claimTimeout = Duration.ofSeconds(claimTimeoutSeconds);
+        this.recentResults = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotentResult> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Runs a movement once per idempotency key
+     * The key is claimed in its own transaction before the movement runs, so a repeated submission with the same key on
+     * any instance replays the stored result or is rejected while the first one runs. The movement and its result are
+     * then written in one transaction, so a stored result always means the movement committed. The claim is released
+     * only when that transaction rolled back. Without a key the movement simply runs
+     *
+     * @param key       The idempotency key sent by the client, may be null
+     * @param operation The name of the endpoint, part of the request fingerprint
+     * @param request   The request body, part of the request fingerprint
+     * @param movement  The movement to run
+     * @return The result of the movement, or the stored result of the first submission
+     * @throws IdempotencyKeyMismatch if the key was already used with another request
+     * @throws IdempotencyKeyInProgress if the first submission of the key is still running
+     */
+    public String execute(String key, String operation, Object request, Supplier<String> movement) {
+        if (key == null || key.isBlank()) return movement.get();
+        if (key.length() > MAX_KEY_LENGTH)
+            throw new ValidationException("La clave de idempotencia no puede tener mas de " + MAX_KEY_LENGTH + " caracteres");
+        var fingerprint = fingerprint(operation, request);
+        var cached = findCached(key);
+        if (cached.isPresent()) return replay(cached.get(), fingerprint);
+        var claim = IdempotentResult.builder()
+                .key(key)
+                .fingerprint(fingerprint)
+                .expiresAt(LocalDateTime.now().plus(claimTimeout))
+                .build();
+        var stored = claim(claim);
+        if (stored.isPresent()) return replay(stored.get(), fingerprint);
+        var outcome = new MovementOutcome();
+        try {
+            var completed = transactionTemplate.execute(status -> runAndComplete(claim, movement, outcome));
+            remember(completed);
+            return completed.getResult();
+        } catch (UnexpectedRollbackException ex) {
+            idempotencyKeyPort.release(claim);
+            throw ex;
+        } catch (RuntimeException ex) {
+            if (outcome.failed && !outcome.claimLost) idempotencyKeyPort.release(claim);
+            throw ex;
+        }
+    }
+
+    /**
+     * Runs the movement and stores its result inside the movement transaction
+     * A failure here rolls the transaction back, a claim taken over by another submission rolls back the movement
+     *
+     * @param claim    The claim of the key
+     * @param movement The movement to run
+     * @param outcome  Records whether the transaction is rolled back and why
+     * @return The stored result
+     * @throws IdempotencyKeyInProgress if the claim expired and was taken over while the movement ran
+     */
+    private IdempotentResult runAndComplete(IdempotentResult claim, Supplier<String> movement, MovementOutcome outcome) {
+        try {
+            var completed = IdempotentResult.builder()
+                    .key(claim.getKey())
+                    .fingerprint(claim.getFingerprint())
+                    .result(movement.get())
+                    .expiresAt(LocalDateTime.now().plus(ttl))
+                    .build();
+            if (!idempotencyKeyPort.complete(completed)) {
+                outcome.claimLost = true;
+                throw inProgress(claim.getKey());
+            }
+            return completed;
+        } catch (RuntimeException ex) {
+            outcome.failed = true;
+            throw ex;
+        }
+    }
+
+    /**
+     * Claims a key for the current request, a key that is already stored is only taken over once it has expired
+     * A stored key without a result belongs to a submission that is still running
+     *
+     * @param claim The key, the fingerprint of the request and the end of the claim
+     * @return The stored result of the key, or empty if the key was claimed for the current request
+     * @throws IdempotencyKeyMismatch if the key is held by another request
+     * @throws IdempotencyKeyInProgress if the key is held by a submission that is still running
+     */
+    private Optional<IdempotentResult> claim(IdempotentResult claim) {
+        try {
+            idempotencyKeyPort.claim(claim);
+            return Optional.empty();
+        } catch (DataIntegrityViolationException ex) {
+            var now = LocalDateTime.now();
+            var stored = idempotencyKeyPort.findByKey(claim.getKey()).orElseThrow(() -> inProgress(claim.getKey()));
+            if (!stored.getExpiresAt().isAfter(now)) {
+                if (idempotencyKeyPort.takeOverExpired(claim, now)) return Optional.empty();
+                throw inProgress(claim.getKey());
+            }
+            checkFingerprint(stored, claim.getFingerprint());
+            if (stored.getResult() == null) throw inProgress(claim.getKey());
+            remember(stored);
+            return Optional.of(stored);
+        }
+    }
+
+    /**
+     * Looks up an unexpired result among the recently used keys
+     *
+     * @param key The idempotency key
+     * @return The cached result if the key has not expired
+     */
+    private Optional<IdempotentResult> findCached(String key) {
+        IdempotentResult cached;
+        synchronized (recentResults) {
+            cached = recentResults.get(key);
+        }
+        if (cached == null || !cached.getExpiresAt().isAfter(LocalDateTime.now())) return Optional.empty();
+        return Optional.of(cached);
+    }
+
+    /**
+     * Keeps a stored result among the recently used keys
+     *
+     * @param result The stored result
+     */
+    private void remember(IdempotentResult result) {
+        synchronized (recentResults) {
+            recentResults.put(result.getKey(), result);
+        }
+    }
+
+    /**
+     * Builds the error for a key whose first submission is still running
+     *
+     * @param key The idempotency key
+     * @return The exception to throw
+     */
+    private IdempotencyKeyInProgress inProgress(String key) {
+        return new IdempotencyKeyInProgress("La solicitud con la clave " + key + " aun esta en proceso");
+    }
+
+    /**
+     * Returns the stored result of a key after checking it belongs to the same request
+     *
+     * @param stored      The stored result
+     * @param fingerprint The fingerprint of the current request
+     * @return The stored result
+     */
+    private String replay(IdempotentResult stored, String fingerprint) {
+        checkFingerprint(stored, fingerprint);
+        return stored.getResult();
+    }
+
+    /**
+     * Checks that a stored key belongs to the same request
+     *
+     * @param stored      The stored key
+     * @param fingerprint The fingerprint of the current request
+     * @throws IdempotencyKeyMismatch if the key was used with another request
+     */
+    private void checkFingerprint(IdempotentResult stored, String fingerprint) {
+        if (!stored.getFingerprint().equals(fingerprint))
+            throw new IdempotencyKeyMismatch("La clave " + stored.getKey() + " ya fue usada con otra solicitud");
+    }
+
+    /**
+     * Computes the SHA-256 of the endpoint name and the JSON of the request
+     *
+     * @param operation The name of the endpoint
+     * @param request   The request body
+     * @return The hexadecimal fingerprint of the request
+     */
+    String fingerprint(String operation, Object request) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException ex) {
+            throw new IllegalStateException("No se pudo calcular la huella de la solicitud", ex);
+        }
+    }
+
+    /**
+     * How the movement transaction ended when it did not commit
+     */
+    private static class MovementOutcome {
+        private boolean failed;
+        private boolean claimLost;
+    }
+}
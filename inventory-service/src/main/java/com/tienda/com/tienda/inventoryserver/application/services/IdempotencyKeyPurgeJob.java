@@ -0,0 +1,23 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.domain.port.IdempotencyKeyPort;
+import lombok.AllArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+@Service
+@AllArgsConstructor
+public class IdempotencyKeyPurgeJob {
+
+    private final IdempotencyKeyPort idempotencyKeyPort;
+
+    /**
+     * Deletes the idempotency keys whose time to live has passed
+     */
+    @Scheduled(cron = "${inventory.idempotency.purge-cron:0 15 * * * *}")
+    public void purgeExpiredKeys() {
+        idempotencyKeyPort.deleteExpired(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,80 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Supplier;
+
+@Service
+public class InventoryMetrics {
+
+    static final String SALE_REGISTRATION = "inventory.sale.registration";
+    static final String PURCHASE_REGISTRATION = "inventory.purchase.registration";
+    static final String DECREMENT_LOTS = "inventory.stock.decrement.lots";
+    static final String MODE_SINGLE = "single";
+    static final String MODE_BATCH = "batch";
+
+    private final MeterRegistry meterRegistry;
+
+    public InventoryMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Times the registration of a sale, tagged by mode and by whether it succeeded
+     *
+     * @param mode         single for one line, batch for a whole sale
+     * @param registration The registration to run
+     * @return The result of the registration
+     */
+    public <T> T timeSaleRegistration(String mode, Supplier<T> registration) {
+        return time(SALE_REGISTRATION, mode, registration);
+    }
+
+    /**
+     * Times the registration of a purchase, tagged by mode and by whether it succeeded
+     *
+     * @param mode         single for one line, batch for a whole purchase
+     * @param registration The registration to run
+     * @return The result of the registration
+     */
+    public <T> T timePurchaseRegistration(String mode, Supplier<T> registration) {
+        return time(PURCHASE_REGISTRATION, mode, registration);
+    }
+
+    /**
+     * Records how many lots were visited to allocate one sale line
+     *
+     * @param mode single for a decrement of its own, batch for a line of a whole sale
+     * @param lots The number of lots visited
+     */
+    public void recordDecrementLots(String mode, int lots) {
+        DistributionSummary.builder(DECREMENT_LOTS)
+                .description("Lots visited to allocate a sale line")
+                .tag("mode", mode)
+                .register(meterRegistry)
+                .record(lots);
+    }
+
+    /**
+     * Runs an operation and records its duration, tagging it with error when it throws
+     *
+     * @param name      The name of the timer
+     * @param mode      The mode tag of the timer
+     * @param operation The operation to run
+     * @return The result of the operation
+     */
+    private <T> T time(String name, String mode, Supplier<T> operation) {
+        var sample = Timer.start(meterRegistry);
+        var outcome = "error";
+        try {
+            var result = operation.get();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(Timer.builder(name).tag("mode", mode).tag("outcome", outcome).register(meterRegistry));
+        }
+    }
+}
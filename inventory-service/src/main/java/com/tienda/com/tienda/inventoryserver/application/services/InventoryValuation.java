@@ -0,0 +1,227 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.application.useCases.ReportValuation;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.FifoLayer;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Kardex;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.ProductValuation;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.ValuationCheckpoint;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.InventoryValuationResponse;
+import com.tienda.com.tienda.inventoryserver.domain.port.KardexPersistancePort;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+@Slf4j
+@Service
+public class InventoryValuation implements ReportValuation {
+
+    private final KardexPersistancePort kardexPersistancePort;
+    private final ForkJoinPool pool;
+    private final int productsPerTask;
+
+    public InventoryValuation(KardexPersistancePort kardexPersistancePort,
+                              @Value("${inventory.kardex.valuation.parallelism:4}") int parallelism,
+                              @Value("${inventory.kardex.valuation.products-per-task:16}") int productsPerTask) {
+        this.kardexPersistancePort = kardexPersistancePort;
+        this.pool = new ForkJoinPool(parallelism);
+        this.productsPerTask = productsPerTask;
+    }
+
+    /**
+     * Stops the valuation workers
+     */
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Values the inventory on hand at the end of a day, consuming the purchase lots of every product in FIFO order
+     * Products are valued in parallel and each one resumes from its latest month-end checkpoint
+     *
+     * @param asOf The day to value, today when null
+     * @return The quantity and value on hand of every product with stock, and their totals
+     */
+    @Override
+    public InventoryValuationResponse valueInventoryAsOf(LocalDate asOf) {
+        return valueInventoryAsOf(asOf == null ? LocalDate.now() : asOf, LocalDate.now());
+    }
+
+    /**
+     * Values the inventory on hand at the end of a day
+     *
+     * @param asOf The day to value
+     * @param today The current day, checkpoints are only taken for closed days
+     * @return The quantity and value on hand of every product with stock, and their totals
+     */
+    InventoryValuationResponse valueInventoryAsOf(LocalDate asOf, LocalDate today) {
+        var productIds = kardexPersistancePort.findAllKardexProductIds();
+        var products = pool.invoke(new ValuationTask(productIds, asOf, today)).stream()
+                .filter(product -> product.getQuantity() > 0)
+                .sorted(Comparator.comparing(ProductValuation::getProductId))
+                .toList();
+        return InventoryValuationResponse.builder()
+                .asOf(asOf)
+                .totalQuantity(products.stream().mapToInt(ProductValuation::getQuantity).sum())
+                .totalValue(products.stream().map(ProductValuation::getValue).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .products(products)
+                .build();
+    }
+
+    /**
+     * Values the stock of a product at the end of a day by replaying its movements since the latest checkpoint
+     * Month ends crossed on the way are saved as new checkpoints so later valuations start from there
+     * The ledger version is read before the movements, so the checkpoints are dropped if the ledger changed since
+     *
+     * @param productId The ID of the product
+     * @param asOf The day to value
+     * @param today The current day
+     * @return The quantity and value on hand of the product
+     */
+    ProductValuation valueProduct(String productId, LocalDate asOf, LocalDate today) {
+        var ledgerVersion = kardexPersistancePort.findLedgerVersion(productId);
+        var checkpoint = kardexPersistancePort.findLatestValuationCheckpoint(productId, asOf);
+        Deque<FifoLayer> layers = new ArrayDeque<>(checkpoint == null ? List.of() : checkpoint.getLayers());
+        var checkpointDay = checkpoint == null ? null : checkpoint.getAsOf();
+        var lastMovementDay = checkpointDay;
+        List<ValuationCheckpoint> newCheckpoints = new ArrayList<>();
+        for (Kardex kardex : kardexPersistancePort.findAllKardexForValuation(productId, checkpointDay, asOf)) {
+            var monthEnd = YearMonth.from(kardex.getMovementDate()).minusMonths(1).atEndOfMonth();
+            if (isCheckpointDue(monthEnd, lastMovementDay, checkpointDay, today)) {
+                newCheckpoints.add(new ValuationCheckpoint(productId, monthEnd, List.copyOf(layers)));
+                checkpointDay = monthEnd;
+            }
+            apply(layers, kardex);
+            lastMovementDay = kardex.getMovementDate();
+        }
+        var closedDay = asOf.isBefore(today) ? asOf : today.minusDays(1);
+        var monthEnd = closedDay.equals(YearMonth.from(closedDay).atEndOfMonth())
+                ? closedDay : YearMonth.from(closedDay).minusMonths(1).atEndOfMonth();
+        if (isCheckpointDue(monthEnd, lastMovementDay, checkpointDay, today))
+            newCheckpoints.add(new ValuationCheckpoint(productId, monthEnd, List.copyOf(layers)));
+        saveCheckpoints(newCheckpoints, ledgerVersion);
+        return new ProductValuation(productId, layers.stream().mapToInt(FifoLayer::getQuantity).sum(), valueOf(layers));
+    }
+
+    /**
+     * Checks whether the replayed state is the state at the end of a closed month not checkpointed yet
+     *
+     * @param monthEnd The last day of the month
+     * @param lastMovementDay The day of the last movement replayed, or null if nothing was replayed
+     * @param checkpointDay The day of the latest checkpoint, or null if there is none
+     * @param today The current day
+     * @return true if a checkpoint should be taken at the month end
+     */
+    private boolean isCheckpointDue(LocalDate monthEnd, LocalDate lastMovementDay, LocalDate checkpointDay,
+                                    LocalDate today) {
+        return lastMovementDay != null && !monthEnd.isBefore(lastMovementDay) && monthEnd.isBefore(today)
+                && (checkpointDay == null || monthEnd.isAfter(checkpointDay));
+    }
+
+    /**
+     * Replays a movement over the purchase lots of a product, lots are replaced instead of changed in place
+     * Incomes open a lot at their unit price, outputs consume the oldest lots first and returns go back
+     * to the front at the cost of the oldest lot left
+     *
+     * @param layers The purchase lots still on hand, oldest first
+     * @param kardex The movement to replay
+     */
+    private void apply(Deque<FifoLayer> layers, Kardex kardex) {
+        int quantity = kardex.getQuantity();
+        switch (kardex.getTypeMovement()) {
+            case INCOME -> {
+                var newest = layers.peekLast();
+                if (newest != null && newest.getUnitCost().compareTo(kardex.getUnitPrice()) == 0)
+                    layers.addLast(new FifoLayer(layers.pollLast().getQuantity() + quantity, newest.getUnitCost()));
+                else
+                    layers.addLast(new FifoLayer(quantity, kardex.getUnitPrice()));
+            }
+            case RETURN -> {
+                var oldest = layers.peekFirst();
+                layers.addFirst(new FifoLayer(quantity, oldest != null ? oldest.getUnitCost() : kardex.getUnitPrice()));
+            }
+            case OUTCOME -> {
+                int remaining = quantity;
+                while (remaining > 0 && !layers.isEmpty()) {
+                    var oldest = layers.pollFirst();
+                    if (oldest.getQuantity() > remaining)
+                        layers.addFirst(new FifoLayer(oldest.getQuantity() - remaining, oldest.getUnitCost()));
+                    remaining -= Math.min(remaining, oldest.getQuantity());
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculates the value of the purchase lots on hand
+     *
+     * @param layers The purchase lots on hand
+     * @return The sum of quantity times unit cost of every lot
+     */
+    private BigDecimal valueOf(Deque<FifoLayer> layers) {
+        return layers.stream()
+                .map(layer -> layer.getUnitCost().multiply(BigDecimal.valueOf(layer.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Saves new checkpoints, a failure only costs a longer replay next time so it does not fail the valuation
+     *
+     * @param checkpoints The checkpoints to save
+     * @param ledgerVersion The version of the ledger the checkpoints were replayed from
+     */
+    private void saveCheckpoints(List<ValuationCheckpoint> checkpoints, long ledgerVersion) {
+        if (checkpoints.isEmpty()) return;
+        try {
+            if (!kardexPersistancePort.saveValuationCheckpoints(checkpoints, ledgerVersion))
+                log.info("El kardex del producto {} cambio durante la valoracion, no se guarda el punto de control",
+                        checkpoints.getFirst().getProductId());
+        } catch (RuntimeException ex) {
+            log.warn("No se pudo guardar el punto de control de valoracion del producto {}",
+                    checkpoints.getFirst().getProductId(), ex);
+        }
+    }
+
+    /**
+     * Values a range of products, splitting it in halves until each part is small enough to run on its own
+     */
+    private class ValuationTask extends RecursiveTask<List<ProductValuation>> {
+
+        private final List<String> productIds;
+        private final LocalDate asOf;
+        private final LocalDate today;
+
+        ValuationTask(List<String> productIds, LocalDate asOf, LocalDate today) {
+            this.productIds = productIds;
+            this.asOf = asOf;
+            this.today = today;
+        }
+
+        @Override
+        protected List<ProductValuation> compute() {
+            if (productIds.size() <= productsPerTask)
+                return productIds.stream().map(productId -> valueProduct(productId, asOf, today)).toList();
+            int middle = productIds.size() / 2;
+            var left = new ValuationTask(productIds.subList(0, middle), asOf, today);
+            left.fork();
+            var right = new ValuationTask(productIds.subList(middle, productIds.size()), asOf, today).compute();
+            List<ProductValuation> valuations = new ArrayList<>(left.join());
+            valuations.addAll(right);
+            return valuations;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.domain.port.KardexPersistancePort;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+@Service
+@AllArgsConstructor
+public class KardexBalanceJob {
+
+    private final KardexPersistancePort kardexPersistancePort;
+
+    /**
+     * Backfills the running balances and the cost of goods sold of the Kardex records written before they existed
+     * once the application is ready
+     * Each product is recalculated in its own transaction, later movements keep the balances up to date
+     * The daily rollups are rebuilt afterwards so the earnings reports pick up the backfilled costs
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        var productIds = kardexPersistancePort.findKardexProductIdsWithoutBalance();
+        if (productIds.isEmpty()) return;
+        productIds.forEach(kardexPersistancePort::rebuildBalances);
+        kardexPersistancePort.rebuildDailyRollups();
+    }
+}
@@ -0,0 +1,166 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tienda.com.tienda.inventoryserver.application.mapper.KardexDomainMapper;
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.ExportFormat;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Kardex;
+import com.tienda.com.tienda.inventoryserver.domain.port.KardexPersistancePort;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.ExportLimitExceeded;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+@Service
+public class KardexExporter {
+
+    static final String CSV_HEADER = "id,movementDate,productId,typeMovement,quantity,unitPrice,totalPrice,balanceQuantity,balanceValue,costOfGoodsSold";
+
+    private final KardexPersistancePort kardexPersistancePort;
+    private final ObjectMapper objectMapper;
+    private final KardexDomainMapper kardexDomainMapper;
+    private final Semaphore exportPermits;
+
+    public KardexExporter(KardexPersistancePort kardexPersistancePort, ObjectMapper objectMapper,
+                          KardexDomainMapper kardexDomainMapper,
+                          @Value("${inventory.kardex.export.max-concurrent:2}") int maxConcurrentExports) {
+        this.kardexPersistancePort = kardexPersistancePort;
+        this.objectMapper = objectMapper;
+        this.kardexDomainMapper = kardexDomainMapper;
+        this.exportPermits = new Semaphore(maxConcurrentExports);
+    }
+
+    /**
+     * Reserves one of the export slots before the response starts streaming
+     * Each running export holds a pooled connection for as long as the client reads, so capping them keeps
+     * connections free for the movement endpoints
+     *
+     * @return The slot, to be closed once the export is written
+     * @throws ExportLimitExceeded If every slot is taken
+     */
+    public ExportPermit acquirePermit() {
+        if (!exportPermits.tryAcquire())
+            throw new ExportLimitExceeded("Se alcanzo el maximo de exportaciones simultaneas");
+        return new ExportPermit(exportPermits);
+    }
+
+    /**
+     * Writes the inventory movements within a date range as they are read from the database
+     *
+     * @param startDate The start date
+     * @param endDate The end date
+     * @param productId The product ID to filter by, or null for every product
+     * @param format The output format
+     * @param output The stream the export is written to
+     */
+    public void writeInventoryMovements(LocalDate startDate, LocalDate endDate, String productId,
+                                        ExportFormat format, OutputStream output) throws IOException {
+        export(format, output, row -> kardexPersistancePort
+                .streamKardexByMovementDateBetween(startDate, endDate, productId, row));
+    }
+
+    /**
+     * Writes the whole movement history of a product as it is read from the database
+     *
+     * @param productId The ID of the product
+     * @param format The output format
+     * @param output The stream the export is written to
+     */
+    public void writeProductHistory(String productId, ExportFormat format, OutputStream output) throws IOException {
+        export(format, output, row -> kardexPersistancePort.streamKardexByProductId(productId, row));
+    }
+
+    /**
+     * Writes every streamed movement in the requested format through a buffered writer
+     *
+     * @param format The output format
+     * @param output The stream the export is written to
+     * @param source Streams the movements into the given row writer
+     */
+    private void export(ExportFormat format, OutputStream output, Consumer<Consumer<Kardex>> source) throws IOException {
+        var writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) writer.write(CSV_HEADER + "\n");
+        try {
+            source.accept(kardex -> writeRow(writer, format, kardex));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes a single movement as one line of the export, NDJSON lines have the shape of the Kardex responses
+     *
+     * @param writer The export writer
+     * @param format The output format
+     * @param kardex The movement to write
+     */
+    private void writeRow(Writer writer, ExportFormat format, Kardex kardex) {
+        try {
+            writer.write(format == ExportFormat.CSV ? toCsv(kardex)
+                    : objectMapper.writeValueAsString(kardexDomainMapper.kardexToKardexResponse(kardex)));
+            writer.write("\n");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Formats a movement as a CSV line
+     *
+     * @param kardex The movement to format
+     * @return The CSV line without line break
+     */
+    private String toCsv(Kardex kardex) {
+        return String.join(",", csvValue(kardex.getId()), csvValue(kardex.getMovementDate()),
+                csvValue(kardex.getProductId()), csvValue(kardex.getTypeMovement()), csvValue(kardex.getQuantity()),
+                csvValue(kardex.getUnitPrice()), csvValue(kardex.getTotalPrice()), csvValue(kardex.getBalanceQuantity()),
+                csvValue(kardex.getBalanceValue()), csvValue(kardex.getCostOfGoodsSold()));
+    }
+
+    /**
+     * Formats a CSV field, quoting it when it holds separators, quotes or line breaks
+     *
+     * @param value The field value
+     * @return The CSV field, empty for null values
+     */
+    private String csvValue(Object value) {
+        if (value == null) return "";
+        var text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r"))
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        return text;
+    }
+
+    /**
+     * An export slot, released once when closed
+     */
+    public static final class ExportPermit implements AutoCloseable {
+
+        private final Semaphore exportPermits;
+        private boolean released;
+
+        private ExportPermit(Semaphore exportPermits) {
+            this.exportPermits = exportPermits;
+        }
+
+        /**
+         * Releases the export slot
+         */
+        @Override
+        public synchronized void close() {
+            if (released) return;
+            released = true;
+            exportPermits.release();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.domain.port.KardexPersistancePort;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+@Service
+@AllArgsConstructor
+public class KardexRollupJob {
+
+    private final KardexPersistancePort kardexPersistancePort;
+
+    /**
+     * Backfills the daily rollups from the Kardex history once the application is ready
+     * Only runs when no rollup exists yet, later movements keep the table up to date
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!kardexPersistancePort.hasDailyRollups()) kardexPersistancePort.rebuildDailyRollups();
+    }
+}
@@ -6,16 +6,18 @@ import com.tienda.com.tienda.inventoryserver.domain.model.dto.Kardex;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.Product;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.TopSellingProduct;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.KardexRequest;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.KardexBalanceResponse;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.KardexResponse;
 import com.tienda.com.tienda.inventoryserver.domain.port.KardexPersistancePort;
 import com.tienda.com.tienda.inventoryserver.application.useCases.KardexUseCases;
-import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.client.ProductFeignClient;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
@@ -24,8 +26,9 @@ public class KardexService implements KardexUseCases {
 
     private final KardexPersistancePort kardexPersistancePort;
     private final KardexDomainMapper kardexDomainMapper;
-    private final ProductFeignClient productFeignClient;
     private final FeignValidator feignValidator;
+    private final TopSellersTracker topSellersTracker;
+    private final KardexWriteBehind kardexWriteBehind;
 
 
     /**
@@ -89,15 +92,61 @@ public class KardexService implements KardexUseCases {
 
     /**
      * Retrieves a report of the most sold products within the last month
+     * The ranking is answered from memory by the top sellers tracker
      *
      * @param limit The maximum number of products to retrieve
      * @return A list of Products representing the top-selling items
      */
     @Override
     public List<Product> getMostSoldProductsReport(Integer limit) {
-        var endDate = LocalDate.now();
-        var startDate = endDate.minusMonths(1);
-        return getMostSoldProductsReport(limit, startDate, endDate);
+        return resolveProducts(topSellersTracker.getTopSellingProducts(limit));
+    }
+
+    /**
+     * Regenerates the daily rollups from the Kardex records
+     * Without a complete date range every rollup is regenerated
+     *
+     * @param startDate The start date, or null to regenerate every rollup
+     * @param endDate The end date, or null to regenerate every rollup
+     * @return A map with the number of daily rollups generated
+     */
+    @Override
+    public Map<String, Integer> rebuildDailyRollups(LocalDate startDate, LocalDate endDate) {
+        int rollups = startDate == null || endDate == null
+                ? kardexPersistancePort.rebuildDailyRollups()
+                : kardexPersistancePort.rebuildDailyRollups(startDate, endDate);
+        topSellersTracker.rebuild();
+        return Map.of("Registros resumidos", rollups);
+    }
+
+    /**
+     * Retrieves the stock on hand of a product at the end of a day from the running balance of its last movement
+     *
+     * @param productId The ID of the product
+     * @param asOf The day to report, today when null
+     * @return The quantity and value on hand, zero if the product had no movement yet
+     */
+    @Override
+    public KardexBalanceResponse getBalanceAsOf(String productId, LocalDate asOf) {
+        var day = asOf == null ? LocalDate.now() : asOf;
+        var kardex = kardexPersistancePort.getLastKardexByProductIdAsOf(productId, day);
+        if (kardex == null) return new KardexBalanceResponse(productId, day, 0, BigDecimal.ZERO);
+        return new KardexBalanceResponse(productId, day, kardex.getBalanceQuantity(), kardex.getBalanceValue());
+    }
+
+    /**
+     * Recalculates the running balances of the Kardex records
+     * Without a product the balances of every product are recalculated, one product at a time
+     *
+     * @param productId The ID of the product, or null to recalculate every product
+     * @return A map with the number of Kardex records recalculated
+     */
+    @Override
+    public Map<String, Integer> rebuildBalances(String productId) {
+        var productIds = productId == null ? kardexPersistancePort.findAllKardexProductIds() : List.of(productId);
+        int recalculated = 0;
+        for (String id : productIds) recalculated += kardexPersistancePort.rebuildBalances(id);
+        return Map.of("Registros recalculados", recalculated);
     }
 
     /**
@@ -126,9 +175,52 @@ public class KardexService implements KardexUseCases {
             kardex.setMovementDate(LocalDate.now());
         kardex.setTotalPrice(request.getUnitPrice().multiply(new BigDecimal(request.getQuantity())));
         var savedKardex = kardexPersistancePort.create(kardex);
+        topSellersTracker.recordAfterCommit(List.of(savedKardex));
         return kardexDomainMapper.kardexToKardexResponse(savedKardex);
     }
 
+    /**
+     * Creates several Kardex entries at once, inserted as one batch
+     * The products are expected to be verified by the caller
+     *
+     * @param requests The KardexRequests containing movement details
+     * @return The created Kardex entries
+     */
+    public List<Kardex> createEntities(List<KardexRequest> requests) {
+        var kardexList = requests.stream().map(this::toKardex).toList();
+        var savedKardexList = kardexPersistancePort.createAll(kardexList);
+        topSellersTracker.recordAfterCommit(savedKardexList);
+        return savedKardexList;
+    }
+
+    /**
+     * Records an inventory movement, written behind through the outbox when that mode is enabled
+     *
+     * @param request The KardexRequest containing movement details
+     */
+    public void recordMovement(KardexRequest request) {
+        if (!kardexWriteBehind.isEnabled()) {
+            createEntity(request);
+            return;
+        }
+        validateKardexRequest(request);
+        kardexWriteBehind.enqueue(List.of(toKardex(request)));
+    }
+
+    /**
+     * Records several inventory movements, written behind through the outbox when that mode is enabled
+     * The products are expected to be verified by the caller
+     *
+     * @param requests The KardexRequests containing movement details
+     */
+    public void recordMovements(List<KardexRequest> requests) {
+        if (!kardexWriteBehind.isEnabled()) {
+            createEntities(requests);
+            return;
+        }
+        kardexWriteBehind.enqueue(requests.stream().map(this::toKardex).toList());
+    }
+
     /**
      * Updates an existing Kardex entry
      *
@@ -149,6 +241,7 @@ public class KardexService implements KardexUseCases {
                 kardex.setTotalPrice(existinKardex.getUnitPrice().multiply(new BigDecimal(request.getQuantity())));
         }
         var updatedKardex = kardexPersistancePort.update(kardex, uuid);
+        topSellersTracker.rebuild();
         return kardexDomainMapper.kardexToKardexResponse(updatedKardex);
     }
 
@@ -159,11 +252,12 @@ public class KardexService implements KardexUseCases {
      */
     @Override
     public void deleteEntityById(UUID uuid) {
-        var kardexToDelete = kardexPersistancePort.readById(uuid);
+        kardexPersistancePort.readById(uuid);
         kardexPersistancePort.deleteById(uuid);
+        topSellersTracker.rebuild();
     }
 
-    /**\
+    /**
      * Retrieves a report of the most sold products within a specified date range
      *
      * @param limit The maximum number of products to retrieve
@@ -172,12 +266,39 @@ public class KardexService implements KardexUseCases {
      * @return A list of Products representing the top-selling items
      */
     private List<Product> getMostSoldProductsReport(Integer limit, LocalDate startDate, LocalDate endDate) {
-        List<TopSellingProduct> topSelling = kardexPersistancePort.findTopSellingProducts(startDate, endDate, limit);
+        return resolveProducts(kardexPersistancePort.findTopSellingProducts(startDate, endDate, limit));
+    }
+
+    /**
+     * Resolves the top-selling products with a single request to the product service
+     * Products that no longer exist are left out
+     *
+     * @param topSelling The top-selling product IDs ordered by quantity sold
+     * @return A list of Products in the same order
+     */
+    private List<Product> resolveProducts(List<TopSellingProduct> topSelling) {
+        var products = feignValidator.findProductsByCods(topSelling.stream()
+                .map(TopSellingProduct::getProductId).toList());
         return topSelling.stream()
-                .map(kardex -> productFeignClient.getProductByCod(kardex.getProductId()))
+                .map(kardex -> products.get(kardex.getProductId()))
+                .filter(Objects::nonNull)
                 .toList();
     }
 
+    /**
+     * Builds a Kardex entry from a request, defaulting the movement date to today and computing the total price
+     *
+     * @param request The KardexRequest containing movement details
+     * @return The Kardex entry to persist
+     */
+    private Kardex toKardex(KardexRequest request) {
+        var kardex = kardexDomainMapper.kardexRequestToKardex(request);
+        if (request.getMovementDate() == null)
+            kardex.setMovementDate(LocalDate.now());
+        kardex.setTotalPrice(request.getUnitPrice().multiply(new BigDecimal(request.getQuantity())));
+        return kardex;
+    }
+
     /**
      * Validates the existence of a product in the Kardex request
      *
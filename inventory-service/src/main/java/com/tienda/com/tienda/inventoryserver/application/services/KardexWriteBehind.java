@@ -0,0 +1,67 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Kardex;
+import com.tienda.com.tienda.inventoryserver.domain.port.KardexPersistancePort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Slf4j
+@Service
+public class KardexWriteBehind {
+
+    private final KardexPersistancePort kardexPersistancePort;
+    private final TopSellersTracker topSellersTracker;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public KardexWriteBehind(KardexPersistancePort kardexPersistancePort,
+                             TopSellersTracker topSellersTracker,
+                             @Value("${inventory.kardex.write-behind.enabled:false}") boolean enabled,
+                             @Value("${inventory.kardex.write-behind.batch-size:200}") int batchSize) {
+        this.kardexPersistancePort = kardexPersistancePort;
+        this.topSellersTracker = topSellersTracker;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Indicates whether Kardex records are written behind instead of inserted right away
+     *
+     * @return true if the write-behind mode is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Stores Kardex records in the outbox within the surrounding transaction
+     * The records are durable as soon as the stock movement commits and are lost with it if it rolls back
+     *
+     * @param kardexList The Kardex records to write
+     */
+    public void enqueue(List<Kardex> kardexList) {
+        kardexPersistancePort.enqueueAll(List.copyOf(kardexList));
+    }
+
+    /**
+     * Moves the pending outbox records into the Kardex in batches
+     * Failures are logged and the records stay in the outbox for the next run
+     */
+    @Scheduled(fixedDelayString = "${inventory.kardex.write-behind.flush-interval-ms:500}")
+    public void flushPending() {
+        if (!enabled) return;
+        try {
+            List<Kardex> savedKardex;
+            do {
+                savedKardex = kardexPersistancePort.flushOutbox(batchSize);
+                topSellersTracker.recordAfterCommit(savedKardex);
+            } while (savedKardex.size() == batchSize);
+        } catch (RuntimeException ex) {
+            log.error("No se pudo escribir el lote pendiente de kardex", ex);
+        }
+    }
+}
@@ -4,14 +4,21 @@ package com.tienda.com.tienda.inventoryserver.application.services;
 import com.tienda.com.tienda.inventoryserver.application.mapper.KardexDomainMapper;
 import com.tienda.com.tienda.inventoryserver.application.mapper.StockDomainMapper;
 import com.tienda.com.tienda.inventoryserver.application.useCases.TransactionsStockIO;
+import com.tienda.com.tienda.inventoryserver.application.validation.FeignValidator;
 import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.KardexRequest;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.PurchaseInventoryRequest;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.SaleInventoryRequest;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.ValidationException;
+import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @AllArgsConstructor
@@ -21,38 +28,161 @@ public class ManagementInventory implements TransactionsStockIO {
     private final StockService stockService;
     private final StockDomainMapper stockMapper;
     private final KardexDomainMapper kardexMapper;
+    private final FeignValidator feignValidator;
+    private final InventoryMetrics inventoryMetrics;
 
     /**
-     * Register a purchase from Purchase service
+     * Register a purchase from Purchase service in a single transaction, timed as a single purchase registration
      *
      * @param request body that contains all information about purchase
      * @return a message confirmation
      */
+    @Transactional
     public String registerInputInventory(PurchaseInventoryRequest request) {
-        if (request.getExpiryDate() != null && request.getExpiryDate().isBefore(LocalDate.now().plusDays(3)))
-            throw new ValidationException("La fecha de vencimiento esta demasiado proxima, minimo 3 dias de diferencia");
-        var requestStock = stockMapper.registerPurchase(request);
-        requestStock.setPurchaseDate(LocalDate.now());
-        var kardexRequest = kardexMapper.createPurchaseKardex(request);
-        kardexRequest.setTypeMovement(TypeMove.INCOME);
-        kardexRequest.setMovementDate(LocalDate.now());
-        stockService.createEntity(requestStock);
-        kardexService.createEntity(kardexRequest);
-        return "Registro de compra creado exitosamente";
+        return inventoryMetrics.timePurchaseRegistration(InventoryMetrics.MODE_SINGLE, () -> {
+            validatePurchaseExpiryDate(request);
+            var requestStock = stockMapper.registerPurchase(request);
+            requestStock.setPurchaseDate(LocalDate.now());
+            var kardexRequest = kardexMapper.createPurchaseKardex(request);
+            kardexRequest.setTypeMovement(TypeMove.INCOME);
+            kardexRequest.setMovementDate(LocalDate.now());
+            stockService.createEntity(requestStock);
+            kardexService.recordMovement(kardexRequest);
+            return "Registro de compra creado exitosamente";
+        });
+    }
+
+    /**
+     * Register all lines of a purchase from Purchase service in a single transaction
+     * The providers and products are verified once for the whole purchase, timed as a batch purchase registration
+     *
+     * @param requests the lines of the purchase
+     * @return a message confirmation
+     */
+    @Transactional
+    public String registerInputInventoryBatch(List<PurchaseInventoryRequest> requests) {
+        return inventoryMetrics.timePurchaseRegistration(InventoryMetrics.MODE_BATCH, () -> {
+            if (requests == null || requests.isEmpty())
+                throw new ValidationException("La compra debe contener al menos un producto");
+            requests.forEach(this::validatePurchaseExpiryDate);
+            requests.stream().map(PurchaseInventoryRequest::getProviderId).distinct()
+                    .forEach(feignValidator::verifyExistingProvider);
+            feignValidator.verifyExistingProducts(requests.stream().map(PurchaseInventoryRequest::getProductId).toList());
+            var stockRequests = requests.stream().map(request -> {
+                var requestStock = stockMapper.registerPurchase(request);
+                requestStock.setPurchaseDate(LocalDate.now());
+                return requestStock;
+            }).toList();
+            var kardexRequests = requests.stream().map(request -> {
+                var kardexRequest = kardexMapper.createPurchaseKardex(request);
+                kardexRequest.setTypeMovement(TypeMove.INCOME);
+                kardexRequest.setMovementDate(LocalDate.now());
+                return kardexRequest;
+            }).toList();
+            stockService.createEntities(stockRequests);
+            kardexService.recordMovements(kardexRequests);
+            return "Registro de compra creado exitosamente";
+        });
     }
 
     /**
-     * Register a sale from Sale service
+     * Register a sale from Sale service in a single transaction, timed as a single sale registration
      *
      * @param request body that contains all information of a sale
      * @return message of operation confirmation
      */
+    @Transactional
     public String registerOutputInventory(SaleInventoryRequest request) {
-        var requestStock = kardexMapper.createSaleKardex(request);
-        requestStock.setTypeMovement(TypeMove.OUTCOME);
-        requestStock.setMovementDate(LocalDate.now());
-        stockService.decrementQuantity(requestStock.getProductId(), request.getQuantity(), request.getUnitPrice());
-        kardexService.createEntity(requestStock);
-        return "Registro de compra creado exitosamente";
+        return inventoryMetrics.timeSaleRegistration(InventoryMetrics.MODE_SINGLE, () -> {
+            var requestStock = kardexMapper.createSaleKardex(request);
+            requestStock.setTypeMovement(TypeMove.OUTCOME);
+            requestStock.setMovementDate(LocalDate.now());
+            var consumption = stockService.decrementQuantity(requestStock.getProductId(), request.getQuantity(),
+                    request.getUnitPrice());
+            requestStock.setCostOfGoodsSold(consumption.getCostOfGoodsSold());
+            kardexService.recordMovement(requestStock);
+            return "Registro de compra creado exitosamente";
+        });
+    }
+
+    /**
+     * Register all lines of a sale from Sale service in a single transaction
+     * Either every line is discounted from stock and recorded in the kardex or none is
+     * Each line is recorded with the cost of the lots it consumed, timed as a batch sale registration
+     *
+     * @param requests the lines of the sale
+     * @return message of operation confirmation
+     */
+    @Transactional
+    public String registerOutputInventoryBatch(List<SaleInventoryRequest> requests) {
+        return registerSale(requests, Map.of());
+    }
+
+    /**
+     * Register the lines of a committed reservation in a single transaction, like a whole sale
+     * The units held by the reservation are counted as available for its own lines
+     *
+     * @param requests           the lines of the reservation
+     * @param reservedQuantities the units held by the reservation by product
+     * @return message of operation confirmation
+     */
+    @Transactional
+    public String registerReservedOutputInventory(List<SaleInventoryRequest> requests,
+                                                  Map<String, Integer> reservedQuantities) {
+        return registerSale(requests, reservedQuantities);
+    }
+
+    /**
+     * Discounts every line of a sale from stock and records them in the kardex, timed as a batch sale registration
+     *
+     * @param requests           the lines of the sale
+     * @param reservedQuantities the units held for the sale by product
+     * @return message of operation confirmation
+     */
+    private String registerSale(List<SaleInventoryRequest> requests, Map<String, Integer> reservedQuantities) {
+        return inventoryMetrics.timeSaleRegistration(InventoryMetrics.MODE_BATCH, () -> {
+            validateSaleLines(requests);
+            feignValidator.verifyExistingProducts(requests.stream().map(SaleInventoryRequest::getProductId).toList());
+            var consumptions = stockService.decrementQuantities(requests, reservedQuantities);
+            List<KardexRequest> kardexRequests = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                var kardexRequest = kardexMapper.createSaleKardex(requests.get(i));
+                kardexRequest.setTypeMovement(TypeMove.OUTCOME);
+                kardexRequest.setMovementDate(LocalDate.now());
+                kardexRequest.setCostOfGoodsSold(consumptions.get(i).getCostOfGoodsSold());
+                kardexRequests.add(kardexRequest);
+            }
+            kardexService.recordMovements(kardexRequests);
+            return "Registro de compra creado exitosamente";
+        });
+    }
+
+    /**
+     * Validates that a sale has lines and that each one names a product and sells a positive quantity at a
+     * positive price, before any stock is read
+     *
+     * @param requests the lines of the sale
+     */
+    private void validateSaleLines(List<SaleInventoryRequest> requests) {
+        if (requests == null || requests.isEmpty())
+            throw new ValidationException("La venta debe contener al menos un producto");
+        for (var request : requests) {
+            if (request.getProductId() == null || request.getProductId().isBlank())
+                throw new ValidationException("El ID del producto no puede ser nulo");
+            if (request.getQuantity() == null || request.getQuantity() <= 0)
+                throw new ValidationException("La cantidad debe ser positiva");
+            if (request.getUnitPrice() == null || request.getUnitPrice().compareTo(BigDecimal.ZERO) <= 0)
+                throw new ValidationException("El precio unitario debe ser positivo");
+        }
+    }
+
+    /**
+     * Validates that a purchased lot does not expire too soon
+     *
+     * @param request the purchase line to validate
+     */
+    private void validatePurchaseExpiryDate(PurchaseInventoryRequest request) {
+        if (request.getExpiryDate() != null && request.getExpiryDate().isBefore(LocalDate.now().plusDays(3)))
+            throw new ValidationException("La fecha de vencimiento esta demasiado proxima, minimo 3 dias de diferencia");
     }
 }
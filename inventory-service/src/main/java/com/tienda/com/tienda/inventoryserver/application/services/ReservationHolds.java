@@ -0,0 +1,48 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.domain.port.StockReservationPort;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Map;
+
+@Service
+@AllArgsConstructor
+public class ReservationHolds {
+
+    private final StockReservationPort stockReservationPort;
+
+    /**
+     * Retrieves the units of a product held by active reservations
+     * The holds are read from the per-product counter in the database, so every instance sees the same ones
+     *
+     * @param productId The ID of the product
+     * @return The units held, zero if none
+     */
+    public int heldQuantity(String productId) {
+        return stockReservationPort.findHeldQuantity(productId);
+    }
+
+    /**
+     * Retrieves and locks the units held by the active reservations of several products
+     * Must run in the transaction that already locked the stock lots of those products, so a reservation stored
+     * by another instance is either seen here or waits on the counter until this transaction ends
+     *
+     * @param productIds The IDs of the products
+     * @return The units held by product, products without holds are left out
+     */
+    public Map<String, Integer> lockHeldQuantities(Collection<String> productIds) {
+        return stockReservationPort.lockHeldQuantities(productIds);
+    }
+
+    /**
+     * Adds the units of a new reservation to the counters of its products, locking them until the transaction ends
+     * The caller checks the stock afterwards and rolls back if it does not cover the new holds
+     *
+     * @param quantities The units to hold by product
+     */
+    public void hold(Map<String, Integer> quantities) {
+        stockReservationPort.addHeldQuantities(quantities);
+    }
+}
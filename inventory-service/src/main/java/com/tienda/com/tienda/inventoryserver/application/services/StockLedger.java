@@ -0,0 +1,258 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.ProductStock;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Stock;
+import com.tienda.com.tienda.inventoryserver.domain.port.StockPersistancePort;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Service
+public class StockLedger {
+
+    static final Comparator<Stock> FIRST_EXPIRED_FIRST_OUT = Comparator
+            .comparing(Stock::getExpiryDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Stock::getId);
+
+    private final StockPersistancePort stockPersistancePort;
+    private volatile Map<String, List<Stock>> lotsByProduct = new ConcurrentHashMap<>();
+    private volatile Map<UUID, Stock> lotsById = new ConcurrentHashMap<>();
+    private final Set<UUID> removedLots = new HashSet<>();
+    private Set<UUID> changedDuringRebuild;
+
+    public StockLedger(StockPersistancePort stockPersistancePort) {
+        this.stockPersistancePort = stockPersistancePort;
+    }
+
+    /**
+     * Rebuilds the whole ledger from the persisted stock lots
+     * Runs once the application is ready and then periodically, so the changes committed by other instances
+     * show up within the resync interval. The lots this instance changed while the stock was being read keep
+     * their newer version, and the rebuilt ledger replaces the old one at once so readers never see it empty
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${inventory.stock-ledger.resync-interval-ms:60000}",
+            fixedDelayString = "${inventory.stock-ledger.resync-interval-ms:60000}")
+    public void rebuild() {
+        synchronized (this) {
+            changedDuringRebuild = new HashSet<>();
+        }
+        List<Stock> persistedLots;
+        try {
+            persistedLots = stockPersistancePort.findAllStocks();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changedDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            Map<UUID, Stock> rebuiltLots = new HashMap<>();
+            persistedLots.forEach(lot -> rebuiltLots.put(lot.getId(), copyOf(lot)));
+            changedDuringRebuild.forEach(stockId -> {
+                var current = lotsById.get(stockId);
+                if (current == null) rebuiltLots.remove(stockId);
+                else if (isNewer(current, rebuiltLots.get(stockId))) rebuiltLots.put(stockId, current);
+            });
+            removedLots.retainAll(changedDuringRebuild);
+            changedDuringRebuild = null;
+            Map<String, List<Stock>> rebuiltProducts = new ConcurrentHashMap<>();
+            rebuiltLots.values().stream()
+                    .collect(Collectors.groupingBy(Stock::getProductId))
+                    .forEach((productId, productLots) -> rebuiltProducts.put(productId, sortedCopy(productLots)));
+            lotsById = new ConcurrentHashMap<>(rebuiltLots);
+            lotsByProduct = rebuiltProducts;
+        }
+    }
+
+    /**
+     * Registers a created or updated stock lot in the ledger
+     * A lot older than the one already registered, or a lot already removed, is ignored, so commits
+     * applied out of order never bring back a stale quantity
+     *
+     * @param stock The persisted stock lot
+     */
+    public synchronized void apply(Stock stock) {
+        if (removedLots.contains(stock.getId())) return;
+        var previous = lotsById.get(stock.getId());
+        if (previous != null && !isNewer(stock, previous)) return;
+        var lot = copyOf(stock);
+        lotsById.put(lot.getId(), lot);
+        if (changedDuringRebuild != null) changedDuringRebuild.add(lot.getId());
+        if (previous != null && !previous.getProductId().equals(lot.getProductId()))
+            removeLot(previous.getProductId(), lot.getId());
+        lotsByProduct.compute(lot.getProductId(), (productId, lots) -> {
+            List<Stock> updatedLots = lots == null ? new ArrayList<>() : new ArrayList<>(lots);
+            updatedLots.removeIf(existing -> existing.getId().equals(lot.getId()));
+            updatedLots.add(lot);
+            return sortedCopy(updatedLots);
+        });
+    }
+
+    /**
+     * Registers stock lots changed inside a transaction once it commits, so a rollback leaves the ledger untouched
+     * Outside of a transaction the lots are registered right away
+     *
+     * @param stocks The persisted stock lots
+     */
+    public void applyAfterCommit(Collection<Stock> stocks) {
+        var lots = List.copyOf(stocks);
+        afterCommit(() -> lots.forEach(this::apply));
+    }
+
+    /**
+     * Registers a stock lot changed inside a transaction once it commits
+     *
+     * @param stock The persisted stock lot
+     */
+    public void applyAfterCommit(Stock stock) {
+        applyAfterCommit(List.of(stock));
+    }
+
+    /**
+     * Removes a stock lot deleted inside a transaction once it commits
+     *
+     * @param stockId The ID of the deleted stock lot
+     */
+    public void removeAfterCommit(UUID stockId) {
+        afterCommit(() -> remove(stockId));
+    }
+
+    /**
+     * Runs a change of the ledger once the current transaction commits, or right away outside of a transaction
+     *
+     * @param change The change of the ledger
+     */
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    /**
+     * Removes a deleted stock lot from the ledger
+     * The lot is remembered until the next rebuild, so a late change of the same lot cannot bring it back
+     *
+     * @param stockId The ID of the deleted stock lot
+     */
+    public synchronized void remove(UUID stockId) {
+        removedLots.add(stockId);
+        if (changedDuringRebuild != null) changedDuringRebuild.add(stockId);
+        var previous = lotsById.remove(stockId);
+        if (previous != null) removeLot(previous.getProductId(), stockId);
+    }
+
+    /**
+     * Retrieves the current stock summary of a product without touching the database
+     *
+     * @param productId The ID of the product
+     * @return The product stock summary, or empty if the product has no lots
+     */
+    public Optional<ProductStock> getProductStock(String productId) {
+        var lots = lotsByProduct.get(productId);
+        if (lots == null || lots.isEmpty()) return Optional.empty();
+        var today = LocalDate.now();
+        int validQuantity = 0;
+        int expiredQuantity = 0;
+        LocalDate nextExpiryDate = null;
+        for (Stock lot : lots) {
+            int quantity = lot.getQuantity() != null ? lot.getQuantity() : 0;
+            if (lot.getExpiryDate() == null || lot.getExpiryDate().isAfter(today)) validQuantity += quantity;
+            else if (lot.getExpiryDate().isBefore(today)) expiredQuantity += quantity;
+            if (nextExpiryDate == null && quantity > 0 && lot.getExpiryDate() != null
+                    && !lot.getExpiryDate().isBefore(today))
+                nextExpiryDate = lot.getExpiryDate();
+        }
+        return Optional.of(ProductStock.builder()
+                .productId(productId)
+                .validQuantity(validQuantity)
+                .expiredQuantity(expiredQuantity)
+                .nextExpiryDate(nextExpiryDate)
+                .lots(lots)
+                .build());
+    }
+
+    /**
+     * Removes a lot from the lots of a product, dropping the product when no lots remain
+     *
+     * @param productId The ID of the product
+     * @param stockId   The ID of the stock lot
+     */
+    private void removeLot(String productId, UUID stockId) {
+        lotsByProduct.computeIfPresent(productId, (id, lots) -> {
+            List<Stock> updatedLots = new ArrayList<>(lots);
+            updatedLots.removeIf(lot -> lot.getId().equals(stockId));
+            return updatedLots.isEmpty() ? null : sortedCopy(updatedLots);
+        });
+    }
+
+    /**
+     * Checks whether a lot is at least as recent as another copy of it, a missing version counts as the oldest
+     *
+     * @param stock    The incoming lot
+     * @param existing The registered lot, or null
+     * @return true if the incoming lot should replace the registered one
+     */
+    private boolean isNewer(Stock stock, Stock existing) {
+        if (existing == null) return true;
+        long version = stock.getVersion() != null ? stock.getVersion() : -1;
+        long existingVersion = existing.getVersion() != null ? existing.getVersion() : -1;
+        return version >= existingVersion;
+    }
+
+    /**
+     * Copies the lots into an immutable list ordered by expiry date, lots without expiry last
+     *
+     * @param lots The detached lots to copy
+     * @return An immutable ordered copy of the lots
+     */
+    private List<Stock> sortedCopy(List<Stock> lots) {
+        return lots.stream()
+                .sorted(FIRST_EXPIRED_FIRST_OUT)
+                .toList();
+    }
+
+    /**
+     * Copies a stock lot so later changes to the caller's instance do not leak into the ledger
+     *
+     * @param stock The stock lot to copy
+     * @return A detached copy of the stock lot
+     */
+    private Stock copyOf(Stock stock) {
+        return Stock.builder()
+                .id(stock.getId())
+                .quantity(stock.getQuantity())
+                .purchaseUnitCost(stock.getPurchaseUnitCost())
+                .totalPurchaseCost(stock.getTotalPurchaseCost())
+                .providerId(stock.getProviderId())
+                .productId(stock.getProductId())
+                .purchaseDate(stock.getPurchaseDate())
+                .expiryDate(stock.getExpiryDate())
+                .version(stock.getVersion())
+                .build();
+    }
+}
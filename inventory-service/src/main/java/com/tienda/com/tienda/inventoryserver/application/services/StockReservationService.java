@@ -0,0 +1,235 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.ReservationStatus;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.StockReservation;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.ReservationRequest;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.SaleInventoryRequest;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.ReservationResponse;
+import com.tienda.com.tienda.inventoryserver.domain.port.StockReservationPort;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.ReservationNotFoundException;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.ValidationException;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class StockReservationService {
+
+    private static final int EXPIRE_BATCH_SIZE = 100;
+
+    private final StockReservationPort stockReservationPort;
+    private final ReservationHolds reservationHolds;
+    private final StockService stockService;
+    private final ManagementInventory managementInventory;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+
+    public StockReservationService(StockReservationPort stockReservationPort,
+                                   ReservationHolds reservationHolds,
+                                   StockService stockService,
+                                   ManagementInventory managementInventory,
+                                   @Value("${inventory.reservation.default-ttl-seconds:600}") long defaultTtlSeconds,
+                                   @Value("${inventory.reservation.max-ttl-seconds:3600}") long maxTtlSeconds) {
+        this.stockReservationPort = stockReservationPort;
+        this.reservationHolds = reservationHolds;
+        this.stockService = stockService;
+        this.managementInventory = managementInventory;
+        this.defaultTtl = Duration.ofSeconds(defaultTtlSeconds);
+        this.maxTtl = Duration.ofSeconds(maxTtlSeconds);
+    }
+
+    /**
+     * Holds the units of a cart until it is committed, released or expires
+     * The units are added to the hold counter of each product first and then checked against the valid stock,
+     * so concurrent carts only wait on the counters of the products they share and the stock lots are not locked
+     *
+     * @param request The lines of the cart and the time to hold them
+     * @return The created reservation
+     */
+    @Transactional
+    public ReservationResponse reserve(ReservationRequest request) {
+        validateLines(request.getLines());
+        var reservationId = UUID.randomUUID();
+        var expiresAt = LocalDateTime.now().plus(ttlOf(request.getTtlSeconds()));
+        var quantities = quantitiesOf(request.getLines());
+        reservationHolds.hold(quantities);
+        stockService.validateReservableQuantities(quantities);
+        stockReservationPort.createAll(request.getLines().stream().map(line -> StockReservation.builder()
+                .reservationId(reservationId)
+                .productId(line.getProductId())
+                .quantity(line.getQuantity())
+                .unitPrice(line.getUnitPrice())
+                .status(ReservationStatus.ACTIVE)
+                .expiresAt(expiresAt)
+                .build()).toList());
+        return toResponse(reservationId, ReservationStatus.ACTIVE, expiresAt, request.getLines());
+    }
+
+    /**
+     * Turns a reservation into a sale, registered like a whole sale from the Sale service
+     * The held units count as available for its own lines, and the reservation stops holding them once the sale
+     * commits. A rolled back sale leaves the reservation active until it expires
+     *
+     * @param reservationId The ID of the reservation
+     * @return The committed reservation
+     */
+    @Transactional
+    public ReservationResponse commit(UUID reservationId) {
+        var lines = findActive(reservationId);
+        var expiresAt = lines.getFirst().getExpiresAt();
+        if (!expiresAt.isAfter(LocalDateTime.now())) throw notActive(reservationId);
+        var requests = toSaleRequests(lines);
+        managementInventory.registerReservedOutputInventory(requests, quantitiesOf(requests));
+        endHold(reservationId, ReservationStatus.COMMITTED);
+        return toResponse(reservationId, ReservationStatus.COMMITTED, expiresAt, requests);
+    }
+
+    /**
+     * Gives back the units of a reservation before it expires
+     *
+     * @param reservationId The ID of the reservation
+     * @return The released reservation
+     */
+    public ReservationResponse release(UUID reservationId) {
+        var lines = findActive(reservationId);
+        endHold(reservationId, ReservationStatus.RELEASED);
+        return toResponse(reservationId, ReservationStatus.RELEASED, lines.getFirst().getExpiresAt(),
+                toSaleRequests(lines));
+    }
+
+    /**
+     * Ends the reservations whose time has passed and gives their units back to the hold counters
+     * Each reservation ends in its own transaction, in batches until none is due. The stored expiry is the only
+     * clock: every instance sweeps the same table, so reservations created by an instance that stopped still expire
+     * Until the sweep ends it, a reservation past its time keeps holding its units but can no longer be committed
+     */
+    @Scheduled(fixedDelayString = "${inventory.reservation.expire-delay-ms:10000}")
+    public void expireDue() {
+        try {
+            List<UUID> due;
+            do {
+                due = stockReservationPort.findDueReservationIds(LocalDateTime.now(), EXPIRE_BATCH_SIZE);
+                due.forEach(reservationId -> stockReservationPort.endHold(reservationId, ReservationStatus.EXPIRED));
+            } while (due.size() == EXPIRE_BATCH_SIZE);
+        } catch (RuntimeException ex) {
+            log.warn("No se pudieron expirar las reservas vencidas: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Finds the lines of a reservation that still holds its units
+     *
+     * @param reservationId The ID of the reservation
+     * @return The lines of the reservation
+     */
+    private List<StockReservation> findActive(UUID reservationId) {
+        var lines = stockReservationPort.findByReservationId(reservationId);
+        if (lines.isEmpty())
+            throw new ReservationNotFoundException("No se encontro la reserva con ID: " + reservationId);
+        if (lines.getFirst().getStatus() != ReservationStatus.ACTIVE) throw notActive(reservationId);
+        return lines;
+    }
+
+    /**
+     * Ends an active reservation and gives back its units, failing if a concurrent call ended it first
+     *
+     * @param reservationId The ID of the reservation
+     * @param status        The final status
+     */
+    private void endHold(UUID reservationId, ReservationStatus status) {
+        if (!stockReservationPort.endHold(reservationId, status)) throw notActive(reservationId);
+    }
+
+    /**
+     * Validates that every line names a product with a positive quantity and price
+     *
+     * @param lines The lines of the cart
+     */
+    private void validateLines(List<SaleInventoryRequest> lines) {
+        if (lines == null || lines.isEmpty())
+            throw new ValidationException("La reserva debe contener al menos un producto");
+        for (var line : lines) {
+            if (line.getProductId() == null || line.getProductId().isBlank())
+                throw new ValidationException("El ID del producto no puede ser nulo");
+            if (line.getQuantity() == null || line.getQuantity() <= 0)
+                throw new ValidationException("La cantidad debe ser positiva");
+            if (line.getUnitPrice() == null || line.getUnitPrice().compareTo(BigDecimal.ZERO) <= 0)
+                throw new ValidationException("El precio unitario debe ser positivo");
+        }
+    }
+
+    /**
+     * Computes how long a reservation holds its units, bounded by the maximum allowed
+     *
+     * @param ttlSeconds The seconds requested, null for the default
+     * @return The time to hold the units
+     */
+    private Duration ttlOf(Integer ttlSeconds) {
+        if (ttlSeconds == null) return defaultTtl;
+        var ttl = Duration.ofSeconds(ttlSeconds);
+        return ttl.compareTo(maxTtl) > 0 ? maxTtl : ttl;
+    }
+
+    /**
+     * Adds up the units of each product of a cart
+     *
+     * @param lines The lines of the cart
+     * @return The units by product
+     */
+    private Map<String, Integer> quantitiesOf(List<SaleInventoryRequest> lines) {
+        return lines.stream().collect(Collectors.groupingBy(SaleInventoryRequest::getProductId,
+                Collectors.summingInt(SaleInventoryRequest::getQuantity)));
+    }
+
+    /**
+     * Turns the lines of a reservation into the lines of a sale
+     *
+     * @param lines The lines of the reservation
+     * @return The lines of the sale
+     */
+    private List<SaleInventoryRequest> toSaleRequests(List<StockReservation> lines) {
+        return lines.stream()
+                .map(line -> new SaleInventoryRequest(line.getQuantity(), line.getProductId(), line.getUnitPrice()))
+                .toList();
+    }
+
+    /**
+     * Builds the response of a reservation
+     *
+     * @param reservationId The ID of the reservation
+     * @param status        The status of the reservation
+     * @param expiresAt     The moment the hold expires
+     * @param lines         The lines of the reservation
+     * @return The reservation response
+     */
+    private ReservationResponse toResponse(UUID reservationId, ReservationStatus status, LocalDateTime expiresAt,
+                                           List<SaleInventoryRequest> lines) {
+        return ReservationResponse.builder()
+                .reservationId(reservationId)
+                .status(status)
+                .expiresAt(expiresAt)
+                .lines(lines)
+                .build();
+    }
+
+    /**
+     * Builds the error of a reservation that no longer holds its units
+     *
+     * @param reservationId The ID of the reservation
+     * @return The validation error
+     */
+    private ValidationException notActive(UUID reservationId) {
+        return new ValidationException("La reserva " + reservationId + " ya no esta activa");
+    }
+}
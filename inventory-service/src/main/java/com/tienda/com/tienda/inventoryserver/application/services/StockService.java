@@ -3,8 +3,13 @@ package com.tienda.com.tienda.inventoryserver.application.services;
 import com.tienda.com.tienda.inventoryserver.application.mapper.StockDomainMapper;
 import com.tienda.com.tienda.inventoryserver.application.validation.FeignValidator;
 import com.tienda.com.tienda.inventoryserver.domain.model.constant.StockStatus;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.ConsumedLot;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.Product;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.ProductStock;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.Stock;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.StockConsumption;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.StockSummary;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.SaleInventoryRequest;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.StockRequest;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.StockResponse;
 import com.tienda.com.tienda.inventoryserver.domain.port.StockPersistancePort;
@@ -17,10 +22,15 @@ import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -34,6 +44,9 @@ public class StockService implements StockUseCases {
     private final StockDomainMapper stockDomainMapper;
     private final StockPersistancePort stockPersistancePort;
     private final FeignValidator feignValidator;
+    private final StockLedger stockLedger;
+    private final InventoryMetrics inventoryMetrics;
+    private final ReservationHolds reservationHolds;
 
     /**
      * Updates the quantity of a product's stock
@@ -48,6 +61,7 @@ public class StockService implements StockUseCases {
         var oldestStock = stocks.getFirst();
         oldestStock.setQuantity(newQuantity);
         var updatedStock = stockPersistancePort.update(oldestStock, oldestStock.getId());
+        stockLedger.applyAfterCommit(updatedStock);
         return stockDomainMapper.stockToStockResponse(updatedStock);
     }
 
@@ -64,36 +78,162 @@ public class StockService implements StockUseCases {
         var oldestStock = stocks.getFirst();
         oldestStock.setQuantity(oldestStock.getQuantity() + quantity);
         var updatedStock = stockPersistancePort.update(oldestStock, oldestStock.getId());
+        stockLedger.applyAfterCommit(updatedStock);
         return stockDomainMapper.stockToStockResponse(updatedStock);
     }
 
     /**
      * Decreases the stock quantity of a product, ensuring sufficient stock
+     * The lots are locked and consumed first expired first out like a one line sale, so a concurrent
+     * sale of the same product waits for the caller's transaction instead of overselling
      *
      * @param productId ID of the product
      * @param quantity  Quantity to remove
      * @param unitPrice Price per unit
-     * @return Updated stock response
+     * @return The lots consumed and the cost of goods sold
      */
     @Override
-    public StockResponse decrementQuantity(String productId, int quantity, BigDecimal unitPrice) {
-        var stocks = validateExistingStock(productId);
-        int remainingQuantity = quantity;
-        validateProductQuantity(remainingQuantity, productId);
-        for (Stock stock : stocks) {
-            validateStockSalePolitic(stock, unitPrice);
-            if (remainingQuantity <= 0) break;
-            if (stock.getQuantity() >= remainingQuantity) {
-                stock.setQuantity(stock.getQuantity() - remainingQuantity);
-                var updatedStock = stockPersistancePort.updateDecrement(stock, stock.getId());
-                return stockDomainMapper.stockToStockResponse(updatedStock);
-            } else {
-                remainingQuantity -= stock.getQuantity();
-                stock.setQuantity(0);
-                stockPersistancePort.updateDecrement(stock, stock.getId());
+    public StockConsumption decrementQuantity(String productId, int quantity, BigDecimal unitPrice) {
+        validateProductQuantity(quantity, productId);
+        return decrementQuantities(List.of(new SaleInventoryRequest(quantity, productId, unitPrice))).getFirst();
+    }
+
+    /**
+     * Adds the units taken from a lot to the consumption, merging the lots taken again after a reload
+     *
+     * @param consumedLots The lots consumed so far by their ID
+     * @param stock        The stock lot
+     * @param taken        The units taken from the lot
+     */
+    private void consumeLot(Map<UUID, ConsumedLot> consumedLots, Stock stock, int taken) {
+        consumedLots.merge(stock.getId(), new ConsumedLot(stock.getId(), taken, stock.getPurchaseUnitCost()),
+                (consumed, more) -> new ConsumedLot(consumed.getStockId(),
+                        consumed.getQuantity() + more.getQuantity(), consumed.getUnitCost()));
+    }
+
+    /**
+     * Builds the consumption of a sale line, its cost of goods sold is the cost of every unit taken from each lot
+     *
+     * @param productId    ID of the product
+     * @param quantity     Quantity sold
+     * @param consumedLots The lots consumed
+     * @return The lots consumed and the cost of goods sold
+     */
+    private StockConsumption toConsumption(String productId, int quantity, Collection<ConsumedLot> consumedLots) {
+        var costOfGoodsSold = consumedLots.stream()
+                .map(lot -> lot.getUnitCost().multiply(BigDecimal.valueOf(lot.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .setScale(2, RoundingMode.HALF_UP);
+        return new StockConsumption(productId, quantity, List.copyOf(consumedLots), costOfGoodsSold);
+    }
+
+    /**
+     * Checks whether a lot still holds units and is not expired
+     *
+     * @param stock The stock lot
+     * @param today The current date
+     * @return true if units of the lot can be sold
+     */
+    private boolean isSellable(Stock stock, LocalDate today) {
+        return stock.getQuantity() != null && stock.getQuantity() > 0
+                && (stock.getExpiryDate() == null || stock.getExpiryDate().isAfter(today));
+    }
+
+    /**
+     * Decreases the stock of every line of a sale as a whole, first expired first out
+     * The lots of all products are loaded and locked with one query and the new quantities are
+     * written as one batch, so the caller's transaction applies either every line or none
+     *
+     * @param requests The lines of the sale
+     * @return The lots consumed and the cost of goods sold of each line, in the order of the lines
+     */
+    public List<StockConsumption> decrementQuantities(List<SaleInventoryRequest> requests) {
+        return decrementQuantities(requests, Map.of());
+    }
+
+    /**
+     * Decreases the stock of every line of a sale as a whole, first expired first out
+     * The units held by the reservation the sale comes from are counted as available for its own lines
+     *
+     * @param requests           The lines of the sale
+     * @param reservedQuantities The units held for the sale by product, empty for a sale without reservation
+     * @return The lots consumed and the cost of goods sold of each line, in the order of the lines
+     */
+    public List<StockConsumption> decrementQuantities(List<SaleInventoryRequest> requests,
+                                                      Map<String, Integer> reservedQuantities) {
+        var productIds = requests.stream().map(SaleInventoryRequest::getProductId).collect(Collectors.toSet());
+        var today = LocalDate.now();
+        var lotsByProduct = stockPersistancePort.findAllStocksByProductIdsForUpdate(productIds).stream()
+                .filter(stock -> isSellable(stock, today))
+                .sorted(StockLedger.FIRST_EXPIRED_FIRST_OUT)
+                .collect(Collectors.groupingBy(Stock::getProductId));
+        validateProductQuantities(requests, lotsByProduct, reservationHolds.lockHeldQuantities(productIds),
+                reservedQuantities);
+        Map<UUID, Integer> newQuantities = new LinkedHashMap<>();
+        List<StockConsumption> consumptions = new ArrayList<>(requests.size());
+        for (SaleInventoryRequest request : requests) {
+            Map<UUID, ConsumedLot> consumedLots = new LinkedHashMap<>();
+            int remainingQuantity = request.getQuantity();
+            int visitedLots = 0;
+            for (Stock stock : lotsByProduct.getOrDefault(request.getProductId(), List.of())) {
+                if (remainingQuantity <= 0) break;
+                visitedLots++;
+                int available = newQuantities.getOrDefault(stock.getId(), stock.getQuantity());
+                if (available == 0) continue;
+                validateStockSalePolitic(stock, request.getUnitPrice());
+                int taken = Math.min(available, remainingQuantity);
+                newQuantities.put(stock.getId(), available - taken);
+                consumeLot(consumedLots, stock, taken);
+                remainingQuantity -= taken;
             }
+            inventoryMetrics.recordDecrementLots(InventoryMetrics.MODE_BATCH, visitedLots);
+            consumptions.add(toConsumption(request.getProductId(), request.getQuantity(), consumedLots.values()));
         }
-        return stockDomainMapper.stockToStockResponse(stocks.getLast());
+        var updatedStocks = stockPersistancePort.updateQuantities(newQuantities);
+        stockLedger.applyAfterCommit(updatedStocks);
+        return consumptions;
+    }
+
+    /**
+     * Validates that the sellable lots of each product cover all the lines requesting it
+     * plus the units other reservations hold
+     *
+     * @param requests           The lines of the sale
+     * @param lotsByProduct      The sellable lots of each product
+     * @param heldByProduct      The units held by active reservations by product, including this sale's own
+     * @param reservedQuantities The units held for this sale by product
+     */
+    private void validateProductQuantities(List<SaleInventoryRequest> requests, Map<String, List<Stock>> lotsByProduct,
+                                           Map<String, Integer> heldByProduct, Map<String, Integer> reservedQuantities) {
+        var requestedByProduct = requests.stream().collect(Collectors.groupingBy(
+                SaleInventoryRequest::getProductId, Collectors.summingInt(SaleInventoryRequest::getQuantity)));
+        requestedByProduct.forEach((productId, requested) -> {
+            int sellable = lotsByProduct.getOrDefault(productId, List.of()).stream()
+                    .mapToInt(Stock::getQuantity).sum();
+            int heldByOthers = Math.max(0,
+                    heldByProduct.getOrDefault(productId, 0) - reservedQuantities.getOrDefault(productId, 0));
+            if (sellable < requested)
+                throw new InsufficientStock("Stock valido insuficiente para el producto con ID: " + productId);
+            if (sellable - heldByOthers < requested)
+                throw new InsufficientStock("Parte del stock del producto esta reservado " + productId);
+        });
+    }
+
+    /**
+     * Validates that the valid stock of each product covers the units held by every reservation,
+     * including the new one already added to the hold counters
+     * The valid stock is read from stock_summary with a shared lock and the stock lots are not locked, so a
+     * reservation only waits for sales and reservations of the same products on their hold counters
+     *
+     * @param quantities The units of the new reservation by product
+     */
+    public void validateReservableQuantities(Map<String, Integer> quantities) {
+        var validByProduct = stockPersistancePort.findValidQuantitiesForShare(quantities.keySet());
+        var heldByProduct = reservationHolds.lockHeldQuantities(quantities.keySet());
+        quantities.keySet().forEach(productId -> {
+            if (validByProduct.getOrDefault(productId, 0) < heldByProduct.getOrDefault(productId, 0))
+                throw new InsufficientStock("Stock disponible insuficiente para reservar el producto con ID: " + productId);
+        });
     }
 
     /**
@@ -102,7 +242,7 @@ public class StockService implements StockUseCases {
      * @param stock     The stock item
      * @param unitPrice Price per unit
      */
-    private void validateStockSalePolitic(Stock stock, BigDecimal unitPrice) {
+    static void validateStockSalePolitic(Stock stock, BigDecimal unitPrice) {
         BigDecimal precioMinimo = stock.getPurchaseUnitCost().multiply(BigDecimal.valueOf(0.75));
         BigDecimal precioMaximo = stock.getPurchaseUnitCost().multiply(BigDecimal.valueOf(1.75));
         if (unitPrice.compareTo(precioMinimo) < 0 || unitPrice.compareTo(precioMaximo) > 0) {
@@ -112,38 +252,46 @@ public class StockService implements StockUseCases {
     }
 
     /**
-     * Validates if there is enough stock available.
+     * Validates if there is enough stock available, using the stock_summary row of the product.
+     * The row is written in the same transaction as every lot change, so it is shared by all the instances,
+     * while the in-memory ledger can lag behind the changes made by another instance.
+     * Units held by active reservations are not available.
      *
      * @param remainingQuantity Quantity to validate.
      * @param productId         ID of the product.
      */
     private void validateProductQuantity(int remainingQuantity, String productId) {
-        var validStock = getStockWithoutExpiringDate(productId);
-        var invalidStock = getExpiredStock(productId).get("Stock expirado");
+        var summary = stockPersistancePort.findStockSummary(productId).orElseThrow(
+                () -> new StockNotFoundException("No se encontro stock para el producto con ID: " + productId));
+        var validStock = summary.getValidQuantity();
+        var invalidStock = summary.getExpiredQuantity();
         var total = validStock + invalidStock;
         if (total < remainingQuantity)
             throw new InsufficientStock("Stock valido insuficiente para el producto con ID: " + productId);
         if (validStock < remainingQuantity)
             throw new InsufficientStock("Existe la cantidad pedida pero parte del pedido esta caducado " + productId);
+        if (validStock - reservationHolds.heldQuantity(productId) < remainingQuantity)
+            throw new InsufficientStock("Parte del stock del producto esta reservado " + productId);
     }
 
     /**
      * Retrieves the total stock information for a given product
      *
      * @param productId the ID of the product
-     * @return a map containing product name, valid stock, expired stock, and total stock
+     * @return a map containing product name, valid stock, expired stock, total stock and reserved stock
      */
     @Override
     public Map<String, String> getTotalStock(String productId) {
-        var stocks = validateExistingStock(productId);
+        var productStock = getLedgerStock(productId);
         Map<String, String> totalStock = new HashMap<>();
-        var product = productFeignClient.getProductByCod(stocks.getFirst().getProductId());
-        var validStock = getStockWithoutExpiringDate(productId);
-        var invalidStock = getExpiredStock(productId).get("Stock expirado");
+        var product = productFeignClient.getProductByCod(productId);
+        var validStock = productStock.getValidQuantity();
+        var invalidStock = productStock.getExpiredQuantity();
         totalStock.put("Nombre de producto", product.getName());
         totalStock.put("Stock valido: ", validStock.toString());
         totalStock.put("Stock caducado: ", invalidStock.toString());
         totalStock.put("Total: ", (validStock + invalidStock) +"");
+        totalStock.put("Stock reservado: ", reservationHolds.heldQuantity(productId) + "");
         return totalStock;
     }
 
@@ -183,13 +331,11 @@ public class StockService implements StockUseCases {
      */
     @Override
     public List<Product> checkStockThreshold(Integer threshold, String category) {
-        var totalStockByProduct = stockPersistancePort.findAllStocks()
-                .stream().collect(Collectors.groupingBy(Stock::getProductId,
-                        Collectors.summingInt(Stock::getQuantity)));
-        var lowStockProductIds = totalStockByProduct.entrySet().stream()
-                .filter(entry -> entry.getValue() < threshold)
-                .map(Map.Entry::getKey).toList();
-        return lowStockProductIds.stream().map(productFeignClient::getProductByCod)
+        var lowStockProductIds = stockPersistancePort.findAllStockSummaries().stream()
+                .filter(summary -> summary.getValidQuantity() + summary.getExpiredQuantity() < threshold)
+                .map(StockSummary::getProductId).toList();
+        var products = feignValidator.findProductsByCods(lowStockProductIds);
+        return lowStockProductIds.stream().map(products::get).filter(Objects::nonNull)
                 .filter(product -> category == null || product.getCategory()
                 .getName().equals(category)).distinct().collect(Collectors.toList());
     }
@@ -216,29 +362,21 @@ public class StockService implements StockUseCases {
      */
     @Override
     public Map<String, Integer> getExpiredStock(String productId) {
-        var stocks = validateExistingStock(productId);
-        int totalExpiredStock = stocks.stream()
-                .filter(stock -> stock.getExpiryDate() != null && stock.getExpiryDate().isBefore(LocalDate.now()))
-                .mapToInt(Stock::getQuantity)
-                .sum();
+        var productStock = getLedgerStock(productId);
         Map<String, Integer> result = new HashMap<>();
-        result.put("Stock expirado", totalExpiredStock);
+        result.put("Stock expirado", productStock.getExpiredQuantity());
         return result;
     }
 
     /**
-     * Retrieves the total stock quantity without an expiration date
+     * Retrieves the total stock quantity without an expiration date that is not held by a reservation
      *
      * @param productId the ID of the product
-     * @return the total quantity of non-expired stock
+     * @return the quantity of non-expired stock available to sell
      */
     @Override
     public Integer getStockWithoutExpiringDate(String productId) {
-        var stocks = validateExistingStock(productId);
-        return stocks.stream()
-                .filter(stock -> stock.getExpiryDate() == null || stock.getExpiryDate().isAfter(LocalDate.now()))
-                .mapToInt(Stock::getQuantity)
-                .sum();
+        return Math.max(0, getLedgerStock(productId).getValidQuantity() - reservationHolds.heldQuantity(productId));
     }
 
     /**
@@ -277,16 +415,36 @@ public class StockService implements StockUseCases {
     @Override
     public StockResponse createEntity(StockRequest request) {
         var stock = stockDomainMapper.stockRequestToStock(request);
-        stock.setId(UUID.randomUUID());
         stock.setTotalPurchaseCost(stock.getPurchaseUnitCost().multiply(new BigDecimal(stock.getQuantity())));
         feignValidator.verifyExistingProduct(stock.getProductId());
         feignValidator.verifyExistingProvider(stock.getProviderId());
         if (request.getExpiryDate() != null)
             validateExpirationAdquisitionDate(stock.getPurchaseDate(), stock.getExpiryDate());
         var savedStock = stockPersistancePort.create(stock);
+        stockLedger.applyAfterCommit(savedStock);
         return stockDomainMapper.stockToStockResponse(savedStock);
     }
 
+    /**
+     * Creates several stock entities at once, inserted as one batch
+     * The products and providers are expected to be verified by the caller
+     *
+     * @param requests The stock requests containing details for the new entities
+     * @return The created stock lots
+     */
+    public List<Stock> createEntities(List<StockRequest> requests) {
+        var stocks = requests.stream().map(request -> {
+            var stock = stockDomainMapper.stockRequestToStock(request);
+            stock.setTotalPurchaseCost(stock.getPurchaseUnitCost().multiply(new BigDecimal(stock.getQuantity())));
+            if (request.getExpiryDate() != null)
+                validateExpirationAdquisitionDate(stock.getPurchaseDate(), stock.getExpiryDate());
+            return stock;
+        }).toList();
+        var savedStocks = stockPersistancePort.createAll(stocks);
+        stockLedger.applyAfterCommit(savedStocks);
+        return savedStocks;
+    }
+
     /**
      * Updates an existing stock entity
      *
@@ -298,6 +456,7 @@ public class StockService implements StockUseCases {
     public StockResponse updateEntity(StockRequest request, UUID uuid) {
         var updatedStock = stockDomainMapper.stockRequestToStock(request);
         var savedStock = stockPersistancePort.update(updatedStock, uuid);
+        stockLedger.applyAfterCommit(savedStock);
         return stockDomainMapper.stockToStockResponse(savedStock);
     }
 
@@ -309,6 +468,7 @@ public class StockService implements StockUseCases {
     @Override
     public void deleteEntityById(UUID uuid) {
         stockPersistancePort.deleteById(uuid);
+        stockLedger.removeAfterCommit(uuid);
     }
 
     /**
@@ -348,17 +508,23 @@ public class StockService implements StockUseCases {
     }
 
     /**
-     * Retrieves the stock count for each product
+     * Retrieves the valid stock count for each product from the stock summary table
      *
-     * @return A map of product IDs and their corresponding stock count
+     * @return A map of product IDs and their corresponding valid stock count
      */
     public Map<String, Integer> getProductStockStatus() {
-        var stocks = stockPersistancePort.findAllStocks();
-        return stocks.stream()
-                .collect(Collectors.groupingBy(
-                        Stock::getProductId,
-                        Collectors.summingInt(stock -> getStockWithoutExpiringDate(stock.getProductId()))
-                ));
+        return stockPersistancePort.findAllStockSummaries().stream()
+                .collect(Collectors.toMap(StockSummary::getProductId, StockSummary::getValidQuantity));
+    }
+
+    /**
+     * Regenerates the stock summary of every product from the stock records
+     *
+     * @return A map with the number of products summarized
+     */
+    @Override
+    public Map<String, Integer> rebuildStockSummary() {
+        return Map.of("Productos resumidos", stockPersistancePort.rebuildStockSummaries(LocalDate.now()));
     }
 
     /**
@@ -374,4 +540,16 @@ public class StockService implements StockUseCases {
             throw new StockNotFoundException("No se encontro stock para el producto con ID: " + productId);
         return stocks;
     }
+
+    /**
+     * Retrieves the stock summary of a product from the in-memory stock ledger
+     *
+     * @param productId The ID of the product
+     * @return The stock summary of the product
+     * @throws StockNotFoundException If no stock is registered for the product
+     */
+    private ProductStock getLedgerStock(String productId) {
+        return stockLedger.getProductStock(productId).orElseThrow(
+                () -> new StockNotFoundException("No se encontro stock para el producto con ID: " + productId));
+    }
 }
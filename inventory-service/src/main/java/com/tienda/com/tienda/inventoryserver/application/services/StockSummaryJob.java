@@ -0,0 +1,35 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.domain.port.StockPersistancePort;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+@Service
+@AllArgsConstructor
+public class StockSummaryJob {
+
+    private final StockPersistancePort stockPersistancePort;
+
+    /**
+     * Regenerates the stock summary table once the application is ready
+     * Covers lot changes made while the service was down or written directly to the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        stockPersistancePort.rebuildStockSummaries(LocalDate.now());
+    }
+
+    /**
+     * Moves the quantity of lots that reached their expiry date from valid to expired
+     * Only the products whose oldest pending expiry is due are recomputed
+     */
+    @Scheduled(cron = "${inventory.stock-summary.refresh-cron:0 5 0 * * *}")
+    public void refreshExpiredQuantities() {
+        stockPersistancePort.refreshExpiredStockSummaries(LocalDate.now());
+    }
+}
@@ -0,0 +1,190 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Kardex;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.KardexDailyRollup;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.TopSellingProduct;
+import com.tienda.com.tienda.inventoryserver.domain.port.KardexPersistancePort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class TopSellersTracker {
+
+    static final int WINDOW_DAYS = 32;
+
+    private static final Comparator<Map.Entry<String, Long>> MOST_SOLD_FIRST = Map.Entry.<String, Long>comparingByValue()
+            .reversed()
+            .thenComparing(Map.Entry.comparingByKey());
+
+    private final KardexPersistancePort kardexPersistancePort;
+    private final DayBucket[] buckets = new DayBucket[WINDOW_DAYS];
+    private final Map<String, Long> soldInWindow = new HashMap<>();
+    private List<TopSellingProduct> ranking = List.of();
+    private boolean rankingStale = false;
+
+    /**
+     * Rebuilds the sales of the last month from the daily Kardex rollups
+     * Runs once the application is ready and then periodically, because the tracker only records the sales
+     * committed by this instance and the rollups are shared by all of them
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${inventory.top-sellers.resync-interval-ms:60000}",
+            fixedDelayString = "${inventory.top-sellers.resync-interval-ms:60000}")
+    public void rebuild() {
+        rebuild(LocalDate.now());
+    }
+
+    /**
+     * Rebuilds the sales of the month before the given day from the daily Kardex rollups
+     * The rollups are read before taking the tracker lock, so rankings keep being served during the query
+     *
+     * @param today The current day
+     */
+    void rebuild(LocalDate today) {
+        var rollups = kardexPersistancePort.findAllDailyRollupsBetween(windowStart(today), today);
+        synchronized (this) {
+            for (int i = 0; i < WINDOW_DAYS; i++) buckets[i] = null;
+            soldInWindow.clear();
+            for (KardexDailyRollup rollup : rollups) {
+                if (rollup.getTypeMovement() == TypeMove.OUTCOME)
+                    add(rollup.getMovementDate(), rollup.getProductId(), rollup.getQuantity(), today);
+            }
+            rankingStale = true;
+        }
+    }
+
+    /**
+     * Adds sale movements to the tracker once the surrounding transaction commits
+     * Outside of a transaction the movements are added right away, other movement types are ignored
+     *
+     * @param movements The persisted Kardex movements
+     */
+    public void recordAfterCommit(Collection<Kardex> movements) {
+        var sales = movements.stream().filter(movement -> movement.getTypeMovement() == TypeMove.OUTCOME).toList();
+        if (sales.isEmpty()) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(sales, LocalDate.now());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(sales, LocalDate.now());
+            }
+        });
+    }
+
+    /**
+     * Retrieves the most sold products of the last month without touching the database
+     * Sales committed by other instances show up once the next resync reads the rollups
+     *
+     * @param limit The maximum number of products to retrieve
+     * @return The top-selling products ordered by quantity sold
+     */
+    public List<TopSellingProduct> getTopSellingProducts(int limit) {
+        return getTopSellingProducts(limit, LocalDate.now());
+    }
+
+    /**
+     * Retrieves the most sold products of the month before the given day
+     *
+     * @param limit The maximum number of products to retrieve
+     * @param today The current day
+     * @return The top-selling products ordered by quantity sold
+     */
+    synchronized List<TopSellingProduct> getTopSellingProducts(int limit, LocalDate today) {
+        expireOldBuckets(today);
+        if (rankingStale) {
+            ranking = soldInWindow.entrySet().stream()
+                    .sorted(MOST_SOLD_FIRST)
+                    .map(entry -> new TopSellingProduct(entry.getKey(), Math.toIntExact(entry.getValue())))
+                    .toList();
+            rankingStale = false;
+        }
+        return ranking.subList(0, Math.min(Math.max(limit, 0), ranking.size()));
+    }
+
+    /**
+     * Adds sale movements to the day buckets of the window
+     *
+     * @param sales The sale movements
+     * @param today The current day
+     */
+    synchronized void record(List<Kardex> sales, LocalDate today) {
+        expireOldBuckets(today);
+        sales.forEach(sale -> add(sale.getMovementDate(), sale.getProductId(), sale.getQuantity(), today));
+        rankingStale = true;
+    }
+
+    /**
+     * Adds a quantity sold on a day, ignoring days outside of the window
+     *
+     * @param day The day of the sale
+     * @param productId The ID of the product sold
+     * @param quantity The quantity sold
+     * @param today The current day
+     */
+    private void add(LocalDate day, String productId, Integer quantity, LocalDate today) {
+        if (day == null || quantity == null || day.isBefore(windowStart(today)) || day.isAfter(today)) return;
+        int index = Math.floorMod(day.toEpochDay(), WINDOW_DAYS);
+        if (buckets[index] == null || !buckets[index].day.equals(day)) {
+            evict(index);
+            buckets[index] = new DayBucket(day, new HashMap<>());
+        }
+        buckets[index].sold.merge(productId, quantity.longValue(), Long::sum);
+        soldInWindow.merge(productId, quantity.longValue(), Long::sum);
+    }
+
+    /**
+     * Drops the buckets of the days that left the window as days roll over
+     *
+     * @param today The current day
+     */
+    private void expireOldBuckets(LocalDate today) {
+        var windowStart = windowStart(today);
+        for (int i = 0; i < WINDOW_DAYS; i++) {
+            if (buckets[i] != null && buckets[i].day.isBefore(windowStart)) evict(i);
+        }
+    }
+
+    /**
+     * Removes a bucket and subtracts its sales from the window totals
+     *
+     * @param index The position of the bucket in the ring
+     */
+    private void evict(int index) {
+        var bucket = buckets[index];
+        if (bucket == null) return;
+        bucket.sold.forEach((productId, quantity) -> soldInWindow.computeIfPresent(productId,
+                (id, total) -> total - quantity <= 0 ? null : total - quantity));
+        buckets[index] = null;
+        rankingStale = true;
+    }
+
+    /**
+     * Calculates the first day covered by the window, matching the monthly report range
+     *
+     * @param today The current day
+     * @return The first day of the window
+     */
+    private LocalDate windowStart(LocalDate today) {
+        return today.minusMonths(1);
+    }
+
+    private record DayBucket(LocalDate day, Map<String, Long> sold) {
+    }
+}
@@ -3,10 +3,12 @@ package com.tienda.com.tienda.inventoryserver.application.useCases;
 import com.tienda.com.tienda.inventoryserver.domain.abstraction.CrudService;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.Product;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.KardexRequest;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.KardexBalanceResponse;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.KardexResponse;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface KardexUseCases extends CrudService<KardexRequest, KardexResponse, UUID> {
@@ -15,4 +17,7 @@ public interface KardexUseCases extends CrudService<KardexRequest, KardexRespons
     List<KardexResponse> getInventoryMovements(LocalDate startDate, LocalDate endDate, String productId);
     List<Product> getMostSoldProductsReport(LocalDate startDate, LocalDate endDate, Integer limit);
     List<Product> getMostSoldProductsReport(Integer limit);
+    Map<String, Integer> rebuildDailyRollups(LocalDate startDate, LocalDate endDate);
+    KardexBalanceResponse getBalanceAsOf(String productId, LocalDate asOf);
+    Map<String, Integer> rebuildBalances(String productId);
 }
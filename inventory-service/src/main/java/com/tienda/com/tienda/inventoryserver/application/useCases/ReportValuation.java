@@ -0,0 +1,9 @@
+package com.tienda.com.tienda.inventoryserver.application.useCases;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.InventoryValuationResponse;
+
+import java.time.LocalDate;
+
+public interface ReportValuation {
+    InventoryValuationResponse valueInventoryAsOf(LocalDate asOf);
+}
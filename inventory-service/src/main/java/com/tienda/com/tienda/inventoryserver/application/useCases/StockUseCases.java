@@ -4,6 +4,7 @@ import com.tienda.com.tienda.inventoryserver.domain.abstraction.CrudService;
 import com.tienda.com.tienda.inventoryserver.domain.model.constant.StockStatus;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.Product;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.Stock;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.StockConsumption;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.StockRequest;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.StockResponse;
 
@@ -16,7 +17,7 @@ import java.util.UUID;
 public interface StockUseCases extends CrudService<StockRequest, StockResponse, UUID> {
     StockResponse updateQuantity(String productId, int newQuantity);
     StockResponse incrementQuantity(String productId, int quantity);
-    StockResponse decrementQuantity(String productId, int quantity, BigDecimal decrement);
+    StockConsumption decrementQuantity(String productId, int quantity, BigDecimal decrement);
     Map<String, String> getTotalStock(String productId);
     StockResponse getOldestStock(String productId);
     List<StockResponse> getAllStocks();
@@ -27,4 +28,5 @@ public interface StockUseCases extends CrudService<StockRequest, StockResponse,
     Integer getStockWithoutExpiringDate(String productId);
     List<StockResponse> getAllStocksBetweenDates(LocalDate startDate, LocalDate endDate);
     Map<String, StockStatus> getInventoryStatus(Map<String, Integer> lowStockThresholds);
+    Map<String, Integer> rebuildStockSummary();
 }
@@ -3,7 +3,11 @@ package com.tienda.com.tienda.inventoryserver.application.useCases;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.PurchaseInventoryRequest;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.SaleInventoryRequest;
 
+import java.util.List;
+
 public interface TransactionsStockIO {
     String registerInputInventory(PurchaseInventoryRequest request);
+    String registerInputInventoryBatch(List<PurchaseInventoryRequest> requests);
     String registerOutputInventory(SaleInventoryRequest request);
+    String registerOutputInventoryBatch(List<SaleInventoryRequest> requests);
 }
@@ -1,6 +1,7 @@
 package com.tienda.com.tienda.inventoryserver.application.validation;
 
 
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Product;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.client.ProductFeignClient;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.client.PurchaseFeignClient;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.ValidationException;
@@ -8,7 +9,12 @@ import feign.FeignException;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.tienda.com.tienda.inventoryserver.infraestructure.adapters.client.ErrorHandler.extractErrorMessage;
 
@@ -34,6 +40,40 @@ public class FeignValidator {
         }
     }
 
+    /**
+     * Verifies that every product of the given codes exists with a single request to the product service
+     *
+     * @param cods The product codes
+     * @return The products found, indexed by their code
+     * @throws ValidationException if any product does not exist or there is an error in retrieving them
+     */
+    public Map<String, Product> verifyExistingProducts(Collection<String> cods) {
+        var products = findProductsByCods(cods);
+        var missingCods = cods.stream().filter(cod -> !products.containsKey(cod)).distinct().toList();
+        if (!missingCods.isEmpty())
+            throw new ValidationException("Error en informacion del producto: Producto no encontrado con Cod: "
+                    + String.join(", ", missingCods));
+        return products;
+    }
+
+    /**
+     * Retrieves the products of the given codes with a single request to the product service
+     * Codes without a product are left out of the result
+     *
+     * @param cods The product codes
+     * @return The products found, indexed by their code
+     * @throws ValidationException if there is an error in retrieving the products
+     */
+    public Map<String, Product> findProductsByCods(Collection<String> cods) {
+        if (cods.isEmpty()) return Map.of();
+        try {
+            return productFeignClient.getProductsByCods(new LinkedHashSet<>(cods)).stream()
+                    .collect(Collectors.toMap(Product::getCod, Function.identity(), (first, second) -> first));
+        } catch (FeignException e) {
+            throw new ValidationException("Error en informacion del producto: " + extractErrorMessage(e));
+        }
+    }
+
     /**
      * Verifies if a provider with the given ID exists by making a request to the provider service
      * If the provider does not exist, or if the ID is invalid, a validation exception is thrown
@@ -0,0 +1,8 @@
+package com.tienda.com.tienda.inventoryserver.domain.model.constant;
+
+public enum ReservationStatus {
+    ACTIVE,
+    COMMITTED,
+    RELEASED,
+    EXPIRED
+}
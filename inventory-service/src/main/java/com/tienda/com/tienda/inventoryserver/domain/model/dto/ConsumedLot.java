@@ -0,0 +1,18 @@
+package com.tienda.com.tienda.inventoryserver.domain.model.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ConsumedLot {
+    UUID stockId;
+    Integer quantity;
+    BigDecimal unitCost;
+}
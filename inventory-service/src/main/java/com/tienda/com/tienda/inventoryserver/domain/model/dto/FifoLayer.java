@@ -0,0 +1,16 @@
+package com.tienda.com.tienda.inventoryserver.domain.model.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class FifoLayer {
+    Integer quantity;
+    BigDecimal unitCost;
+}
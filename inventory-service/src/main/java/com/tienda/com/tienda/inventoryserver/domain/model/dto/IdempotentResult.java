@@ -0,0 +1,18 @@
+package com.tienda.com.tienda.inventoryserver.domain.model.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class IdempotentResult {
+    String key;
+    String fingerprint;
+    String result;
+    LocalDateTime expiresAt;
+}
@@ -21,4 +21,7 @@ public class Kardex {
     BigDecimal unitPrice;
     BigDecimal totalPrice;
     LocalDate movementDate;
+    Integer balanceQuantity;
+    BigDecimal balanceValue;
+    BigDecimal costOfGoodsSold;
 }
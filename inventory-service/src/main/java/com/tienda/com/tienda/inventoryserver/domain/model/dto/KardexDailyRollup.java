@@ -0,0 +1,24 @@
+package com.tienda.com.tienda.inventoryserver.domain.model.dto;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class KardexDailyRollup {
+    LocalDate movementDate;
+    String productId;
+    TypeMove typeMovement;
+    Integer quantity;
+    BigDecimal totalPrice;
+    BigDecimal minUnitPrice;
+    BigDecimal maxUnitPrice;
+    BigDecimal costOfGoodsSold;
+}
@@ -0,0 +1,20 @@
+package com.tienda.com.tienda.inventoryserver.domain.model.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ProductStock {
+    String productId;
+    Integer validQuantity;
+    Integer expiredQuantity;
+    LocalDate nextExpiryDate;
+    List<Stock> lots;
+}
@@ -0,0 +1,17 @@
+package com.tienda.com.tienda.inventoryserver.domain.model.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ProductValuation {
+    String productId;
+    Integer quantity;
+    BigDecimal value;
+}
@@ -21,4 +21,5 @@ public class Stock {
     String productId;
     LocalDate purchaseDate;
     LocalDate expiryDate;
+    Long version;
 }
@@ -0,0 +1,19 @@
+package com.tienda.com.tienda.inventoryserver.domain.model.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class StockConsumption {
+    String productId;
+    Integer quantity;
+    List<ConsumedLot> consumedLots;
+    BigDecimal costOfGoodsSold;
+}
@@ -0,0 +1,24 @@
+package com.tienda.com.tienda.inventoryserver.domain.model.dto;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.ReservationStatus;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class StockReservation {
+    UUID id;
+    UUID reservationId;
+    String productId;
+    Integer quantity;
+    BigDecimal unitPrice;
+    ReservationStatus status;
+    LocalDateTime expiresAt;
+}
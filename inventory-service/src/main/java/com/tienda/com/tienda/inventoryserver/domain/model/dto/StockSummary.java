@@ -0,0 +1,21 @@
+package com.tienda.com.tienda.inventoryserver.domain.model.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class StockSummary {
+    String productId;
+    Integer validQuantity;
+    Integer expiredQuantity;
+    Integer lotCount;
+    LocalDate oldestExpiryDate;
+    BigDecimal weightedAverageCost;
+}
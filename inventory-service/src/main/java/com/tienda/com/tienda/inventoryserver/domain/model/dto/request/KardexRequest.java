@@ -31,4 +31,6 @@ public class KardexRequest {
     BigDecimal unitPrice;
 
     LocalDate movementDate;
+
+    BigDecimal costOfGoodsSold;
 }
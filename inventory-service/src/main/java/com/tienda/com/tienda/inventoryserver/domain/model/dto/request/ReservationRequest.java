@@ -0,0 +1,22 @@
+package com.tienda.com.tienda.inventoryserver.domain.model.dto.request;
+
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ReservationRequest {
+    @NotEmpty(message = "La reserva debe contener al menos un producto")
+    List<SaleInventoryRequest> lines;
+
+    @Positive(message = "El tiempo de reserva debe ser positivo")
+    Integer ttlSeconds;
+}
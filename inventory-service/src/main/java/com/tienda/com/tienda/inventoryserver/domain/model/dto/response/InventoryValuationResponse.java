@@ -0,0 +1,21 @@
+package com.tienda.com.tienda.inventoryserver.domain.model.dto.response;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.ProductValuation;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class InventoryValuationResponse {
+    LocalDate asOf;
+    Integer totalQuantity;
+    BigDecimal totalValue;
+    List<ProductValuation> products;
+}
@@ -0,0 +1,19 @@
+package com.tienda.com.tienda.inventoryserver.domain.model.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class KardexBalanceResponse {
+    String productId;
+    LocalDate asOf;
+    Integer quantity;
+    BigDecimal value;
+}
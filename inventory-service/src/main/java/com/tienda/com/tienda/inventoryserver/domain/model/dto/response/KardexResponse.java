@@ -23,4 +23,7 @@ public class KardexResponse {
     BigDecimal unitPrice;
     BigDecimal totalPrice;
     LocalDate movementDate;
+    Integer balanceQuantity;
+    BigDecimal balanceValue;
+    BigDecimal costOfGoodsSold;
 }
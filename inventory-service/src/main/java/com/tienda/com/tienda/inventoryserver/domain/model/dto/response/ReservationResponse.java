@@ -0,0 +1,23 @@
+package com.tienda.com.tienda.inventoryserver.domain.model.dto.response;
+
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.ReservationStatus;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.SaleInventoryRequest;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ReservationResponse {
+    UUID reservationId;
+    ReservationStatus status;
+    LocalDateTime expiresAt;
+    List<SaleInventoryRequest> lines;
+}
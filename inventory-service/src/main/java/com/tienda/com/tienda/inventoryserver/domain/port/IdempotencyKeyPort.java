@@ -0,0 +1,15 @@
+package com.tienda.com.tienda.inventoryserver.domain.port;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.IdempotentResult;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyKeyPort {
+    Optional<IdempotentResult> findByKey(String key);
+    void claim(IdempotentResult claim);
+    boolean takeOverExpired(IdempotentResult claim, LocalDateTime now);
+    boolean complete(IdempotentResult result);
+    void release(IdempotentResult claim);
+    int deleteExpired(LocalDateTime now);
+}
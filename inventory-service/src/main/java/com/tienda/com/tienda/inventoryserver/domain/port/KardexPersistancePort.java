@@ -3,13 +3,15 @@ package com.tienda.com.tienda.inventoryserver.domain.port;
 import com.tienda.com.tienda.inventoryserver.domain.abstraction.PersistancePort;
 import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.Kardex;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.KardexDailyRollup;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.TopSellingProduct;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.ValuationCheckpoint;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface KardexPersistancePort extends PersistancePort<Kardex, UUID> {
     List<Kardex> findAllKardexByProductId(String productId);
@@ -19,4 +21,21 @@ public interface KardexPersistancePort extends PersistancePort<Kardex, UUID> {
     List<TopSellingProduct> findTopSellingProducts(LocalDate after, LocalDate before, int limit);
     BigDecimal calculateEarningsBetweenDates(LocalDate startDate, LocalDate endDate);
     Kardex getLastKardexByProductId(String productId);
+    Kardex getLastKardexByProductIdAsOf(String productId, LocalDate asOf);
+    List<String> findAllKardexProductIds();
+    List<String> findKardexProductIdsWithoutBalance();
+    int rebuildBalances(String productId);
+    List<Kardex> findAllKardexForValuation(String productId, LocalDate after, LocalDate asOf);
+    ValuationCheckpoint findLatestValuationCheckpoint(String productId, LocalDate asOf);
+    long findLedgerVersion(String productId);
+    boolean saveValuationCheckpoints(List<ValuationCheckpoint> checkpoints, long ledgerVersion);
+    List<Kardex> createAll(List<Kardex> kardexList);
+    void enqueueAll(List<Kardex> kardexList);
+    List<Kardex> flushOutbox(int limit);
+    List<KardexDailyRollup> findAllDailyRollupsBetween(LocalDate startDate, LocalDate endDate);
+    boolean hasDailyRollups();
+    int rebuildDailyRollups();
+    int rebuildDailyRollups(LocalDate startDate, LocalDate endDate);
+    void streamKardexByMovementDateBetween(LocalDate after, LocalDate before, String productId, Consumer<Kardex> consumer);
+    void streamKardexByProductId(String productId, Consumer<Kardex> consumer);
 }
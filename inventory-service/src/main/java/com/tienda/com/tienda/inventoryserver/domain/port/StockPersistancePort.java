@@ -2,9 +2,13 @@ package com.tienda.com.tienda.inventoryserver.domain.port;
 
 import com.tienda.com.tienda.inventoryserver.domain.abstraction.PersistancePort;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.Stock;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.StockSummary;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface StockPersistancePort extends PersistancePort<Stock, UUID>{
@@ -14,5 +18,12 @@ public interface StockPersistancePort extends PersistancePort<Stock, UUID>{
     List<Stock> findAllStocksByQuantityLessThan(Integer quantity);
     List<Stock> findAllByProvider(UUID uuid);
     List<Stock> findAllStocks();
-    Stock updateDecrement(Stock request, UUID uuid);
+    List<StockSummary> findAllStockSummaries();
+    Optional<StockSummary> findStockSummary(String productId);
+    int rebuildStockSummaries(LocalDate today);
+    int refreshExpiredStockSummaries(LocalDate today);
+    List<Stock> findAllStocksByProductIdsForUpdate(Collection<String> productIds);
+    Map<String, Integer> findValidQuantitiesForShare(Collection<String> productIds);
+    List<Stock> updateQuantities(Map<UUID, Integer> quantities);
+    List<Stock> createAll(List<Stock> stocks);
 }
@@ -0,0 +1,20 @@
+package com.tienda.com.tienda.inventoryserver.domain.port;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.ReservationStatus;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.StockReservation;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface StockReservationPort {
+    List<StockReservation> createAll(List<StockReservation> reservations);
+    List<StockReservation> findByReservationId(UUID reservationId);
+    int findHeldQuantity(String productId);
+    Map<String, Integer> lockHeldQuantities(Collection<String> productIds);
+    void addHeldQuantities(Map<String, Integer> quantities);
+    boolean endHold(UUID reservationId, ReservationStatus status);
+    List<UUID> findDueReservationIds(LocalDateTime now, int limit);
+}
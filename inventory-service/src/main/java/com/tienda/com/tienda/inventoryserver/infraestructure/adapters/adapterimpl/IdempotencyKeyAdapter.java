@@ -0,0 +1,89 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.adapterimpl;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.IdempotentResult;
+import com.tienda.com.tienda.inventoryserver.domain.port.IdempotencyKeyPort;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper.IdempotencyKeyMapper;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository.IdempotencyKeyRepository;
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Transactional
+@Service
+@AllArgsConstructor
+public class IdempotencyKeyAdapter implements IdempotencyKeyPort {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotencyKeyMapper idempotencyKeyMapper;
+
+    /**
+     * Finds the stored result of an idempotency key
+     *
+     * @param key The idempotency key
+     * @return The stored result, expired or not
+     */
+    @Override
+    public Optional<IdempotentResult> findByKey(String key) {
+        return idempotencyKeyRepository.findById(key).map(idempotencyKeyMapper::toDomain);
+    }
+
+    /**
+     * Claims an idempotency key with a plain insert, the primary key rejects a key that is already stored
+     *
+     * @param claim The key, the fingerprint of the request and the end of the claim, without a result
+     * @throws org.springframework.dao.DataIntegrityViolationException if the key is already stored
+     */
+    @Override
+    public void claim(IdempotentResult claim) {
+        idempotencyKeyRepository.insertClaim(claim.getKey(), claim.getFingerprint(), claim.getExpiresAt());
+    }
+
+    /**
+     * Claims an idempotency key that is already stored, only if it has expired
+     *
+     * @param claim The key, the fingerprint of the request and the end of the claim
+     * @param now   The current time
+     * @return true if the expired key was taken over, false if it is still active
+     */
+    @Override
+    public boolean takeOverExpired(IdempotentResult claim, LocalDateTime now) {
+        return idempotencyKeyRepository.takeOverExpired(claim.getKey(), claim.getFingerprint(),
+                claim.getExpiresAt(), now) > 0;
+    }
+
+    /**
+     * Stores the result of a claimed idempotency key
+     *
+     * @param result The key, the fingerprint, the result and its expiry
+     * @return true if the claim was still held and now holds the result
+     */
+    @Override
+    public boolean complete(IdempotentResult result) {
+        return idempotencyKeyRepository.complete(result.getKey(), result.getFingerprint(), result.getResult(),
+                result.getExpiresAt()) > 0;
+    }
+
+    /**
+     * Drops a claimed idempotency key that has no result, so the request can be submitted again
+     *
+     * @param claim The key and the fingerprint of the claim
+     */
+    @Override
+    public void release(IdempotentResult claim) {
+        idempotencyKeyRepository.release(claim.getKey(), claim.getFingerprint());
+    }
+
+    /**
+     * Deletes the keys whose time to live has passed
+     *
+     * @param now The current time
+     * @return The number of keys deleted
+     */
+    @Override
+    public int deleteExpired(LocalDateTime now) {
+        return idempotencyKeyRepository.deleteExpired(now);
+    }
+}
@@ -2,28 +2,64 @@ package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.adapterim
 
 import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.Kardex;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.KardexDailyRollup;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.TopSellingProduct;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.ValuationCheckpoint;
 import com.tienda.com.tienda.inventoryserver.domain.port.KardexPersistancePort;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexDailyRollupEntity;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexDailyRollupId;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexEntity;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexLedgerHeadEntity;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexOutboxEntity;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.KardexNotFoundException;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper.KardexDailyRollupMapper;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper.KardexMapper;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper.KardexValuationCheckpointMapper;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository.KardexDailyRollupRepository;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository.KardexLedgerHeadRepository;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository.KardexOutboxRepository;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository.KardexRepository;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository.KardexValuationCheckpointRepository;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 @AllArgsConstructor
 public class KardexPersistanceAdapter implements KardexPersistancePort {
 
+    private static final Comparator<KardexEntity> LEDGER_ORDER = Comparator.comparing(KardexEntity::getMovementDate)
+            .thenComparing(KardexEntity::getId, KardexPersistanceAdapter::compareUnsigned);
+
     private final KardexRepository kardexRepository;
     private final KardexMapper kardexMapper;
+    private final KardexDailyRollupRepository kardexDailyRollupRepository;
+    private final KardexDailyRollupMapper kardexDailyRollupMapper;
+    private final EntityManager entityManager;
+    private final KardexOutboxRepository kardexOutboxRepository;
+    private final KardexValuationCheckpointRepository kardexValuationCheckpointRepository;
+    private final KardexValuationCheckpointMapper kardexValuationCheckpointMapper;
+    private final KardexLedgerHeadRepository kardexLedgerHeadRepository;
 
     /**
      * Retrieves all Kardex records for a given product ID
@@ -77,7 +113,7 @@ public class KardexPersistanceAdapter implements KardexPersistancePort {
     }
 
     /**
-     * Retrieves the top-selling products within a specified date range
+     * Retrieves the top-selling products within a specified date range from the daily rollups
      *
      * @param after The start date of the range
      * @param before The end date of the range
@@ -86,7 +122,7 @@ public class KardexPersistanceAdapter implements KardexPersistancePort {
      */
     @Override
     public List<TopSellingProduct> findTopSellingProducts(LocalDate after, LocalDate before, int limit) {
-        return kardexRepository.findTopSellingProducts(after, before, PageRequest.of(0, limit))
+        return kardexDailyRollupRepository.findTopSellingProducts(after, before, PageRequest.of(0, limit))
                 .stream()
                 .map(objects -> new TopSellingProduct(
                         (String) objects[0],    // productId
@@ -96,7 +132,7 @@ public class KardexPersistanceAdapter implements KardexPersistancePort {
     }
 
     /**
-     * Calculates the total earnings within a specified date range
+     * Calculates the total earnings within a specified date range from the daily rollups
      *
      * @param startDate The start date of the range
      * @param endDate The end date of the range
@@ -104,7 +140,88 @@ public class KardexPersistanceAdapter implements KardexPersistancePort {
      */
     @Override
     public BigDecimal calculateEarningsBetweenDates(LocalDate startDate, LocalDate endDate) {
-        return kardexRepository.calculateEarningsBetweenDates(startDate, endDate);
+        return kardexDailyRollupRepository.calculateEarningsBetweenDates(startDate, endDate);
+    }
+
+    /**
+     * Stores Kardex records in the write-behind outbox
+     * Joins the transaction of the stock movement, so the records commit or roll back with it
+     *
+     * @param kardexList The Kardex records to write behind
+     */
+    @Override
+    public void enqueueAll(List<Kardex> kardexList) {
+        kardexOutboxRepository.saveAll(kardexList.stream()
+                .map(kardex -> KardexOutboxEntity.builder().kardex(kardex).build())
+                .toList());
+    }
+
+    /**
+     * Moves the oldest records of the write-behind outbox into the Kardex in one transaction
+     * The outbox rows stay locked until the batch commits, so instances flush one batch at a time in movement order
+     *
+     * @param limit The maximum number of records to move
+     * @return The created Kardex records, empty if the outbox was empty
+     */
+    @Override
+    public List<Kardex> flushOutbox(int limit) {
+        var pending = kardexOutboxRepository.findAllByOrderByIdAsc(Limit.of(limit));
+        if (pending.isEmpty()) return List.of();
+        var savedKardex = createAll(pending.stream().map(KardexOutboxEntity::getKardex).toList());
+        kardexOutboxRepository.deleteAllInBatch(pending);
+        return savedKardex;
+    }
+
+    /**
+     * Retrieves the daily rollups of the Kardex records within a specified date range
+     *
+     * @param startDate The start date of the range
+     * @param endDate The end date of the range
+     * @return The daily rollups ordered by day
+     */
+    @Override
+    public List<KardexDailyRollup> findAllDailyRollupsBetween(LocalDate startDate, LocalDate endDate) {
+        return kardexDailyRollupRepository.findAllByMovementDateBetweenOrderByMovementDateAsc(startDate, endDate)
+                .stream().map(kardexDailyRollupMapper::toDomain).toList();
+    }
+
+    /**
+     * Checks whether any daily rollup has been generated
+     *
+     * @return true if the rollup table holds at least one record
+     */
+    @Override
+    public boolean hasDailyRollups() {
+        return kardexDailyRollupRepository.count() > 0;
+    }
+
+    /**
+     * Regenerates every daily rollup from the Kardex records
+     *
+     * @return The number of daily rollups generated
+     */
+    @Override
+    public int rebuildDailyRollups() {
+        var rollups = kardexRepository.summarizeDailyMovements().stream().map(this::toRollupEntity).toList();
+        kardexDailyRollupRepository.deleteAllInBatch();
+        kardexDailyRollupRepository.saveAll(rollups);
+        return rollups.size();
+    }
+
+    /**
+     * Regenerates the daily rollups of a date range from the Kardex records
+     *
+     * @param startDate The start date of the range
+     * @param endDate The end date of the range
+     * @return The number of daily rollups generated
+     */
+    @Override
+    public int rebuildDailyRollups(LocalDate startDate, LocalDate endDate) {
+        var rollups = kardexRepository.summarizeDailyMovementsBetween(startDate, endDate).stream()
+                .map(this::toRollupEntity).toList();
+        kardexDailyRollupRepository.deleteAllByMovementDateBetween(startDate, endDate);
+        kardexDailyRollupRepository.saveAll(rollups);
+        return rollups.size();
     }
 
     /**
@@ -119,6 +236,122 @@ public class KardexPersistanceAdapter implements KardexPersistancePort {
         return kardexMapper.toDomain(kardex);
     }
 
+    /**
+     * Retrieves the last Kardex record of a product on or before a given day
+     * Its running balance is the stock on hand of the product at the end of that day
+     *
+     * @param productId The product ID to search for
+     * @param asOf The last day to consider
+     * @return The last Kardex record up to that day, or null if the product had no movement yet
+     */
+    @Override
+    public Kardex getLastKardexByProductIdAsOf(String productId, LocalDate asOf) {
+        var kardex = kardexRepository
+                .findFirstByProductIdAndMovementDateLessThanEqualOrderByMovementDateDescIdDesc(productId, asOf);
+        return kardexMapper.toDomain(kardex);
+    }
+
+    /**
+     * Retrieves the IDs of every product with Kardex records
+     *
+     * @return The distinct product IDs
+     */
+    @Override
+    public List<String> findAllKardexProductIds() {
+        return kardexRepository.findAllProductIds();
+    }
+
+    /**
+     * Retrieves the IDs of the products with Kardex records whose running balance was never calculated
+     *
+     * @return The distinct product IDs
+     */
+    @Override
+    public List<String> findKardexProductIdsWithoutBalance() {
+        return kardexRepository.findAllProductIdsWithoutBalance();
+    }
+
+    /**
+     * Recalculates the running balances of every Kardex record of a product from its first movement
+     *
+     * @param productId The product ID
+     * @return The number of Kardex records recalculated
+     */
+    @Override
+    public int rebuildBalances(String productId) {
+        lockLedgers(Set.of(productId));
+        var kardex = kardexRepository.findAllByProductIdOrderByMovementDateAscIdAsc(productId);
+        applyBalances(null, kardex);
+        return kardex.size();
+    }
+
+    /**
+     * Retrieves the Kardex records of a product to replay for a valuation, in ledger order
+     *
+     * @param productId The product ID
+     * @param after The day already covered by a checkpoint, or null to start from the first movement
+     * @param asOf The last day to include
+     * @return The Kardex records after the checkpoint day up to the valuation day
+     */
+    @Override
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public List<Kardex> findAllKardexForValuation(String productId, LocalDate after, LocalDate asOf) {
+        var kardex = after == null
+                ? kardexRepository.findAllByProductIdAndMovementDateLessThanEqualOrderByMovementDateAscIdAsc(
+                        productId, asOf)
+                : kardexRepository.findAllByProductIdAndMovementDateBetweenOrderByMovementDateAscIdAsc(
+                        productId, after.plusDays(1), asOf);
+        return kardex.stream().map(kardexMapper::toDomain).toList();
+    }
+
+    /**
+     * Retrieves the latest valuation checkpoint of a product taken on or before a given day
+     *
+     * @param productId The product ID
+     * @param asOf The last day to consider
+     * @return The latest checkpoint, or null if the product has none
+     */
+    @Override
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public ValuationCheckpoint findLatestValuationCheckpoint(String productId, LocalDate asOf) {
+        var checkpoint = kardexValuationCheckpointRepository
+                .findFirstByProductIdAndAsOfLessThanEqualOrderByAsOfDesc(productId, asOf);
+        return kardexValuationCheckpointMapper.toDomain(checkpoint);
+    }
+
+    /**
+     * Retrieves the version of the ledger of a product, bumped by every write to its Kardex records
+     *
+     * @param productId The product ID
+     * @return The version of the ledger, 0 if the product has no movement yet
+     */
+    @Override
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public long findLedgerVersion(String productId) {
+        return kardexLedgerHeadRepository.findById(productId).map(KardexLedgerHeadEntity::getVersion).orElse(0L);
+    }
+
+    /**
+     * Saves the valuation checkpoints of a product, replacing the ones already taken for the same day
+     * The ledger lock of the product is taken first, and the checkpoints are only saved if no movement was
+     * written since the version they were replayed from, so a back-dated movement committed meanwhile never
+     * leaves a stale checkpoint behind
+     *
+     * @param checkpoints The checkpoints of one product to save
+     * @param ledgerVersion The version of the ledger read before the movements were replayed
+     * @return true if the checkpoints were saved, false if the ledger changed
+     */
+    @Override
+    public boolean saveValuationCheckpoints(List<ValuationCheckpoint> checkpoints, long ledgerVersion) {
+        var productId = checkpoints.getFirst().getProductId();
+        var currentVersion = kardexLedgerHeadRepository.findWithLockByProductId(productId)
+                .map(KardexLedgerHeadEntity::getVersion).orElse(0L);
+        if (currentVersion != ledgerVersion) return false;
+        kardexValuationCheckpointRepository.saveAll(
+                checkpoints.stream().map(kardexValuationCheckpointMapper::toEntity).toList());
+        return true;
+    }
+
     /**
      * Retrieves a Kardex record by its UUID
      *
@@ -142,11 +375,33 @@ public class KardexPersistanceAdapter implements KardexPersistancePort {
     @Override
     public Kardex create(Kardex request) {
         var kardexEntity = kardexMapper.toEntity(request);
-        return kardexMapper.toDomain(kardexRepository.save(kardexEntity));
+        lockLedgers(Set.of(kardexEntity.getProductId()));
+        var savedEntity = kardexRepository.save(kardexEntity);
+        refreshLedgers(List.of(savedEntity));
+        accumulateDailyRollups(List.of(savedEntity));
+        return kardexMapper.toDomain(savedEntity);
+    }
+
+    /**
+     * Creates several Kardex records, inserted as one batch with the transaction
+     *
+     * @param kardexList The Kardex records to create
+     * @return The created Kardex records
+     */
+    @Override
+    public List<Kardex> createAll(List<Kardex> kardexList) {
+        var kardexEntities = kardexList.stream().map(kardexMapper::toEntity).toList();
+        lockLedgers(kardexEntities.stream().map(KardexEntity::getProductId).toList());
+        var savedEntities = kardexRepository.saveAll(kardexEntities);
+        refreshLedgers(savedEntities);
+        accumulateDailyRollups(savedEntities);
+        return savedEntities.stream().map(kardexMapper::toDomain).toList();
     }
 
     /**
      * Updates an existing Kardex record
+     * The record is read again once the ledgers of its products are locked, so it reflects the last
+     * committed balances
      *
      * @param request The updated Kardex record
      * @param uuid The UUID of the Kardex record to update
@@ -158,9 +413,28 @@ public class KardexPersistanceAdapter implements KardexPersistancePort {
         var kardexToUpdate = kardexRepository.findById(uuid).orElseThrow(
                 () -> new KardexNotFoundException("Registro no encontrado")
         );
-        var kardexEntity = kardexMapper.toEntity(request);
-        UpdateHelper.updateNonNullFields(kardexEntity, kardexToUpdate);
-        return kardexMapper.toDomain(kardexRepository.save(kardexToUpdate));
+        lockLedgers(Stream.of(kardexToUpdate.getProductId(), request.getProductId()).filter(Objects::nonNull).toList());
+        entityManager.refresh(kardexToUpdate);
+        Set<KardexDailyRollupId> rollupIds = new LinkedHashSet<>(Set.of(rollupIdOf(kardexToUpdate)));
+        var previousProductId = kardexToUpdate.getProductId();
+        var previousMovementDate = kardexToUpdate.getMovementDate();
+        var previousQuantity = kardexToUpdate.getQuantity();
+        kardexMapper.updateEntity(request, kardexToUpdate);
+        if (request.getCostOfGoodsSold() == null && (!previousQuantity.equals(kardexToUpdate.getQuantity())
+                || !previousProductId.equals(kardexToUpdate.getProductId())))
+            kardexToUpdate.setCostOfGoodsSold(null);
+        var savedEntity = kardexRepository.save(kardexToUpdate);
+        rollupIds.add(rollupIdOf(savedEntity));
+        if (previousProductId.equals(savedEntity.getProductId())) {
+            var from = previousMovementDate.isBefore(savedEntity.getMovementDate())
+                    ? previousMovementDate : savedEntity.getMovementDate();
+            refreshLedgerFrom(previousProductId, from, uuid);
+        } else {
+            refreshLedgerFrom(previousProductId, previousMovementDate, uuid);
+            refreshLedgerFrom(savedEntity.getProductId(), savedEntity.getMovementDate(), uuid);
+        }
+        refreshDailyRollups(rollupIds);
+        return kardexMapper.toDomain(savedEntity);
     }
 
     /**
@@ -170,6 +444,273 @@ public class KardexPersistanceAdapter implements KardexPersistancePort {
      */
     @Override
     public void deleteById(UUID uuid) {
+        var kardexEntity = kardexRepository.findById(uuid);
+        kardexEntity.ifPresent(entity -> lockLedgers(Set.of(entity.getProductId())));
         kardexRepository.deleteById(uuid);
+        kardexEntity.ifPresent(entity -> {
+            refreshDailyRollups(Set.of(rollupIdOf(entity)));
+            refreshLedgerFrom(entity.getProductId(), entity.getMovementDate(), uuid);
+        });
+    }
+
+    /**
+     * Streams the Kardex records within a date range, optionally of a single product, in a read-only transaction
+     * Rows are fetched from the database in chunks and detached once handed over, so memory stays flat
+     *
+     * @param after The start date of the range
+     * @param before The end date of the range
+     * @param productId The product ID to filter by, or null for every product
+     * @param consumer Receives every Kardex record ordered by movement date
+     */
+    @Override
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public void streamKardexByMovementDateBetween(LocalDate after, LocalDate before, String productId,
+                                                  Consumer<Kardex> consumer) {
+        try (var kardex = kardexRepository.streamAllByMovementDateBetween(after, before, productId)) {
+            forEachDetached(kardex, consumer);
+        }
+    }
+
+    /**
+     * Streams every Kardex record of a product in a read-only transaction, most recent first
+     *
+     * @param productId The product ID to search for
+     * @param consumer Receives every Kardex record of the product
+     */
+    @Override
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public void streamKardexByProductId(String productId, Consumer<Kardex> consumer) {
+        try (var kardex = kardexRepository.streamAllByProductId(productId)) {
+            forEachDetached(kardex, consumer);
+        }
+    }
+
+    /**
+     * Hands every streamed Kardex record to the consumer and detaches it from the persistence context
+     *
+     * @param kardex The streamed Kardex records
+     * @param consumer Receives every Kardex record
+     */
+    private void forEachDetached(Stream<KardexEntity> kardex, Consumer<Kardex> consumer) {
+        kardex.forEach(entity -> {
+            consumer.accept(kardexMapper.toDomain(entity));
+            entityManager.detach(entity);
+        });
+    }
+
+    /**
+     * Adds new Kardex records to their daily rollups with one atomic upsert per day, product and movement type
+     *
+     * @param kardexEntities The Kardex records just inserted
+     */
+    private void accumulateDailyRollups(List<KardexEntity> kardexEntities) {
+        Map<KardexDailyRollupId, KardexDailyRollupEntity> increments = new LinkedHashMap<>();
+        for (KardexEntity kardex : kardexEntities)
+            increments.merge(rollupIdOf(kardex), KardexDailyRollupEntity.builder()
+                    .movementDate(kardex.getMovementDate())
+                    .productId(kardex.getProductId())
+                    .typeMovement(kardex.getTypeMovement())
+                    .quantity(kardex.getQuantity())
+                    .totalPrice(kardex.getTotalPrice())
+                    .minUnitPrice(kardex.getUnitPrice())
+                    .maxUnitPrice(kardex.getUnitPrice())
+                    .costOfGoodsSold(costOfGoodsSoldOf(kardex))
+                    .build(), this::combineRollups);
+        increments.values().forEach(rollup -> kardexDailyRollupRepository.accumulate(rollup.getMovementDate(),
+                rollup.getProductId(), rollup.getTypeMovement().name(), rollup.getQuantity(),
+                rollup.getTotalPrice(), rollup.getMinUnitPrice(), rollup.getMaxUnitPrice(),
+                rollup.getCostOfGoodsSold()));
+    }
+
+    /**
+     * Re-derives the given daily rollups from the Kardex records, dropping the ones left without records
+     *
+     * @param rollupIds The day, product and movement type of each rollup
+     */
+    private void refreshDailyRollups(Set<KardexDailyRollupId> rollupIds) {
+        for (KardexDailyRollupId rollupId : rollupIds) {
+            var rows = kardexRepository.summarizeDailyMovementsOf(
+                    rollupId.getMovementDate(), rollupId.getProductId(), rollupId.getTypeMovement());
+            if (rows.isEmpty()) kardexDailyRollupRepository.deleteById(rollupId);
+            else kardexDailyRollupRepository.save(toRollupEntity(rows.getFirst()));
+        }
+    }
+
+    /**
+     * Recalculates the running balances of the products of new Kardex records
+     * Each product is recalculated from its earliest new record, so back-dated movements also shift the later ones
+     * and drop the valuation checkpoints they invalidate
+     *
+     * @param kardexEntities The Kardex records just inserted
+     */
+    private void refreshLedgers(List<KardexEntity> kardexEntities) {
+        Map<String, KardexEntity> earliestByProduct = new LinkedHashMap<>();
+        for (KardexEntity kardex : kardexEntities)
+            earliestByProduct.merge(kardex.getProductId(), kardex,
+                    (first, second) -> LEDGER_ORDER.compare(first, second) <= 0 ? first : second);
+        earliestByProduct.values().forEach(kardex ->
+                refreshLedgerFrom(kardex.getProductId(), kardex.getMovementDate(), kardex.getId()));
+    }
+
+    /**
+     * Locks the ledgers of some products until the transaction ends, in product order so writers touching
+     * several products never wait on each other in a cycle
+     * Every write to the Kardex records of a product takes this lock before its first statement, so two
+     * movements of the same product never calculate their balances from the same preceding record
+     *
+     * @param productIds The product IDs
+     */
+    private void lockLedgers(Collection<String> productIds) {
+        new TreeSet<>(productIds).forEach(kardexLedgerHeadRepository::lockProduct);
+    }
+
+    /**
+     * Recalculates the running balances of a product from a position of its ledger onwards
+     * The caller holds the ledger lock of the product, the records are read locked so they reflect every
+     * movement committed before it
+     * The record right before the position carries the balance over, when it has none yet the product is
+     * still waiting for the startup backfill, so the run is left without balance for the backfill to pick up
+     * Valuation checkpoints taken on or after a past day no longer hold and are dropped
+     *
+     * @param productId The product ID
+     * @param movementDate The day of the first record to recalculate
+     * @param id The UUID of the first record to recalculate, records of the same day are ordered by UUID
+     */
+    private void refreshLedgerFrom(String productId, LocalDate movementDate, UUID id) {
+        if (movementDate.isBefore(LocalDate.now()))
+            kardexValuationCheckpointRepository.deleteAllFromDay(productId, movementDate);
+        var preceding = kardexRepository.findPrecedingInProduct(productId, movementDate, id, PageRequest.of(0, 1));
+        var run = kardexRepository.findAllFromPositionInProduct(productId, movementDate, id);
+        if (preceding.isEmpty())
+            applyBalances(null, run);
+        else if (hasBalance(preceding.getFirst()))
+            applyBalances(preceding.getFirst(), run);
+        else
+            run.forEach(kardex -> {
+                kardex.setBalanceQuantity(null);
+                kardex.setBalanceValue(null);
+            });
+    }
+
+    /**
+     * Carries the running quantity and value of a product over a run of consecutive records
+     * Incomes add their total price, outputs remove the cost of the lots they consumed and returns come back
+     * at the weighted average cost
+     * Outputs recorded without the cost of their lots are charged at the weighted average cost, which is then
+     * kept as their cost of goods sold
+     *
+     * @param preceding The record right before the run, or null if the run starts the ledger
+     * @param kardexEntities The records of the run in ledger order
+     */
+    private void applyBalances(KardexEntity preceding, List<KardexEntity> kardexEntities) {
+        int quantity = preceding == null ? 0 : preceding.getBalanceQuantity();
+        var value = preceding == null ? BigDecimal.ZERO : preceding.getBalanceValue();
+        for (KardexEntity kardex : kardexEntities) {
+            int units = kardex.getQuantity();
+            switch (kardex.getTypeMovement()) {
+                case INCOME -> value = value.add(kardex.getTotalPrice());
+                case RETURN -> value = value.add(quantity > 0
+                        ? costOfUnits(value, quantity, units) : kardex.getTotalPrice());
+                case OUTCOME -> {
+                    if (kardex.getCostOfGoodsSold() == null)
+                        kardex.setCostOfGoodsSold(quantity - units > 0 ? costOfUnits(value, quantity, units)
+                                : value.max(BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP));
+                    value = quantity - units > 0
+                            ? value.subtract(kardex.getCostOfGoodsSold()).max(BigDecimal.ZERO) : BigDecimal.ZERO;
+                }
+            }
+            quantity += kardex.getTypeMovement() == TypeMove.OUTCOME ? -units : units;
+            kardex.setBalanceQuantity(quantity);
+            kardex.setBalanceValue(value.setScale(2, RoundingMode.HALF_UP));
+        }
+    }
+
+    /**
+     * Values a number of units at the weighted average cost of a balance
+     *
+     * @param value The value of the balance
+     * @param quantity The quantity of the balance, greater than zero
+     * @param units The units to value
+     * @return The value of the units
+     */
+    private BigDecimal costOfUnits(BigDecimal value, int quantity, int units) {
+        return value.multiply(BigDecimal.valueOf(units)).divide(BigDecimal.valueOf(quantity), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Checks whether the running balance of a Kardex record was calculated
+     *
+     * @param kardex The Kardex record
+     * @return true if both balance columns are set
+     */
+    private boolean hasBalance(KardexEntity kardex) {
+        return kardex.getBalanceQuantity() != null && kardex.getBalanceValue() != null;
+    }
+
+    /**
+     * Compares two UUIDs as unsigned bytes, the order the database uses for the binary primary key
+     *
+     * @param first The first UUID
+     * @param second The second UUID
+     * @return A negative number, zero or a positive number as the first UUID sorts before, with or after the second
+     */
+    private static int compareUnsigned(UUID first, UUID second) {
+        int high = Long.compareUnsigned(first.getMostSignificantBits(), second.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(first.getLeastSignificantBits(), second.getLeastSignificantBits());
+    }
+
+    /**
+     * Merges two partial rollups of the same day, product and movement type
+     *
+     * @param first The first partial rollup
+     * @param second The second partial rollup
+     * @return The first rollup holding both
+     */
+    private KardexDailyRollupEntity combineRollups(KardexDailyRollupEntity first, KardexDailyRollupEntity second) {
+        first.setQuantity(first.getQuantity() + second.getQuantity());
+        first.setTotalPrice(first.getTotalPrice().add(second.getTotalPrice()));
+        first.setMinUnitPrice(first.getMinUnitPrice().min(second.getMinUnitPrice()));
+        first.setMaxUnitPrice(first.getMaxUnitPrice().max(second.getMaxUnitPrice()));
+        first.setCostOfGoodsSold(first.getCostOfGoodsSold().add(second.getCostOfGoodsSold()));
+        return first;
+    }
+
+    /**
+     * Builds a daily rollup from a row of the grouped Kardex query
+     *
+     * @param objects Day, product ID, movement type, quantity, total price, min and max unit price and cost of goods sold
+     * @return The daily rollup entity
+     */
+    private KardexDailyRollupEntity toRollupEntity(Object[] objects) {
+        return KardexDailyRollupEntity.builder()
+                .movementDate((LocalDate) objects[0])
+                .productId((String) objects[1])
+                .typeMovement((TypeMove) objects[2])
+                .quantity(((Number) objects[3]).intValue())
+                .totalPrice((BigDecimal) objects[4])
+                .minUnitPrice((BigDecimal) objects[5])
+                .maxUnitPrice((BigDecimal) objects[6])
+                .costOfGoodsSold((BigDecimal) objects[7])
+                .build();
+    }
+
+    /**
+     * Reads the cost of goods sold of a Kardex record for its daily rollup
+     *
+     * @param kardex The Kardex record
+     * @return The cost of goods sold, zero when the record has none
+     */
+    private BigDecimal costOfGoodsSoldOf(KardexEntity kardex) {
+        return kardex.getCostOfGoodsSold() == null ? BigDecimal.ZERO : kardex.getCostOfGoodsSold();
+    }
+
+    /**
+     * Identifies the daily rollup a Kardex record belongs to
+     *
+     * @param kardex The Kardex record
+     * @return The day, product and movement type of the record
+     */
+    private KardexDailyRollupId rollupIdOf(KardexEntity kardex) {
+        return new KardexDailyRollupId(kardex.getMovementDate(), kardex.getProductId(), kardex.getTypeMovement());
     }
 }
@@ -1,18 +1,29 @@
 package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.adapterimpl;
 
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.Stock;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.StockSummary;
 import com.tienda.com.tienda.inventoryserver.domain.port.StockPersistancePort;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.StockEntity;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.StockSummaryEntity;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.StockNotFoundException;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper.StockMapper;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper.StockSummaryMapper;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository.StockRepository;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository.StockSummaryRepository;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -21,6 +32,8 @@ public class StockPersistanceAdapter implements StockPersistancePort {
 
     private final StockRepository stockRepository;
     private final StockMapper stockMapper;
+    private final StockSummaryRepository stockSummaryRepository;
+    private final StockSummaryMapper stockSummaryMapper;
 
     /**
      * Method to get all stock records by product ID
@@ -69,6 +82,115 @@ public class StockPersistanceAdapter implements StockPersistancePort {
         return stocks.stream().map(stockMapper::toDomain).toList();
     }
 
+    /**
+     * Method to get the stock summary of every product from the stock_summary table
+     *
+     * @return List of stock summaries, one per product
+     */
+    @Override
+    public List<StockSummary> findAllStockSummaries() {
+        return stockSummaryRepository.findAll().stream().map(stockSummaryMapper::toDomain).toList();
+    }
+
+    /**
+     * Method to get the stock summary of a product from the stock_summary table
+     *
+     * @param productId Product ID
+     * @return The stock summary of the product, or empty if it has no lots
+     */
+    @Override
+    public Optional<StockSummary> findStockSummary(String productId) {
+        return stockSummaryRepository.findById(productId).map(stockSummaryMapper::toDomain);
+    }
+
+    /**
+     * Method to regenerate the whole stock_summary table from the stock records
+     * The rows are deleted before the stock is read, so concurrent lot changes wait and add their
+     * change on top of the regenerated rows instead of being overwritten
+     *
+     * @param today Date used to tell valid lots from expired ones
+     * @return Number of products summarized
+     */
+    @Override
+    public int rebuildStockSummaries(LocalDate today) {
+        stockSummaryRepository.deleteAllInBatch();
+        var summaries = stockRepository.summarizeStockByProduct(today).stream().map(this::toSummaryEntity).toList();
+        stockSummaryRepository.saveAll(summaries);
+        return summaries.size();
+    }
+
+    /**
+     * Method to re-derive the summaries of the products that hold lots reaching their expiry date
+     * The rows are locked before the stock is read, so concurrent lot changes wait and add their
+     * change on top of the re-derived rows instead of being overwritten
+     *
+     * @param today Date used to tell valid lots from expired ones
+     * @return Number of products refreshed
+     */
+    @Override
+    public int refreshExpiredStockSummaries(LocalDate today) {
+        var productIds = stockSummaryRepository.findAllByOldestExpiryDateLessThanEqual(today).stream()
+                .map(StockSummaryEntity::getProductId).collect(Collectors.toSet());
+        if (productIds.isEmpty()) return 0;
+        var summaries = stockRepository.summarizeStockOfProducts(productIds, today).stream()
+                .map(this::toSummaryEntity).toList();
+        var summarizedIds = summaries.stream().map(StockSummaryEntity::getProductId).collect(Collectors.toSet());
+        stockSummaryRepository.saveAll(summaries);
+        stockSummaryRepository.deleteAllById(productIds.stream().filter(id -> !summarizedIds.contains(id)).toList());
+        return productIds.size();
+    }
+
+    /**
+     * Method to get and lock all stock records of several products with a single query
+     * The lock is held until the surrounding transaction ends
+     *
+     * @param productIds Product IDs
+     * @return List of Stock objects for the given products
+     */
+    @Override
+    public List<Stock> findAllStocksByProductIdsForUpdate(Collection<String> productIds) {
+        var stockEntities = stockRepository.findAllByProductIdInOrderByIdAsc(productIds);
+        return stockEntities.stream().map(stockMapper::toDomain).toList();
+    }
+
+    /**
+     * Method to read the valid quantity of several products from the stock_summary table with a shared lock
+     * A locking read sees the latest committed summary, and lot changes of those products wait until the
+     * surrounding transaction ends
+     *
+     * @param productIds Product IDs
+     * @return The valid quantity by product, products without a summary are left out
+     */
+    @Override
+    public Map<String, Integer> findValidQuantitiesForShare(Collection<String> productIds) {
+        return stockSummaryRepository.findAllByProductIdInOrderByProductIdAsc(productIds).stream()
+                .collect(Collectors.toMap(StockSummaryEntity::getProductId, StockSummaryEntity::getValidQuantity));
+    }
+
+    /**
+     * Method to set the quantity of several stock records, flushed as one batch right away
+     * so the returned lots carry the version written by this change
+     *
+     * @param quantities New quantity for each stock UUID
+     * @return List of updated Stock objects
+     */
+    @Override
+    public List<Stock> updateQuantities(Map<UUID, Integer> quantities) {
+        var today = LocalDate.now();
+        Map<String, SummaryDelta> deltas = new TreeMap<>();
+        var stockEntities = quantities.entrySet().stream().map(entry -> {
+            var stockEntity = stockRepository.findById(entry.getKey()).orElseThrow(
+                    () -> new StockNotFoundException("Stock not found"));
+            addLotChange(deltas, LotState.of(stockEntity), -1, today);
+            stockEntity.setQuantity(entry.getValue());
+            addLotChange(deltas, LotState.of(stockEntity), 1, today);
+            return stockEntity;
+        }).toList();
+        var savedEntities = stockRepository.saveAllAndFlush(stockEntities);
+        applySummaryDeltas(deltas);
+        return savedEntities.stream().map(stockMapper::toDomain).toList();
+    }
+
     /**
      * Method to get stock records between purchase dates
      *
@@ -116,42 +238,53 @@ public class StockPersistanceAdapter implements StockPersistancePort {
     @Override
     public Stock create(Stock request) {
         var stockEntity = stockMapper.toEntity(request);
-        return stockMapper.toDomain(stockRepository.save(stockEntity));
+        var savedEntity = stockRepository.save(stockEntity);
+        Map<String, SummaryDelta> deltas = new TreeMap<>();
+        addLotChange(deltas, LotState.of(savedEntity), 1, LocalDate.now());
+        applySummaryDeltas(deltas);
+        return stockMapper.toDomain(savedEntity);
     }
 
     /**
-     * Method to update an existing stock record
+     * Method to create several stock records, inserted as one batch with the transaction
      *
-     * @param request Stock request object
-     * @param uuid Stock UUID
-     * @return Updated Stock object
+     * @param stocks Stock objects to create
+     * @return Created Stock objects
      */
     @Override
-    public Stock update(Stock request, UUID uuid) {
-        var stockToUpdate = stockRepository.findById(uuid).orElseThrow(
-                () -> new RuntimeException("Stock not found"));
-        var stockEntity = stockMapper.toEntity(request);
-        UpdateHelper.updateNonNullFields(stockEntity, stockToUpdate);
-        if (request.getQuantity() != null || request.getPurchaseUnitCost() != null)
-            stockToUpdate.setTotalPurchaseCost(stockToUpdate.getPurchaseUnitCost()
-                    .multiply(new BigDecimal(stockToUpdate.getQuantity())));
-        return stockMapper.toDomain(stockRepository.save(stockToUpdate));
+    public List<Stock> createAll(List<Stock> stocks) {
+        var stockEntities = stocks.stream().map(stockMapper::toEntity).toList();
+        var savedEntities = stockRepository.saveAll(stockEntities);
+        var today = LocalDate.now();
+        Map<String, SummaryDelta> deltas = new TreeMap<>();
+        savedEntities.forEach(entity -> addLotChange(deltas, LotState.of(entity), 1, today));
+        applySummaryDeltas(deltas);
+        return savedEntities.stream().map(stockMapper::toDomain).toList();
     }
 
     /**
-     * Method to update stock by decrementing the quantity
+     * Method to update an existing stock record, flushed right away so the returned lot carries its new version
      *
      * @param request Stock request object
      * @param uuid Stock UUID
      * @return Updated Stock object
      */
     @Override
-    public Stock updateDecrement(Stock request, UUID uuid) {
+    public Stock update(Stock request, UUID uuid) {
         var stockToUpdate = stockRepository.findById(uuid).orElseThrow(
                 () -> new RuntimeException("Stock not found"));
-        var stockEntity = stockMapper.toEntity(request);
-        UpdateHelper.updateNonNullFields(stockEntity, stockToUpdate);
-        return stockMapper.toDomain(stockRepository.save(stockToUpdate));
+        var previousLot = LotState.of(stockToUpdate);
+        stockMapper.updateEntity(request, stockToUpdate);
+        if (request.getQuantity() != null || request.getPurchaseUnitCost() != null)
+            stockToUpdate.setTotalPurchaseCost(stockToUpdate.getPurchaseUnitCost()
+                    .multiply(new BigDecimal(stockToUpdate.getQuantity())));
+        var savedEntity = stockRepository.saveAndFlush(stockToUpdate);
+        var today = LocalDate.now();
+        Map<String, SummaryDelta> deltas = new TreeMap<>();
+        addLotChange(deltas, previousLot, -1, today);
+        addLotChange(deltas, LotState.of(savedEntity), 1, today);
+        applySummaryDeltas(deltas);
+        return stockMapper.toDomain(savedEntity);
     }
 
     /**
@@ -164,5 +297,100 @@ public class StockPersistanceAdapter implements StockPersistancePort {
         var stockEntity = stockRepository.findById(uuid).orElseThrow(
                 () -> new RuntimeException("Stock not found"));
         stockRepository.deleteById(stockEntity.getId());
+        Map<String, SummaryDelta> deltas = new TreeMap<>();
+        addLotChange(deltas, LotState.of(stockEntity), -1, LocalDate.now());
+        applySummaryDeltas(deltas);
+        stockSummaryRepository.deleteIfNoLots(stockEntity.getProductId());
+    }
+
+    /**
+     * Adds or subtracts what a lot contributes to the summary of its product
+     *
+     * @param deltas The pending changes by product
+     * @param lot    The lot
+     * @param sign   1 to add the lot, -1 to subtract it
+     * @param today  Date used to tell valid lots from expired ones
+     */
+    private void addLotChange(Map<String, SummaryDelta> deltas, LotState lot, int sign, LocalDate today) {
+        var delta = deltas.computeIfAbsent(lot.productId(), productId -> new SummaryDelta());
+        int quantity = lot.quantity();
+        var expiryDate = lot.expiryDate();
+        if (expiryDate == null || expiryDate.isAfter(today)) delta.valid += sign * quantity;
+        else if (expiryDate.isBefore(today)) delta.expired += sign * quantity;
+        if (quantity > 0) delta.lots += sign;
+        delta.quantity += (long) sign * quantity;
+        delta.cost = delta.cost.add(lot.unitCost().multiply(BigDecimal.valueOf((long) sign * quantity)));
+        if (sign > 0 && quantity > 0 && expiryDate != null && !expiryDate.isBefore(today)
+                && (delta.expiry == null || expiryDate.isBefore(delta.expiry)))
+            delta.expiry = expiryDate;
+    }
+
+    /**
+     * Writes the pending changes of each product to its stock_summary row as increments, in product order
+     * so transactions touching several products lock their rows in the same order
+     * The row is updated in place by the database, so concurrent changes to other lots of the same
+     * product add up instead of overwriting each other
+     *
+     * @param deltas The pending changes by product
+     */
+    private void applySummaryDeltas(Map<String, SummaryDelta> deltas) {
+        deltas.forEach((productId, delta) -> {
+            if (delta.isEmpty()) return;
+            stockSummaryRepository.applyDelta(productId, delta.valid, delta.expired, delta.lots,
+                    delta.quantity, delta.cost, delta.expiry);
+        });
+    }
+
+    /**
+     * Builds a stock_summary row from a row of the grouped stock query
+     *
+     * @param objects Product ID, valid and expired quantity, lot count, oldest expiry, total cost and total quantity
+     * @return The stock summary entity
+     */
+    private StockSummaryEntity toSummaryEntity(Object[] objects) {
+        long totalQuantity = ((Number) objects[6]).longValue();
+        var totalCost = objects[5] != null ? new BigDecimal(objects[5].toString()) : BigDecimal.ZERO;
+        return StockSummaryEntity.builder()
+                .productId((String) objects[0])
+                .validQuantity(((Number) objects[1]).intValue())
+                .expiredQuantity(((Number) objects[2]).intValue())
+                .lotCount(((Number) objects[3]).intValue())
+                .oldestExpiryDate((LocalDate) objects[4])
+                .weightedAverageCost(totalQuantity == 0 ? BigDecimal.ZERO
+                        : totalCost.divide(BigDecimal.valueOf(totalQuantity), 2, RoundingMode.HALF_UP))
+                .totalQuantity(totalQuantity)
+                .totalCost(totalCost)
+                .build();
+    }
+
+    /**
+     * The quantity, expiry and cost of a lot at one point of a change
+     */
+    private record LotState(String productId, int quantity, LocalDate expiryDate, BigDecimal unitCost) {
+
+        static LotState of(StockEntity stockEntity) {
+            return new LotState(stockEntity.getProductId(),
+                    stockEntity.getQuantity() != null ? stockEntity.getQuantity() : 0,
+                    stockEntity.getExpiryDate(), stockEntity.getPurchaseUnitCost() != null
+                            ? stockEntity.getPurchaseUnitCost() : BigDecimal.ZERO);
+        }
+    }
+
+    /**
+     * The pending change of the summary of one product
+     * The expiry is the earliest pending expiry gained by the change, the row keeps the earlier of both
+     */
+    private static final class SummaryDelta {
+        int valid;
+        int expired;
+        int lots;
+        long quantity;
+        BigDecimal cost = BigDecimal.ZERO;
+        LocalDate expiry;
+
+        boolean isEmpty() {
+            return valid == 0 && expired == 0 && lots == 0 && quantity == 0
+                    && cost.signum() == 0 && expiry == null;
+        }
     }
 }
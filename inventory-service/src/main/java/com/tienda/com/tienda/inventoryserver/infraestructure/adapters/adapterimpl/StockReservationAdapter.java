@@ -0,0 +1,136 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.adapterimpl;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.ReservationStatus;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.StockReservation;
+import com.tienda.com.tienda.inventoryserver.domain.port.StockReservationPort;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.ReservationHoldEntity;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.StockReservationEntity;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper.StockReservationMapper;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository.ReservationHoldRepository;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository.StockReservationRepository;
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Transactional
+@Service
+@AllArgsConstructor
+public class StockReservationAdapter implements StockReservationPort {
+
+    private final StockReservationRepository stockReservationRepository;
+    private final StockReservationMapper stockReservationMapper;
+    private final ReservationHoldRepository reservationHoldRepository;
+
+    /**
+     * Stores the lines of a reservation as one batch
+     *
+     * @param reservations The lines of the reservation
+     * @return The stored lines
+     */
+    @Override
+    public List<StockReservation> createAll(List<StockReservation> reservations) {
+        var entities = reservations.stream().map(stockReservationMapper::toEntity).toList();
+        return stockReservationRepository.saveAll(entities).stream().map(stockReservationMapper::toDomain).toList();
+    }
+
+    /**
+     * Finds the lines of a reservation
+     *
+     * @param reservationId The ID of the reservation
+     * @return The lines of the reservation, empty if it does not exist
+     */
+    @Override
+    public List<StockReservation> findByReservationId(UUID reservationId) {
+        return stockReservationRepository.findAllByReservationId(reservationId).stream()
+                .map(stockReservationMapper::toDomain).toList();
+    }
+
+    /**
+     * Retrieves the units of a product held by active reservations from its hold counter
+     * Reservations past their time still count until the expiry sweep ends them
+     *
+     * @param productId The ID of the product
+     * @return The units held, zero if none
+     */
+    @Override
+    public int findHeldQuantity(String productId) {
+        return reservationHoldRepository.findById(productId).map(ReservationHoldEntity::getHeldQuantity).orElse(0);
+    }
+
+    /**
+     * Reads and locks the hold counters of several products until the transaction ends
+     * Only the counter rows are locked, the lines of the reservations are never read
+     *
+     * @param productIds The IDs of the products
+     * @return The units held by product, products without holds are left out
+     */
+    @Override
+    public Map<String, Integer> lockHeldQuantities(Collection<String> productIds) {
+        return reservationHoldRepository.findHeldForUpdate(productIds).stream()
+                .collect(Collectors.toMap(row -> (String) row[0], row -> ((Number) row[1]).intValue()));
+    }
+
+    /**
+     * Adds units to the hold counters of several products, negative units give them back
+     * The counters are locked in product order, the same order every reservation and sale uses
+     *
+     * @param quantities The units to add by product
+     */
+    @Override
+    public void addHeldQuantities(Map<String, Integer> quantities) {
+        new TreeMap<>(quantities).forEach(reservationHoldRepository::addHeld);
+    }
+
+    /**
+     * Moves an active reservation to its final status and gives back the units it held
+     * The hold counters are locked before the lines of the reservation, like a sale that commits a reservation,
+     * and the units are only given back if the lines were still active
+     *
+     * @param reservationId The ID of the reservation
+     * @param status        The final status
+     * @return true if the reservation was active and now holds nothing, false if it already ended
+     */
+    @Override
+    public boolean endHold(UUID reservationId, ReservationStatus status) {
+        var quantities = stockReservationRepository.findAllByReservationId(reservationId).stream()
+                .filter(line -> line.getStatus() == ReservationStatus.ACTIVE)
+                .collect(Collectors.groupingBy(StockReservationEntity::getProductId,
+                        Collectors.summingInt(StockReservationEntity::getQuantity)));
+        if (quantities.isEmpty()) return false;
+        addHeldQuantities(negate(quantities));
+        if (stockReservationRepository.updateStatus(reservationId, ReservationStatus.ACTIVE, status) > 0) return true;
+        addHeldQuantities(quantities);
+        return false;
+    }
+
+    /**
+     * Finds the active reservations whose time has passed
+     *
+     * @param now   The current time
+     * @param limit The maximum number of reservations
+     * @return The IDs of the reservations to expire
+     */
+    @Override
+    public List<UUID> findDueReservationIds(LocalDateTime now, int limit) {
+        return stockReservationRepository.findReservationIdsDue(ReservationStatus.ACTIVE, now, Limit.of(limit));
+    }
+
+    /**
+     * Turns the units of each product into the units to give back
+     *
+     * @param quantities The units by product
+     * @return The negated units by product
+     */
+    private Map<String, Integer> negate(Map<String, Integer> quantities) {
+        return quantities.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> -entry.getValue()));
+    }
+}
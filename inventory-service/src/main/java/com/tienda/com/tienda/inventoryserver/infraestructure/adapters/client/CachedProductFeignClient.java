@@ -0,0 +1,95 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Primary
+public class CachedProductFeignClient implements ProductFeignClient {
+
+    static final String CACHE_NAME = "products";
+
+    private final ProductFeignClient remoteProductFeignClient;
+    private final Cache<String, Product> products;
+
+    public CachedProductFeignClient(@Qualifier("remoteProductFeignClient") ProductFeignClient remoteProductFeignClient,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${inventory.product-cache.ttl-seconds:600}") long ttlSeconds,
+                                    @Value("${inventory.product-cache.maximum-size:10000}") long maximumSize) {
+        this.remoteProductFeignClient = remoteProductFeignClient;
+        this.products = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, products, CACHE_NAME);
+    }
+
+    /**
+     * Gets a product by its code, asking the product service only when it is not cached
+     * Concurrent misses for the same code wait for a single request, and products not found are not cached
+     *
+     * @param cod Product code to fetch the product
+     * @return Product object corresponding to the given code
+     */
+    @Override
+    public Product getProductByCod(String cod) {
+        return products.get(cod, remoteProductFeignClient::getProductByCod);
+    }
+
+    /**
+     * Gets several products by their codes, asking the product service with a single request for the missing ones
+     *
+     * @param cods Product codes to fetch
+     * @return Products found in the order of the codes, codes without a product are skipped
+     */
+    @Override
+    public List<Product> getProductsByCods(Collection<String> cods) {
+        var distinctCods = new LinkedHashSet<>(cods);
+        var found = products.getAll(distinctCods, this::loadProducts);
+        return distinctCods.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Drops a product from the cache so the next lookup asks the product service again
+     *
+     * @param cod Product code
+     */
+    public void invalidate(String cod) {
+        products.invalidate(cod);
+    }
+
+    /**
+     * Drops every product from the cache
+     */
+    public void invalidateAll() {
+        products.invalidateAll();
+    }
+
+    /**
+     * Loads the products missing from the cache with a single request to the product service
+     *
+     * @param cods Product codes missing from the cache
+     * @return Products found, indexed by their code
+     */
+    private Map<String, Product> loadProducts(Collection<? extends String> cods) {
+        return remoteProductFeignClient.getProductsByCods(List.copyOf(cods)).stream()
+                .collect(Collectors.toMap(Product::getCod, Function.identity(), (first, second) -> first));
+    }
+}
@@ -4,8 +4,13 @@ import com.tienda.com.tienda.inventoryserver.domain.model.dto.Product;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
-@FeignClient(name = "producto-service")
+import java.util.Collection;
+import java.util.List;
+
+@FeignClient(name = "producto-service", qualifiers = "remoteProductFeignClient", primary = false)
 public interface ProductFeignClient {
 
     /**
@@ -16,4 +21,13 @@ public interface ProductFeignClient {
      */
     @GetMapping("/product/{cod}")
     Product getProductByCod(@PathVariable String cod);
+
+    /**
+     * Method to get several products by their codes from the product service with a single request
+     *
+     * @param cods Product codes to fetch
+     * @return Products found, codes without a product are skipped
+     */
+    @PostMapping("/product/batch")
+    List<Product> getProductsByCods(@RequestBody Collection<String> cods);
 }
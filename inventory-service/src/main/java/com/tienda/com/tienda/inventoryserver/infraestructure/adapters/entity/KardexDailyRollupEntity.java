@@ -0,0 +1,51 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity;
+
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity(name = "kardex_daily_rollup")
+@IdClass(KardexDailyRollupId.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class KardexDailyRollupEntity {
+
+    @Id
+    @Column(name = "movement_date")
+    private LocalDate movementDate;
+
+    @Id
+    @Column(name = "product_id")
+    private String productId;
+
+    @Id
+    @Column(name = "type_movement")
+    @Enumerated(EnumType.STRING)
+    private TypeMove typeMovement;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false, name = "total_price")
+    private BigDecimal totalPrice;
+
+    @Column(nullable = false, name = "min_unit_price")
+    private BigDecimal minUnitPrice;
+
+    @Column(nullable = false, name = "max_unit_price")
+    private BigDecimal maxUnitPrice;
+
+    @ColumnDefault("0")
+    @Column(nullable = false, name = "cost_of_goods_sold")
+    private BigDecimal costOfGoodsSold;
+}
@@ -0,0 +1,18 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class KardexDailyRollupId implements Serializable {
+    private LocalDate movementDate;
+    private String productId;
+    private TypeMove typeMovement;
+}
@@ -13,6 +13,8 @@ import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity(name = "kardex")
+@Table(name = "kardex", indexes = @Index(name = "idx_kardex_product_position",
+        columnList = "product_id, movement_date, id"))
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
@@ -20,7 +22,7 @@ import java.util.UUID;
 public class KardexEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false, name = "type_movement")
@@ -41,4 +43,13 @@ public class KardexEntity {
 
     @Column(nullable = false, name = "movement_date")
     private LocalDate movementDate;
+
+    @Column(name = "balance_quantity")
+    private Integer balanceQuantity;
+
+    @Column(name = "balance_value")
+    private BigDecimal balanceValue;
+
+    @Column(name = "cost_of_goods_sold")
+    private BigDecimal costOfGoodsSold;
 }
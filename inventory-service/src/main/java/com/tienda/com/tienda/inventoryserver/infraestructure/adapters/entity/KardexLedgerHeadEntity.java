@@ -0,0 +1,23 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity;
+
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity(name = "kardex_ledger_head")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class KardexLedgerHeadEntity {
+
+    @Id
+    @Column(name = "product_id")
+    private String productId;
+
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+}
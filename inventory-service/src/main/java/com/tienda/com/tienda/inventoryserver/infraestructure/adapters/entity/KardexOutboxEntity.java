@@ -0,0 +1,33 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Kardex;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+@Entity(name = "kardex_outbox")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class KardexOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
+    private Kardex kardex;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,35 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity;
+
+
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.FifoLayer;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Entity(name = "kardex_valuation_checkpoint")
+@IdClass(KardexValuationCheckpointId.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class KardexValuationCheckpointEntity {
+
+    @Id
+    @Column(name = "product_id")
+    private String productId;
+
+    @Id
+    @Column(name = "as_of")
+    private LocalDate asOf;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
+    private List<FifoLayer> layers;
+}
@@ -0,0 +1,16 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class KardexValuationCheckpointId implements Serializable {
+    private String productId;
+    private LocalDate asOf;
+}
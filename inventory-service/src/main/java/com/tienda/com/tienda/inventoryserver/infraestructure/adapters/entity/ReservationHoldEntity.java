@@ -0,0 +1,23 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity;
+
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity(name = "reservation_hold")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ReservationHoldEntity {
+
+    @Id
+    @Column(name = "product_id")
+    private String productId;
+
+    @Column(nullable = false, name = "held_qty")
+    private Integer heldQuantity;
+}
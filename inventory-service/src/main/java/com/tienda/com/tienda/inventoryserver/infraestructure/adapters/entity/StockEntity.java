@@ -19,7 +19,7 @@ import java.util.UUID;
 public class StockEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     private Integer quantity;
@@ -41,4 +41,8 @@ public class StockEntity {
 
     @Column(name = "expiry_date")
     private LocalDate expiryDate;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
 }
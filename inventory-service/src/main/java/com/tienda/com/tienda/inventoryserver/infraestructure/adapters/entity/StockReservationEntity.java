@@ -0,0 +1,48 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity;
+
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.ReservationStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity(name = "stock_reservation")
+@Table(indexes = {
+        @Index(name = "idx_stock_reservation_reservation_id", columnList = "reservation_id"),
+        @Index(name = "idx_stock_reservation_due", columnList = "status, expires_at")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class StockReservationEntity {
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @Column(nullable = false, name = "reservation_id")
+    private UUID reservationId;
+
+    @Column(nullable = false, name = "product_id")
+    private String productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false, name = "unit_price")
+    private BigDecimal unitPrice;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReservationStatus status;
+
+    @Column(nullable = false, name = "expires_at")
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,45 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity;
+
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity(name = "stock_summary")
+@Table(indexes = @Index(name = "idx_stock_summary_oldest_expiry", columnList = "oldest_expiry"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class StockSummaryEntity {
+
+    @Id
+    @Column(name = "product_id")
+    private String productId;
+
+    @Column(nullable = false, name = "valid_qty")
+    private Integer validQuantity;
+
+    @Column(nullable = false, name = "expired_qty")
+    private Integer expiredQuantity;
+
+    @Column(nullable = false, name = "lot_count")
+    private Integer lotCount;
+
+    @Column(name = "oldest_expiry")
+    private LocalDate oldestExpiryDate;
+
+    @Column(nullable = false, name = "weighted_avg_cost")
+    private BigDecimal weightedAverageCost;
+
+    @Column(nullable = false, name = "total_qty")
+    private Long totalQuantity;
+
+    @Column(nullable = false, name = "total_cost")
+    private BigDecimal totalCost;
+}
@@ -0,0 +1,18 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a UUID primary key generated by {@link TimeOrderedUuidGenerator}
+ * Time-ordered keys are appended at the end of the clustered index instead of splitting random pages
+ */
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedUuid {
+}
@@ -0,0 +1,7 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception;
+
+public class ExportLimitExceeded extends RuntimeException {
+    public ExportLimitExceeded(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception;
+
+public class IdempotencyKeyInProgress extends RuntimeException {
+    public IdempotencyKeyInProgress(String message) {
+        super(message);
+    }
+}
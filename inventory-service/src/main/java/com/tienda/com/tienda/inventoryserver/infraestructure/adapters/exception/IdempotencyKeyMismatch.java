@@ -0,0 +1,7 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception;
+
+public class IdempotencyKeyMismatch extends RuntimeException {
+    public IdempotencyKeyMismatch(String message) {
+        super(message);
+    }
+}
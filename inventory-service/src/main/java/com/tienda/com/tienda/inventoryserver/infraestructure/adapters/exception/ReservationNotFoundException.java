@@ -0,0 +1,7 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception;
+
+public class ReservationNotFoundException extends RuntimeException {
+    public ReservationNotFoundException(String message) {
+        super(message);
+    }
+}
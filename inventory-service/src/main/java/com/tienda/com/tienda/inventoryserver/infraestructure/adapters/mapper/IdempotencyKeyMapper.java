@@ -0,0 +1,11 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.IdempotentResult;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.IdempotencyKeyEntity;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface IdempotencyKeyMapper {
+
+    IdempotentResult toDomain(IdempotencyKeyEntity entity);
+}
@@ -0,0 +1,17 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.KardexDailyRollup;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexDailyRollupEntity;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface KardexDailyRollupMapper {
+
+    /**
+     * Method to map a KardexDailyRollupEntity to a KardexDailyRollup domain object
+     *
+     * @param kardexDailyRollupEntity KardexDailyRollupEntity to be mapped to a KardexDailyRollup domain object
+     * @return Mapped KardexDailyRollup domain object
+     */
+    KardexDailyRollup toDomain(KardexDailyRollupEntity kardexDailyRollupEntity);
+}
@@ -2,8 +2,11 @@ package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper;
 
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.Kardex;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexEntity;
+import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 
 @Mapper(componentModel = "spring")
 public interface KardexMapper {
@@ -21,6 +24,9 @@ public interface KardexMapper {
     @Mapping(source = "unitPrice", target = "unitPrice")
     @Mapping(source = "totalPrice", target = "totalPrice")
     @Mapping(source = "movementDate", target = "movementDate")
+    @Mapping(source = "balanceQuantity", target = "balanceQuantity")
+    @Mapping(source = "balanceValue", target = "balanceValue")
+    @Mapping(source = "costOfGoodsSold", target = "costOfGoodsSold")
     Kardex toDomain(KardexEntity kardex);
 
     /**
@@ -35,5 +41,21 @@ public interface KardexMapper {
     @Mapping(source = "unitPrice", target = "unitPrice")
     @Mapping(source = "totalPrice", target = "totalPrice")
     @Mapping(source = "movementDate", target = "movementDate")
+    @Mapping(target = "balanceQuantity", ignore = true)
+    @Mapping(target = "balanceValue", ignore = true)
+    @Mapping(source = "costOfGoodsSold", target = "costOfGoodsSold")
     KardexEntity toEntity(Kardex kardex);
+
+    /**
+     * Method to copy the non-null fields of a Kardex domain object onto an existing KardexEntity
+     * The running balances are left to the ledger
+     *
+     * @param kardex Kardex domain object with the values to copy
+     * @param kardexEntity KardexEntity to be updated
+     */
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "balanceQuantity", ignore = true)
+    @Mapping(target = "balanceValue", ignore = true)
+    void updateEntity(Kardex kardex, @MappingTarget KardexEntity kardexEntity);
 }
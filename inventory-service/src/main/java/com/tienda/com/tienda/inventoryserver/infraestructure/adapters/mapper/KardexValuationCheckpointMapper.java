@@ -0,0 +1,25 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.ValuationCheckpoint;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexValuationCheckpointEntity;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface KardexValuationCheckpointMapper {
+
+    /**
+     * Method to map a KardexValuationCheckpointEntity to a ValuationCheckpoint domain object
+     *
+     * @param checkpointEntity KardexValuationCheckpointEntity to be mapped to a ValuationCheckpoint domain object
+     * @return Mapped ValuationCheckpoint domain object
+     */
+    ValuationCheckpoint toDomain(KardexValuationCheckpointEntity checkpointEntity);
+
+    /**
+     * Method to map a ValuationCheckpoint domain object to a KardexValuationCheckpointEntity
+     *
+     * @param checkpoint ValuationCheckpoint domain object to be mapped to a KardexValuationCheckpointEntity
+     * @return Mapped KardexValuationCheckpointEntity
+     */
+    KardexValuationCheckpointEntity toEntity(ValuationCheckpoint checkpoint);
+}
@@ -2,8 +2,11 @@ package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper;
 
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.Stock;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.StockEntity;
+import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 
 @Mapper(componentModel = "spring")
 public interface StockMapper {
@@ -37,5 +40,17 @@ public interface StockMapper {
     @Mapping(source = "productId", target = "productId")
     @Mapping(source = "purchaseDate", target = "purchaseDate")
     @Mapping(source = "expiryDate", target = "expiryDate")
+    @Mapping(target = "version", ignore = true)
     StockEntity toEntity(Stock stock);
+
+    /**
+     * Method to copy the non-null fields of a Stock domain object onto an existing StockEntity
+     *
+     * @param stock Stock domain object with the values to copy
+     * @param stockEntity StockEntity to be updated
+     */
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void updateEntity(Stock stock, @MappingTarget StockEntity stockEntity);
 }
@@ -0,0 +1,13 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.StockReservation;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.StockReservationEntity;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface StockReservationMapper {
+
+    StockReservation toDomain(StockReservationEntity entity);
+
+    StockReservationEntity toEntity(StockReservation reservation);
+}
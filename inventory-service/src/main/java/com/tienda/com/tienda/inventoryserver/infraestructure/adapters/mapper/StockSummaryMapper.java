@@ -0,0 +1,17 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.StockSummary;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.StockSummaryEntity;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface StockSummaryMapper {
+
+    /**
+     * Method to map a StockSummaryEntity to a StockSummary domain object
+     *
+     * @param stockSummaryEntity StockSummaryEntity to be mapped to a StockSummary domain object
+     * @return Mapped StockSummary domain object
+     */
+    StockSummary toDomain(StockSummaryEntity stockSummaryEntity);
+}
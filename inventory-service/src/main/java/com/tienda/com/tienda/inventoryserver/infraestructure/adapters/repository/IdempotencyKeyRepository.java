@@ -0,0 +1,43 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository;
+
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.IdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, fingerprint, result, expires_at) " +
+            "VALUES (:key, :fingerprint, NULL, :expiresAt)", nativeQuery = true)
+    int insertClaim(@Param("key") String key,
+                    @Param("fingerprint") String fingerprint,
+                    @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE idempotency_keys k SET k.fingerprint = :fingerprint, k.result = NULL, k.expiresAt = :expiresAt " +
+            "WHERE k.key = :key AND k.expiresAt < :now")
+    int takeOverExpired(@Param("key") String key,
+                        @Param("fingerprint") String fingerprint,
+                        @Param("expiresAt") LocalDateTime expiresAt,
+                        @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE idempotency_keys k SET k.result = :result, k.expiresAt = :expiresAt " +
+            "WHERE k.key = :key AND k.fingerprint = :fingerprint AND k.result IS NULL")
+    int complete(@Param("key") String key,
+                 @Param("fingerprint") String fingerprint,
+                 @Param("result") String result,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM idempotency_keys k WHERE k.key = :key AND k.fingerprint = :fingerprint AND k.result IS NULL")
+    int release(@Param("key") String key, @Param("fingerprint") String fingerprint);
+
+    @Modifying
+    @Query("DELETE FROM idempotency_keys k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
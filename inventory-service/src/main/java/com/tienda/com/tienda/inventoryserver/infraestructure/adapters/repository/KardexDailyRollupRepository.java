@@ -0,0 +1,59 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository;
+
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexDailyRollupEntity;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexDailyRollupId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface KardexDailyRollupRepository extends JpaRepository<KardexDailyRollupEntity, KardexDailyRollupId> {
+    List<KardexDailyRollupEntity> findAllByMovementDateBetweenOrderByMovementDateAsc(LocalDate after, LocalDate before);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+        INSERT INTO kardex_daily_rollup
+            (movement_date, product_id, type_movement, quantity, total_price, min_unit_price, max_unit_price,
+             cost_of_goods_sold)
+        VALUES (:movementDate, :productId, :typeMovement, :quantity, :totalPrice, :minUnitPrice, :maxUnitPrice,
+                :costOfGoodsSold)
+        ON DUPLICATE KEY UPDATE
+            quantity = quantity + VALUES(quantity),
+            total_price = total_price + VALUES(total_price),
+            min_unit_price = LEAST(min_unit_price, VALUES(min_unit_price)),
+            max_unit_price = GREATEST(max_unit_price, VALUES(max_unit_price)),
+            cost_of_goods_sold = cost_of_goods_sold + VALUES(cost_of_goods_sold)
+    """, nativeQuery = true)
+    int accumulate(@Param("movementDate") LocalDate movementDate, @Param("productId") String productId,
+                   @Param("typeMovement") String typeMovement, @Param("quantity") Integer quantity,
+                   @Param("totalPrice") BigDecimal totalPrice, @Param("minUnitPrice") BigDecimal minUnitPrice,
+                   @Param("maxUnitPrice") BigDecimal maxUnitPrice,
+                   @Param("costOfGoodsSold") BigDecimal costOfGoodsSold);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM kardex_daily_rollup r WHERE r.movementDate BETWEEN :startDate AND :endDate")
+    int deleteAllByMovementDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("""
+    SELECT r.productId, SUM(r.quantity) AS totalSold
+    FROM kardex_daily_rollup r
+    WHERE r.movementDate BETWEEN :after AND :before
+    AND r.typeMovement = 'OUTCOME'
+    GROUP BY r.productId
+    ORDER BY totalSold DESC
+""")
+    List<Object[]> findTopSellingProducts(@Param("after") LocalDate after, @Param("before") LocalDate before, Pageable pageable);
+
+    @Query("""
+        SELECT SUM(r.totalPrice)
+        FROM kardex_daily_rollup r
+        WHERE r.movementDate BETWEEN :startDate AND :endDate
+        AND r.typeMovement = 'OUTCOME'
+    """)
+    BigDecimal calculateEarningsBetweenDates(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
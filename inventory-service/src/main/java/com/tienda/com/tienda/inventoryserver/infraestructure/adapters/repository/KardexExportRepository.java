@@ -0,0 +1,19 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository;
+
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexEntity;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+public interface KardexExportRepository {
+
+    /**
+     * Streams the Kardex records within a date range, oldest first, optionally of a single product
+     */
+    Stream<KardexEntity> streamAllByMovementDateBetween(LocalDate startDate, LocalDate endDate, String productId);
+
+    /**
+     * Streams every Kardex record of a product, most recent first
+     */
+    Stream<KardexEntity> streamAllByProductId(String productId);
+}
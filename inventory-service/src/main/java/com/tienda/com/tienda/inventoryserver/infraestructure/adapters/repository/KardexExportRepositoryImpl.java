@@ -0,0 +1,75 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository;
+
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+/**
+ * Runs the export queries with their own fetch size, so only the exports stream their rows
+ * With MySQL Connector/J a fetch size of Integer.MIN_VALUE streams the result row by row, without
+ * turning cursor fetch on for every connection of the pool
+ */
+public class KardexExportRepositoryImpl implements KardexExportRepository {
+
+    private final EntityManager entityManager;
+    private final int fetchSize;
+
+    public KardexExportRepositoryImpl(EntityManager entityManager,
+                                      @Value("${inventory.kardex.export.fetch-size:-2147483648}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Streams the Kardex records within a date range, oldest first, optionally of a single product
+     *
+     * @param startDate The start date
+     * @param endDate The end date
+     * @param productId The product ID to filter by, or null for every product
+     * @return The streamed Kardex records, to be closed by the caller
+     */
+    @Override
+    public Stream<KardexEntity> streamAllByMovementDateBetween(LocalDate startDate, LocalDate endDate,
+                                                               String productId) {
+        return exportQuery("""
+                SELECT k FROM kardex k
+                WHERE k.movementDate BETWEEN :startDate AND :endDate
+                  AND (:productId IS NULL OR k.productId = :productId)
+                ORDER BY k.movementDate ASC
+                """)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .setParameter("productId", productId)
+                .getResultStream();
+    }
+
+    /**
+     * Streams every Kardex record of a product, most recent first
+     *
+     * @param productId The product ID
+     * @return The streamed Kardex records, to be closed by the caller
+     */
+    @Override
+    public Stream<KardexEntity> streamAllByProductId(String productId) {
+        return exportQuery("SELECT k FROM kardex k WHERE k.productId = :productId ORDER BY k.movementDate DESC")
+                .setParameter("productId", productId)
+                .getResultStream();
+    }
+
+    /**
+     * Creates a read-only export query with the export fetch size
+     *
+     * @param jpql The query
+     * @return The query ready to receive its parameters
+     */
+    private TypedQuery<KardexEntity> exportQuery(String jpql) {
+        return entityManager.createQuery(jpql, KardexEntity.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+    }
+}
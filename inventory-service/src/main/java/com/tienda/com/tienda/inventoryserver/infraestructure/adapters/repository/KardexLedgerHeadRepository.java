@@ -0,0 +1,28 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository;
+
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexLedgerHeadEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface KardexLedgerHeadRepository extends JpaRepository<KardexLedgerHeadEntity, String> {
+
+    /**
+     * Locks the ledger of a product until the transaction ends, creating its row on the first movement
+     * Every lock bumps the version of the ledger, so readers can tell whether it changed since they read it
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+        INSERT INTO kardex_ledger_head (product_id, version) VALUES (:productId, 1)
+        ON DUPLICATE KEY UPDATE version = version + 1
+        """)
+    int lockProduct(@Param("productId") String productId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<KardexLedgerHeadEntity> findWithLockByProductId(String productId);
+}
@@ -0,0 +1,15 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository;
+
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexOutboxEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+
+import java.util.List;
+
+public interface KardexOutboxRepository extends JpaRepository<KardexOutboxEntity, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<KardexOutboxEntity> findAllByOrderByIdAsc(Limit limit);
+}
@@ -2,38 +2,93 @@ package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repositor
 
 import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
-public interface KardexRepository extends JpaRepository<KardexEntity, UUID> {
+public interface KardexRepository extends JpaRepository<KardexEntity, UUID>, KardexExportRepository {
     List<KardexEntity> findAllByProductIdOrderByMovementDateDesc(String productId);
     List<KardexEntity> findAllByMovementDateBetween(LocalDate movementDateAfter, LocalDate movementDateBefore);
     List<KardexEntity> findAllByTypeMovement(TypeMove typeMovement);
     List<KardexEntity> findAllByMovementDateBetweenAndProductId(LocalDate after, LocalDate before, String productId);
 
+    KardexEntity findFirstByProductIdOrderByMovementDateDesc(String productId);
+    KardexEntity findFirstByProductIdAndMovementDateLessThanEqualOrderByMovementDateDescIdDesc(String productId,
+                                                                                             LocalDate asOf);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<KardexEntity> findAllByProductIdOrderByMovementDateAscIdAsc(String productId);
+    List<KardexEntity> findAllByProductIdAndMovementDateLessThanEqualOrderByMovementDateAscIdAsc(String productId,
+                                                                                               LocalDate before);
+    List<KardexEntity> findAllByProductIdAndMovementDateBetweenOrderByMovementDateAscIdAsc(String productId,
+                                                                                         LocalDate after,
+                                                                                         LocalDate before);
+
+    @Query("SELECT DISTINCT k.productId FROM kardex k")
+    List<String> findAllProductIds();
+
     @Query("""
-    SELECT k.productId, SUM(k.quantity) AS totalSold 
-    FROM kardex k 
-    WHERE k.movementDate BETWEEN :after AND :before 
-    AND k.typeMovement = 'OUTCOME' 
-    GROUP BY k.productId 
-    ORDER BY totalSold DESC
-""")
-    List<Object[]> findTopSellingProducts(@Param("after") LocalDate after, @Param("before") LocalDate before, Pageable pageable);
+        SELECT DISTINCT k.productId FROM kardex k
+        WHERE k.balanceQuantity IS NULL OR k.balanceValue IS NULL
+        OR (k.typeMovement = 'OUTCOME' AND k.costOfGoodsSold IS NULL)
+    """)
+    List<String> findAllProductIdsWithoutBalance();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT k FROM kardex k
+        WHERE k.productId = :productId
+          AND (k.movementDate < :movementDate OR (k.movementDate = :movementDate AND k.id < :id))
+        ORDER BY k.movementDate DESC, k.id DESC
+    """)
+    List<KardexEntity> findPrecedingInProduct(@Param("productId") String productId,
+                                              @Param("movementDate") LocalDate movementDate,
+                                              @Param("id") UUID id,
+                                              Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT k FROM kardex k
+        WHERE k.productId = :productId
+          AND (k.movementDate > :movementDate OR (k.movementDate = :movementDate AND k.id >= :id))
+        ORDER BY k.movementDate ASC, k.id ASC
+    """)
+    List<KardexEntity> findAllFromPositionInProduct(@Param("productId") String productId,
+                                                    @Param("movementDate") LocalDate movementDate,
+                                                    @Param("id") UUID id);
+
+    @Query("""
+        SELECT k.movementDate, k.productId, k.typeMovement, SUM(k.quantity), SUM(k.totalPrice),
+               MIN(k.unitPrice), MAX(k.unitPrice), SUM(COALESCE(k.costOfGoodsSold, 0))
+        FROM kardex k
+        GROUP BY k.movementDate, k.productId, k.typeMovement
+    """)
+    List<Object[]> summarizeDailyMovements();
+
+    @Query("""
+        SELECT k.movementDate, k.productId, k.typeMovement, SUM(k.quantity), SUM(k.totalPrice),
+               MIN(k.unitPrice), MAX(k.unitPrice), SUM(COALESCE(k.costOfGoodsSold, 0))
+        FROM kardex k
+        WHERE k.movementDate BETWEEN :startDate AND :endDate
+        GROUP BY k.movementDate, k.productId, k.typeMovement
+    """)
+    List<Object[]> summarizeDailyMovementsBetween(@Param("startDate") LocalDate startDate,
+                                                  @Param("endDate") LocalDate endDate);
 
-    KardexEntity findFirstByProductIdOrderByMovementDateDesc(String productId);
     @Query("""
-        SELECT SUM(k.totalPrice) 
-        FROM kardex k 
-        WHERE k.movementDate BETWEEN :startDate AND :endDate 
-        AND k.typeMovement = 'OUTCOME'
+        SELECT k.movementDate, k.productId, k.typeMovement, SUM(k.quantity), SUM(k.totalPrice),
+               MIN(k.unitPrice), MAX(k.unitPrice), SUM(COALESCE(k.costOfGoodsSold, 0))
+        FROM kardex k
+        WHERE k.movementDate = :movementDate AND k.productId = :productId AND k.typeMovement = :typeMovement
+        GROUP BY k.movementDate, k.productId, k.typeMovement
     """)
-    BigDecimal calculateEarningsBetweenDates(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    List<Object[]> summarizeDailyMovementsOf(@Param("movementDate") LocalDate movementDate,
+                                             @Param("productId") String productId,
+                                             @Param("typeMovement") TypeMove typeMovement);
 }
@@ -0,0 +1,20 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository;
+
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexValuationCheckpointEntity;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexValuationCheckpointId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+
+public interface KardexValuationCheckpointRepository
+        extends JpaRepository<KardexValuationCheckpointEntity, KardexValuationCheckpointId> {
+    KardexValuationCheckpointEntity findFirstByProductIdAndAsOfLessThanEqualOrderByAsOfDesc(String productId,
+                                                                                           LocalDate asOf);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM kardex_valuation_checkpoint c WHERE c.productId = :productId AND c.asOf >= :asOf")
+    int deleteAllFromDay(@Param("productId") String productId, @Param("asOf") LocalDate asOf);
+}
@@ -0,0 +1,32 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository;
+
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.ReservationHoldEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ReservationHoldRepository extends JpaRepository<ReservationHoldEntity, String> {
+
+    /**
+     * Adds units to the hold counter of a product and locks it until the transaction ends, creating its row if missing
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+        INSERT INTO reservation_hold (product_id, held_qty) VALUES (:productId, :delta)
+        ON DUPLICATE KEY UPDATE held_qty = held_qty + :delta
+        """)
+    int addHeld(@Param("productId") String productId, @Param("delta") int delta);
+
+    /**
+     * Reads and locks the hold counters of several products, a locking read always sees the latest committed value
+     */
+    @Query(nativeQuery = true, value = """
+        SELECT product_id, held_qty FROM reservation_hold WHERE product_id IN (:productIds)
+        ORDER BY product_id FOR UPDATE
+        """)
+    List<Object[]> findHeldForUpdate(@Param("productIds") Collection<String> productIds);
+}
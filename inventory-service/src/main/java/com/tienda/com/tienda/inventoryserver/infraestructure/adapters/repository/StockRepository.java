@@ -1,9 +1,14 @@
 package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository;
 
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.StockEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -13,4 +18,35 @@ public interface StockRepository extends JpaRepository<StockEntity, UUID> {
     List<StockEntity> findAllByPurchaseDateBetween(LocalDate purchaseDateAfter, LocalDate purchaseDateBefore);
     List<StockEntity> findAllByQuantityLessThan(Integer quantity);
     List<StockEntity> findAllByProviderIdOrderByExpiryDateAsc(UUID providerId);
+
+    @Query("""
+        SELECT s.productId,
+               SUM(CASE WHEN s.expiryDate IS NULL OR s.expiryDate > :today THEN s.quantity ELSE 0 END),
+               SUM(CASE WHEN s.expiryDate < :today THEN s.quantity ELSE 0 END),
+               SUM(CASE WHEN s.quantity > 0 THEN 1 ELSE 0 END),
+               MIN(CASE WHEN s.quantity > 0 AND s.expiryDate >= :today THEN s.expiryDate END),
+               SUM(s.quantity * s.purchaseUnitCost),
+               SUM(s.quantity)
+        FROM stock s
+        GROUP BY s.productId
+        """)
+    List<Object[]> summarizeStockByProduct(@Param("today") LocalDate today);
+
+    @Query("""
+        SELECT s.productId,
+               SUM(CASE WHEN s.expiryDate IS NULL OR s.expiryDate > :today THEN s.quantity ELSE 0 END),
+               SUM(CASE WHEN s.expiryDate < :today THEN s.quantity ELSE 0 END),
+               SUM(CASE WHEN s.quantity > 0 THEN 1 ELSE 0 END),
+               MIN(CASE WHEN s.quantity > 0 AND s.expiryDate >= :today THEN s.expiryDate END),
+               SUM(s.quantity * s.purchaseUnitCost),
+               SUM(s.quantity)
+        FROM stock s
+        WHERE s.productId IN :productIds
+        GROUP BY s.productId
+        """)
+    List<Object[]> summarizeStockOfProducts(@Param("productIds") Collection<String> productIds,
+                                            @Param("today") LocalDate today);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<StockEntity> findAllByProductIdInOrderByIdAsc(Collection<String> productIds);
 }
@@ -0,0 +1,29 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.ReservationStatus;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.StockReservationEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface StockReservationRepository extends JpaRepository<StockReservationEntity, UUID> {
+
+    List<StockReservationEntity> findAllByReservationId(UUID reservationId);
+
+    @Modifying
+    @Query("UPDATE stock_reservation r SET r.status = :to WHERE r.reservationId = :reservationId AND r.status = :from")
+    int updateStatus(@Param("reservationId") UUID reservationId,
+                     @Param("from") ReservationStatus from,
+                     @Param("to") ReservationStatus to);
+
+    @Query("SELECT DISTINCT r.reservationId FROM stock_reservation r WHERE r.status = :status AND r.expiresAt <= :now")
+    List<UUID> findReservationIdsDue(@Param("status") ReservationStatus status,
+                                     @Param("now") LocalDateTime now,
+                                     Limit limit);
+}
@@ -0,0 +1,58 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository;
+
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.StockSummaryEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface StockSummaryRepository extends JpaRepository<StockSummaryEntity, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<StockSummaryEntity> findAllByOldestExpiryDateLessThanEqual(LocalDate date);
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    List<StockSummaryEntity> findAllByProductIdInOrderByProductIdAsc(Collection<String> productIds);
+
+    /**
+     * Adds the change of some lots to the summary of their product in one statement, creating the row if missing
+     * The weighted average cost is assigned first so it is computed from the totals before they change
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+        INSERT INTO stock_summary (product_id, valid_qty, expired_qty, lot_count, oldest_expiry,
+                                   weighted_avg_cost, total_qty, total_cost)
+        VALUES (:productId, :validDelta, :expiredDelta, :lotDelta, :expiry,
+                CASE WHEN :quantityDelta = 0 THEN 0 ELSE :costDelta / :quantityDelta END,
+                :quantityDelta, :costDelta)
+        ON DUPLICATE KEY UPDATE
+            weighted_avg_cost = CASE WHEN total_qty + :quantityDelta = 0 THEN 0
+                                     ELSE (total_cost + :costDelta) / (total_qty + :quantityDelta) END,
+            oldest_expiry = CASE WHEN :expiry IS NOT NULL AND (oldest_expiry IS NULL OR oldest_expiry > :expiry)
+                                 THEN :expiry ELSE oldest_expiry END,
+            valid_qty = valid_qty + :validDelta,
+            expired_qty = expired_qty + :expiredDelta,
+            lot_count = lot_count + :lotDelta,
+            total_qty = total_qty + :quantityDelta,
+            total_cost = total_cost + :costDelta
+        """)
+    int applyDelta(@Param("productId") String productId,
+                   @Param("validDelta") int validDelta,
+                   @Param("expiredDelta") int expiredDelta,
+                   @Param("lotDelta") int lotDelta,
+                   @Param("quantityDelta") long quantityDelta,
+                   @Param("costDelta") BigDecimal costDelta,
+                   @Param("expiry") LocalDate expiry);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM stock_summary s WHERE s.productId = :productId " +
+            "AND NOT EXISTS (SELECT 1 FROM stock st WHERE st.productId = :productId)")
+    int deleteIfNoLots(@Param("productId") String productId);
+}
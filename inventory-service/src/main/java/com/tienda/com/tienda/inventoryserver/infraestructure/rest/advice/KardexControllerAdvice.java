@@ -2,6 +2,7 @@ package com.tienda.com.tienda.inventoryserver.infraestructure.rest.advice;
 
 
 import com.tienda.com.tienda.inventoryserver.domain.model.error.ErrorResponse;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.ExportLimitExceeded;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.KardexNotFoundException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,4 +27,20 @@ public class KardexControllerAdvice {
                 .code(HttpStatus.NOT_FOUND.value())
                 .build(), HttpStatus.NOT_FOUND);
     }
+
+    /**
+     * Handles ExportLimitExceeded and returns a custom error response
+     *
+     * @param ex The exception thrown
+     * @return A ResponseEntity with a custom error response for an export refused because too many are running
+     */
+    @ExceptionHandler(ExportLimitExceeded.class)
+    public ResponseEntity<ErrorResponse> handleExportLimitExceeded(ExportLimitExceeded ex) {
+        return new ResponseEntity<>(ErrorResponse.builder()
+                .error(ex.getMessage())
+                .userMessage("Hay demasiadas exportaciones en curso, reintente en unos momentos")
+                .status(HttpStatus.TOO_MANY_REQUESTS.name())
+                .code(HttpStatus.TOO_MANY_REQUESTS.value())
+                .build(), HttpStatus.TOO_MANY_REQUESTS);
+    }
 }
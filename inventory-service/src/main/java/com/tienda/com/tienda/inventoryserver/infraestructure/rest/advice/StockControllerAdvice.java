@@ -3,6 +3,7 @@ package com.tienda.com.tienda.inventoryserver.infraestructure.rest.advice;
 
 import com.tienda.com.tienda.inventoryserver.domain.model.error.ErrorResponse;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.InsufficientStock;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.ReservationNotFoundException;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.StockNotFoundException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -43,4 +44,20 @@ public class StockControllerAdvice {
                 .code(HttpStatus.NOT_FOUND.value())
                 .build(), HttpStatus.NOT_FOUND);
     }
+
+    /**
+     * Handles ReservationNotFoundException and returns a custom error response
+     *
+     * @param ex The exception thrown
+     * @return A ResponseEntity with a custom error response for reservation not found
+     */
+    @ExceptionHandler(ReservationNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleReservationNotFoundException(ReservationNotFoundException ex) {
+        return new ResponseEntity<>(ErrorResponse.builder()
+                .error(ex.getMessage())
+                .userMessage("Reserva no encontrada, verifique los detalles e intente nuevamente")
+                .status(HttpStatus.NOT_FOUND.name())
+                .code(HttpStatus.NOT_FOUND.value())
+                .build(), HttpStatus.NOT_FOUND);
+    }
 }
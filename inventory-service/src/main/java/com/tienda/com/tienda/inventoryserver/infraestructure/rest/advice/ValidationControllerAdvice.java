@@ -1,6 +1,8 @@
 package com.tienda.com.tienda.inventoryserver.infraestructure.rest.advice;
 
 import com.tienda.com.tienda.inventoryserver.domain.model.error.ErrorResponse;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.IdempotencyKeyInProgress;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.IdempotencyKeyMismatch;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.InvalidPriceException;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.ValidationException;
 import org.springframework.http.HttpStatus;
@@ -47,6 +49,38 @@ public class ValidationControllerAdvice {
                 .build(), HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles IdempotencyKeyInProgress and returns a custom error response
+     *
+     * @param ex The exception thrown
+     * @return A ResponseEntity with a custom error response for a key whose first submission is still running
+     */
+    @ExceptionHandler(IdempotencyKeyInProgress.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyInProgress(IdempotencyKeyInProgress ex) {
+        return new ResponseEntity<>(ErrorResponse.builder()
+                .error(ex.getMessage())
+                .userMessage("La solicitud original aun se esta procesando, reintente en unos momentos")
+                .status(HttpStatus.CONFLICT.name())
+                .code(HttpStatus.CONFLICT.value())
+                .build(), HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles IdempotencyKeyMismatch and returns a custom error response
+     *
+     * @param ex The exception thrown
+     * @return A ResponseEntity with a custom error response for a key reused with another request
+     */
+    @ExceptionHandler(IdempotencyKeyMismatch.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyMismatch(IdempotencyKeyMismatch ex) {
+        return new ResponseEntity<>(ErrorResponse.builder()
+                .error(ex.getMessage())
+                .userMessage("La clave de idempotencia no corresponde a esta solicitud, use una clave nueva")
+                .status(HttpStatus.UNPROCESSABLE_ENTITY.name())
+                .code(HttpStatus.UNPROCESSABLE_ENTITY.value())
+                .build(), HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
     /**
      * Handles MethodArgumentNotValidException and returns a custom error response
      *
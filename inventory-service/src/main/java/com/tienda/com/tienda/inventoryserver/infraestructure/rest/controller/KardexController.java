@@ -2,18 +2,27 @@ package com.tienda.com.tienda.inventoryserver.infraestructure.rest.controller;
 
 
 import com.tienda.com.tienda.inventoryserver.application.services.EarningsReport;
+import com.tienda.com.tienda.inventoryserver.application.services.InventoryValuation;
+import com.tienda.com.tienda.inventoryserver.application.services.KardexExporter;
 import com.tienda.com.tienda.inventoryserver.application.services.KardexService;
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.ExportFormat;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.KardexRequest;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.InventoryValuationResponse;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.KardexBalanceResponse;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.KardexResponse;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.ReportInventoryResponse;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -23,9 +32,12 @@ public class KardexController {
 
     private final KardexService kardexService;
     private final EarningsReport earningsReport;
+    private final KardexExporter kardexExporter;
+    private final InventoryValuation inventoryValuation;
 
     /**
      * Endpoint to retrieve the history of product movements by product ID
+     * In write-behind mode the latest movements show up once the outbox is flushed
      *
      * @param productId The ID of the product whose history is to be fetched
      * @return A ResponseEntity containing the list of KardexResponse objects representing the product's movement history
@@ -37,6 +49,7 @@ public class KardexController {
 
     /**
      * Endpoint to retrieve inventory movements between the specified date range
+     * In write-behind mode the latest movements show up once the outbox is flushed
      *
      * @param startDate The start date for the date range
      * @param endDate The end date for the date range
@@ -53,6 +66,7 @@ public class KardexController {
 
     /**
      * Endpoint to retrieve inventory movements for a specific product within a date range
+     * In write-behind mode the latest movements show up once the outbox is flushed
      *
      * @param startDate The start date for the date range
      * @param endDate The end date for the date range
@@ -70,6 +84,7 @@ public class KardexController {
 
     /**
      * Endpoint to retrieve a report of the most sold products within a date range
+     * In write-behind mode the daily rollups include the latest sales once the outbox is flushed
      *
      * @param limit The maximum number of products to include in the report
      * @param startDate The start date for the date range
@@ -86,6 +101,7 @@ public class KardexController {
 
     /**
      * Endpoint to retrieve a report of the most sold products in the current month
+     * In write-behind mode the daily rollups include the latest sales once the outbox is flushed
      *
      * @param limit The maximum number of products to include in the report
      * @return A ResponseEntity containing the report of the most sold products in the current month
@@ -144,6 +160,7 @@ public class KardexController {
 
     /**
      * Endpoint to retrieve an earnings report for products between two dates
+     * In write-behind mode the latest movements are counted once the outbox is flushed
      *
      * @param startDate The start date for the earnings report
      * @param endDate The end date for the earnings report
@@ -155,4 +172,119 @@ public class KardexController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         return ResponseEntity.ok(earningsReport.earningsBetweenDatesDetailsProducts(startDate, endDate));
     }
+
+    /**
+     * Endpoint to regenerate the daily rollups from the Kardex records
+     *
+     * @param startDate The start date of the range, every rollup is regenerated when omitted
+     * @param endDate The end date of the range, every rollup is regenerated when omitted
+     * @return A ResponseEntity containing the number of daily rollups generated
+     */
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildDailyRollups(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(kardexService.rebuildDailyRollups(startDate, endDate));
+    }
+
+    /**
+     * Endpoint to retrieve the stock on hand of a product at the end of a day
+     * In write-behind mode the running balance lags behind the movements not yet flushed
+     *
+     * @param productId The ID of the product
+     * @param asOf The day to report, today when omitted
+     * @return A ResponseEntity containing the quantity and value on hand
+     */
+    @GetMapping("/balance/{productId}")
+    public ResponseEntity<KardexBalanceResponse> getBalanceAsOf(
+            @PathVariable String productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return ResponseEntity.ok(kardexService.getBalanceAsOf(productId, asOf));
+    }
+
+    /**
+     * Endpoint to value the inventory on hand at the end of a day in FIFO order
+     * In write-behind mode the movements not yet flushed are left out of the valuation
+     *
+     * @param asOf The day to value, today when omitted
+     * @return A ResponseEntity containing the quantity and value on hand per product and in total
+     */
+    @GetMapping("/valuation")
+    public ResponseEntity<InventoryValuationResponse> valueInventoryAsOf(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return ResponseEntity.ok(inventoryValuation.valueInventoryAsOf(asOf));
+    }
+
+    /**
+     * Endpoint to recalculate the running balances of the Kardex records
+     *
+     * @param productId The ID of the product, every product is recalculated when omitted
+     * @return A ResponseEntity containing the number of Kardex records recalculated
+     */
+    @PostMapping("/balance/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildBalances(@RequestParam(required = false) String productId) {
+        return ResponseEntity.ok(kardexService.rebuildBalances(productId));
+    }
+
+    /**
+     * Endpoint to export the inventory movements within a date range, streamed row by row
+     * In write-behind mode the movements not yet flushed are left out of the export
+     * Only a few exports run at once, the others are refused with 429 instead of holding a connection
+     *
+     * @param startDate The start date for the date range
+     * @param endDate The end date for the date range
+     * @param productId The ID of the product to filter by, every product when omitted
+     * @param format The export format, NDJSON or CSV
+     * @return A ResponseEntity streaming the movements as an attachment
+     */
+    @GetMapping("/export/inventory-movements")
+    public ResponseEntity<StreamingResponseBody> exportInventoryMovements(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String productId,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        var permit = kardexExporter.acquirePermit();
+        return exportResponse("kardex-" + startDate + "-" + endDate, format, output -> {
+            try (permit) {
+                kardexExporter.writeInventoryMovements(startDate, endDate, productId, format, output);
+            }
+        });
+    }
+
+    /**
+     * Endpoint to export the whole movement history of a product, streamed row by row
+     * Only a few exports run at once, the others are refused with 429 instead of holding a connection
+     *
+     * @param productId The ID of the product whose history is to be exported
+     * @param format The export format, NDJSON or CSV
+     * @return A ResponseEntity streaming the movements as an attachment
+     */
+    @GetMapping("/export/product-history/{productId}")
+    public ResponseEntity<StreamingResponseBody> exportProductHistory(
+            @PathVariable String productId,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        var permit = kardexExporter.acquirePermit();
+        return exportResponse("kardex-" + productId, format, output -> {
+            try (permit) {
+                kardexExporter.writeProductHistory(productId, format, output);
+            }
+        });
+    }
+
+    /**
+     * Builds the streamed attachment response of an export
+     *
+     * @param fileName The file name without extension
+     * @param format The export format
+     * @param body Writes the export to the response
+     * @return A ResponseEntity streaming the export
+     */
+    private ResponseEntity<StreamingResponseBody> exportResponse(String fileName, ExportFormat format,
+                                                                 StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + fileName + "." + format.getExtension() + "\"")
+                .body(body);
+    }
 }
@@ -1,42 +1,89 @@
 package com.tienda.com.tienda.inventoryserver.infraestructure.rest.controller;
 
 
+import com.tienda.com.tienda.inventoryserver.application.services.IdempotencyGuard;
 import com.tienda.com.tienda.inventoryserver.application.services.ManagementInventory;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.PurchaseInventoryRequest;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.SaleInventoryRequest;
 import lombok.AllArgsConstructor;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/inventory")
 @AllArgsConstructor
 public class MovementsController {
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final ManagementInventory managementInventory;
+    private final IdempotencyGuard idempotencyGuard;
 
     /**
      * Registers an inventory input for a purchase
      * This endpoint registers an inventory movement corresponding to a product purchase
      *
+     * @param idempotencyKey Optional key, a repeated key replays the first result
      * @param request The purchase data that will be recorded in the inventory
      * @return A message confirming the operation performed
      */
     @PostMapping("/register-purchase")
-    public String registerInputInventory(@RequestBody PurchaseInventoryRequest request) {
-        return managementInventory.registerInputInventory(request);
+    public String registerInputInventory(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody PurchaseInventoryRequest request) {
+        return idempotencyGuard.execute(idempotencyKey, "register-purchase", request,
+                () -> managementInventory.registerInputInventory(request));
+    }
+
+    /**
+     * Registers the inventory inputs of all lines of a purchase at once
+     * This endpoint stores every lot of the purchase in a single transaction, all or nothing
+     *
+     * @param idempotencyKey Optional key, a repeated key replays the first result
+     * @param requests The purchase lines that will be recorded in the inventory
+     * @return A message confirming the operation performed
+     */
+    @PostMapping("/register-purchase-batch")
+    public String registerInputInventoryBatch(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody List<PurchaseInventoryRequest> requests) {
+        return idempotencyGuard.execute(idempotencyKey, "register-purchase-batch", requests,
+                () -> managementInventory.registerInputInventoryBatch(requests));
     }
 
     /**
      * Registers an inventory output for a sale
      * This endpoint registers an inventory movement corresponding to a product sale
      *
+     * @param idempotencyKey Optional key, a repeated key replays the first result
      * @param request The sale data that will be recorded in the inventory
      * @return A message confirming the operation performed
      */
     @PostMapping("/register-sale")
-    public String registerOutputInventory(@RequestBody SaleInventoryRequest request) {
-        return managementInventory.registerOutputInventory(request);
+    public String registerOutputInventory(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody SaleInventoryRequest request) {
+        return idempotencyGuard.execute(idempotencyKey, "register-sale", request,
+                () -> managementInventory.registerOutputInventory(request));
+    }
+
+    /**
+     * Registers the inventory outputs of all lines of a sale at once
+     * This endpoint applies every line of the sale in a single transaction, all or nothing
+     *
+     * @param idempotencyKey Optional key, a repeated key replays the first result
+     * @param requests The sale lines that will be recorded in the inventory
+     * @return A message confirming the operation performed
+     */
+    @PostMapping("/register-sale-batch")
+    public String registerOutputInventoryBatch(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody List<SaleInventoryRequest> requests) {
+        return idempotencyGuard.execute(idempotencyKey, "register-sale-batch", requests,
+                () -> managementInventory.registerOutputInventoryBatch(requests));
     }
 }
@@ -0,0 +1,40 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.rest.controller;
+
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.client.CachedProductFeignClient;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/product-cache")
+@AllArgsConstructor
+public class ProductCacheController {
+
+    private final CachedProductFeignClient cachedProductFeignClient;
+
+    /**
+     * Drops a product from the local product cache, called by the product service when it is updated or deleted
+     *
+     * @param cod The code of the product
+     * @return An empty response
+     */
+    @DeleteMapping("/{cod}")
+    public ResponseEntity<Void> evictProduct(@PathVariable String cod) {
+        cachedProductFeignClient.invalidate(cod);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Drops every product from the local product cache
+     *
+     * @return An empty response
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> evictAllProducts() {
+        cachedProductFeignClient.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -178,4 +178,14 @@ public class StockController {
         Map<String, StockStatus> inventoryStatus = stockService.getInventoryStatus(lowStockThresholds);
         return ResponseEntity.ok(inventoryStatus);
     }
+
+    /**
+     * Regenerates the stock summary table from the stock records
+     *
+     * @return A map with the number of products summarized
+     */
+    @PostMapping("/summary/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildStockSummary() {
+        return ResponseEntity.ok(stockService.rebuildStockSummary());
+    }
 }
@@ -0,0 +1,53 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.rest.controller;
+
+import com.tienda.com.tienda.inventoryserver.application.services.StockReservationService;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.ReservationRequest;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.ReservationResponse;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/stock/reservations")
+@AllArgsConstructor
+public class StockReservationController {
+
+    private final StockReservationService stockReservationService;
+
+    /**
+     * Holds the units of a cart for a limited time without discounting them from stock
+     *
+     * @param request The lines of the cart and the seconds to hold them
+     * @return A response containing the created reservation
+     */
+    @PostMapping
+    public ResponseEntity<ReservationResponse> reserve(@RequestBody @Valid ReservationRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(stockReservationService.reserve(request));
+    }
+
+    /**
+     * Registers the sale of a reservation, discounting its units from stock
+     *
+     * @param id The ID of the reservation
+     * @return A response containing the committed reservation
+     */
+    @PostMapping("/{id}/commit")
+    public ResponseEntity<ReservationResponse> commit(@PathVariable UUID id) {
+        return ResponseEntity.ok(stockReservationService.commit(id));
+    }
+
+    /**
+     * Gives back the units of a reservation before it expires
+     *
+     * @param id The ID of the reservation
+     * @return A response containing the released reservation
+     */
+    @PostMapping("/{id}/release")
+    public ResponseEntity<ReservationResponse> release(@PathVariable UUID id) {
+        return ResponseEntity.ok(stockReservationService.release(id));
+    }
+}
@@ -0,0 +1,101 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.application.validation.FeignValidator;
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.KardexDailyRollup;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Product;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.ReportInventoryResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the earnings report aggregation over synthetic daily rollups of sales and purchases
+ * The kardex persistence port and the product service are in-memory stand-ins, so the benchmark runs offline
+ * Excluded from the regular build, run it with mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class EarningsReportBenchmark {
+
+    private static final int PRODUCTS = 1000;
+    private static final int CATEGORIES = 20;
+
+    @Param({"10000", "100000", "1000000"})
+    public int rowCount;
+
+    private EarningsReport earningsReport;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Test
+    void earningsReport() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EarningsReportBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Setup
+    public void setUp() {
+        startDate = LocalDate.of(2024, 1, 1);
+        List<KardexDailyRollup> rollups = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            int quantity = 1 + i % 20;
+            var typeMovement = i % 4 == 0 ? TypeMove.INCOME : TypeMove.OUTCOME;
+            var unitPrice = typeMovement == TypeMove.INCOME ? new BigDecimal("10.00") : new BigDecimal("12.50");
+            rollups.add(new KardexDailyRollup(startDate.plusDays(i / PRODUCTS), "PROD-" + i % PRODUCTS, typeMovement,
+                    quantity, unitPrice.multiply(BigDecimal.valueOf(quantity)), unitPrice, unitPrice,
+                    typeMovement == TypeMove.OUTCOME ? new BigDecimal("10.00").multiply(BigDecimal.valueOf(quantity))
+                            : BigDecimal.ZERO));
+        }
+        endDate = rollups.getLast().getMovementDate();
+        Map<String, Product> products = new HashMap<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            var product = new Product();
+            product.setCod("PROD-" + i);
+            product.setName("Producto " + i);
+            product.setCategory(new Product.Category("Categoria " + i % CATEGORIES, null));
+            products.put(product.getCod(), product);
+        }
+        earningsReport = new EarningsReport(new InMemoryKardexPersistance(rollups), new FeignValidator(null, null) {
+            @Override
+            public Map<String, Product> findProductsByCods(Collection<String> cods) {
+                return products;
+            }
+        });
+    }
+
+    @Benchmark
+    public ReportInventoryResponse earningsBetweenDates() {
+        return earningsReport.earningsBetweenDatesDetailsProducts(startDate, endDate);
+    }
+}
@@ -1,11 +1,11 @@
 package com.tienda.com.tienda.inventoryserver.application.services;
 
+import com.tienda.com.tienda.inventoryserver.application.validation.FeignValidator;
 import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
-import com.tienda.com.tienda.inventoryserver.domain.model.dto.Kardex;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.KardexDailyRollup;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.Product;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.ReportInventoryResponse;
 import com.tienda.com.tienda.inventoryserver.domain.port.KardexPersistancePort;
-import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.client.ProductFeignClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,6 +17,8 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,7 +30,7 @@ class EarningsReportTest {
     private KardexPersistancePort kardexPersistancePort;
 
     @Mock
-    private ProductFeignClient productFeignClient;
+    private FeignValidator feignValidator;
 
     @InjectMocks
     private EarningsReport earningsReport;
@@ -38,9 +40,9 @@ class EarningsReportTest {
     private Product product1;
     private Product product2;
     private Product.Category category1;
-    private Kardex saleMoveProduct1;
-    private Kardex purchaseMoveProduct1;
-    private Kardex saleMoveProduct2;
+    private KardexDailyRollup saleMoveProduct1;
+    private KardexDailyRollup purchaseMoveProduct1;
+    private KardexDailyRollup saleMoveProduct2;
 
     @BeforeEach
     void setUp() {
@@ -63,47 +65,44 @@ class EarningsReportTest {
         product2.setName("T-Shirt");
         product2.setCategory(category2);
 
-        saleMoveProduct1 = new Kardex();
-        saleMoveProduct1.setId(java.util.UUID.randomUUID());
+        saleMoveProduct1 = new KardexDailyRollup();
         saleMoveProduct1.setProductId("PROD-001");
         saleMoveProduct1.setTypeMovement(TypeMove.OUTCOME);
         saleMoveProduct1.setQuantity(2);
-        saleMoveProduct1.setUnitPrice(new BigDecimal("1000.00"));
         saleMoveProduct1.setTotalPrice(new BigDecimal("2000.00"));
+        saleMoveProduct1.setCostOfGoodsSold(new BigDecimal("1600.00"));
         saleMoveProduct1.setMovementDate(LocalDate.of(2025, 1, 15));
 
-        purchaseMoveProduct1 = new Kardex();
-        purchaseMoveProduct1.setId(java.util.UUID.randomUUID());
+        purchaseMoveProduct1 = new KardexDailyRollup();
         purchaseMoveProduct1.setProductId("PROD-001");
         purchaseMoveProduct1.setTypeMovement(TypeMove.INCOME);
         purchaseMoveProduct1.setQuantity(5);
-        purchaseMoveProduct1.setUnitPrice(new BigDecimal("800.00"));
         purchaseMoveProduct1.setTotalPrice(new BigDecimal("4000.00"));
+        purchaseMoveProduct1.setCostOfGoodsSold(BigDecimal.ZERO);
         purchaseMoveProduct1.setMovementDate(LocalDate.of(2025, 1, 10));
 
-        saleMoveProduct2 = new Kardex();
-        saleMoveProduct2.setId(java.util.UUID.randomUUID());
+        saleMoveProduct2 = new KardexDailyRollup();
         saleMoveProduct2.setProductId("PROD-002");
         saleMoveProduct2.setTypeMovement(TypeMove.OUTCOME);
         saleMoveProduct2.setQuantity(3);
-        saleMoveProduct2.setUnitPrice(new BigDecimal("50.00"));
         saleMoveProduct2.setTotalPrice(new BigDecimal("150.00"));
+        saleMoveProduct2.setCostOfGoodsSold(new BigDecimal("90.00"));
         saleMoveProduct2.setMovementDate(LocalDate.of(2025, 1, 20));
     }
 
     @Test
     void earningsBetweenDatesDetailsProducts_ShouldReturnReportWithAllMovements() {
-        List<Kardex> movements = Arrays.asList(saleMoveProduct1, purchaseMoveProduct1, saleMoveProduct2);
-        when(kardexPersistancePort.findAllKardexByMovementDateBetween(startDate, endDate)).thenReturn(movements);
-        when(productFeignClient.getProductByCod("PROD-001")).thenReturn(product1);
-        when(productFeignClient.getProductByCod("PROD-002")).thenReturn(product2);
+        List<KardexDailyRollup> movements = Arrays.asList(saleMoveProduct1, purchaseMoveProduct1, saleMoveProduct2);
+        when(kardexPersistancePort.findAllDailyRollupsBetween(startDate, endDate)).thenReturn(movements);
+        when(feignValidator.findProductsByCods(Set.of("PROD-001", "PROD-002")))
+                .thenReturn(Map.of("PROD-001", product1, "PROD-002", product2));
 
         ReportInventoryResponse result = earningsReport.earningsBetweenDatesDetailsProducts(startDate, endDate);
 
         assertNotNull(result);
         assertEquals(new BigDecimal("2150.00"), result.getTotalEarnings()); // 2000 + 150
-        assertEquals(new BigDecimal("4000.00"), result.getTotalCosts());
-        assertEquals(new BigDecimal("-1850.00"), result.getNetProfit()); // 2150 - 4000
+        assertEquals(new BigDecimal("1690.00"), result.getTotalCosts()); // 1600 + 90, purchases are not costs
+        assertEquals(new BigDecimal("460.00"), result.getNetProfit()); // 2150 - 1690
         assertEquals(5, result.getTotalProductsSold()); // 2 + 3
         assertEquals(2, result.getTopSellingProducts().size());
         assertEquals(2, result.getEarningsByCategory().size());
@@ -113,14 +112,13 @@ class EarningsReportTest {
         assertEquals(new BigDecimal("2000.00"), result.getEarningsByCategory().get("Electronics"));
         assertEquals(new BigDecimal("150.00"), result.getEarningsByCategory().get("Clothing"));
 
-        verify(kardexPersistancePort).findAllKardexByMovementDateBetween(startDate, endDate);
-        verify(productFeignClient, times(1)).getProductByCod("PROD-001");
-        verify(productFeignClient).getProductByCod("PROD-002");
+        verify(kardexPersistancePort).findAllDailyRollupsBetween(startDate, endDate);
+        verify(feignValidator, times(1)).findProductsByCods(Set.of("PROD-001", "PROD-002"));
     }
 
     @Test
     void earningsBetweenDatesDetailsProducts_WithNoMovements_ShouldReturnEmptyReport() {
-        when(kardexPersistancePort.findAllKardexByMovementDateBetween(startDate, endDate)).thenReturn(List.of());
+        when(kardexPersistancePort.findAllDailyRollupsBetween(startDate, endDate)).thenReturn(List.of());
 
         ReportInventoryResponse result = earningsReport.earningsBetweenDatesDetailsProducts(startDate, endDate);
 
@@ -134,15 +132,15 @@ class EarningsReportTest {
         assertEquals(startDate, result.getStartDate());
         assertEquals(endDate, result.getEndDate());
 
-        verify(kardexPersistancePort).findAllKardexByMovementDateBetween(startDate, endDate);
-        verifyNoInteractions(productFeignClient);
+        verify(kardexPersistancePort).findAllDailyRollupsBetween(startDate, endDate);
+        verify(feignValidator).findProductsByCods(Set.of());
     }
 
     @Test
-    void earningsBetweenDatesDetailsProducts_ShouldCalculateProfitMargin() {
-        List<Kardex> movements = Arrays.asList(saleMoveProduct1, purchaseMoveProduct1);
-        when(kardexPersistancePort.findAllKardexByMovementDateBetween(startDate, endDate)).thenReturn(movements);
-        when(productFeignClient.getProductByCod("PROD-001")).thenReturn(product1);
+    void earningsBetweenDatesDetailsProducts_ShouldCalculateProfitMarginFromCostOfGoodsSold() {
+        List<KardexDailyRollup> movements = Arrays.asList(saleMoveProduct1, purchaseMoveProduct1);
+        when(kardexPersistancePort.findAllDailyRollupsBetween(startDate, endDate)).thenReturn(movements);
+        when(feignValidator.findProductsByCods(Set.of("PROD-001"))).thenReturn(Map.of("PROD-001", product1));
         ReportInventoryResponse result = earningsReport.earningsBetweenDatesDetailsProducts(startDate, endDate);
 
         assertNotNull(result);
@@ -155,15 +153,16 @@ class EarningsReportTest {
         BigDecimal expectedMargin = new BigDecimal("20.0000");
         assertEquals(0, expectedMargin.compareTo(productDetail.getProfitMargin()));
 
-        verify(kardexPersistancePort).findAllKardexByMovementDateBetween(startDate, endDate);
-        verify(productFeignClient).getProductByCod("PROD-001");
+        verify(kardexPersistancePort).findAllDailyRollupsBetween(startDate, endDate);
+        verify(feignValidator).findProductsByCods(Set.of("PROD-001"));
     }
 
     @Test
-    void earningsBetweenDatesDetailsProducts_WithOnlySalesNoIncome_ShouldHaveZeroProfitMargin() {
-        List<Kardex> movements = List.of(saleMoveProduct1);
-        when(kardexPersistancePort.findAllKardexByMovementDateBetween(startDate, endDate)).thenReturn(movements);
-        when(productFeignClient.getProductByCod("PROD-001")).thenReturn(product1);
+    void earningsBetweenDatesDetailsProducts_WithSalesAtCost_ShouldHaveZeroProfitMargin() {
+        saleMoveProduct1.setCostOfGoodsSold(new BigDecimal("2000.00"));
+        List<KardexDailyRollup> movements = List.of(saleMoveProduct1);
+        when(kardexPersistancePort.findAllDailyRollupsBetween(startDate, endDate)).thenReturn(movements);
+        when(feignValidator.findProductsByCods(Set.of("PROD-001"))).thenReturn(Map.of("PROD-001", product1));
 
         ReportInventoryResponse result = earningsReport.earningsBetweenDatesDetailsProducts(startDate, endDate);
 
@@ -174,43 +173,43 @@ class EarningsReportTest {
         assertEquals(product1, productDetail.getProduct());
         assertEquals(2, productDetail.getQuantitySold());
         assertEquals(new BigDecimal("2000.00"), productDetail.getTotalRevenue());
-        assertEquals(BigDecimal.ZERO, productDetail.getProfitMargin());
+        assertEquals(0, BigDecimal.ZERO.compareTo(productDetail.getProfitMargin()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(result.getNetProfit()));
 
-        verify(kardexPersistancePort).findAllKardexByMovementDateBetween(startDate, endDate);
-        verify(productFeignClient).getProductByCod("PROD-001");
+        verify(kardexPersistancePort).findAllDailyRollupsBetween(startDate, endDate);
+        verify(feignValidator).findProductsByCods(Set.of("PROD-001"));
     }
 
     @Test
-    void earningsBetweenDatesDetailsProducts_WithOnlyIncome_ShouldNotAppearInTopSellingProducts() {
-        List<Kardex> movements = List.of(purchaseMoveProduct1);  // Only purchases, no sales
-        when(kardexPersistancePort.findAllKardexByMovementDateBetween(startDate, endDate)).thenReturn(movements);
+    void earningsBetweenDatesDetailsProducts_WithOnlyIncome_ShouldNotAppearInTopSellingProductsNorCosts() {
+        List<KardexDailyRollup> movements = List.of(purchaseMoveProduct1);  // Only purchases, no sales
+        when(kardexPersistancePort.findAllDailyRollupsBetween(startDate, endDate)).thenReturn(movements);
 
         ReportInventoryResponse result = earningsReport.earningsBetweenDatesDetailsProducts(startDate, endDate);
 
         assertNotNull(result);
         assertEquals(0, result.getTopSellingProducts().size());
         assertEquals(BigDecimal.ZERO, result.getTotalEarnings());
-        assertEquals(new BigDecimal("4000.00"), result.getTotalCosts());
-        assertEquals(new BigDecimal("-4000.00"), result.getNetProfit());
+        assertEquals(BigDecimal.ZERO, result.getTotalCosts());
+        assertEquals(BigDecimal.ZERO, result.getNetProfit());
 
-        verify(kardexPersistancePort).findAllKardexByMovementDateBetween(startDate, endDate);
-        verifyNoInteractions(productFeignClient);
+        verify(kardexPersistancePort).findAllDailyRollupsBetween(startDate, endDate);
+        verify(feignValidator).findProductsByCods(Set.of());
     }
 
     @Test
     void earningsBetweenDatesDetailsProducts_WithMultipleSalesOfSameProduct_ShouldCombineQuantities() {
-        Kardex anotherSaleMoveProduct1 = new Kardex();
-        anotherSaleMoveProduct1.setId(java.util.UUID.randomUUID());
+        KardexDailyRollup anotherSaleMoveProduct1 = new KardexDailyRollup();
         anotherSaleMoveProduct1.setProductId("PROD-001");
         anotherSaleMoveProduct1.setTypeMovement(TypeMove.OUTCOME);
         anotherSaleMoveProduct1.setQuantity(3);
-        anotherSaleMoveProduct1.setUnitPrice(new BigDecimal("1000.00"));
         anotherSaleMoveProduct1.setTotalPrice(new BigDecimal("3000.00"));
+        anotherSaleMoveProduct1.setCostOfGoodsSold(new BigDecimal("2400.00"));
         anotherSaleMoveProduct1.setMovementDate(LocalDate.of(2025, 1, 16));
 
-        List<Kardex> movements = Arrays.asList(saleMoveProduct1, anotherSaleMoveProduct1, purchaseMoveProduct1);
-        when(kardexPersistancePort.findAllKardexByMovementDateBetween(startDate, endDate)).thenReturn(movements);
-        when(productFeignClient.getProductByCod("PROD-001")).thenReturn(product1);
+        List<KardexDailyRollup> movements = Arrays.asList(saleMoveProduct1, anotherSaleMoveProduct1, purchaseMoveProduct1);
+        when(kardexPersistancePort.findAllDailyRollupsBetween(startDate, endDate)).thenReturn(movements);
+        when(feignValidator.findProductsByCods(Set.of("PROD-001"))).thenReturn(Map.of("PROD-001", product1));
         ReportInventoryResponse result = earningsReport.earningsBetweenDatesDetailsProducts(startDate, endDate);
         assertNotNull(result);
         assertEquals(1, result.getTopSellingProducts().size());
@@ -220,15 +219,30 @@ class EarningsReportTest {
         assertEquals(5, productDetail.getQuantitySold());  // 2 + 3
         assertEquals(new BigDecimal("5000.00"), productDetail.getTotalRevenue());  // 2000 + 3000
 
-        BigDecimal expectedMargin = new BigDecimal("20.0000");
+        BigDecimal expectedMargin = new BigDecimal("20.0000"); // (5000 - 4000) / 5000
         assertEquals(0, expectedMargin.compareTo(productDetail.getProfitMargin()));
-        verify(kardexPersistancePort).findAllKardexByMovementDateBetween(startDate, endDate);
-        verify(productFeignClient, times(2)).getProductByCod("PROD-001");
+        assertEquals(new BigDecimal("4000.00"), result.getTotalCosts());
+        verify(kardexPersistancePort).findAllDailyRollupsBetween(startDate, endDate);
+        verify(feignValidator, times(1)).findProductsByCods(Set.of("PROD-001"));
+    }
+
+    @Test
+    void earningsBetweenDatesDetailsProducts_WithUnknownProduct_ShouldKeepTotalsWithoutCategory() {
+        List<KardexDailyRollup> movements = List.of(saleMoveProduct1, saleMoveProduct2);
+        when(kardexPersistancePort.findAllDailyRollupsBetween(startDate, endDate)).thenReturn(movements);
+        when(feignValidator.findProductsByCods(Set.of("PROD-001", "PROD-002"))).thenReturn(Map.of("PROD-001", product1));
+
+        ReportInventoryResponse result = earningsReport.earningsBetweenDatesDetailsProducts(startDate, endDate);
+
+        assertEquals(new BigDecimal("2150.00"), result.getTotalEarnings());
+        assertEquals(2, result.getTopSellingProducts().size());
+        assertEquals(Map.of("Electronics", new BigDecimal("2000.00")), result.getEarningsByCategory());
     }
 
     @Test
     void earningsBetweenDatesDetailsProducts_ShouldLimitTopSellingProductsToTen() {
-        List<Kardex> movements = new java.util.ArrayList<>();
+        List<KardexDailyRollup> movements = new java.util.ArrayList<>();
+        Map<String, Product> products = new java.util.HashMap<>();
 
         for (int i = 1; i <= 15; i++) {
             String productId = "PROD-" + String.format("%03d", i);
@@ -238,21 +252,21 @@ class EarningsReportTest {
             product.setName("Product " + i);
             product.setCategory(category1);
 
-            Kardex saleMove = new Kardex();
-            saleMove.setId(java.util.UUID.randomUUID());
+            KardexDailyRollup saleMove = new KardexDailyRollup();
             saleMove.setProductId(productId);
             saleMove.setTypeMovement(TypeMove.OUTCOME);
             saleMove.setQuantity(1);
-            saleMove.setUnitPrice(new BigDecimal(i * 100));
             saleMove.setTotalPrice(new BigDecimal(i * 100));
+            saleMove.setCostOfGoodsSold(new BigDecimal(i * 50));
             saleMove.setMovementDate(LocalDate.of(2025, 1, i));
 
             movements.add(saleMove);
 
-            when(productFeignClient.getProductByCod(productId)).thenReturn(product);
+            products.put(productId, product);
         }
 
-        when(kardexPersistancePort.findAllKardexByMovementDateBetween(startDate, endDate)).thenReturn(movements);
+        when(kardexPersistancePort.findAllDailyRollupsBetween(startDate, endDate)).thenReturn(movements);
+        when(feignValidator.findProductsByCods(products.keySet())).thenReturn(products);
 
         ReportInventoryResponse result = earningsReport.earningsBetweenDatesDetailsProducts(startDate, endDate);
 
@@ -266,6 +280,6 @@ class EarningsReportTest {
                     "Products should be sorted by revenue in descending order");
         }
 
-        verify(kardexPersistancePort).findAllKardexByMovementDateBetween(startDate, endDate);
+        verify(kardexPersistancePort).findAllDailyRollupsBetween(startDate, endDate);
     }
 }
\ No newline at end of file
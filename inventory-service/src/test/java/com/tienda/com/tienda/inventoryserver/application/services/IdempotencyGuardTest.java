@@ -0,0 +1,239 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.IdempotentResult;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.SaleInventoryRequest;
+import com.tienda.com.tienda.inventoryserver.domain.port.IdempotencyKeyPort;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.IdempotencyKeyInProgress;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.IdempotencyKeyMismatch;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.InsufficientStock;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.UnexpectedRollbackException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyGuardTest {
+
+    @Mock
+    private IdempotencyKeyPort idempotencyKeyPort;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyGuard idempotencyGuard;
+    private final List<SaleInventoryRequest> request = List.of(new SaleInventoryRequest(2, "P1", BigDecimal.TEN));
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyGuard = new IdempotencyGuard(idempotencyKeyPort, new ObjectMapper(), transactionManager, 24, 300, 100);
+    }
+
+    @Test
+    void execute_WithoutKey_ShouldRunTheMovementWithoutStoringIt() {
+        assertEquals("ok", idempotencyGuard.execute(null, "register-sale-batch", request, this::movement));
+
+        assertEquals(1, runs.get());
+        verifyNoInteractions(idempotencyKeyPort);
+    }
+
+    @Test
+    void execute_FirstSubmission_ShouldClaimTheKeyBeforeTheMovementAndThenStoreTheResult() {
+        when(idempotencyKeyPort.complete(any())).thenReturn(true);
+        var order = inOrder(idempotencyKeyPort);
+
+        idempotencyGuard.execute("sale-1", "register-sale-batch", request, () -> {
+            order.verify(idempotencyKeyPort).claim(any());
+            return movement();
+        });
+
+        var claim = ArgumentCaptor.forClass(IdempotentResult.class);
+        var completed = ArgumentCaptor.forClass(IdempotentResult.class);
+        verify(idempotencyKeyPort).claim(claim.capture());
+        order.verify(idempotencyKeyPort).complete(completed.capture());
+        var fingerprint = idempotencyGuard.fingerprint("register-sale-batch", request);
+        assertEquals("sale-1", claim.getValue().getKey());
+        assertEquals(fingerprint, claim.getValue().getFingerprint());
+        assertNull(claim.getValue().getResult());
+        assertTrue(claim.getValue().getExpiresAt().isBefore(LocalDateTime.now().plusMinutes(6)));
+        assertEquals("ok", completed.getValue().getResult());
+        assertEquals(fingerprint, completed.getValue().getFingerprint());
+        assertTrue(completed.getValue().getExpiresAt().isAfter(LocalDateTime.now().plusHours(23)));
+    }
+
+    @Test
+    void execute_RepeatedKey_ShouldReplayFromMemoryWithoutRunningTheMovementAgain() {
+        when(idempotencyKeyPort.complete(any())).thenReturn(true);
+
+        idempotencyGuard.execute("sale-1", "register-sale-batch", request, this::movement);
+        var replayed = idempotencyGuard.execute("sale-1", "register-sale-batch", request, this::movement);
+
+        assertEquals("ok", replayed);
+        assertEquals(1, runs.get());
+        verify(idempotencyKeyPort, times(1)).claim(any());
+    }
+
+    @Test
+    void execute_KeyStoredInDatabase_ShouldReplayTheStoredResult() {
+        keyAlreadyStored(stored("stored result", LocalDateTime.now().plusHours(1)));
+
+        var replayed = idempotencyGuard.execute("sale-1", "register-sale-batch", request, this::movement);
+
+        assertEquals("stored result", replayed);
+        assertEquals(0, runs.get());
+        verify(idempotencyKeyPort, never()).complete(any());
+    }
+
+    @Test
+    void execute_ExpiredKey_ShouldTakeItOverAndRunTheMovementAgain() {
+        keyAlreadyStored(stored("stored result", LocalDateTime.now().minusMinutes(1)));
+        when(idempotencyKeyPort.takeOverExpired(any(), any())).thenReturn(true);
+        when(idempotencyKeyPort.complete(any())).thenReturn(true);
+
+        assertEquals("ok", idempotencyGuard.execute("sale-1", "register-sale-batch", request, this::movement));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void execute_ExpiredKeyTakenOverByAnotherSubmission_ShouldRejectTheDuplicate() {
+        keyAlreadyStored(stored("stored result", LocalDateTime.now().minusMinutes(1)));
+        when(idempotencyKeyPort.takeOverExpired(any(), any())).thenReturn(false);
+
+        assertThrows(IdempotencyKeyInProgress.class,
+                () -> idempotencyGuard.execute("sale-1", "register-sale-batch", request, this::movement));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void execute_KeyReusedWithAnotherRequest_ShouldThrow() {
+        keyAlreadyStored(stored("stored result", LocalDateTime.now().plusHours(1)));
+
+        assertThrows(IdempotencyKeyMismatch.class,
+                () -> idempotencyGuard.execute("sale-1", "register-sale", request, this::movement));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void execute_FailedMovement_ShouldReleaseTheClaim() {
+        assertThrows(InsufficientStock.class, () -> idempotencyGuard.execute("sale-1", "register-sale-batch",
+                request, () -> {
+                    throw new InsufficientStock("Stock valido insuficiente");
+                }));
+
+        var claim = ArgumentCaptor.forClass(IdempotentResult.class);
+        verify(idempotencyKeyPort).claim(claim.capture());
+        verify(idempotencyKeyPort).release(claim.getValue());
+        verify(idempotencyKeyPort, never()).complete(any());
+    }
+
+    @Test
+    void execute_FirstSubmission_ShouldRunTheMovementAndStoreTheResultInOneTransaction() {
+        when(idempotencyKeyPort.complete(any())).thenReturn(true);
+        var order = inOrder(idempotencyKeyPort, transactionManager);
+
+        idempotencyGuard.execute("sale-1", "register-sale-batch", request, this::movement);
+
+        order.verify(idempotencyKeyPort).claim(any());
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(idempotencyKeyPort).complete(any());
+        order.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void execute_FailedResultWrite_ShouldRollBackTheMovementAndReleaseTheClaim() {
+        when(idempotencyKeyPort.complete(any())).thenThrow(new IllegalStateException("Base de datos no disponible"));
+
+        assertThrows(IllegalStateException.class,
+                () -> idempotencyGuard.execute("sale-1", "register-sale-batch", request, this::movement));
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(idempotencyKeyPort).release(any());
+    }
+
+    @Test
+    void execute_ClaimTakenOverWhileRunning_ShouldRollBackWithoutReleasingTheOtherClaim() {
+        when(idempotencyKeyPort.complete(any())).thenReturn(false);
+
+        assertThrows(IdempotencyKeyInProgress.class,
+                () -> idempotencyGuard.execute("sale-1", "register-sale-batch", request, this::movement));
+
+        verify(transactionManager).rollback(any());
+        verify(idempotencyKeyPort, never()).release(any());
+    }
+
+    @Test
+    void execute_TransactionRolledBackOnCommit_ShouldReleaseTheClaim() {
+        when(idempotencyKeyPort.complete(any())).thenReturn(true);
+        doThrow(new UnexpectedRollbackException("Transaccion marcada para rollback")).when(transactionManager).commit(any());
+
+        assertThrows(UnexpectedRollbackException.class,
+                () -> idempotencyGuard.execute("sale-1", "register-sale-batch", request, this::movement));
+
+        verify(idempotencyKeyPort).release(any());
+    }
+
+    @Test
+    void execute_CommitWithUnknownOutcome_ShouldKeepTheClaimUntilItExpires() {
+        when(idempotencyKeyPort.complete(any())).thenReturn(true);
+        doThrow(new TransactionSystemException("Conexion perdida")).when(transactionManager).commit(any());
+
+        assertThrows(TransactionSystemException.class,
+                () -> idempotencyGuard.execute("sale-1", "register-sale-batch", request, this::movement));
+
+        verify(idempotencyKeyPort, never()).release(any());
+    }
+
+    @Test
+    void execute_KeyTooLong_ShouldThrowValidationException() {
+        assertThrows(ValidationException.class,
+                () -> idempotencyGuard.execute("k".repeat(101), "register-sale-batch", request, this::movement));
+    }
+
+    @Test
+    void execute_KeyStillRunning_ShouldRejectTheDuplicate() {
+        keyAlreadyStored(stored(null, LocalDateTime.now().plusMinutes(5)));
+
+        assertThrows(IdempotencyKeyInProgress.class,
+                () -> idempotencyGuard.execute("sale-1", "register-sale-batch", request, this::movement));
+        assertEquals(0, runs.get());
+    }
+
+    private void keyAlreadyStored(IdempotentResult stored) {
+        doThrow(new DataIntegrityViolationException("Duplicate entry")).when(idempotencyKeyPort).claim(any());
+        when(idempotencyKeyPort.findByKey("sale-1")).thenReturn(Optional.of(stored));
+    }
+
+    private String movement() {
+        runs.incrementAndGet();
+        return "ok";
+    }
+
+    private IdempotentResult stored(String result, LocalDateTime expiresAt) {
+        return IdempotentResult.builder()
+                .key("sale-1")
+                .fingerprint(idempotencyGuard.fingerprint("register-sale-batch", request))
+                .result(result)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,171 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Kardex;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.KardexDailyRollup;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.TopSellingProduct;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.ValuationCheckpoint;
+import com.tienda.com.tienda.inventoryserver.domain.port.KardexPersistancePort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Kardex persistence stand-in for the benchmarks, it serves a fixed set of daily rollups from memory
+ */
+class InMemoryKardexPersistance implements KardexPersistancePort {
+
+    private final List<KardexDailyRollup> rollups;
+
+    InMemoryKardexPersistance(List<KardexDailyRollup> rollups) {
+        this.rollups = List.copyOf(rollups);
+    }
+
+    @Override
+    public List<KardexDailyRollup> findAllDailyRollupsBetween(LocalDate startDate, LocalDate endDate) {
+        return rollups;
+    }
+
+    @Override
+    public boolean hasDailyRollups() {
+        return !rollups.isEmpty();
+    }
+
+    @Override
+    public Kardex readById(UUID uuid) {
+        throw unsupported();
+    }
+
+    @Override
+    public Kardex create(Kardex request) {
+        throw unsupported();
+    }
+
+    @Override
+    public Kardex update(Kardex request, UUID uuid) {
+        throw unsupported();
+    }
+
+    @Override
+    public void deleteById(UUID uuid) {
+        throw unsupported();
+    }
+
+    @Override
+    public List<Kardex> findAllKardexByProductId(String productId) {
+        throw unsupported();
+    }
+
+    @Override
+    public List<Kardex> findAllKardexByMovementDateBetween(LocalDate movementDateAfter, LocalDate movementDateBefore) {
+        throw unsupported();
+    }
+
+    @Override
+    public List<Kardex> findAllKardexByTypeMovement(TypeMove typeMovement) {
+        throw unsupported();
+    }
+
+    @Override
+    public List<Kardex> findAllKardexByMovementDateBetweenAndProductId(LocalDate after, LocalDate before, String productId) {
+        throw unsupported();
+    }
+
+    @Override
+    public List<TopSellingProduct> findTopSellingProducts(LocalDate after, LocalDate before, int limit) {
+        throw unsupported();
+    }
+
+    @Override
+    public BigDecimal calculateEarningsBetweenDates(LocalDate startDate, LocalDate endDate) {
+        throw unsupported();
+    }
+
+    @Override
+    public Kardex getLastKardexByProductId(String productId) {
+        throw unsupported();
+    }
+
+    @Override
+    public Kardex getLastKardexByProductIdAsOf(String productId, LocalDate asOf) {
+        throw unsupported();
+    }
+
+    @Override
+    public List<String> findAllKardexProductIds() {
+        throw unsupported();
+    }
+
+    @Override
+    public List<String> findKardexProductIdsWithoutBalance() {
+        throw unsupported();
+    }
+
+    @Override
+    public int rebuildBalances(String productId) {
+        throw unsupported();
+    }
+
+    @Override
+    public List<Kardex> findAllKardexForValuation(String productId, LocalDate after, LocalDate asOf) {
+        throw unsupported();
+    }
+
+    @Override
+    public ValuationCheckpoint findLatestValuationCheckpoint(String productId, LocalDate asOf) {
+        throw unsupported();
+    }
+
+    @Override
+    public long findLedgerVersion(String productId) {
+        throw unsupported();
+    }
+
+    @Override
+    public boolean saveValuationCheckpoints(List<ValuationCheckpoint> checkpoints, long ledgerVersion) {
+        throw unsupported();
+    }
+
+    @Override
+    public List<Kardex> createAll(List<Kardex> kardexList) {
+        throw unsupported();
+    }
+
+    @Override
+    public void enqueueAll(List<Kardex> kardexList) {
+        throw unsupported();
+    }
+
+    @Override
+    public List<Kardex> flushOutbox(int limit) {
+        throw unsupported();
+    }
+
+    @Override
+    public int rebuildDailyRollups() {
+        throw unsupported();
+    }
+
+    @Override
+    public int rebuildDailyRollups(LocalDate startDate, LocalDate endDate) {
+        throw unsupported();
+    }
+
+    @Override
+    public void streamKardexByMovementDateBetween(LocalDate after, LocalDate before, String productId,
+                                                  Consumer<Kardex> consumer) {
+        throw unsupported();
+    }
+
+    @Override
+    public void streamKardexByProductId(String productId, Consumer<Kardex> consumer) {
+        throw unsupported();
+    }
+
+    private UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Not served by the in-memory kardex stand-in");
+    }
+}
@@ -0,0 +1,132 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Stock;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.StockSummary;
+import com.tienda.com.tienda.inventoryserver.domain.port.StockPersistancePort;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Stock persistence stand-in for the benchmarks, it serves a fixed set of lots from memory
+ * Decrements always succeed and the lots are never drained, so every benchmark invocation sees the same stock
+ */
+class InMemoryStockPersistance implements StockPersistancePort {
+
+    private final List<Stock> lots;
+    private final Map<UUID, Stock> lotsById;
+
+    InMemoryStockPersistance(List<Stock> lots) {
+        this.lots = List.copyOf(lots);
+        this.lotsById = lots.stream().collect(Collectors.toMap(Stock::getId, Function.identity()));
+    }
+
+    @Override
+    public List<Stock> findAllStocksByProductId(String productId) {
+        return lots.stream().filter(lot -> lot.getProductId().equals(productId)).toList();
+    }
+
+    @Override
+    public List<Stock> findAllStocks() {
+        return lots;
+    }
+
+    @Override
+    public List<Stock> findAllStocksByProductIdsForUpdate(Collection<String> productIds) {
+        return lots.stream().filter(lot -> productIds.contains(lot.getProductId())).toList();
+    }
+
+    @Override
+    public Map<String, Integer> findValidQuantitiesForShare(Collection<String> productIds) {
+        throw unsupported();
+    }
+
+    @Override
+    public List<Stock> updateQuantities(Map<UUID, Integer> quantities) {
+        return quantities.keySet().stream().map(lotsById::get).toList();
+    }
+
+    @Override
+    public Stock readById(UUID uuid) {
+        return lotsById.get(uuid);
+    }
+
+    @Override
+    public Stock create(Stock request) {
+        throw unsupported();
+    }
+
+    @Override
+    public Stock update(Stock request, UUID uuid) {
+        throw unsupported();
+    }
+
+    @Override
+    public void deleteById(UUID uuid) {
+        throw unsupported();
+    }
+
+    @Override
+    public List<Stock> findAllStocksByExpiryDateBefore(LocalDate expiryDate) {
+        throw unsupported();
+    }
+
+    @Override
+    public List<Stock> findAllStocksByPurchaseDateBetween(LocalDate purchaseDateAfter, LocalDate purchaseDateBefore) {
+        throw unsupported();
+    }
+
+    @Override
+    public List<Stock> findAllStocksByQuantityLessThan(Integer quantity) {
+        throw unsupported();
+    }
+
+    @Override
+    public List<Stock> findAllByProvider(UUID uuid) {
+        throw unsupported();
+    }
+
+    @Override
+    public List<StockSummary> findAllStockSummaries() {
+        throw unsupported();
+    }
+
+    @Override
+    public Optional<StockSummary> findStockSummary(String productId) {
+        var today = LocalDate.now();
+        var productLots = findAllStocksByProductId(productId);
+        return Optional.of(StockSummary.builder()
+                .productId(productId)
+                .validQuantity(productLots.stream().filter(lot -> lot.getExpiryDate() == null
+                        || lot.getExpiryDate().isAfter(today)).mapToInt(Stock::getQuantity).sum())
+                .expiredQuantity(productLots.stream().filter(lot -> lot.getExpiryDate() != null
+                        && !lot.getExpiryDate().isAfter(today)).mapToInt(Stock::getQuantity).sum())
+                .lotCount(productLots.size())
+                .build());
+    }
+
+    @Override
+    public int rebuildStockSummaries(LocalDate today) {
+        throw unsupported();
+    }
+
+    @Override
+    public int refreshExpiredStockSummaries(LocalDate today) {
+        throw unsupported();
+    }
+
+    @Override
+    public List<Stock> createAll(List<Stock> stocks) {
+        throw unsupported();
+    }
+
+    private UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Not served by the in-memory stock stand-in");
+    }
+}
@@ -0,0 +1,48 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InventoryMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private InventoryMetrics inventoryMetrics;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        inventoryMetrics = new InventoryMetrics(meterRegistry);
+    }
+
+    @Test
+    public void timeSaleRegistration_ShouldRecordSuccessfulRegistration() {
+        var result = inventoryMetrics.timeSaleRegistration(InventoryMetrics.MODE_BATCH, () -> "ok");
+        assertEquals("ok", result);
+        assertEquals(1, meterRegistry.get(InventoryMetrics.SALE_REGISTRATION)
+                .tag("mode", "batch").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    public void timePurchaseRegistration_WhenRegistrationFails_ShouldRecordErrorAndRethrow() {
+        assertThrows(ValidationException.class, () -> inventoryMetrics.timePurchaseRegistration(
+                InventoryMetrics.MODE_SINGLE, () -> {
+                    throw new ValidationException("La compra debe contener al menos un producto");
+                }));
+        assertEquals(1, meterRegistry.get(InventoryMetrics.PURCHASE_REGISTRATION)
+                .tag("mode", "single").tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    public void recordDecrementLots_ShouldSummarizeLotsVisitedPerMode() {
+        inventoryMetrics.recordDecrementLots(InventoryMetrics.MODE_SINGLE, 3);
+        inventoryMetrics.recordDecrementLots(InventoryMetrics.MODE_SINGLE, 1);
+        var summary = meterRegistry.get(InventoryMetrics.DECREMENT_LOTS).tag("mode", "single").summary();
+        assertEquals(2, summary.count());
+        assertEquals(4.0, summary.totalAmount());
+    }
+}
@@ -0,0 +1,148 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.FifoLayer;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Kardex;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.ProductValuation;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.ValuationCheckpoint;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.InventoryValuationResponse;
+import com.tienda.com.tienda.inventoryserver.domain.port.KardexPersistancePort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class InventoryValuationTest {
+
+    @Mock
+    private KardexPersistancePort kardexPersistancePort;
+
+    private InventoryValuation inventoryValuation;
+
+    private final LocalDate today = LocalDate.of(2025, 3, 15);
+    private final String productId = "PROD001";
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        inventoryValuation = new InventoryValuation(kardexPersistancePort, 2, 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        inventoryValuation.shutdown();
+    }
+
+    @Test
+    public void valueProduct_ShouldConsumeOldestLotsFirst() {
+        LocalDate asOf = LocalDate.of(2025, 2, 10);
+        when(kardexPersistancePort.findAllKardexForValuation(productId, null, asOf)).thenReturn(List.of(
+                kardex(TypeMove.INCOME, 10, "5.00", LocalDate.of(2025, 1, 5)),
+                kardex(TypeMove.INCOME, 10, "8.00", LocalDate.of(2025, 1, 20)),
+                kardex(TypeMove.OUTCOME, 15, "20.00", LocalDate.of(2025, 2, 3))));
+        ProductValuation result = inventoryValuation.valueProduct(productId, asOf, today);
+        assertEquals(new ProductValuation(productId, 5, new BigDecimal("40.00")), result);
+    }
+
+    @Test
+    public void valueProduct_ShouldCheckpointMonthEndsCrossedOnTheWay() {
+        LocalDate asOf = LocalDate.of(2025, 2, 28);
+        when(kardexPersistancePort.findLedgerVersion(productId)).thenReturn(7L);
+        when(kardexPersistancePort.findAllKardexForValuation(productId, null, asOf)).thenReturn(List.of(
+                kardex(TypeMove.INCOME, 10, "5.00", LocalDate.of(2025, 1, 5)),
+                kardex(TypeMove.OUTCOME, 4, "20.00", LocalDate.of(2025, 2, 3))));
+        inventoryValuation.valueProduct(productId, asOf, today);
+        InOrder inOrder = inOrder(kardexPersistancePort);
+        inOrder.verify(kardexPersistancePort).findLedgerVersion(productId);
+        inOrder.verify(kardexPersistancePort).findAllKardexForValuation(productId, null, asOf);
+        inOrder.verify(kardexPersistancePort).saveValuationCheckpoints(List.of(
+                new ValuationCheckpoint(productId, LocalDate.of(2025, 1, 31),
+                        List.of(new FifoLayer(10, new BigDecimal("5.00")))),
+                new ValuationCheckpoint(productId, asOf, List.of(new FifoLayer(6, new BigDecimal("5.00"))))), 7L);
+    }
+
+    @Test
+    public void valueProduct_ShouldStillValue_WhenLedgerChangedBeforeTheCheckpointsWereSaved() {
+        LocalDate asOf = LocalDate.of(2025, 2, 28);
+        when(kardexPersistancePort.findAllKardexForValuation(productId, null, asOf)).thenReturn(List.of(
+                kardex(TypeMove.INCOME, 10, "5.00", LocalDate.of(2025, 1, 5))));
+        when(kardexPersistancePort.saveValuationCheckpoints(anyList(), anyLong())).thenReturn(false);
+        ProductValuation result = inventoryValuation.valueProduct(productId, asOf, today);
+        assertEquals(new ProductValuation(productId, 10, new BigDecimal("50.00")), result);
+    }
+
+    @Test
+    public void valueProduct_ShouldResumeFromLatestCheckpoint() {
+        LocalDate checkpointDay = LocalDate.of(2025, 1, 31);
+        LocalDate asOf = LocalDate.of(2025, 2, 10);
+        when(kardexPersistancePort.findLatestValuationCheckpoint(productId, asOf)).thenReturn(
+                new ValuationCheckpoint(productId, checkpointDay, List.of(new FifoLayer(5, new BigDecimal("8.00")))));
+        when(kardexPersistancePort.findAllKardexForValuation(productId, checkpointDay, asOf)).thenReturn(List.of(
+                kardex(TypeMove.OUTCOME, 2, "20.00", LocalDate.of(2025, 2, 3))));
+        ProductValuation result = inventoryValuation.valueProduct(productId, asOf, today);
+        assertEquals(new ProductValuation(productId, 3, new BigDecimal("24.00")), result);
+        verify(kardexPersistancePort, never()).findAllKardexForValuation(eq(productId), isNull(), any());
+        verify(kardexPersistancePort, never()).saveValuationCheckpoints(anyList(), anyLong());
+    }
+
+    @Test
+    public void valueProduct_ShouldNotCheckpointOpenDays() {
+        when(kardexPersistancePort.findAllKardexForValuation(productId, null, today)).thenReturn(List.of(
+                kardex(TypeMove.INCOME, 10, "5.00", today)));
+        inventoryValuation.valueProduct(productId, today, today);
+        verify(kardexPersistancePort, never()).saveValuationCheckpoints(anyList(), anyLong());
+    }
+
+    @Test
+    public void valueProduct_ShouldReturnUnitsAtOldestLotCost() {
+        LocalDate asOf = LocalDate.of(2025, 1, 25);
+        when(kardexPersistancePort.findAllKardexForValuation(productId, null, asOf)).thenReturn(List.of(
+                kardex(TypeMove.INCOME, 10, "5.00", LocalDate.of(2025, 1, 5)),
+                kardex(TypeMove.INCOME, 10, "8.00", LocalDate.of(2025, 1, 6)),
+                kardex(TypeMove.OUTCOME, 12, "20.00", LocalDate.of(2025, 1, 10)),
+                kardex(TypeMove.RETURN, 1, "20.00", LocalDate.of(2025, 1, 12))));
+        ProductValuation result = inventoryValuation.valueProduct(productId, asOf, today);
+        assertEquals(new ProductValuation(productId, 9, new BigDecimal("72.00")), result);
+    }
+
+    @Test
+    public void valueInventoryAsOf_ShouldValueEveryProductAndSkipEmptyOnes() {
+        LocalDate asOf = LocalDate.of(2025, 3, 10);
+        var productIds = IntStream.range(0, 40).mapToObj(i -> String.format("PROD%03d", i)).toList();
+        when(kardexPersistancePort.findAllKardexProductIds()).thenReturn(productIds);
+        productIds.forEach(id -> when(kardexPersistancePort.findAllKardexForValuation(id, null, asOf))
+                .thenReturn(List.of(kardex(TypeMove.INCOME, 2, "3.00", asOf))));
+        when(kardexPersistancePort.findAllKardexForValuation("PROD007", null, asOf)).thenReturn(List.of(
+                kardex(TypeMove.INCOME, 2, "3.00", asOf), kardex(TypeMove.OUTCOME, 2, "9.00", asOf)));
+        InventoryValuationResponse result = inventoryValuation.valueInventoryAsOf(asOf, today);
+        assertEquals(39, result.getProducts().size());
+        assertEquals("PROD000", result.getProducts().getFirst().getProductId());
+        assertEquals(78, result.getTotalQuantity());
+        assertEquals(new BigDecimal("234.00"), result.getTotalValue());
+    }
+
+    private Kardex kardex(TypeMove typeMovement, int quantity, String unitPrice, LocalDate movementDate) {
+        return Kardex.builder()
+                .typeMovement(typeMovement)
+                .quantity(quantity)
+                .productId(productId)
+                .unitPrice(new BigDecimal(unitPrice))
+                .totalPrice(new BigDecimal(unitPrice).multiply(BigDecimal.valueOf(quantity)))
+                .movementDate(movementDate)
+                .build();
+    }
+}
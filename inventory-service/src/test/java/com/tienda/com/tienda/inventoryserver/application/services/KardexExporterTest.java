@@ -0,0 +1,116 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tienda.com.tienda.inventoryserver.application.mapper.KardexDomainMapper;
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.ExportFormat;
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Kardex;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Product;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.KardexResponse;
+import com.tienda.com.tienda.inventoryserver.domain.port.KardexPersistancePort;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.ExportLimitExceeded;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+class KardexExporterTest {
+
+    @Mock
+    private KardexPersistancePort kardexPersistancePort;
+
+    @Mock
+    private KardexDomainMapper kardexDomainMapper;
+
+    private ObjectMapper objectMapper;
+
+    private KardexExporter kardexExporter;
+
+    private final LocalDate startDate = LocalDate.of(2025, 1, 1);
+    private final LocalDate endDate = LocalDate.of(2025, 1, 31);
+    private Kardex kardex;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        kardexExporter = new KardexExporter(kardexPersistancePort, objectMapper, kardexDomainMapper, 2);
+        kardex = new Kardex(UUID.fromString("00000000-0000-0000-0000-000000000001"), TypeMove.OUTCOME, 2,
+                "PROD,001", new BigDecimal("10.50"), new BigDecimal("21.00"), LocalDate.of(2025, 1, 15), 8,
+                new BigDecimal("84.00"), new BigDecimal("19.00"));
+    }
+
+    @Test
+    public void writeInventoryMovements_AsNdjson_ShouldWriteOneKardexResponsePerLine() throws Exception {
+        var product = new Product();
+        product.setName("Producto");
+        var response = KardexResponse.builder()
+                .id(kardex.getId())
+                .typeMovement(kardex.getTypeMovement())
+                .quantity(kardex.getQuantity())
+                .productId(product)
+                .movementDate(kardex.getMovementDate())
+                .build();
+        when(kardexDomainMapper.kardexToKardexResponse(kardex)).thenReturn(response);
+        streamMovements(kardex, kardex);
+        var output = new ByteArrayOutputStream();
+        kardexExporter.writeInventoryMovements(startDate, endDate, null, ExportFormat.NDJSON, output);
+        var lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(objectMapper.writeValueAsString(response), lines[0]);
+    }
+
+    @Test
+    public void writeInventoryMovements_AsCsv_ShouldWriteHeaderAndQuoteSeparators() throws Exception {
+        streamMovements(kardex);
+        var output = new ByteArrayOutputStream();
+        kardexExporter.writeInventoryMovements(startDate, endDate, null, ExportFormat.CSV, output);
+        assertEquals(KardexExporter.CSV_HEADER + "\n"
+                + "00000000-0000-0000-0000-000000000001,2025-01-15,\"PROD,001\",OUTCOME,2,10.50,21.00,8,84.00,19.00\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void writeProductHistory_WithoutMovements_ShouldOnlyWriteCsvHeader() throws Exception {
+        var output = new ByteArrayOutputStream();
+        kardexExporter.writeProductHistory("PROD-001", ExportFormat.CSV, output);
+        assertEquals(KardexExporter.CSV_HEADER + "\n", output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void acquirePermit_ShouldRefuseExportsOverTheLimitUntilOneIsClosed() {
+        var first = kardexExporter.acquirePermit();
+        kardexExporter.acquirePermit();
+        assertThrows(ExportLimitExceeded.class, () -> kardexExporter.acquirePermit());
+        first.close();
+        first.close();
+        kardexExporter.acquirePermit();
+        assertThrows(ExportLimitExceeded.class, () -> kardexExporter.acquirePermit());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void streamMovements(Kardex... movements) {
+        doAnswer(invocation -> {
+            Consumer<Kardex> consumer = invocation.getArgument(3);
+            for (Kardex movement : movements) consumer.accept(movement);
+            return null;
+        }).when(kardexPersistancePort).streamKardexByMovementDateBetween(eq(startDate), eq(endDate), eq(null), any());
+    }
+}
@@ -7,9 +7,9 @@ import com.tienda.com.tienda.inventoryserver.domain.model.dto.Kardex;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.Product;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.TopSellingProduct;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.KardexRequest;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.KardexBalanceResponse;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.KardexResponse;
 import com.tienda.com.tienda.inventoryserver.domain.port.KardexPersistancePort;
-import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.client.ProductFeignClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,6 +21,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -38,10 +39,13 @@ class KardexServiceTest {
     private KardexDomainMapper kardexDomainMapper;
 
     @Mock
-    private ProductFeignClient productFeignClient;
+    private FeignValidator feignValidator;
 
     @Mock
-    private FeignValidator feignValidator;
+    private TopSellersTracker topSellersTracker;
+
+    @Mock
+    private KardexWriteBehind kardexWriteBehind;
 
     @InjectMocks
     private KardexService kardexService;
@@ -142,13 +146,13 @@ class KardexServiceTest {
         };
         List<TopSellingProduct> topSellingProducts = List.of(topSellingProduct);
         when(kardexPersistancePort.findTopSellingProducts(startDate, endDate, 5)).thenReturn(topSellingProducts);
-        when(productFeignClient.getProductByCod(productId)).thenReturn(product);
+        when(feignValidator.findProductsByCods(List.of(productId))).thenReturn(Map.of(productId, product));
         List<Product> result = kardexService.getMostSoldProductsReport(startDate, endDate, 5);
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(product, result.getFirst());
         verify(kardexPersistancePort).findTopSellingProducts(startDate, endDate, 5);
-        verify(productFeignClient).getProductByCod(productId);
+        verify(feignValidator).findProductsByCods(List.of(productId));
     }
 
     @Test
@@ -160,15 +164,15 @@ class KardexServiceTest {
             }
         };
         List<TopSellingProduct> topSellingProducts = List.of(topSellingProduct);
-        when(kardexPersistancePort.findTopSellingProducts(any(LocalDate.class), any(LocalDate.class), eq(5)))
-                .thenReturn(topSellingProducts);
-        when(productFeignClient.getProductByCod(productId)).thenReturn(product);
+        when(topSellersTracker.getTopSellingProducts(5)).thenReturn(topSellingProducts);
+        when(feignValidator.findProductsByCods(List.of(productId))).thenReturn(Map.of(productId, product));
         List<Product> result = kardexService.getMostSoldProductsReport(5);
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(product, result.getFirst());
-        verify(kardexPersistancePort).findTopSellingProducts(any(LocalDate.class), any(LocalDate.class), eq(5));
-        verify(productFeignClient).getProductByCod(productId);
+        verify(topSellersTracker).getTopSellingProducts(5);
+        verify(kardexPersistancePort, never()).findTopSellingProducts(any(LocalDate.class), any(LocalDate.class), eq(5));
+        verify(feignValidator).findProductsByCods(List.of(productId));
     }
 
     @Test
@@ -194,6 +198,7 @@ class KardexServiceTest {
         verify(kardexDomainMapper).kardexRequestToKardex(kardexRequest);
         verify(kardexPersistancePort).create(kardex);
         verify(kardexDomainMapper).kardexToKardexResponse(kardex);
+        verify(topSellersTracker).recordAfterCommit(List.of(kardex));
     }
 
     @Test
@@ -219,6 +224,38 @@ class KardexServiceTest {
         assertEquals(new BigDecimal("155.00"), kardex.getTotalPrice());
     }
 
+    @Test
+    void createEntities_ShouldCreateAllKardexAtOnce() {
+        when(kardexDomainMapper.kardexRequestToKardex(kardexRequest)).thenReturn(kardex);
+        when(kardexPersistancePort.createAll(List.of(kardex, kardex))).thenReturn(List.of(kardex, kardex));
+        List<Kardex> result = kardexService.createEntities(List.of(kardexRequest, kardexRequest));
+        assertEquals(2, result.size());
+        verifyNoInteractions(feignValidator);
+        verify(kardexPersistancePort, never()).create(any(Kardex.class));
+        verify(kardexDomainMapper, never()).kardexToKardexResponse(any(Kardex.class));
+        assertEquals(new BigDecimal("155.00"), kardex.getTotalPrice());
+    }
+
+    @Test
+    void recordMovements_WithWriteBehindDisabled_ShouldCreateRightAway() {
+        when(kardexDomainMapper.kardexRequestToKardex(kardexRequest)).thenReturn(kardex);
+        when(kardexPersistancePort.createAll(List.of(kardex))).thenReturn(List.of(kardex));
+        kardexService.recordMovements(List.of(kardexRequest));
+        verify(kardexPersistancePort).createAll(List.of(kardex));
+        verify(kardexWriteBehind, never()).enqueue(any());
+    }
+
+    @Test
+    void recordMovement_WithWriteBehindEnabled_ShouldValidateAndEnqueue() {
+        when(kardexWriteBehind.isEnabled()).thenReturn(true);
+        when(kardexDomainMapper.kardexRequestToKardex(kardexRequest)).thenReturn(kardex);
+        kardexService.recordMovement(kardexRequest);
+        verify(feignValidator).verifyExistingProduct(productId);
+        verify(kardexWriteBehind).enqueue(List.of(kardex));
+        verify(kardexPersistancePort, never()).create(any(Kardex.class));
+        assertEquals(new BigDecimal("155.00"), kardex.getTotalPrice());
+    }
+
     @Test
     void updateEntity_WithValidRequest_ShouldReturnUpdatedKardexResponse() {
         Kardex existingKardex = new Kardex();
@@ -301,5 +338,51 @@ class KardexServiceTest {
         kardexService.deleteEntityById(kardexId);
         verify(kardexPersistancePort).readById(kardexId);
         verify(kardexPersistancePort).deleteById(kardexId);
+        verify(topSellersTracker).rebuild();
+    }
+
+    @Test
+    void rebuildDailyRollups_WithDateRange_ShouldRebuildThatRange() {
+        LocalDate startDate = LocalDate.of(2025, 1, 1);
+        LocalDate endDate = LocalDate.of(2025, 1, 31);
+        when(kardexPersistancePort.rebuildDailyRollups(startDate, endDate)).thenReturn(12);
+        Map<String, Integer> result = kardexService.rebuildDailyRollups(startDate, endDate);
+        assertEquals(Map.of("Registros resumidos", 12), result);
+        verify(kardexPersistancePort, never()).rebuildDailyRollups();
+    }
+
+    @Test
+    void rebuildDailyRollups_WithoutDateRange_ShouldRebuildEverything() {
+        when(kardexPersistancePort.rebuildDailyRollups()).thenReturn(40);
+        Map<String, Integer> result = kardexService.rebuildDailyRollups(null, null);
+        assertEquals(Map.of("Registros resumidos", 40), result);
+    }
+
+    @Test
+    void getBalanceAsOf_ShouldReturnBalanceOfLastMovementUpToThatDay() {
+        LocalDate asOf = LocalDate.of(2025, 1, 31);
+        kardex.setBalanceQuantity(12);
+        kardex.setBalanceValue(new BigDecimal("240.00"));
+        when(kardexPersistancePort.getLastKardexByProductIdAsOf(productId, asOf)).thenReturn(kardex);
+        KardexBalanceResponse result = kardexService.getBalanceAsOf(productId, asOf);
+        assertEquals(new KardexBalanceResponse(productId, asOf, 12, new BigDecimal("240.00")), result);
+    }
+
+    @Test
+    void getBalanceAsOf_WithoutMovements_ShouldReturnZeroBalance() {
+        LocalDate asOf = LocalDate.of(2025, 1, 31);
+        when(kardexPersistancePort.getLastKardexByProductIdAsOf(productId, asOf)).thenReturn(null);
+        KardexBalanceResponse result = kardexService.getBalanceAsOf(productId, asOf);
+        assertEquals(0, result.getQuantity());
+        assertEquals(BigDecimal.ZERO, result.getValue());
+    }
+
+    @Test
+    void rebuildBalances_WithoutProduct_ShouldRecalculateEveryProduct() {
+        when(kardexPersistancePort.findAllKardexProductIds()).thenReturn(List.of("PROD-001", "PROD-002"));
+        when(kardexPersistancePort.rebuildBalances("PROD-001")).thenReturn(3);
+        when(kardexPersistancePort.rebuildBalances("PROD-002")).thenReturn(4);
+        Map<String, Integer> result = kardexService.rebuildBalances(null);
+        assertEquals(Map.of("Registros recalculados", 7), result);
     }
-}
\ No newline at end of file
+}
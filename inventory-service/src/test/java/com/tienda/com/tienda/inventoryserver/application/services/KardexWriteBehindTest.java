@@ -0,0 +1,82 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Kardex;
+import com.tienda.com.tienda.inventoryserver.domain.port.KardexPersistancePort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class KardexWriteBehindTest {
+
+    @Mock
+    private KardexPersistancePort kardexPersistancePort;
+
+    @Mock
+    private TopSellersTracker topSellersTracker;
+
+    private KardexWriteBehind kardexWriteBehind;
+    private Kardex kardex;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        kardexWriteBehind = new KardexWriteBehind(kardexPersistancePort, topSellersTracker, true, 2);
+        kardex = Kardex.builder()
+                .productId("PROD001")
+                .typeMovement(TypeMove.OUTCOME)
+                .quantity(1)
+                .unitPrice(BigDecimal.TEN)
+                .totalPrice(BigDecimal.TEN)
+                .movementDate(LocalDate.now())
+                .build();
+    }
+
+    @Test
+    public void enqueue_ShouldStoreTheRecordsInTheOutbox() {
+        kardexWriteBehind.enqueue(List.of(kardex, kardex));
+        verify(kardexPersistancePort).enqueueAll(List.of(kardex, kardex));
+        verify(kardexPersistancePort, never()).createAll(any());
+    }
+
+    @Test
+    public void flushPending_ShouldFlushBatchesUntilTheOutboxIsDrained() {
+        when(kardexPersistancePort.flushOutbox(2))
+                .thenReturn(List.of(kardex, kardex))
+                .thenReturn(List.of(kardex));
+        kardexWriteBehind.flushPending();
+        verify(kardexPersistancePort, times(2)).flushOutbox(2);
+        verify(topSellersTracker).recordAfterCommit(List.of(kardex, kardex));
+        verify(topSellersTracker).recordAfterCommit(List.of(kardex));
+    }
+
+    @Test
+    public void flushPending_WhenDatabaseFails_ShouldKeepTheRecordsForTheNextRun() {
+        when(kardexPersistancePort.flushOutbox(2))
+                .thenThrow(new IllegalStateException("Base de datos no disponible"))
+                .thenReturn(List.of(kardex));
+        assertDoesNotThrow(kardexWriteBehind::flushPending);
+        verify(topSellersTracker, never()).recordAfterCommit(any());
+        kardexWriteBehind.flushPending();
+        verify(topSellersTracker).recordAfterCommit(List.of(kardex));
+    }
+
+    @Test
+    public void flushPending_WhenDisabled_ShouldNotTouchTheOutbox() {
+        var disabled = new KardexWriteBehind(kardexPersistancePort, topSellersTracker, false, 2);
+        disabled.flushPending();
+        assertFalse(disabled.isEnabled());
+        verify(kardexPersistancePort, never()).flushOutbox(anyInt());
+        verify(topSellersTracker, never()).recordAfterCommit(any());
+    }
+}
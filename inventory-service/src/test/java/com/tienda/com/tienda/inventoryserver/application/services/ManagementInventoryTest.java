@@ -2,21 +2,27 @@ package com.tienda.com.tienda.inventoryserver.application.services;
 
 import com.tienda.com.tienda.inventoryserver.application.mapper.KardexDomainMapper;
 import com.tienda.com.tienda.inventoryserver.application.mapper.StockDomainMapper;
+import com.tienda.com.tienda.inventoryserver.application.validation.FeignValidator;
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.StockConsumption;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.KardexRequest;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.PurchaseInventoryRequest;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.SaleInventoryRequest;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.StockRequest;
-import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.KardexResponse;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.StockResponse;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -36,6 +42,12 @@ class ManagementInventoryTest {
     @Mock
     private KardexDomainMapper kardexMapper;
 
+    @Mock
+    private FeignValidator feignValidator;
+
+    @Spy
+    private InventoryMetrics inventoryMetrics = new InventoryMetrics(new SimpleMeterRegistry());
+
     @InjectMocks
     private ManagementInventory managementInventory;
 
@@ -61,7 +73,6 @@ class ManagementInventoryTest {
 
         assertEquals("product-123", saleRequest.getProductId());
         when(stockService.createEntity(any(StockRequest.class))).thenReturn(new StockResponse());
-        when(kardexService.createEntity(any(KardexRequest.class))).thenReturn(new KardexResponse());
     }
 
     @Test
@@ -73,20 +84,89 @@ class ManagementInventoryTest {
         String result = managementInventory.registerInputInventory(purchaseRequest);
         assertEquals("Registro de compra creado exitosamente", result);
         verify(stockService).createEntity(stockRequest);
-        verify(kardexService).createEntity(kardexRequest);
+        verify(kardexService).recordMovement(kardexRequest);
     }
 
     @Test
     public void registerOutputInventory_ShouldReturnSuccessMessage_WhenValidRequest() {
-        var kardexRequest = mock(KardexRequest.class);
+        var kardexRequest = new KardexRequest();
+        kardexRequest.setProductId("product-123");
         when(kardexMapper.createSaleKardex(saleRequest)).thenReturn(kardexRequest);
         assertEquals("product-123", saleRequest.getProductId());
-        StockResponse mockStockResponse = mock(StockResponse.class);
         when(stockService.decrementQuantity(eq("product-123"), eq(5), any(BigDecimal.class)))
-                .thenReturn(mockStockResponse);
+                .thenReturn(consumption(new BigDecimal("500.00")));
         String result = managementInventory.registerOutputInventory(saleRequest);
         assertEquals("Registro de compra creado exitosamente", result);
-        verify(kardexService).createEntity(kardexRequest);
+        verify(kardexService).recordMovement(kardexRequest);
+        assertEquals(new BigDecimal("500.00"), kardexRequest.getCostOfGoodsSold());
+    }
+
+    @Test
+    public void registerOutputInventoryBatch_ShouldDecrementStockAndCreateKardexOnce() {
+        var kardexRequest = new KardexRequest();
+        var otherKardexRequest = new KardexRequest();
+        when(kardexMapper.createSaleKardex(saleRequest)).thenReturn(kardexRequest, otherKardexRequest);
+        when(stockService.decrementQuantities(List.of(saleRequest, saleRequest), Map.of()))
+                .thenReturn(List.of(consumption(new BigDecimal("500.00")), consumption(new BigDecimal("450.00"))));
+        String result = managementInventory.registerOutputInventoryBatch(List.of(saleRequest, saleRequest));
+        assertEquals("Registro de compra creado exitosamente", result);
+        verify(feignValidator).verifyExistingProducts(List.of("product-123", "product-123"));
+        verify(stockService).decrementQuantities(List.of(saleRequest, saleRequest), Map.of());
+        verify(kardexService).recordMovements(List.of(kardexRequest, otherKardexRequest));
+        assertEquals(new BigDecimal("500.00"), kardexRequest.getCostOfGoodsSold());
+        assertEquals(new BigDecimal("450.00"), otherKardexRequest.getCostOfGoodsSold());
+        verify(stockService, never()).decrementQuantity(any(), anyInt(), any());
+        verify(kardexService, never()).recordMovement(any(KardexRequest.class));
+        assertEquals(TypeMove.OUTCOME, kardexRequest.getTypeMovement());
+    }
+
+    @Test
+    public void registerOutputInventoryBatch_ShouldThrowException_WhenSaleIsEmpty() {
+        assertThrows(ValidationException.class, () -> managementInventory.registerOutputInventoryBatch(List.of()));
+        verifyNoInteractions(stockService);
+    }
+
+    @Test
+    public void registerOutputInventoryBatch_ShouldThrowException_WhenALineHasNoPositiveQuantity() {
+        var zeroLine = new SaleInventoryRequest(0, "product-456", new BigDecimal("100.00"));
+        assertThrows(ValidationException.class, () ->
+                managementInventory.registerOutputInventoryBatch(List.of(saleRequest, zeroLine)));
+        verifyNoInteractions(stockService, feignValidator);
+    }
+
+    @Test
+    public void registerOutputInventoryBatch_ShouldThrowException_WhenALineHasNoProduct() {
+        var noProductLine = new SaleInventoryRequest(2, null, new BigDecimal("100.00"));
+        assertThrows(ValidationException.class, () ->
+                managementInventory.registerOutputInventoryBatch(List.of(noProductLine)));
+        verifyNoInteractions(stockService, feignValidator);
+    }
+
+    @Test
+    public void registerInputInventoryBatch_ShouldVerifyProviderOnceAndCreateAllAtOnce() {
+        var stockRequest = new StockRequest();
+        var kardexRequest = new KardexRequest();
+        when(stockMapper.registerPurchase(purchaseRequest)).thenReturn(stockRequest);
+        when(kardexMapper.createPurchaseKardex(purchaseRequest)).thenReturn(kardexRequest);
+        String result = managementInventory.registerInputInventoryBatch(List.of(purchaseRequest, purchaseRequest));
+        assertEquals("Registro de compra creado exitosamente", result);
+        verify(feignValidator, times(1)).verifyExistingProvider(purchaseRequest.getProviderId());
+        verify(feignValidator).verifyExistingProducts(List.of("product-123", "product-123"));
+        verify(stockService).createEntities(List.of(stockRequest, stockRequest));
+        verify(kardexService).recordMovements(List.of(kardexRequest, kardexRequest));
+        verify(stockService, never()).createEntity(any(StockRequest.class));
+        assertEquals(TypeMove.INCOME, kardexRequest.getTypeMovement());
+        assertEquals(LocalDate.now(), stockRequest.getPurchaseDate());
+    }
+
+    @Test
+    public void registerInputInventoryBatch_ShouldThrowException_WhenAnyLineExpiresTooSoon() {
+        var expiringRequest = new PurchaseInventoryRequest(1, BigDecimal.ONE, UUID.randomUUID(), "product-456",
+                LocalDate.now().plusDays(1));
+        assertThrows(ValidationException.class, () ->
+                managementInventory.registerInputInventoryBatch(List.of(purchaseRequest, expiringRequest)));
+        verifyNoInteractions(feignValidator);
+        verify(stockService, never()).createEntities(any());
     }
 
     @Test
@@ -96,4 +176,8 @@ class ManagementInventoryTest {
                 () -> managementInventory.registerInputInventory(purchaseRequest));
         assertEquals("La fecha de vencimiento esta demasiado proxima, minimo 3 dias de diferencia", thrown.getMessage());
     }
+
+    private StockConsumption consumption(BigDecimal costOfGoodsSold) {
+        return new StockConsumption("product-123", 5, List.of(), costOfGoodsSold);
+    }
 }
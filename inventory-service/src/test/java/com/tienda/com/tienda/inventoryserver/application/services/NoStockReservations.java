@@ -0,0 +1,51 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.ReservationStatus;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.StockReservation;
+import com.tienda.com.tienda.inventoryserver.domain.port.StockReservationPort;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reservation persistence stand-in for the benchmarks, no units are ever held
+ */
+class NoStockReservations implements StockReservationPort {
+
+    @Override
+    public List<StockReservation> createAll(List<StockReservation> reservations) {
+        return reservations;
+    }
+
+    @Override
+    public List<StockReservation> findByReservationId(UUID reservationId) {
+        return List.of();
+    }
+
+    @Override
+    public int findHeldQuantity(String productId) {
+        return 0;
+    }
+
+    @Override
+    public Map<String, Integer> lockHeldQuantities(Collection<String> productIds) {
+        return Map.of();
+    }
+
+    @Override
+    public void addHeldQuantities(Map<String, Integer> quantities) {
+    }
+
+    @Override
+    public boolean endHold(UUID reservationId, ReservationStatus status) {
+        return false;
+    }
+
+    @Override
+    public List<UUID> findDueReservationIds(LocalDateTime now, int limit) {
+        return List.of();
+    }
+}
@@ -0,0 +1,48 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.domain.port.StockReservationPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationHoldsTest {
+
+    private static final String PRODUCT_ID = "PROD001";
+
+    @Mock
+    private StockReservationPort stockReservationPort;
+
+    private ReservationHolds reservationHolds;
+
+    @BeforeEach
+    void setUp() {
+        reservationHolds = new ReservationHolds(stockReservationPort);
+    }
+
+    @Test
+    void heldQuantity_ShouldReadTheHoldCounterOfTheProduct() {
+        when(stockReservationPort.findHeldQuantity(PRODUCT_ID)).thenReturn(6);
+        assertEquals(6, reservationHolds.heldQuantity(PRODUCT_ID));
+    }
+
+    @Test
+    void lockHeldQuantities_ShouldLockTheHoldCountersOfEveryProduct() {
+        when(stockReservationPort.lockHeldQuantities(Set.of(PRODUCT_ID, "PROD002"))).thenReturn(Map.of(PRODUCT_ID, 6));
+        assertEquals(Map.of(PRODUCT_ID, 6), reservationHolds.lockHeldQuantities(Set.of(PRODUCT_ID, "PROD002")));
+    }
+
+    @Test
+    void hold_ShouldAddTheUnitsToTheHoldCounters() {
+        reservationHolds.hold(Map.of(PRODUCT_ID, 4));
+        verify(stockReservationPort).addHeldQuantities(Map.of(PRODUCT_ID, 4));
+    }
+}
@@ -0,0 +1,99 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Stock;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.StockConsumption;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.SaleInventoryRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the allocation of a sale line across the lots of a product and the sale price policy checked per lot
+ * The persistence port is an in-memory stand-in that is never drained, so the benchmark runs offline
+ * Excluded from the regular build, run it with mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StockAllocationBenchmark {
+
+    private static final String PRODUCT_ID = "PROD-001";
+    private static final int UNITS_PER_LOT = 10;
+
+    @Param({"1", "10", "100"})
+    public int lotCount;
+
+    private StockService stockService;
+    private List<Stock> lots;
+    private List<SaleInventoryRequest> saleLines;
+    private int quantity;
+    private BigDecimal unitPrice;
+
+    @Test
+    void stockAllocation() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StockAllocationBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Setup
+    public void setUp() {
+        lots = new ArrayList<>(lotCount);
+        for (int i = 0; i < lotCount; i++) {
+            lots.add(new Stock(UUID.randomUUID(), UNITS_PER_LOT, new BigDecimal("10.00"), new BigDecimal("100.00"),
+                    UUID.randomUUID(), PRODUCT_ID, LocalDate.now().minusDays(10), LocalDate.now().plusDays(30 + i), 0L));
+        }
+        var stockPersistance = new InMemoryStockPersistance(lots);
+        var stockLedger = new StockLedger(stockPersistance);
+        stockLedger.rebuild();
+        var inventoryMetrics = new InventoryMetrics(new SimpleMeterRegistry());
+        stockService = new StockService(null, null, stockPersistance, null, stockLedger, inventoryMetrics,
+                new ReservationHolds(new NoStockReservations()));
+        quantity = lotCount * UNITS_PER_LOT - UNITS_PER_LOT / 2;
+        unitPrice = new BigDecimal("12.50");
+        saleLines = List.of(new SaleInventoryRequest(quantity, PRODUCT_ID, unitPrice));
+    }
+
+    @Benchmark
+    public StockConsumption decrementQuantity() {
+        return stockService.decrementQuantity(PRODUCT_ID, quantity, unitPrice);
+    }
+
+    @Benchmark
+    public List<StockConsumption> decrementQuantities() {
+        return stockService.decrementQuantities(saleLines);
+    }
+
+    @Benchmark
+    public int salePricePolicy() {
+        for (Stock lot : lots) StockService.validateStockSalePolitic(lot, unitPrice);
+        return lots.size();
+    }
+}
@@ -0,0 +1,184 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.ProductStock;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Stock;
+import com.tienda.com.tienda.inventoryserver.domain.port.StockPersistancePort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StockLedgerTest {
+
+    @Mock
+    private StockPersistancePort stockPersistancePort;
+
+    @InjectMocks
+    private StockLedger stockLedger;
+
+    private final String productId = "PROD001";
+    private Stock validStock;
+    private Stock expiredStock;
+    private Stock noExpiryStock;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        validStock = stock(10, LocalDate.now().plusMonths(2));
+        expiredStock = stock(5, LocalDate.now().minusDays(1));
+        noExpiryStock = stock(7, null);
+        when(stockPersistancePort.findAllStocks()).thenReturn(List.of(noExpiryStock, validStock, expiredStock));
+        stockLedger.rebuild();
+    }
+
+    @Test
+    public void rebuild_ShouldSummarizeLotsPerProduct() {
+        ProductStock result = stockLedger.getProductStock(productId).orElseThrow();
+        assertEquals(17, result.getValidQuantity());
+        assertEquals(5, result.getExpiredQuantity());
+        assertEquals(validStock.getExpiryDate(), result.getNextExpiryDate());
+        assertEquals(List.of(expiredStock.getId(), validStock.getId(), noExpiryStock.getId()),
+                result.getLots().stream().map(Stock::getId).toList());
+        verify(stockPersistancePort, times(1)).findAllStocks();
+    }
+
+    @Test
+    public void apply_ShouldReplaceExistingLot() {
+        validStock.setQuantity(3);
+        stockLedger.apply(validStock);
+        ProductStock result = stockLedger.getProductStock(productId).orElseThrow();
+        assertEquals(10, result.getValidQuantity());
+        assertEquals(3, result.getLots().size());
+    }
+
+    @Test
+    public void apply_ShouldNotShareInstancesWithCaller() {
+        var newStock = stock(4, LocalDate.now().plusDays(10));
+        stockLedger.apply(newStock);
+        newStock.setQuantity(100);
+        ProductStock result = stockLedger.getProductStock(productId).orElseThrow();
+        assertEquals(21, result.getValidQuantity());
+        assertEquals(newStock.getExpiryDate(), result.getNextExpiryDate());
+    }
+
+    @Test
+    public void apply_ShouldMoveLotWhenProductChanges() {
+        validStock.setProductId("PROD002");
+        stockLedger.apply(validStock);
+        assertEquals(7, stockLedger.getProductStock(productId).orElseThrow().getValidQuantity());
+        assertEquals(10, stockLedger.getProductStock("PROD002").orElseThrow().getValidQuantity());
+    }
+
+    @Test
+    public void applyAfterCommit_ShouldApplyRightAway_WithoutTransaction() {
+        validStock.setQuantity(0);
+        stockLedger.applyAfterCommit(List.of(validStock));
+        assertEquals(7, stockLedger.getProductStock(productId).orElseThrow().getValidQuantity());
+    }
+
+    @Test
+    public void applyAfterCommit_ShouldWaitForCommit_AndIgnoreRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            validStock.setQuantity(0);
+            stockLedger.applyAfterCommit(validStock);
+            assertEquals(17, stockLedger.getProductStock(productId).orElseThrow().getValidQuantity());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            assertEquals(17, stockLedger.getProductStock(productId).orElseThrow().getValidQuantity());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(7, stockLedger.getProductStock(productId).orElseThrow().getValidQuantity());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void removeAfterCommit_ShouldRemoveLotOnceCommitted() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            stockLedger.removeAfterCommit(validStock.getId());
+            assertEquals(3, stockLedger.getProductStock(productId).orElseThrow().getLots().size());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(2, stockLedger.getProductStock(productId).orElseThrow().getLots().size());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void remove_ShouldDropProductWhenNoLotsRemain() {
+        stockLedger.remove(validStock.getId());
+        stockLedger.remove(expiredStock.getId());
+        stockLedger.remove(noExpiryStock.getId());
+        assertTrue(stockLedger.getProductStock(productId).isEmpty());
+    }
+
+    @Test
+    public void apply_ShouldIgnoreOlderVersionOfLot() {
+        stockLedger.apply(withQuantity(validStock, 3, 2L));
+        stockLedger.apply(withQuantity(validStock, 8, 1L));
+        assertEquals(10, stockLedger.getProductStock(productId).orElseThrow().getValidQuantity());
+    }
+
+    @Test
+    public void apply_ShouldNotBringBackRemovedLot() {
+        stockLedger.remove(validStock.getId());
+        stockLedger.apply(withQuantity(validStock, 3, 1L));
+        assertEquals(7, stockLedger.getProductStock(productId).orElseThrow().getValidQuantity());
+    }
+
+    @Test
+    public void rebuild_ShouldPickUpChangesCommittedByOtherInstances() {
+        when(stockPersistancePort.findAllStocks()).thenReturn(List.of(noExpiryStock, withQuantity(validStock, 1, 1L)));
+        stockLedger.rebuild();
+        ProductStock result = stockLedger.getProductStock(productId).orElseThrow();
+        assertEquals(8, result.getValidQuantity());
+        assertEquals(0, result.getExpiredQuantity());
+    }
+
+    @Test
+    public void rebuild_ShouldKeepLotsChangedWhileTheStockWasRead() {
+        var newStock = stock(4, LocalDate.now().plusDays(10));
+        when(stockPersistancePort.findAllStocks()).thenAnswer(invocation -> {
+            stockLedger.apply(withQuantity(validStock, 2, 1L));
+            stockLedger.apply(newStock);
+            stockLedger.remove(noExpiryStock.getId());
+            return List.of(noExpiryStock, validStock, expiredStock);
+        });
+        stockLedger.rebuild();
+        ProductStock result = stockLedger.getProductStock(productId).orElseThrow();
+        assertEquals(6, result.getValidQuantity());
+        assertEquals(3, result.getLots().size());
+    }
+
+    private Stock withQuantity(Stock stock, int quantity, long version) {
+        return new Stock(stock.getId(), quantity, stock.getPurchaseUnitCost(), stock.getTotalPurchaseCost(),
+                stock.getProviderId(), stock.getProductId(), stock.getPurchaseDate(), stock.getExpiryDate(), version);
+    }
+
+    private Stock stock(int quantity, LocalDate expiryDate) {
+        return Stock.builder()
+                .id(UUID.randomUUID())
+                .quantity(quantity)
+                .purchaseUnitCost(BigDecimal.TEN)
+                .totalPurchaseCost(BigDecimal.TEN.multiply(BigDecimal.valueOf(quantity)))
+                .providerId(UUID.randomUUID())
+                .productId(productId)
+                .purchaseDate(LocalDate.now().minusMonths(1))
+                .expiryDate(expiryDate)
+                .version(0L)
+                .build();
+    }
+}
@@ -0,0 +1,188 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.ReservationStatus;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.StockReservation;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.ReservationRequest;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.SaleInventoryRequest;
+import com.tienda.com.tienda.inventoryserver.domain.port.StockReservationPort;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.InsufficientStock;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.ReservationNotFoundException;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceTest {
+
+    private static final String PRODUCT_ID = "PROD001";
+
+    @Mock
+    private StockReservationPort stockReservationPort;
+
+    @Mock
+    private ReservationHolds reservationHolds;
+
+    @Mock
+    private StockService stockService;
+
+    @Mock
+    private ManagementInventory managementInventory;
+
+    private StockReservationService stockReservationService;
+    private final UUID reservationId = UUID.randomUUID();
+    private final SaleInventoryRequest line = new SaleInventoryRequest(4, PRODUCT_ID, BigDecimal.valueOf(120));
+
+    @BeforeEach
+    void setUp() {
+        stockReservationService = new StockReservationService(stockReservationPort, reservationHolds, stockService,
+                managementInventory, 600, 3600);
+    }
+
+    @Test
+    void reserve_ShouldHoldTheUnitsThenCheckTheStockAndStoreEveryLine() {
+        var request = new ReservationRequest(List.of(line, new SaleInventoryRequest(2, PRODUCT_ID, BigDecimal.TEN)), 120);
+        var response = stockReservationService.reserve(request);
+        assertEquals(ReservationStatus.ACTIVE, response.getStatus());
+        var order = inOrder(reservationHolds, stockService, stockReservationPort);
+        order.verify(reservationHolds).hold(Map.of(PRODUCT_ID, 6));
+        order.verify(stockService).validateReservableQuantities(Map.of(PRODUCT_ID, 6));
+        ArgumentCaptor<List<StockReservation>> stored = ArgumentCaptor.forClass(List.class);
+        order.verify(stockReservationPort).createAll(stored.capture());
+        assertEquals(2, stored.getValue().size());
+        assertTrue(stored.getValue().stream().allMatch(reservation ->
+                reservation.getStatus() == ReservationStatus.ACTIVE
+                        && reservation.getReservationId().equals(response.getReservationId())
+                        && reservation.getExpiresAt().equals(response.getExpiresAt())));
+        assertTrue(response.getExpiresAt().isBefore(LocalDateTime.now().plusSeconds(121)));
+    }
+
+    @Test
+    void reserve_ShouldCapTheTimeToLive() {
+        var response = stockReservationService.reserve(new ReservationRequest(List.of(line), 100_000));
+        assertTrue(response.getExpiresAt().isBefore(LocalDateTime.now().plusSeconds(3601)));
+    }
+
+    @Test
+    void reserve_ShouldNotStoreAnything_WhenStockIsInsufficient() {
+        doThrow(new InsufficientStock("sin stock")).when(stockService).validateReservableQuantities(any());
+        assertThrows(InsufficientStock.class, () ->
+                stockReservationService.reserve(new ReservationRequest(List.of(line), null)));
+        verify(stockReservationPort, never()).createAll(any());
+    }
+
+    @Test
+    void reserve_ShouldThrowValidationException_WhenLineHasNoPositiveQuantity() {
+        var request = new ReservationRequest(List.of(new SaleInventoryRequest(0, PRODUCT_ID, BigDecimal.TEN)), null);
+        assertThrows(ValidationException.class, () -> stockReservationService.reserve(request));
+        verifyNoInteractions(reservationHolds, stockService, stockReservationPort);
+    }
+
+    @Test
+    void commit_ShouldRegisterTheSaleCountingItsOwnHoldThenMarkTheReservation() {
+        when(stockReservationPort.findByReservationId(reservationId)).thenReturn(List.of(stored(ReservationStatus.ACTIVE,
+                LocalDateTime.now().plusMinutes(5))));
+        when(stockReservationPort.endHold(reservationId, ReservationStatus.COMMITTED)).thenReturn(true);
+        var response = stockReservationService.commit(reservationId);
+        assertEquals(ReservationStatus.COMMITTED, response.getStatus());
+        var order = inOrder(managementInventory, stockReservationPort);
+        order.verify(managementInventory).registerReservedOutputInventory(List.of(line), Map.of(PRODUCT_ID, 4));
+        order.verify(stockReservationPort).endHold(reservationId, ReservationStatus.COMMITTED);
+    }
+
+    @Test
+    void commit_ShouldLeaveTheReservationActive_WhenTheSaleFails() {
+        when(stockReservationPort.findByReservationId(reservationId)).thenReturn(List.of(stored(ReservationStatus.ACTIVE,
+                LocalDateTime.now().plusMinutes(5))));
+        when(managementInventory.registerReservedOutputInventory(any(), any()))
+                .thenThrow(new InsufficientStock("sin stock"));
+        assertThrows(InsufficientStock.class, () -> stockReservationService.commit(reservationId));
+        verify(stockReservationPort, never()).endHold(any(), any());
+    }
+
+    @Test
+    void commit_ShouldThrowValidationException_WhenTheReservationExpired() {
+        when(stockReservationPort.findByReservationId(reservationId)).thenReturn(List.of(stored(ReservationStatus.ACTIVE,
+                LocalDateTime.now().minusSeconds(1))));
+        assertThrows(ValidationException.class, () -> stockReservationService.commit(reservationId));
+        verifyNoInteractions(managementInventory);
+    }
+
+    @Test
+    void commit_ShouldThrowValidationException_WhenAConcurrentCallChangedTheStatus() {
+        when(stockReservationPort.findByReservationId(reservationId)).thenReturn(List.of(stored(ReservationStatus.ACTIVE,
+                LocalDateTime.now().plusMinutes(5))));
+        when(stockReservationPort.endHold(reservationId, ReservationStatus.COMMITTED)).thenReturn(false);
+        assertThrows(ValidationException.class, () -> stockReservationService.commit(reservationId));
+    }
+
+    @Test
+    void commit_ShouldThrowReservationNotFound_WhenTheReservationDoesNotExist() {
+        when(stockReservationPort.findByReservationId(reservationId)).thenReturn(List.of());
+        assertThrows(ReservationNotFoundException.class, () -> stockReservationService.commit(reservationId));
+    }
+
+    @Test
+    void release_ShouldMarkTheReservationAsReleased() {
+        when(stockReservationPort.findByReservationId(reservationId)).thenReturn(List.of(stored(ReservationStatus.ACTIVE,
+                LocalDateTime.now().plusMinutes(5))));
+        when(stockReservationPort.endHold(reservationId, ReservationStatus.RELEASED)).thenReturn(true);
+        var response = stockReservationService.release(reservationId);
+        assertEquals(ReservationStatus.RELEASED, response.getStatus());
+    }
+
+    @Test
+    void release_ShouldThrowValidationException_WhenTheReservationWasCommitted() {
+        when(stockReservationPort.findByReservationId(reservationId)).thenReturn(List.of(stored(ReservationStatus.COMMITTED,
+                LocalDateTime.now().plusMinutes(5))));
+        assertThrows(ValidationException.class, () -> stockReservationService.release(reservationId));
+        verify(stockReservationPort, never()).endHold(any(), any());
+    }
+
+    @Test
+    void expireDue_ShouldEndEveryDueReservationInBatches() {
+        var firstBatch = Stream.generate(UUID::randomUUID).limit(100).toList();
+        var last = UUID.randomUUID();
+        when(stockReservationPort.findDueReservationIds(any(), eq(100))).thenReturn(firstBatch, List.of(last));
+        stockReservationService.expireDue();
+        verify(stockReservationPort, times(2)).findDueReservationIds(any(), eq(100));
+        verify(stockReservationPort, times(101)).endHold(any(), eq(ReservationStatus.EXPIRED));
+        verify(stockReservationPort).endHold(last, ReservationStatus.EXPIRED);
+    }
+
+    @Test
+    void expireDue_ShouldNotPropagate_WhenTheStatusCannotBeStored() {
+        when(stockReservationPort.findDueReservationIds(any(), anyInt())).thenReturn(List.of(reservationId));
+        when(stockReservationPort.endHold(reservationId, ReservationStatus.EXPIRED))
+                .thenThrow(new IllegalStateException("db"));
+        assertDoesNotThrow(() -> stockReservationService.expireDue());
+    }
+
+    private StockReservation stored(ReservationStatus status, LocalDateTime expiresAt) {
+        return StockReservation.builder()
+                .id(UUID.randomUUID())
+                .reservationId(reservationId)
+                .productId(PRODUCT_ID)
+                .quantity(4)
+                .unitPrice(BigDecimal.valueOf(120))
+                .status(status)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -2,8 +2,14 @@ package com.tienda.com.tienda.inventoryserver.application.services;
 
 import com.tienda.com.tienda.inventoryserver.application.mapper.StockDomainMapper;
 import com.tienda.com.tienda.inventoryserver.application.validation.FeignValidator;
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.StockStatus;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.Product;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.ProductStock;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.ConsumedLot;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.Stock;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.StockConsumption;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.StockSummary;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.SaleInventoryRequest;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.StockRequest;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.StockResponse;
 import com.tienda.com.tienda.inventoryserver.domain.port.StockPersistancePort;
@@ -11,6 +17,7 @@ import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.client.Pro
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.InsufficientStock;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.StockNotFoundException;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -41,6 +48,15 @@ public class StockServiceTest {
     @Mock
     private FeignValidator feignValidator;
 
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private ReservationHolds reservationHolds;
+
+    @Spy
+    private InventoryMetrics inventoryMetrics = new InventoryMetrics(new SimpleMeterRegistry());
+
     @InjectMocks
     @Spy
     private StockService stockService;
@@ -140,6 +156,7 @@ public class StockServiceTest {
         verify(stockDomainMapper).stockToStockResponse(stock);
         verify(feignValidator).verifyExistingProduct(productId);
         verify(feignValidator).verifyExistingProvider(providerId);
+        verify(stockLedger).applyAfterCommit(stock);
     }
 
     @Test
@@ -160,6 +177,7 @@ public class StockServiceTest {
         doNothing().when(stockPersistancePort).deleteById(stockId);
         stockService.deleteEntityById(stockId);
         verify(stockPersistancePort).deleteById(stockId);
+        verify(stockLedger).removeAfterCommit(stockId);
     }
 
     @Test
@@ -193,64 +211,180 @@ public class StockServiceTest {
     }
 
     @Test
-    public void decrementQuantity_ShouldDecrementStockQuantity() {
-        List<Stock> stocks = new ArrayList<>();
-        stocks.add(stock);
-        when(stockPersistancePort.findAllStocksByProductId(productId)).thenReturn(stocks);
-        when(stockPersistancePort.updateDecrement(any(Stock.class), any(UUID.class))).thenReturn(stock);
-        when(stockDomainMapper.stockToStockResponse(stock)).thenReturn(stockResponse);
-        doReturn(10).when(stockService).getStockWithoutExpiringDate(productId);
-        doReturn(Map.of("Stock expirado", 0)).when(stockService).getExpiredStock(productId);
-        StockResponse result = stockService.decrementQuantity(productId, 5, BigDecimal.valueOf(120));
-        assertNotNull(result);
-        assertEquals(stockResponse, result);
-        verify(stockPersistancePort).findAllStocksByProductId(productId);
-        verify(stockPersistancePort).updateDecrement(any(Stock.class), any(UUID.class));
-        verify(stockDomainMapper).stockToStockResponse(stock);
+    public void decrementQuantity_ShouldLockAndConsumeLotsLikeAOneLineSale() {
+        when(stockPersistancePort.findStockSummary(productId)).thenReturn(Optional.of(summary(productId, 10, 0)));
+        when(stockPersistancePort.findAllStocksByProductIdsForUpdate(Set.of(productId))).thenReturn(List.of(stock));
+        when(stockPersistancePort.updateQuantities(any())).thenReturn(List.of(stock));
+        StockConsumption result = stockService.decrementQuantity(productId, 5, BigDecimal.valueOf(120));
+        assertEquals(new StockConsumption(productId, 5, List.of(new ConsumedLot(stockId, 5, BigDecimal.valueOf(100))),
+                new BigDecimal("500.00")), result);
+        verify(reservationHolds).lockHeldQuantities(Set.of(productId));
+        verify(stockPersistancePort).updateQuantities(Map.of(stockId, 5));
+        verify(stockPersistancePort, never()).findAllStocksByProductId(any());
+        verify(stockLedger, never()).getProductStock(any());
+        verify(stockLedger).applyAfterCommit(List.of(stock));
+    }
+
+    @Test
+    public void decrementQuantity_ShouldConsumeLotsFirstExpiredFirstOut_SkippingExpiredLots() {
+        Stock laterStock = new Stock(UUID.randomUUID(), 10, BigDecimal.valueOf(90), BigDecimal.valueOf(900),
+                providerId, productId, LocalDate.now(), LocalDate.now().plusYears(1), 0L);
+        when(stockPersistancePort.findAllStocksByProductIdsForUpdate(Set.of(productId)))
+                .thenReturn(List.of(laterStock, expiredStock, stock));
+        when(stockPersistancePort.updateQuantities(any())).thenReturn(List.of(stock, laterStock));
+        when(stockPersistancePort.findStockSummary(productId)).thenReturn(Optional.of(summary(productId, 20, 5)));
+        var result = stockService.decrementQuantity(productId, 12, BigDecimal.valueOf(120));
+        assertEquals(List.of(new ConsumedLot(stockId, 10, BigDecimal.valueOf(100)),
+                new ConsumedLot(laterStock.getId(), 2, BigDecimal.valueOf(90))), result.getConsumedLots());
+        assertEquals(new BigDecimal("1180.00"), result.getCostOfGoodsSold());
+        Map<UUID, Integer> expected = new LinkedHashMap<>();
+        expected.put(stockId, 0);
+        expected.put(laterStock.getId(), 8);
+        verify(stockPersistancePort).updateQuantities(expected);
     }
 
     @Test
     public void decrementQuantity_ShouldThrowInsufficientStockException_WhenInsufficientStock() {
-        List<Stock> stocks = new ArrayList<>();
-        stocks.add(stock);
-        when(stockPersistancePort.findAllStocksByProductId(productId)).thenReturn(stocks);
-        doReturn(5).when(stockService).getStockWithoutExpiringDate(productId);
-        doReturn(Map.of("Stock expirado", 0)).when(stockService).getExpiredStock(productId);
+        when(stockPersistancePort.findStockSummary(productId)).thenReturn(Optional.of(summary(productId, 5, 0)));
 
         assertThrows(InsufficientStock.class, () ->
                 stockService.decrementQuantity(productId, 10, BigDecimal.valueOf(120))
         );
-        verify(stockPersistancePort).findAllStocksByProductId(productId);
+        verify(stockPersistancePort, never()).findAllStocksByProductIdsForUpdate(any());
+        verify(stockPersistancePort, never()).updateQuantities(any());
+    }
+
+    @Test
+    public void decrementQuantity_ShouldThrowStockNotFound_WhenProductHasNoSummary() {
+        when(stockPersistancePort.findStockSummary(productId)).thenReturn(Optional.empty());
+        assertThrows(StockNotFoundException.class, () ->
+                stockService.decrementQuantity(productId, 1, BigDecimal.valueOf(120))
+        );
+        verify(stockPersistancePort, never()).findAllStocksByProductIdsForUpdate(any());
+    }
+
+    @Test
+    public void decrementQuantity_ShouldThrowInsufficientStock_WhenUnitsAreReserved() {
+        when(stockPersistancePort.findStockSummary(productId)).thenReturn(Optional.of(summary(productId, 10, 0)));
+        when(reservationHolds.heldQuantity(productId)).thenReturn(6);
+        assertThrows(InsufficientStock.class, () ->
+                stockService.decrementQuantity(productId, 5, BigDecimal.valueOf(120))
+        );
+        verify(stockPersistancePort, never()).updateQuantities(any());
     }
 
     @Test
     public void decrementQuantity_ShouldThrowValidationException_WhenInvalidPriceRange() {
-        List<Stock> stocks = new ArrayList<>();
-        stocks.add(stock);
-        when(stockPersistancePort.findAllStocksByProductId(productId)).thenReturn(stocks);
-        doReturn(10).when(stockService).getStockWithoutExpiringDate(productId);
-        doReturn(Map.of("Stock expirado", 0)).when(stockService).getExpiredStock(productId);
+        when(stockPersistancePort.findAllStocksByProductIdsForUpdate(Set.of(productId))).thenReturn(List.of(stock));
+        when(stockPersistancePort.findStockSummary(productId)).thenReturn(Optional.of(summary(productId, 10, 0)));
         assertThrows(ValidationException.class, () ->
                 stockService.decrementQuantity(productId, 5, BigDecimal.valueOf(50))
         );
-        verify(stockPersistancePort).findAllStocksByProductId(productId);
+        verify(stockPersistancePort, never()).updateQuantities(any());
+    }
+
+    @Test
+    public void decrementQuantities_ShouldConsumeLotsAcrossLinesWithOneQueryAndOneBatch() {
+        Stock laterStock = new Stock(UUID.randomUUID(), 10, BigDecimal.valueOf(100), BigDecimal.valueOf(1000),
+                providerId, productId, LocalDate.now(), LocalDate.now().plusYears(1), 0L);
+        Stock otherStock = new Stock(UUID.randomUUID(), 4, BigDecimal.valueOf(10), BigDecimal.valueOf(40),
+                providerId, "PROD002", LocalDate.now(), null, 0L);
+        var lines = List.of(
+                new SaleInventoryRequest(6, productId, BigDecimal.valueOf(120)),
+                new SaleInventoryRequest(3, "PROD002", BigDecimal.valueOf(12)),
+                new SaleInventoryRequest(7, productId, BigDecimal.valueOf(110)));
+        when(stockPersistancePort.findAllStocksByProductIdsForUpdate(Set.of(productId, "PROD002")))
+                .thenReturn(List.of(laterStock, otherStock, expiredStock, stock));
+        when(stockPersistancePort.updateQuantities(any())).thenReturn(List.of(stock, laterStock, otherStock));
+        var result = stockService.decrementQuantities(lines);
+        assertEquals(List.of(new BigDecimal("600.00"), new BigDecimal("30.00"), new BigDecimal("700.00")),
+                result.stream().map(StockConsumption::getCostOfGoodsSold).toList());
+        assertEquals(List.of(new ConsumedLot(stockId, 4, BigDecimal.valueOf(100)),
+                new ConsumedLot(laterStock.getId(), 3, BigDecimal.valueOf(100))), result.get(2).getConsumedLots());
+        Map<UUID, Integer> expected = new LinkedHashMap<>();
+        expected.put(stockId, 0);
+        expected.put(otherStock.getId(), 1);
+        expected.put(laterStock.getId(), 7);
+        verify(stockPersistancePort).updateQuantities(expected);
+        verify(stockPersistancePort, never()).findAllStocksByProductId(any());
+        verify(stockLedger).applyAfterCommit(List.of(stock, laterStock, otherStock));
+    }
+
+    @Test
+    public void decrementQuantities_ShouldThrowInsufficientStock_WhenLinesExceedSellableStock() {
+        var lines = List.of(
+                new SaleInventoryRequest(8, productId, BigDecimal.valueOf(120)),
+                new SaleInventoryRequest(8, productId, BigDecimal.valueOf(120)));
+        when(stockPersistancePort.findAllStocksByProductIdsForUpdate(Set.of(productId)))
+                .thenReturn(List.of(stock, expiredStock));
+        assertThrows(InsufficientStock.class, () -> stockService.decrementQuantities(lines));
+        verify(stockPersistancePort, never()).updateQuantities(any());
+    }
+
+    @Test
+    public void decrementQuantities_ShouldThrowInsufficientStock_WhenUnitsAreHeldByOtherReservations() {
+        var lines = List.of(new SaleInventoryRequest(8, productId, BigDecimal.valueOf(120)));
+        when(stockPersistancePort.findAllStocksByProductIdsForUpdate(Set.of(productId))).thenReturn(List.of(stock));
+        when(reservationHolds.lockHeldQuantities(Set.of(productId))).thenReturn(Map.of(productId, 4));
+        assertThrows(InsufficientStock.class, () -> stockService.decrementQuantities(lines));
+        verify(stockPersistancePort, never()).updateQuantities(any());
+    }
+
+    @Test
+    public void decrementQuantities_ShouldCountTheUnitsHeldForTheSaleAsAvailable() {
+        var lines = List.of(new SaleInventoryRequest(8, productId, BigDecimal.valueOf(120)));
+        when(stockPersistancePort.findAllStocksByProductIdsForUpdate(Set.of(productId))).thenReturn(List.of(stock));
+        when(stockPersistancePort.updateQuantities(any())).thenReturn(List.of(stock));
+        when(reservationHolds.lockHeldQuantities(Set.of(productId))).thenReturn(Map.of(productId, 10));
+        var result = stockService.decrementQuantities(lines, Map.of(productId, 8));
+        assertEquals(new BigDecimal("800.00"), result.getFirst().getCostOfGoodsSold());
+        verify(stockPersistancePort).updateQuantities(Map.of(stockId, 2));
+    }
+
+    @Test
+    public void validateReservableQuantities_ShouldCheckTheHoldsAgainstTheSummaryWithoutLockingTheLots() {
+        when(stockPersistancePort.findValidQuantitiesForShare(Set.of(productId))).thenReturn(Map.of(productId, 10));
+        when(reservationHolds.lockHeldQuantities(Set.of(productId))).thenReturn(Map.of(productId, 10));
+        stockService.validateReservableQuantities(Map.of(productId, 6));
+        verify(stockPersistancePort, never()).findAllStocksByProductIdsForUpdate(any());
+    }
+
+    @Test
+    public void validateReservableQuantities_ShouldThrowInsufficientStock_WhenTheHoldsExceedTheValidStock() {
+        when(stockPersistancePort.findValidQuantitiesForShare(Set.of(productId))).thenReturn(Map.of(productId, 10));
+        when(reservationHolds.lockHeldQuantities(Set.of(productId))).thenReturn(Map.of(productId, 11));
+        assertThrows(InsufficientStock.class, () -> stockService.validateReservableQuantities(Map.of(productId, 7)));
+    }
+
+    @Test
+    public void validateReservableQuantities_ShouldThrowInsufficientStock_WhenTheProductHasNoStock() {
+        when(reservationHolds.lockHeldQuantities(Set.of("PROD404"))).thenReturn(Map.of("PROD404", 1));
+        assertThrows(InsufficientStock.class, () -> stockService.validateReservableQuantities(Map.of("PROD404", 1)));
+    }
+
+    @Test
+    public void createEntities_ShouldCreateAllStocksAtOnce() {
+        when(stockDomainMapper.stockRequestToStock(stockRequest)).thenReturn(stock);
+        when(stockPersistancePort.createAll(List.of(stock, stock))).thenReturn(List.of(stock, stock));
+        var result = stockService.createEntities(List.of(stockRequest, stockRequest));
+        assertEquals(2, result.size());
+        assertEquals(BigDecimal.valueOf(1000), stock.getTotalPurchaseCost());
+        verify(stockPersistancePort, never()).create(any(Stock.class));
+        verify(stockLedger).applyAfterCommit(result);
+        verifyNoInteractions(feignValidator);
     }
 
     @Test
     public void getTotalStock_ShouldReturnStockInfo() {
-        List<Stock> stocks = new ArrayList<>();
-        stocks.add(stock);
-        when(stockPersistancePort.findAllStocksByProductId(productId)).thenReturn(stocks);
+        when(stockLedger.getProductStock(productId)).thenReturn(Optional.of(productStock(10, 0)));
         when(productFeignClient.getProductByCod(productId)).thenReturn(product);
-        doReturn(10).when(stockService).getStockWithoutExpiringDate(productId);
-        doReturn(Map.of("Stock expirado", 0)).when(stockService).getExpiredStock(productId);
         Map<String, String> result = stockService.getTotalStock(productId);
         assertNotNull(result);
         assertEquals("Test Product", result.get("Nombre de producto"));
         assertEquals("10", result.get("Stock valido: "));
         assertEquals("0", result.get("Stock caducado: "));
         assertEquals("10", result.get("Total: "));
-        verify(stockPersistancePort).findAllStocksByProductId(productId);
+        verify(stockPersistancePort, never()).findAllStocksByProductId(productId);
         verify(productFeignClient).getProductByCod(productId);
     }
 
@@ -282,15 +416,38 @@ public class StockServiceTest {
 
     @Test
     public void checkStockThreshold_ShouldReturnProductsBelowThreshold() {
-        List<Stock> stocks = Collections.singletonList(stock);
-        when(stockPersistancePort.findAllStocks()).thenReturn(stocks);
-        when(productFeignClient.getProductByCod(productId)).thenReturn(product);
+        when(stockPersistancePort.findAllStockSummaries())
+                .thenReturn(List.of(summary(productId, 10, 0), summary("PROD002", 15, 5)));
+        when(feignValidator.findProductsByCods(List.of(productId))).thenReturn(Map.of(productId, product));
         List<Product> result = stockService.checkStockThreshold(15, null);
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(product, result.getFirst());
-        verify(stockPersistancePort).findAllStocks();
-        verify(productFeignClient).getProductByCod(productId);
+        verify(stockPersistancePort).findAllStockSummaries();
+        verify(stockPersistancePort, never()).findAllStocks();
+        verify(feignValidator).findProductsByCods(List.of(productId));
+        verify(productFeignClient, never()).getProductByCod(productId);
+    }
+
+    @Test
+    public void getInventoryStatus_ShouldClassifyProductsFromStockSummary() {
+        when(stockPersistancePort.findAllStockSummaries()).thenReturn(List.of(
+                summary(productId, 10, 0), summary("PROD002", 0, 5), summary("PROD003", 50, 0)));
+        Map<String, StockStatus> result = stockService.getInventoryStatus(Map.of(productId, 10));
+        assertEquals(StockStatus.LOW_STOCK, result.get(productId));
+        assertEquals(StockStatus.OUT_OF_STOCK, result.get("PROD002"));
+        assertEquals(StockStatus.IN_STOCK, result.get("PROD003"));
+        verify(stockPersistancePort, times(1)).findAllStockSummaries();
+        verify(stockPersistancePort, never()).findAllStocks();
+        verifyNoInteractions(stockLedger);
+    }
+
+    @Test
+    public void rebuildStockSummary_ShouldReturnSummarizedProductCount() {
+        when(stockPersistancePort.rebuildStockSummaries(LocalDate.now())).thenReturn(3);
+        Map<String, Integer> result = stockService.rebuildStockSummary();
+        assertEquals(3, result.get("Productos resumidos"));
+        verify(stockPersistancePort).rebuildStockSummaries(LocalDate.now());
     }
 
     @Test
@@ -308,22 +465,35 @@ public class StockServiceTest {
 
     @Test
     public void getExpiredStock_ShouldReturnExpiredStockCount() {
-        List<Stock> stocks = Collections.singletonList(expiredStock);
-        when(stockPersistancePort.findAllStocksByProductId(productId)).thenReturn(stocks);
+        when(stockLedger.getProductStock(productId)).thenReturn(Optional.of(productStock(0, 5)));
         Map<String, Integer> result = stockService.getExpiredStock(productId);
         assertNotNull(result);
         assertEquals(5, result.get("Stock expirado"));
-        verify(stockPersistancePort).findAllStocksByProductId(productId);
+        verify(stockLedger).getProductStock(productId);
     }
 
     @Test
     public void getStockWithoutExpiringDate_ShouldReturnValidStockCount() {
-        List<Stock> stocks = Collections.singletonList(stock);
-        when(stockPersistancePort.findAllStocksByProductId(productId)).thenReturn(stocks);
+        when(stockLedger.getProductStock(productId)).thenReturn(Optional.of(productStock(10, 0)));
         Integer result = stockService.getStockWithoutExpiringDate(productId);
         assertNotNull(result);
         assertEquals(10, result);
-        verify(stockPersistancePort).findAllStocksByProductId(productId);
+        verify(stockLedger).getProductStock(productId);
+    }
+
+    @Test
+    public void getStockWithoutExpiringDate_ShouldSubtractReservedUnits() {
+        when(stockLedger.getProductStock(productId)).thenReturn(Optional.of(productStock(10, 0)));
+        when(reservationHolds.heldQuantity(productId)).thenReturn(4);
+        assertEquals(6, stockService.getStockWithoutExpiringDate(productId));
+    }
+
+    @Test
+    public void getStockWithoutExpiringDate_ShouldThrowException_WhenProductNotInLedger() {
+        when(stockLedger.getProductStock(productId)).thenReturn(Optional.empty());
+        assertThrows(StockNotFoundException.class, () ->
+                stockService.getStockWithoutExpiringDate(productId)
+        );
     }
 
     @Test
@@ -350,4 +520,21 @@ public class StockServiceTest {
         );
         verify(stockPersistancePort).findAllStocksByProductId(productId);
     }
+
+    private ProductStock productStock(int validQuantity, int expiredQuantity) {
+        return ProductStock.builder()
+                .productId(productId)
+                .validQuantity(validQuantity)
+                .expiredQuantity(expiredQuantity)
+                .lots(List.of(stock))
+                .build();
+    }
+
+    private StockSummary summary(String id, int validQuantity, int expiredQuantity) {
+        return StockSummary.builder()
+                .productId(id)
+                .validQuantity(validQuantity)
+                .expiredQuantity(expiredQuantity)
+                .build();
+    }
 }
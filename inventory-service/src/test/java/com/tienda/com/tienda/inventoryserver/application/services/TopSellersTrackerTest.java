@@ -0,0 +1,111 @@
+package com.tienda.com.tienda.inventoryserver.application.services;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Kardex;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.KardexDailyRollup;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.TopSellingProduct;
+import com.tienda.com.tienda.inventoryserver.domain.port.KardexPersistancePort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TopSellersTrackerTest {
+
+    @Mock
+    private KardexPersistancePort kardexPersistancePort;
+
+    @InjectMocks
+    private TopSellersTracker topSellersTracker;
+
+    private final LocalDate today = LocalDate.of(2025, 3, 31);
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(kardexPersistancePort.findAllDailyRollupsBetween(today.minusMonths(1), today)).thenReturn(List.of(
+                rollup(today.minusMonths(1), "PROD001", TypeMove.OUTCOME, 10),
+                rollup(today.minusDays(3), "PROD002", TypeMove.OUTCOME, 6),
+                rollup(today.minusDays(3), "PROD003", TypeMove.INCOME, 50)));
+        topSellersTracker.rebuild(today);
+    }
+
+    @Test
+    public void rebuild_ShouldRankOnlySalesOfTheWindow() {
+        List<TopSellingProduct> result = topSellersTracker.getTopSellingProducts(5, today);
+        assertEquals(List.of(new TopSellingProduct("PROD001", 10), new TopSellingProduct("PROD002", 6)), result);
+        verify(kardexPersistancePort, times(1)).findAllDailyRollupsBetween(today.minusMonths(1), today);
+    }
+
+    @Test
+    public void record_ShouldAddSalesToTheCurrentDay() {
+        topSellersTracker.record(List.of(sale(today, "PROD002", 5)), today);
+        List<TopSellingProduct> result = topSellersTracker.getTopSellingProducts(1, today);
+        assertEquals(List.of(new TopSellingProduct("PROD002", 11)), result);
+    }
+
+    @Test
+    public void getTopSellingProducts_ShouldExpireDaysThatLeftTheWindow() {
+        List<TopSellingProduct> result = topSellersTracker.getTopSellingProducts(5, today.plusDays(1));
+        assertEquals(List.of(new TopSellingProduct("PROD002", 6)), result);
+    }
+
+    @Test
+    public void record_ShouldReuseRingSlotOfAnExpiredDay() {
+        var nextMonthDay = today.minusMonths(1).plusDays(TopSellersTracker.WINDOW_DAYS);
+        topSellersTracker.record(List.of(sale(nextMonthDay, "PROD003", 2)), nextMonthDay);
+        List<TopSellingProduct> result = topSellersTracker.getTopSellingProducts(5, nextMonthDay);
+        assertEquals(List.of(new TopSellingProduct("PROD002", 6), new TopSellingProduct("PROD003", 2)), result);
+    }
+
+    @Test
+    public void recordAfterCommit_ShouldIgnoreMovementsOtherThanSales() {
+        var income = sale(LocalDate.now(), "PROD004", 100);
+        income.setTypeMovement(TypeMove.INCOME);
+        topSellersTracker.recordAfterCommit(List.of(income));
+        assertTrue(topSellersTracker.getTopSellingProducts(5).stream()
+                .noneMatch(product -> product.getProductId().equals("PROD004")));
+    }
+
+    @Test
+    public void rebuild_ShouldPickUpSalesRecordedByOtherInstances() {
+        topSellersTracker.record(List.of(sale(today, "PROD002", 5)), today);
+        when(kardexPersistancePort.findAllDailyRollupsBetween(today.minusMonths(1), today)).thenReturn(List.of(
+                rollup(today.minusDays(3), "PROD002", TypeMove.OUTCOME, 6),
+                rollup(today, "PROD002", TypeMove.OUTCOME, 5),
+                rollup(today, "PROD003", TypeMove.OUTCOME, 20)));
+        topSellersTracker.rebuild(today);
+        List<TopSellingProduct> result = topSellersTracker.getTopSellingProducts(5, today);
+        assertEquals(List.of(new TopSellingProduct("PROD003", 20), new TopSellingProduct("PROD002", 11)), result);
+    }
+
+    private KardexDailyRollup rollup(LocalDate day, String productId, TypeMove typeMovement, int quantity) {
+        return KardexDailyRollup.builder()
+                .movementDate(day)
+                .productId(productId)
+                .typeMovement(typeMovement)
+                .quantity(quantity)
+                .totalPrice(BigDecimal.TEN.multiply(BigDecimal.valueOf(quantity)))
+                .minUnitPrice(BigDecimal.TEN)
+                .maxUnitPrice(BigDecimal.TEN)
+                .build();
+    }
+
+    private Kardex sale(LocalDate day, String productId, int quantity) {
+        return Kardex.builder()
+                .productId(productId)
+                .typeMovement(TypeMove.OUTCOME)
+                .quantity(quantity)
+                .unitPrice(BigDecimal.TEN)
+                .movementDate(day)
+                .build();
+    }
+}
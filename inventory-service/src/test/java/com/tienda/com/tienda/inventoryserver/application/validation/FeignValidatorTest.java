@@ -12,6 +12,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.mockito.Mockito.*;
@@ -41,6 +44,30 @@ class FeignValidatorTest {
         assertEquals("Error en informacion del producto: Error desconocido", thrown.getMessage());
     }
 
+    @Test
+    public void verifyExistingProducts_ShouldAskProductServiceOnceForDistinctCodes() {
+        when(productFeignClient.getProductsByCods(Set.of("prod-001", "prod-002")))
+                .thenReturn(List.of(product("prod-001"), product("prod-002")));
+        Map<String, Product> result = feignValidator.verifyExistingProducts(List.of("prod-001", "prod-002", "prod-001"));
+        assertEquals(Set.of("prod-001", "prod-002"), result.keySet());
+        verify(productFeignClient, times(1)).getProductsByCods(anyCollection());
+        verify(productFeignClient, never()).getProductByCod(anyString());
+    }
+
+    @Test
+    public void verifyExistingProducts_ShouldThrowValidationException_WhenProductIsMissing() {
+        when(productFeignClient.getProductsByCods(Set.of("prod-001", "prod-002"))).thenReturn(List.of(product("prod-001")));
+        ValidationException thrown = assertThrows(ValidationException.class,
+                () -> feignValidator.verifyExistingProducts(List.of("prod-001", "prod-002")));
+        assertEquals("Error en informacion del producto: Producto no encontrado con Cod: prod-002", thrown.getMessage());
+    }
+
+    @Test
+    public void findProductsByCods_ShouldSkipProductService_WhenNoCodesGiven() {
+        assertTrue(feignValidator.findProductsByCods(List.of()).isEmpty());
+        verifyNoInteractions(productFeignClient);
+    }
+
     @Test
     public void verifyExistingProduct_ShouldNotThrowException_WhenProductExists() {
         String productCode = "prod-001";
@@ -73,4 +100,10 @@ class FeignValidatorTest {
         when(purchaseFeignClient.getProviderById(providerId)).thenReturn("provider-details");
         assertDoesNotThrow(() -> feignValidator.verifyExistingProvider(providerId));
     }
+
+    private Product product(String cod) {
+        Product product = new Product();
+        product.setCod(cod);
+        return product;
+    }
 }
@@ -3,24 +3,42 @@ package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.adapterim
 import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.Kardex;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.TopSellingProduct;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.ValuationCheckpoint;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexDailyRollupEntity;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexDailyRollupId;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexEntity;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexLedgerHeadEntity;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexOutboxEntity;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.KardexNotFoundException;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper.KardexDailyRollupMapper;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper.KardexMapper;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper.KardexValuationCheckpointMapper;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository.KardexDailyRollupRepository;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository.KardexLedgerHeadRepository;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository.KardexOutboxRepository;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository.KardexRepository;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository.KardexValuationCheckpointRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +50,27 @@ class KardexPersistanceAdapterTest {
     @Mock
     private KardexMapper kardexMapper;
 
+    @Mock
+    private KardexDailyRollupRepository kardexDailyRollupRepository;
+
+    @Mock
+    private KardexDailyRollupMapper kardexDailyRollupMapper;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private KardexOutboxRepository kardexOutboxRepository;
+
+    @Mock
+    private KardexValuationCheckpointRepository kardexValuationCheckpointRepository;
+
+    @Mock
+    private KardexValuationCheckpointMapper kardexValuationCheckpointMapper;
+
+    @Mock
+    private KardexLedgerHeadRepository kardexLedgerHeadRepository;
+
     @InjectMocks
     private KardexPersistanceAdapter kardexPersistanceAdapter;
 
@@ -43,9 +82,9 @@ class KardexPersistanceAdapterTest {
         UUID uuid = UUID.randomUUID();
         LocalDate movementDate = LocalDate.now();
         kardexEntity = new KardexEntity(uuid, TypeMove.OUTCOME, 10, "prod123",
-                BigDecimal.valueOf(100), BigDecimal.valueOf(1000), movementDate);
+                BigDecimal.valueOf(100), BigDecimal.valueOf(1000), movementDate, null, null, null);
         kardex = new Kardex(uuid, TypeMove.OUTCOME, 10, "prod123", BigDecimal.valueOf(100),
-                BigDecimal.valueOf(1000), movementDate);
+                BigDecimal.valueOf(1000), movementDate, null, null, null);
     }
 
     @Test
@@ -68,13 +107,13 @@ class KardexPersistanceAdapterTest {
         List<Object[]> mockResults = Arrays.asList(new Object[][] {
                 {"prod123", 50}
         });
-        when(kardexRepository.findTopSellingProducts(after, before, PageRequest.of(0, limit)))
+        when(kardexDailyRollupRepository.findTopSellingProducts(after, before, PageRequest.of(0, limit)))
                 .thenReturn(mockResults);
         List<TopSellingProduct> result = kardexPersistanceAdapter.findTopSellingProducts(after, before, limit);
         assertEquals(1, result.size());
         assertEquals("prod123", result.getFirst().getProductId());
         assertEquals(50, result.getFirst().getTotalSold());
-        verify(kardexRepository, times(1)).findTopSellingProducts(after, before,
+        verify(kardexDailyRollupRepository, times(1)).findTopSellingProducts(after, before,
                 PageRequest.of(0, limit));
     }
 
@@ -96,11 +135,11 @@ class KardexPersistanceAdapterTest {
     public void calculateEarningsBetweenDates_ShouldReturnEarnings() {
         LocalDate startDate = LocalDate.now().minusMonths(1);
         LocalDate endDate = LocalDate.now();
-        when(kardexRepository.calculateEarningsBetweenDates(startDate, endDate))
+        when(kardexDailyRollupRepository.calculateEarningsBetweenDates(startDate, endDate))
                 .thenReturn(BigDecimal.valueOf(5000));
         BigDecimal result = kardexPersistanceAdapter.calculateEarningsBetweenDates(startDate, endDate);
         assertEquals(BigDecimal.valueOf(5000), result);
-        verify(kardexRepository, times(1)).calculateEarningsBetweenDates(startDate, endDate);
+        verify(kardexDailyRollupRepository, times(1)).calculateEarningsBetweenDates(startDate, endDate);
     }
 
     @Test
@@ -143,19 +182,295 @@ class KardexPersistanceAdapterTest {
         verify(kardexMapper, times(1)).toEntity(kardex);
         verify(kardexRepository, times(1)).save(kardexEntity);
         verify(kardexMapper, times(1)).toDomain(kardexEntity);
+        verify(kardexDailyRollupRepository, times(1)).accumulate(kardexEntity.getMovementDate(), "prod123",
+                "OUTCOME", 10, BigDecimal.valueOf(1000), BigDecimal.valueOf(100), BigDecimal.valueOf(100),
+                BigDecimal.ZERO);
     }
 
     @Test
-    public void update_ShouldReturnUpdatedKardex() {
+    public void create_ShouldCarryBalanceOverFromPrecedingRecord() {
+        var preceding = KardexEntity.builder().id(UUID.randomUUID()).productId("prod123")
+                .balanceQuantity(30).balanceValue(new BigDecimal("2400.00")).build();
+        when(kardexMapper.toEntity(kardex)).thenReturn(kardexEntity);
+        when(kardexRepository.save(kardexEntity)).thenReturn(kardexEntity);
+        when(kardexRepository.findPrecedingInProduct("prod123", kardexEntity.getMovementDate(), kardexEntity.getId(),
+                PageRequest.of(0, 1))).thenReturn(List.of(preceding));
+        when(kardexRepository.findAllFromPositionInProduct("prod123", kardexEntity.getMovementDate(),
+                kardexEntity.getId())).thenReturn(List.of(kardexEntity));
+        kardexPersistanceAdapter.create(kardex);
+        assertEquals(20, kardexEntity.getBalanceQuantity());
+        assertEquals(new BigDecimal("1600.00"), kardexEntity.getBalanceValue());
+        assertEquals(new BigDecimal("800.00"), kardexEntity.getCostOfGoodsSold());
+        verify(kardexRepository, never()).findAllByProductIdOrderByMovementDateAscIdAsc("prod123");
+    }
+
+    @Test
+    public void create_WithCostOfGoodsSold_ShouldRemoveTheCostOfTheConsumedLotsFromBalance() {
+        var preceding = KardexEntity.builder().id(UUID.randomUUID()).productId("prod123")
+                .balanceQuantity(30).balanceValue(new BigDecimal("2400.00")).build();
+        kardexEntity.setCostOfGoodsSold(new BigDecimal("900.00"));
+        when(kardexMapper.toEntity(kardex)).thenReturn(kardexEntity);
+        when(kardexRepository.save(kardexEntity)).thenReturn(kardexEntity);
+        when(kardexRepository.findPrecedingInProduct("prod123", kardexEntity.getMovementDate(), kardexEntity.getId(),
+                PageRequest.of(0, 1))).thenReturn(List.of(preceding));
+        when(kardexRepository.findAllFromPositionInProduct("prod123", kardexEntity.getMovementDate(),
+                kardexEntity.getId())).thenReturn(List.of(kardexEntity));
+        kardexPersistanceAdapter.create(kardex);
+        assertEquals(20, kardexEntity.getBalanceQuantity());
+        assertEquals(new BigDecimal("1500.00"), kardexEntity.getBalanceValue());
+        assertEquals(new BigDecimal("900.00"), kardexEntity.getCostOfGoodsSold());
+        verify(kardexDailyRollupRepository).accumulate(kardexEntity.getMovementDate(), "prod123", "OUTCOME", 10,
+                BigDecimal.valueOf(1000), BigDecimal.valueOf(100), BigDecimal.valueOf(100), new BigDecimal("900.00"));
+    }
+
+    @Test
+    public void create_ShouldLockLedgerOfProductBeforeInsertingRecord() {
+        when(kardexMapper.toEntity(kardex)).thenReturn(kardexEntity);
+        when(kardexRepository.save(kardexEntity)).thenReturn(kardexEntity);
+        kardexPersistanceAdapter.create(kardex);
+        InOrder inOrder = inOrder(kardexLedgerHeadRepository, kardexRepository);
+        inOrder.verify(kardexLedgerHeadRepository).lockProduct("prod123");
+        inOrder.verify(kardexRepository).save(kardexEntity);
+        inOrder.verify(kardexRepository).findPrecedingInProduct("prod123", kardexEntity.getMovementDate(),
+                kardexEntity.getId(), PageRequest.of(0, 1));
+    }
+
+    @Test
+    public void createAll_ShouldLockLedgersInProductOrder() {
+        var otherKardex = kardexRecord(TypeMove.INCOME, 5, "10.00");
+        otherKardex.setProductId("prod001");
+        var otherDomain = Kardex.builder().productId("prod001").build();
+        when(kardexMapper.toEntity(kardex)).thenReturn(kardexEntity);
+        when(kardexMapper.toEntity(otherDomain)).thenReturn(otherKardex);
+        when(kardexRepository.saveAll(List.of(kardexEntity, otherKardex)))
+                .thenReturn(List.of(kardexEntity, otherKardex));
+        kardexPersistanceAdapter.createAll(List.of(kardex, otherDomain));
+        InOrder inOrder = inOrder(kardexLedgerHeadRepository, kardexRepository);
+        inOrder.verify(kardexLedgerHeadRepository).lockProduct("prod001");
+        inOrder.verify(kardexLedgerHeadRepository).lockProduct("prod123");
+        inOrder.verify(kardexRepository).saveAll(List.of(kardexEntity, otherKardex));
+    }
+
+    @Test
+    public void create_WithPrecedingRecordWithoutBalance_ShouldLeaveRunForBackfill() {
+        var preceding = kardexRecord(TypeMove.INCOME, 15, "20.00");
+        kardexEntity.setBalanceQuantity(5);
+        kardexEntity.setBalanceValue(new BigDecimal("100.00"));
+        when(kardexMapper.toEntity(kardex)).thenReturn(kardexEntity);
+        when(kardexRepository.save(kardexEntity)).thenReturn(kardexEntity);
+        when(kardexRepository.findPrecedingInProduct("prod123", kardexEntity.getMovementDate(), kardexEntity.getId(),
+                PageRequest.of(0, 1))).thenReturn(List.of(preceding));
+        when(kardexRepository.findAllFromPositionInProduct("prod123", kardexEntity.getMovementDate(),
+                kardexEntity.getId())).thenReturn(List.of(kardexEntity));
+        kardexPersistanceAdapter.create(kardex);
+        assertNull(preceding.getBalanceQuantity());
+        assertNull(kardexEntity.getBalanceQuantity());
+        assertNull(kardexEntity.getBalanceValue());
+        verify(kardexRepository, never()).findAllByProductIdOrderByMovementDateAscIdAsc(any());
+    }
+
+    @Test
+    public void rebuildBalances_ShouldValueOutputsAndReturnsAtAverageCost() {
+        var firstIncome = kardexRecord(TypeMove.INCOME, 10, "10.00");
+        var secondIncome = kardexRecord(TypeMove.INCOME, 10, "16.00");
+        var sale = kardexRecord(TypeMove.OUTCOME, 5, "30.00");
+        var customerReturn = kardexRecord(TypeMove.RETURN, 1, "30.00");
+        var lastSale = kardexRecord(TypeMove.OUTCOME, 16, "30.00");
+        when(kardexRepository.findAllByProductIdOrderByMovementDateAscIdAsc("prod123"))
+                .thenReturn(List.of(firstIncome, secondIncome, sale, customerReturn, lastSale));
+        int result = kardexPersistanceAdapter.rebuildBalances("prod123");
+        assertEquals(5, result);
+        assertEquals(List.of(10, 20, 15, 16, 0), Stream.of(firstIncome, secondIncome, sale, customerReturn, lastSale)
+                .map(KardexEntity::getBalanceQuantity).toList());
+        assertEquals(List.of(new BigDecimal("100.00"), new BigDecimal("260.00"), new BigDecimal("195.00"),
+                        new BigDecimal("208.00"), new BigDecimal("0.00")),
+                Stream.of(firstIncome, secondIncome, sale, customerReturn, lastSale)
+                        .map(KardexEntity::getBalanceValue).toList());
+        assertEquals(new BigDecimal("65.00"), sale.getCostOfGoodsSold());
+        assertEquals(new BigDecimal("208.00"), lastSale.getCostOfGoodsSold());
+        assertNull(firstIncome.getCostOfGoodsSold());
+    }
+
+    @Test
+    public void deleteById_ShouldRecalculateBalancesAfterDeletedRecord() {
+        UUID uuid = kardexEntity.getId();
+        when(kardexRepository.findById(uuid)).thenReturn(Optional.of(kardexEntity));
+        kardexPersistanceAdapter.deleteById(uuid);
+        verify(kardexRepository).findPrecedingInProduct("prod123", kardexEntity.getMovementDate(), uuid,
+                PageRequest.of(0, 1));
+    }
+
+    @Test
+    public void deleteById_OfPastDay_ShouldDropValuationCheckpointsFromThatDay() {
+        var pastKardex = kardexRecord(TypeMove.INCOME, 5, "10.00");
+        when(kardexRepository.findById(pastKardex.getId())).thenReturn(Optional.of(pastKardex));
+        kardexPersistanceAdapter.deleteById(pastKardex.getId());
+        verify(kardexValuationCheckpointRepository).deleteAllFromDay("prod123", pastKardex.getMovementDate());
+    }
+
+    @Test
+    public void create_OfToday_ShouldKeepValuationCheckpoints() {
+        when(kardexMapper.toEntity(kardex)).thenReturn(kardexEntity);
+        when(kardexRepository.save(kardexEntity)).thenReturn(kardexEntity);
+        kardexPersistanceAdapter.create(kardex);
+        verifyNoInteractions(kardexValuationCheckpointRepository);
+    }
+
+    @Test
+    public void findAllKardexForValuation_AfterCheckpoint_ShouldStartTheDayAfter() {
+        LocalDate checkpointDay = LocalDate.of(2025, 1, 31);
+        LocalDate asOf = LocalDate.of(2025, 2, 10);
+        when(kardexRepository.findAllByProductIdAndMovementDateBetweenOrderByMovementDateAscIdAsc(
+                "prod123", checkpointDay.plusDays(1), asOf)).thenReturn(List.of(kardexEntity));
+        when(kardexMapper.toDomain(kardexEntity)).thenReturn(kardex);
+        assertEquals(List.of(kardex), kardexPersistanceAdapter.findAllKardexForValuation("prod123", checkpointDay, asOf));
+    }
+
+    @Test
+    public void createAll_ShouldAccumulateOneRollupPerDayProductAndType() {
+        var secondEntity = new KardexEntity(UUID.randomUUID(), TypeMove.OUTCOME, 5, "prod123",
+                BigDecimal.valueOf(80), BigDecimal.valueOf(400), kardexEntity.getMovementDate(), null, null, null);
+        var secondKardex = new Kardex(secondEntity.getId(), TypeMove.OUTCOME, 5, "prod123",
+                BigDecimal.valueOf(80), BigDecimal.valueOf(400), kardexEntity.getMovementDate(), null, null, null);
+        kardexEntity.setCostOfGoodsSold(new BigDecimal("800.00"));
+        secondEntity.setCostOfGoodsSold(new BigDecimal("350.00"));
+        when(kardexMapper.toEntity(kardex)).thenReturn(kardexEntity);
+        when(kardexMapper.toEntity(secondKardex)).thenReturn(secondEntity);
+        when(kardexRepository.saveAll(List.of(kardexEntity, secondEntity))).thenReturn(List.of(kardexEntity, secondEntity));
+        kardexPersistanceAdapter.createAll(List.of(kardex, secondKardex));
+        verify(kardexDailyRollupRepository, times(1)).accumulate(kardexEntity.getMovementDate(), "prod123",
+                "OUTCOME", 15, BigDecimal.valueOf(1400), BigDecimal.valueOf(80), BigDecimal.valueOf(100),
+                new BigDecimal("1150.00"));
+        verifyNoMoreInteractions(kardexDailyRollupRepository);
+    }
+
+    @Test
+    public void rebuildDailyRollups_ShouldReplaceRollupsWithGroupedMovements() {
+        LocalDate movementDate = kardexEntity.getMovementDate();
+        List<Object[]> rows = List.<Object[]>of(new Object[]{movementDate, "prod123", TypeMove.OUTCOME, 10L,
+                BigDecimal.valueOf(1000), BigDecimal.valueOf(100), BigDecimal.valueOf(100), BigDecimal.valueOf(800)});
+        when(kardexRepository.summarizeDailyMovements()).thenReturn(rows);
+        int result = kardexPersistanceAdapter.rebuildDailyRollups();
+        assertEquals(1, result);
+        verify(kardexDailyRollupRepository, times(1)).deleteAllInBatch();
+        verify(kardexDailyRollupRepository, times(1)).saveAll(List.of(KardexDailyRollupEntity.builder()
+                .movementDate(movementDate).productId("prod123").typeMovement(TypeMove.OUTCOME).quantity(10)
+                .totalPrice(BigDecimal.valueOf(1000)).minUnitPrice(BigDecimal.valueOf(100))
+                .maxUnitPrice(BigDecimal.valueOf(100)).costOfGoodsSold(BigDecimal.valueOf(800)).build()));
+    }
+
+    @Test
+    public void rebuildDailyRollups_WithDateRange_ShouldOnlyReplaceThatRange() {
+        LocalDate startDate = LocalDate.now().minusDays(7);
+        LocalDate endDate = LocalDate.now();
+        when(kardexRepository.summarizeDailyMovementsBetween(startDate, endDate)).thenReturn(List.of());
+        int result = kardexPersistanceAdapter.rebuildDailyRollups(startDate, endDate);
+        assertEquals(0, result);
+        verify(kardexDailyRollupRepository, times(1)).deleteAllByMovementDateBetween(startDate, endDate);
+        verify(kardexDailyRollupRepository, never()).deleteAllInBatch();
+    }
+
+    @Test
+    public void update_ShouldRefreshPreviousAndNewRollups() {
         UUID uuid = UUID.randomUUID();
+        LocalDate previousDate = kardexEntity.getMovementDate();
+        LocalDate newDate = previousDate.minusDays(1);
+        var request = Kardex.builder().movementDate(newDate).build();
         when(kardexRepository.findById(uuid)).thenReturn(Optional.of(kardexEntity));
+        doAnswer(invocation -> {
+            kardexEntity.setMovementDate(newDate);
+            return null;
+        }).when(kardexMapper).updateEntity(request, kardexEntity);
+        when(kardexRepository.save(kardexEntity)).thenReturn(kardexEntity);
+        when(kardexRepository.summarizeDailyMovementsOf(previousDate, "prod123", TypeMove.OUTCOME)).thenReturn(List.of());
+        when(kardexRepository.summarizeDailyMovementsOf(newDate, "prod123", TypeMove.OUTCOME)).thenReturn(
+                List.<Object[]>of(new Object[]{newDate, "prod123", TypeMove.OUTCOME, 10L,
+                        BigDecimal.valueOf(1000), BigDecimal.valueOf(100), BigDecimal.valueOf(100), BigDecimal.ZERO}));
+        kardexPersistanceAdapter.update(request, uuid);
+        verify(kardexDailyRollupRepository, times(1))
+                .deleteById(new KardexDailyRollupId(previousDate, "prod123", TypeMove.OUTCOME));
+        verify(kardexDailyRollupRepository, times(1)).save(any(KardexDailyRollupEntity.class));
+    }
+
+    @Test
+    public void update_WithNewQuantity_ShouldRecalculateCostOfGoodsSoldAtAverageCost() {
+        UUID uuid = kardexEntity.getId();
+        kardexEntity.setCostOfGoodsSold(new BigDecimal("800.00"));
+        var income = kardexRecord(TypeMove.INCOME, 20, "10.00");
+        var request = Kardex.builder().quantity(5).build();
+        when(kardexRepository.findById(uuid)).thenReturn(Optional.of(kardexEntity));
+        doAnswer(invocation -> {
+            kardexEntity.setQuantity(5);
+            return null;
+        }).when(kardexMapper).updateEntity(request, kardexEntity);
+        income.setBalanceQuantity(20);
+        income.setBalanceValue(new BigDecimal("200.00"));
+        when(kardexRepository.save(kardexEntity)).thenReturn(kardexEntity);
+        when(kardexRepository.findPrecedingInProduct("prod123", kardexEntity.getMovementDate(), uuid,
+                PageRequest.of(0, 1))).thenReturn(List.of(income));
+        when(kardexRepository.findAllFromPositionInProduct("prod123", kardexEntity.getMovementDate(), uuid))
+                .thenReturn(List.of(kardexEntity));
+        kardexPersistanceAdapter.update(request, uuid);
+        InOrder inOrder = inOrder(kardexLedgerHeadRepository, entityManager, kardexMapper);
+        inOrder.verify(kardexLedgerHeadRepository).lockProduct("prod123");
+        inOrder.verify(entityManager).refresh(kardexEntity);
+        inOrder.verify(kardexMapper).updateEntity(request, kardexEntity);
+        assertEquals(new BigDecimal("50.00"), kardexEntity.getCostOfGoodsSold());
+        assertEquals(new BigDecimal("150.00"), kardexEntity.getBalanceValue());
+    }
+
+    @Test
+    public void streamKardexByMovementDateBetween_ShouldMapAndDetachEveryRow() {
+        LocalDate startDate = LocalDate.now().minusYears(1);
+        LocalDate endDate = LocalDate.now();
+        when(kardexRepository.streamAllByMovementDateBetween(startDate, endDate, null))
+                .thenReturn(Stream.of(kardexEntity));
+        when(kardexMapper.toDomain(kardexEntity)).thenReturn(kardex);
+        List<Kardex> result = new ArrayList<>();
+        kardexPersistanceAdapter.streamKardexByMovementDateBetween(startDate, endDate, null, result::add);
+        assertEquals(List.of(kardex), result);
+        verify(entityManager, times(1)).detach(kardexEntity);
+    }
+
+    @Test
+    public void enqueueAll_ShouldStoreEachRecordInTheOutbox() {
+        kardexPersistanceAdapter.enqueueAll(List.of(kardex));
+        verify(kardexOutboxRepository).saveAll(List.of(KardexOutboxEntity.builder().kardex(kardex).build()));
+        verifyNoInteractions(kardexRepository);
+    }
+
+    @Test
+    public void flushOutbox_ShouldCreateTheRecordsAndDeleteThemFromTheOutbox() {
+        var pending = List.of(KardexOutboxEntity.builder().id(1L).kardex(kardex).build());
+        when(kardexOutboxRepository.findAllByOrderByIdAsc(Limit.of(50))).thenReturn(pending);
         when(kardexMapper.toEntity(kardex)).thenReturn(kardexEntity);
+        when(kardexRepository.saveAll(List.of(kardexEntity))).thenReturn(List.of(kardexEntity));
+        when(kardexMapper.toDomain(kardexEntity)).thenReturn(kardex);
+        List<Kardex> result = kardexPersistanceAdapter.flushOutbox(50);
+        assertEquals(List.of(kardex), result);
+        InOrder inOrder = inOrder(kardexRepository, kardexOutboxRepository);
+        inOrder.verify(kardexRepository).saveAll(List.of(kardexEntity));
+        inOrder.verify(kardexOutboxRepository).deleteAllInBatch(pending);
+    }
+
+    @Test
+    public void flushOutbox_WhenEmpty_ShouldNotWriteAnything() {
+        when(kardexOutboxRepository.findAllByOrderByIdAsc(Limit.of(50))).thenReturn(List.of());
+        assertEquals(List.of(), kardexPersistanceAdapter.flushOutbox(50));
+        verify(kardexOutboxRepository, never()).deleteAllInBatch(anyList());
+        verifyNoInteractions(kardexRepository);
+    }
+
+    @Test
+    public void update_ShouldReturnUpdatedKardex() {
+        UUID uuid = UUID.randomUUID();
+        when(kardexRepository.findById(uuid)).thenReturn(Optional.of(kardexEntity));
         when(kardexRepository.save(kardexEntity)).thenReturn(kardexEntity);
         when(kardexMapper.toDomain(kardexEntity)).thenReturn(kardex);
         Kardex result = kardexPersistanceAdapter.update(kardex, uuid);
         assertEquals(kardex, result);
         verify(kardexRepository, times(1)).findById(uuid);
-        verify(kardexMapper, times(1)).toEntity(kardex);
+        verify(kardexMapper, times(1)).updateEntity(kardex, kardexEntity);
         verify(kardexRepository, times(1)).save(kardexEntity);
         verify(kardexMapper, times(1)).toDomain(kardexEntity);
     }
@@ -167,4 +482,34 @@ class KardexPersistanceAdapterTest {
         kardexPersistanceAdapter.deleteById(uuid);
         verify(kardexRepository, times(1)).deleteById(uuid);
     }
+
+    @Test
+    public void saveValuationCheckpoints_ShouldSave_WhenLedgerDidNotChange() {
+        var checkpoints = List.of(new ValuationCheckpoint("prod123", LocalDate.now().minusDays(1), List.of()));
+        when(kardexLedgerHeadRepository.findWithLockByProductId("prod123"))
+                .thenReturn(Optional.of(new KardexLedgerHeadEntity("prod123", 4L)));
+        assertTrue(kardexPersistanceAdapter.saveValuationCheckpoints(checkpoints, 4L));
+        verify(kardexValuationCheckpointRepository).saveAll(anyList());
+    }
+
+    @Test
+    public void saveValuationCheckpoints_ShouldSkip_WhenLedgerChangedSinceTheReplay() {
+        var checkpoints = List.of(new ValuationCheckpoint("prod123", LocalDate.now().minusDays(1), List.of()));
+        when(kardexLedgerHeadRepository.findWithLockByProductId("prod123"))
+                .thenReturn(Optional.of(new KardexLedgerHeadEntity("prod123", 5L)));
+        assertFalse(kardexPersistanceAdapter.saveValuationCheckpoints(checkpoints, 4L));
+        verify(kardexValuationCheckpointRepository, never()).saveAll(anyList());
+    }
+
+    private KardexEntity kardexRecord(TypeMove typeMovement, int quantity, String unitPrice) {
+        return KardexEntity.builder()
+                .id(UUID.randomUUID())
+                .typeMovement(typeMovement)
+                .quantity(quantity)
+                .productId("prod123")
+                .unitPrice(new BigDecimal(unitPrice))
+                .totalPrice(new BigDecimal(unitPrice).multiply(BigDecimal.valueOf(quantity)))
+                .movementDate(LocalDate.now().minusDays(1))
+                .build();
+    }
 }
@@ -2,9 +2,12 @@ package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.adapterim
 
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.Stock;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.StockEntity;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.StockSummaryEntity;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.StockNotFoundException;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper.StockMapper;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper.StockSummaryMapper;
 import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository.StockRepository;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository.StockSummaryRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -29,6 +32,12 @@ class StockPersistanceAdapterTest {
     @Mock
     private StockMapper stockMapper;
 
+    @Mock
+    private StockSummaryRepository stockSummaryRepository;
+
+    @Mock
+    private StockSummaryMapper stockSummaryMapper;
+
     @InjectMocks
     private StockPersistanceAdapter stockPersistanceAdapter;
 
@@ -42,10 +51,10 @@ class StockPersistanceAdapterTest {
         String productId = "prod123";
         List<Stock> mockStocks = List.of(new Stock(UUID.randomUUID(),
                 10, BigDecimal.valueOf(100), BigDecimal.valueOf(1000),
-                UUID.randomUUID(), productId, LocalDate.now(), LocalDate.now()));
+                UUID.randomUUID(), productId, LocalDate.now(), LocalDate.now(), 0L));
         when(stockRepository.findAllByProductIdOrderByExpiryDateAsc(productId)).thenReturn(List.of(
                 new StockEntity(UUID.randomUUID(), 10, BigDecimal.valueOf(100), BigDecimal.valueOf(1000),
-                        UUID.randomUUID(), productId, LocalDate.now(), LocalDate.now())));
+                        UUID.randomUUID(), productId, LocalDate.now(), LocalDate.now(), 0L)));
         when(stockMapper.toDomain(any(StockEntity.class))).thenReturn(mockStocks.getFirst());
         List<Stock> result = stockPersistanceAdapter.findAllStocksByProductId(productId);
         assertEquals(1, result.size());
@@ -57,10 +66,10 @@ class StockPersistanceAdapterTest {
     public void findAllStocksByExpiryDateBefore_ShouldReturnStocks() {
         LocalDate expiryDate = LocalDate.now();
         List<Stock> mockStocks = List.of(new Stock(UUID.randomUUID(), 10, BigDecimal.valueOf(100),
-                BigDecimal.valueOf(1000), UUID.randomUUID(), "prod123", LocalDate.now(), expiryDate));
+                BigDecimal.valueOf(1000), UUID.randomUUID(), "prod123", LocalDate.now(), expiryDate, 0L));
         when(stockRepository.findAllByExpiryDateBefore(expiryDate)).thenReturn(
                 List.of(new StockEntity(UUID.randomUUID(), 10, BigDecimal.valueOf(100),
-                        BigDecimal.valueOf(1000), UUID.randomUUID(), "prod123", LocalDate.now(), expiryDate)));
+                        BigDecimal.valueOf(1000), UUID.randomUUID(), "prod123", LocalDate.now(), expiryDate, 0L)));
         when(stockMapper.toDomain(any(StockEntity.class))).thenReturn(mockStocks.getFirst());
         List<Stock> result = stockPersistanceAdapter.findAllStocksByExpiryDateBefore(expiryDate);
         assertEquals(1, result.size());
@@ -72,10 +81,10 @@ class StockPersistanceAdapterTest {
     public void readById_ShouldReturnStock() {
         UUID stockId = UUID.randomUUID();
         Stock mockStock = new Stock(stockId, 10, BigDecimal.valueOf(100),
-                BigDecimal.valueOf(1000), UUID.randomUUID(), "prod123", LocalDate.now(), LocalDate.now());
+                BigDecimal.valueOf(1000), UUID.randomUUID(), "prod123", LocalDate.now(), LocalDate.now(), 0L);
         StockEntity stockEntity = new StockEntity(stockId, 10,
                 BigDecimal.valueOf(100), BigDecimal.valueOf(1000), UUID.randomUUID(), "prod123",
-                LocalDate.now(), LocalDate.now());
+                LocalDate.now(), LocalDate.now(), 0L);
 
         when(stockRepository.findById(stockId)).thenReturn(java.util.Optional.of(stockEntity));
         when(stockMapper.toDomain(stockEntity)).thenReturn(mockStock);
@@ -88,9 +97,9 @@ class StockPersistanceAdapterTest {
     @Test
     public void create_ShouldReturnCreatedStock() {
         Stock mockStock = new Stock(UUID.randomUUID(), 10, BigDecimal.valueOf(100), BigDecimal.valueOf(1000),
-                UUID.randomUUID(), "prod123", LocalDate.now(), LocalDate.now());
+                UUID.randomUUID(), "prod123", LocalDate.now(), LocalDate.now(), 0L);
         StockEntity stockEntity = new StockEntity(UUID.randomUUID(), 10, BigDecimal.valueOf(100),
-                BigDecimal.valueOf(1000), UUID.randomUUID(), "prod123", LocalDate.now(), LocalDate.now());
+                BigDecimal.valueOf(1000), UUID.randomUUID(), "prod123", LocalDate.now(), LocalDate.now(), 0L);
 
         when(stockMapper.toEntity(mockStock)).thenReturn(stockEntity);
         when(stockRepository.save(stockEntity)).thenReturn(stockEntity);
@@ -99,35 +108,79 @@ class StockPersistanceAdapterTest {
         assertNotNull(result);
         assertEquals(mockStock.getProductId(), result.getProductId());
         verify(stockRepository, times(1)).save(stockEntity);
+        verify(stockSummaryRepository).applyDelta("prod123", 0, 0, 1, 10L, new BigDecimal("1000"), LocalDate.now());
+    }
+
+    @Test
+    public void rebuildStockSummaries_ShouldReplaceSummariesWithWeightedAverageCost() {
+        LocalDate today = LocalDate.now();
+        LocalDate expiry = today.plusDays(5);
+        List<Object[]> rows = List.<Object[]>of(
+                new Object[]{"prod123", 8L, 2L, 2L, expiry, new BigDecimal("130.00"), 10L});
+        when(stockRepository.summarizeStockByProduct(today)).thenReturn(rows);
+        int result = stockPersistanceAdapter.rebuildStockSummaries(today);
+        assertEquals(1, result);
+        verify(stockSummaryRepository).deleteAllInBatch();
+        verify(stockSummaryRepository).saveAll(List.of(new StockSummaryEntity("prod123", 8, 2, 2, expiry,
+                new BigDecimal("13.00"), 10L, new BigDecimal("130.00"))));
+    }
+
+    @Test
+    public void refreshExpiredStockSummaries_ShouldDropSummaryOfProductWithoutLots() {
+        LocalDate today = LocalDate.now();
+        when(stockSummaryRepository.findAllByOldestExpiryDateLessThanEqual(today)).thenReturn(List.of(
+                new StockSummaryEntity("prod123", 0, 5, 1, today, BigDecimal.TEN, 5L, new BigDecimal("50"))));
+        when(stockRepository.summarizeStockOfProducts(java.util.Set.of("prod123"), today)).thenReturn(List.of());
+        int result = stockPersistanceAdapter.refreshExpiredStockSummaries(today);
+        assertEquals(1, result);
+        verify(stockSummaryRepository).deleteAllById(List.of("prod123"));
     }
 
     @Test
     public void update_ShouldReturnUpdatedStock() {
         UUID stockId = UUID.randomUUID();
         Stock mockStock = new Stock(stockId, 20, BigDecimal.valueOf(150), BigDecimal.valueOf(3000),
-                UUID.randomUUID(), "prod123", LocalDate.now(), LocalDate.now());
+                UUID.randomUUID(), "prod123", LocalDate.now(), LocalDate.now(), 0L);
         StockEntity existingStockEntity = new StockEntity(stockId, 10, BigDecimal.valueOf(100),
-                BigDecimal.valueOf(1000), UUID.randomUUID(), "prod123", LocalDate.now(), LocalDate.now());
+                BigDecimal.valueOf(1000), UUID.randomUUID(), "prod123", LocalDate.now(), LocalDate.now(), 0L);
 
         when(stockRepository.findById(stockId)).thenReturn(java.util.Optional.of(existingStockEntity));
-        when(stockMapper.toEntity(mockStock)).thenReturn(new StockEntity(stockId, 20, BigDecimal.valueOf(150),
-                BigDecimal.valueOf(3000), UUID.randomUUID(), "prod123", LocalDate.now(), LocalDate.now()));
-        when(stockRepository.save(existingStockEntity)).thenReturn(existingStockEntity);
+        when(stockRepository.saveAndFlush(existingStockEntity)).thenReturn(existingStockEntity);
         when(stockMapper.toDomain(existingStockEntity)).thenReturn(mockStock);
         Stock result = stockPersistanceAdapter.update(mockStock, stockId);
         assertNotNull(result);
         assertEquals(mockStock.getQuantity(), result.getQuantity());
-        verify(stockRepository, times(1)).save(existingStockEntity);
+        verify(stockMapper, times(1)).updateEntity(mockStock, existingStockEntity);
+        verify(stockRepository, times(1)).saveAndFlush(existingStockEntity);
+    }
+
+    @Test
+    public void updateQuantities_ShouldSetQuantitiesAndSaveAllAtOnce() {
+        UUID stockId = UUID.randomUUID();
+        StockEntity stockEntity = new StockEntity(stockId, 10, BigDecimal.valueOf(100), BigDecimal.valueOf(1000),
+                UUID.randomUUID(), "prod123", LocalDate.now(), LocalDate.now(), 0L);
+        Stock mockStock = new Stock(stockId, 4, BigDecimal.valueOf(100), BigDecimal.valueOf(1000),
+                UUID.randomUUID(), "prod123", LocalDate.now(), LocalDate.now(), 0L);
+        when(stockRepository.findById(stockId)).thenReturn(java.util.Optional.of(stockEntity));
+        when(stockRepository.saveAllAndFlush(List.of(stockEntity))).thenReturn(List.of(stockEntity));
+        when(stockMapper.toDomain(stockEntity)).thenReturn(mockStock);
+        List<Stock> result = stockPersistanceAdapter.updateQuantities(java.util.Map.of(stockId, 4));
+        assertEquals(1, result.size());
+        assertEquals(4, stockEntity.getQuantity());
+        verify(stockRepository, never()).save(any(StockEntity.class));
+        verify(stockSummaryRepository).applyDelta("prod123", 0, 0, 0, -6L, new BigDecimal("-600"), LocalDate.now());
     }
 
     @Test
     public void deleteById_ShouldDeleteStock() {
         UUID stockId = UUID.randomUUID();
         StockEntity stockEntity = new StockEntity(stockId, 10, BigDecimal.valueOf(100), BigDecimal.valueOf(1000),
-                UUID.randomUUID(), "prod123", LocalDate.now(), LocalDate.now());
+                UUID.randomUUID(), "prod123", LocalDate.now(), LocalDate.now(), 0L);
         when(stockRepository.findById(stockId)).thenReturn(java.util.Optional.of(stockEntity));
         stockPersistanceAdapter.deleteById(stockId);
         verify(stockRepository, times(1)).deleteById(stockId);
+        verify(stockSummaryRepository).applyDelta("prod123", 0, 0, -1, -10L, new BigDecimal("-1000"), null);
+        verify(stockSummaryRepository).deleteIfNoLots("prod123");
     }
 
     @Test
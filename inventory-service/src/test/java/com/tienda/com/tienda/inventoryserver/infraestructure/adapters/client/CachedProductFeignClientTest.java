@@ -0,0 +1,103 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.client;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachedProductFeignClientTest {
+
+    @Mock
+    private ProductFeignClient remoteProductFeignClient;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CachedProductFeignClient cachedProductFeignClient;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cachedProductFeignClient = new CachedProductFeignClient(remoteProductFeignClient, meterRegistry, 600, 100);
+    }
+
+    @Test
+    void getProductByCod_WhenCached_ShouldNotCallProductServiceAgain() {
+        var product = product("PROD-001");
+        when(remoteProductFeignClient.getProductByCod("PROD-001")).thenReturn(product);
+        cachedProductFeignClient.getProductByCod("PROD-001");
+        assertSame(product, cachedProductFeignClient.getProductByCod("PROD-001"));
+        verify(remoteProductFeignClient, times(1)).getProductByCod("PROD-001");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", CachedProductFeignClient.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void getProductByCod_WhenProductServiceFails_ShouldNotCacheTheFailure() {
+        var product = product("PROD-001");
+        when(remoteProductFeignClient.getProductByCod("PROD-001"))
+                .thenThrow(new IllegalStateException("Producto no encontrado")).thenReturn(product);
+        assertThrows(IllegalStateException.class, () -> cachedProductFeignClient.getProductByCod("PROD-001"));
+        assertSame(product, cachedProductFeignClient.getProductByCod("PROD-001"));
+    }
+
+    @Test
+    void getProductByCod_WithConcurrentMisses_ShouldCallProductServiceOnce() throws Exception {
+        var loading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(remoteProductFeignClient.getProductByCod("PROD-001")).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return product("PROD-001");
+        });
+        try (var executor = Executors.newFixedThreadPool(2)) {
+            var first = executor.submit(() -> cachedProductFeignClient.getProductByCod("PROD-001"));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            var second = executor.submit(() -> cachedProductFeignClient.getProductByCod("PROD-001"));
+            release.countDown();
+            assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        }
+        verify(remoteProductFeignClient, times(1)).getProductByCod("PROD-001");
+    }
+
+    @Test
+    void getProductsByCods_ShouldOnlyRequestTheMissingProducts() {
+        var cached = product("PROD-001");
+        var missing = product("PROD-002");
+        when(remoteProductFeignClient.getProductByCod("PROD-001")).thenReturn(cached);
+        when(remoteProductFeignClient.getProductsByCods(List.of("PROD-002", "PROD-003"))).thenReturn(List.of(missing));
+        cachedProductFeignClient.getProductByCod("PROD-001");
+        var result = cachedProductFeignClient.getProductsByCods(List.of("PROD-001", "PROD-002", "PROD-003", "PROD-001"));
+        assertEquals(List.of(cached, missing), result);
+        verify(remoteProductFeignClient, times(1)).getProductsByCods(List.of("PROD-002", "PROD-003"));
+    }
+
+    @Test
+    void invalidate_ShouldReloadTheProductOnTheNextLookup() {
+        when(remoteProductFeignClient.getProductByCod("PROD-001")).thenReturn(product("PROD-001"));
+        cachedProductFeignClient.getProductByCod("PROD-001");
+        cachedProductFeignClient.invalidate("PROD-001");
+        cachedProductFeignClient.getProductByCod("PROD-001");
+        verify(remoteProductFeignClient, times(2)).getProductByCod("PROD-001");
+    }
+
+    private Product product(String cod) {
+        var product = new Product();
+        product.setCod(cod);
+        product.setName("Producto " + cod);
+        return product;
+    }
+}
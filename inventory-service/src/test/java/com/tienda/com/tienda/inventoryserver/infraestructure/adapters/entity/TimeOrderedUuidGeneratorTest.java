@@ -0,0 +1,37 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeOrderedUuidGeneratorTest {
+
+    @Test
+    void next_ShouldSetVersionSevenAndIetfVariant() {
+        UUID uuid = TimeOrderedUuidGenerator.next();
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void next_ShouldEmbedTheCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = TimeOrderedUuidGenerator.next();
+        long millis = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= System.currentTimeMillis() + 1);
+    }
+
+    @Test
+    void next_ShouldKeepIncreasingWithinTheSameMillisecond() {
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) uuids.add(TimeOrderedUuidGenerator.next());
+        for (int i = 1; i < uuids.size(); i++)
+            assertTrue(Long.compareUnsigned(uuids.get(i - 1).getMostSignificantBits(),
+                    uuids.get(i).getMostSignificantBits()) < 0, "Identifiers must be strictly increasing");
+    }
+}
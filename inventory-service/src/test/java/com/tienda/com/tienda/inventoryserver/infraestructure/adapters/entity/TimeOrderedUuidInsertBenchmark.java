@@ -0,0 +1,88 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the insert throughput of random and time-ordered primary keys on an embedded database
+ * Excluded from the regular build, run it with mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class TimeOrderedUuidInsertBenchmark {
+
+    private static final int ROWS = 500_000;
+    private static final int BATCH_SIZE = 1_000;
+    private static final int ROUNDS = 3;
+
+    @Test
+    void insertThroughput_RandomVersusTimeOrderedKeys() throws SQLException {
+        insertRows("warmup", UUID::randomUUID);
+        for (int round = 1; round <= ROUNDS; round++) {
+            double random = insertRows("random_" + round, UUID::randomUUID);
+            double timeOrdered = insertRows("time_ordered_" + round, TimeOrderedUuidGenerator::next);
+            System.out.printf("Round %d: random v4 %,.0f rows/s, time-ordered v7 %,.0f rows/s (x%.2f)%n",
+                    round, random, timeOrdered, timeOrdered / random);
+        }
+    }
+
+    /**
+     * Inserts the benchmark rows into a fresh kardex-like table with a binary(16) primary key
+     *
+     * @param table The name of the table to create
+     * @param ids Supplies the primary keys
+     * @return The insert throughput in rows per second
+     */
+    private double insertRows(String table, Supplier<UUID> ids) throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:" + table + ";MODE=MySQL")) {
+            connection.setAutoCommit(false);
+            try (var statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE kardex (id BINARY(16) PRIMARY KEY, product_id VARCHAR(255), "
+                        + "quantity INT, total_price DECIMAL(38,2))");
+            }
+            long start = System.nanoTime();
+            try (var insert = connection.prepareStatement(
+                    "INSERT INTO kardex (id, product_id, quantity, total_price) VALUES (?, ?, ?, ?)")) {
+                for (int i = 1; i <= ROWS; i++) {
+                    insert.setBytes(1, toBytes(ids.get()));
+                    insert.setString(2, "PROD-" + (i % 500));
+                    insert.setInt(3, i % 10 + 1);
+                    insert.setBigDecimal(4, BigDecimal.valueOf(i % 1000, 2));
+                    insert.addBatch();
+                    if (i % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            try (var count = connection.createStatement().executeQuery("SELECT COUNT(*) FROM kardex")) {
+                count.next();
+                assertEquals(ROWS, count.getInt(1));
+            }
+            return ROWS / seconds;
+        }
+    }
+
+    /**
+     * Converts a UUID to the 16 bytes stored in the binary(16) column
+     *
+     * @param uuid The UUID to convert
+     * @return The big-endian bytes of the UUID
+     */
+    private byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
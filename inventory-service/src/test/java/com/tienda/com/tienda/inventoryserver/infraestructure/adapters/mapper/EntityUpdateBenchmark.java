@@ -0,0 +1,118 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Kardex;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Stock;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexEntity;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.StockEntity;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+
+import java.beans.PropertyDescriptor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput and allocation of the generated entity updates with the reflective copy they replaced
+ * Excluded from the regular build, run it with mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityUpdateBenchmark {
+
+    private StockMapper stockMapper;
+    private KardexMapper kardexMapper;
+    private Stock stockRequest;
+    private StockEntity stockEntity;
+    private Kardex kardexRequest;
+    private KardexEntity kardexEntity;
+
+    @Test
+    void entityUpdates_ReflectiveVersusGenerated() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EntityUpdateBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Setup
+    public void setUp() {
+        stockMapper = Mappers.getMapper(StockMapper.class);
+        kardexMapper = Mappers.getMapper(KardexMapper.class);
+        stockRequest = Stock.builder().quantity(7).totalPurchaseCost(new BigDecimal("70.00")).build();
+        stockEntity = StockEntity.builder().id(UUID.randomUUID()).quantity(10)
+                .purchaseUnitCost(BigDecimal.TEN).totalPurchaseCost(new BigDecimal("100.00"))
+                .providerId(UUID.randomUUID()).productId("PROD-001").purchaseDate(LocalDate.now())
+                .expiryDate(LocalDate.now().plusMonths(6)).version(0L).build();
+        kardexRequest = Kardex.builder().quantity(4).unitPrice(new BigDecimal("12.50")).build();
+        kardexEntity = KardexEntity.builder().id(UUID.randomUUID()).typeMovement(TypeMove.OUTCOME).quantity(3)
+                .productId("PROD-001").unitPrice(BigDecimal.TEN).totalPrice(new BigDecimal("30.00"))
+                .movementDate(LocalDate.now()).build();
+    }
+
+    @Benchmark
+    public StockEntity stockReflective() {
+        copyNonNullFields(stockMapper.toEntity(stockRequest), stockEntity);
+        return stockEntity;
+    }
+
+    @Benchmark
+    public StockEntity stockGenerated() {
+        stockMapper.updateEntity(stockRequest, stockEntity);
+        return stockEntity;
+    }
+
+    @Benchmark
+    public KardexEntity kardexReflective() {
+        copyNonNullFields(kardexMapper.toEntity(kardexRequest), kardexEntity);
+        return kardexEntity;
+    }
+
+    @Benchmark
+    public KardexEntity kardexGenerated() {
+        kardexMapper.updateEntity(kardexRequest, kardexEntity);
+        return kardexEntity;
+    }
+
+    /**
+     * The reflective copy the persistence adapters used before the generated updates, kept as the baseline
+     *
+     * @param source Source object with the values to copy from
+     * @param target Target object where the values will be set
+     */
+    private static void copyNonNullFields(Object source, Object target) {
+        BeanWrapper sourceWrapper = new BeanWrapperImpl(source);
+        BeanWrapper targetWrapper = new BeanWrapperImpl(target);
+        for (PropertyDescriptor descriptor : sourceWrapper.getPropertyDescriptors()) {
+            String propertyName = descriptor.getName();
+            if (!"class".equals(propertyName)) {
+                Object sourceValue = sourceWrapper.getPropertyValue(propertyName);
+                if (sourceValue != null) targetWrapper.setPropertyValue(propertyName, sourceValue);
+            }
+        }
+    }
+}
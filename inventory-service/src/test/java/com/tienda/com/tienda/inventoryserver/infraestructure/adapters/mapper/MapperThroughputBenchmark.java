@@ -0,0 +1,133 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper;
+
+import com.tienda.com.tienda.inventoryserver.application.mapper.KardexDomainMapper;
+import com.tienda.com.tienda.inventoryserver.application.mapper.StockDomainMapper;
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Kardex;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Stock;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.KardexRequest;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.PurchaseInventoryRequest;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.SaleInventoryRequest;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.StockRequest;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexEntity;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.StockEntity;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the mappers used on every stock and kardex movement
+ * Mappings that call the product service are left out so the benchmark runs offline
+ * Excluded from the regular build, run it with mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperThroughputBenchmark {
+
+    private StockMapper stockMapper;
+    private KardexMapper kardexMapper;
+    private StockDomainMapper stockDomainMapper;
+    private KardexDomainMapper kardexDomainMapper;
+    private Stock stock;
+    private StockEntity stockEntity;
+    private Kardex kardex;
+    private KardexEntity kardexEntity;
+    private StockRequest stockRequest;
+    private KardexRequest kardexRequest;
+    private PurchaseInventoryRequest purchaseRequest;
+    private SaleInventoryRequest saleRequest;
+
+    @Test
+    void mapperThroughput() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MapperThroughputBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Setup
+    public void setUp() {
+        stockMapper = Mappers.getMapper(StockMapper.class);
+        kardexMapper = Mappers.getMapper(KardexMapper.class);
+        stockDomainMapper = Mappers.getMapper(StockDomainMapper.class);
+        kardexDomainMapper = Mappers.getMapper(KardexDomainMapper.class);
+        var today = LocalDate.now();
+        stock = new Stock(UUID.randomUUID(), 10, new BigDecimal("10.00"), new BigDecimal("100.00"),
+                UUID.randomUUID(), "PROD-001", today, today.plusMonths(6), 0L);
+        stockEntity = stockMapper.toEntity(stock);
+        kardex = new Kardex(UUID.randomUUID(), TypeMove.OUTCOME, 2, "PROD-001", new BigDecimal("12.50"),
+                new BigDecimal("25.00"), today, 8, new BigDecimal("80.00"), new BigDecimal("20.00"));
+        kardexEntity = kardexMapper.toEntity(kardex);
+        stockRequest = new StockRequest(10, new BigDecimal("10.00"), UUID.randomUUID(), "PROD-001", today,
+                today.plusMonths(6));
+        kardexRequest = new KardexRequest(TypeMove.OUTCOME, 2, "PROD-001", new BigDecimal("12.50"), today,
+                new BigDecimal("20.00"));
+        purchaseRequest = new PurchaseInventoryRequest(10, new BigDecimal("10.00"), UUID.randomUUID(), "PROD-001",
+                today.plusMonths(6));
+        saleRequest = new SaleInventoryRequest(2, "PROD-001", new BigDecimal("12.50"));
+    }
+
+    @Benchmark
+    public Stock stockToDomain() {
+        return stockMapper.toDomain(stockEntity);
+    }
+
+    @Benchmark
+    public StockEntity stockToEntity() {
+        return stockMapper.toEntity(stock);
+    }
+
+    @Benchmark
+    public Kardex kardexToDomain() {
+        return kardexMapper.toDomain(kardexEntity);
+    }
+
+    @Benchmark
+    public KardexEntity kardexToEntity() {
+        return kardexMapper.toEntity(kardex);
+    }
+
+    @Benchmark
+    public Stock stockRequestToStock() {
+        return stockDomainMapper.stockRequestToStock(stockRequest);
+    }
+
+    @Benchmark
+    public StockRequest registerPurchase() {
+        return stockDomainMapper.registerPurchase(purchaseRequest);
+    }
+
+    @Benchmark
+    public Kardex kardexRequestToKardex() {
+        return kardexDomainMapper.kardexRequestToKardex(kardexRequest);
+    }
+
+    @Benchmark
+    public KardexRequest createSaleKardex() {
+        return kardexDomainMapper.createSaleKardex(saleRequest);
+    }
+}
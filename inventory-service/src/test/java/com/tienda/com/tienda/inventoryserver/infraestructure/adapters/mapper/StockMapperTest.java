@@ -0,0 +1,72 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.mapper;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Stock;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.StockEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StockMapperTest {
+
+    private final StockMapper stockMapper = Mappers.getMapper(StockMapper.class);
+    private final UUID stockId = UUID.randomUUID();
+    private final UUID providerId = UUID.randomUUID();
+    private StockEntity targetStock;
+
+    @BeforeEach
+    void setUp() {
+        targetStock = StockEntity.builder()
+                .id(stockId)
+                .quantity(5)
+                .purchaseUnitCost(new BigDecimal("10.00"))
+                .totalPurchaseCost(new BigDecimal("50.00"))
+                .providerId(providerId)
+                .productId("prod-002")
+                .purchaseDate(LocalDate.of(2022, 1, 1))
+                .expiryDate(LocalDate.of(2023, 1, 1))
+                .version(3L)
+                .build();
+    }
+
+    @Test
+    void updateEntity_ShouldCopyEveryNonNullField() {
+        var sourceStock = Stock.builder()
+                .id(UUID.randomUUID())
+                .quantity(10)
+                .purchaseUnitCost(new BigDecimal("15.50"))
+                .totalPurchaseCost(new BigDecimal("155.00"))
+                .providerId(UUID.randomUUID())
+                .productId("prod-001")
+                .purchaseDate(LocalDate.of(2023, 1, 1))
+                .expiryDate(LocalDate.of(2024, 1, 1))
+                .build();
+        stockMapper.updateEntity(sourceStock, targetStock);
+        assertEquals(10, targetStock.getQuantity());
+        assertEquals(new BigDecimal("15.50"), targetStock.getPurchaseUnitCost());
+        assertEquals(new BigDecimal("155.00"), targetStock.getTotalPurchaseCost());
+        assertEquals(sourceStock.getProviderId(), targetStock.getProviderId());
+        assertEquals("prod-001", targetStock.getProductId());
+        assertEquals(LocalDate.of(2023, 1, 1), targetStock.getPurchaseDate());
+        assertEquals(LocalDate.of(2024, 1, 1), targetStock.getExpiryDate());
+        assertEquals(stockId, targetStock.getId());
+        assertEquals(3L, targetStock.getVersion());
+    }
+
+    @Test
+    void updateEntity_ShouldKeepFieldsThatAreNullInTheSource() {
+        stockMapper.updateEntity(Stock.builder().quantity(7).build(), targetStock);
+        assertEquals(7, targetStock.getQuantity());
+        assertEquals(new BigDecimal("10.00"), targetStock.getPurchaseUnitCost());
+        assertEquals(new BigDecimal("50.00"), targetStock.getTotalPurchaseCost());
+        assertEquals(providerId, targetStock.getProviderId());
+        assertEquals("prod-002", targetStock.getProductId());
+        assertEquals(LocalDate.of(2022, 1, 1), targetStock.getPurchaseDate());
+        assertEquals(LocalDate.of(2023, 1, 1), targetStock.getExpiryDate());
+    }
+}
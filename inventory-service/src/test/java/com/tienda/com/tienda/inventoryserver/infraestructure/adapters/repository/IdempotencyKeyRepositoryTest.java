@@ -0,0 +1,60 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotency;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class IdempotencyKeyRepositoryTest {
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void insertClaim_KeyAlreadyStored_ShouldFailOnThePrimaryKey() {
+        var now = LocalDateTime.now();
+        idempotencyKeyRepository.insertClaim("sale-1", "a", now.plusMinutes(5));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> idempotencyKeyRepository.insertClaim("sale-1", "b", now.plusMinutes(5)));
+    }
+
+    @Test
+    void takeOverExpired_ShouldOnlyReplaceAnExpiredKey() {
+        var now = LocalDateTime.now();
+        idempotencyKeyRepository.insertClaim("active", "a", now.plusMinutes(5));
+        idempotencyKeyRepository.insertClaim("expired", "a", now.minusMinutes(5));
+
+        assertEquals(0, idempotencyKeyRepository.takeOverExpired("active", "b", now.plusMinutes(5), now));
+        assertEquals(1, idempotencyKeyRepository.takeOverExpired("expired", "b", now.plusMinutes(5), now));
+        entityManager.clear();
+        assertEquals("a", idempotencyKeyRepository.findById("active").orElseThrow().getFingerprint());
+        assertEquals("b", idempotencyKeyRepository.findById("expired").orElseThrow().getFingerprint());
+    }
+
+    @Test
+    void completeAndRelease_ShouldOnlyTouchAClaimWithoutResult() {
+        var now = LocalDateTime.now();
+        idempotencyKeyRepository.insertClaim("sale-1", "a", now.plusMinutes(5));
+
+        assertEquals(0, idempotencyKeyRepository.complete("sale-1", "b", "ok", now.plusHours(24)));
+        assertEquals(1, idempotencyKeyRepository.complete("sale-1", "a", "ok", now.plusHours(24)));
+        assertEquals(0, idempotencyKeyRepository.release("sale-1", "a"));
+        entityManager.clear();
+        assertEquals("ok", idempotencyKeyRepository.findById("sale-1").orElseThrow().getResult());
+    }
+}
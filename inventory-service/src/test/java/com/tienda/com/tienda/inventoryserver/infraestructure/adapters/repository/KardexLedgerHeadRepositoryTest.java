@@ -0,0 +1,36 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ledger;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class KardexLedgerHeadRepositoryTest {
+
+    @Autowired
+    private KardexLedgerHeadRepository kardexLedgerHeadRepository;
+
+    @Test
+    void lockProduct_ShouldCreateRowOnceAndKeepIt() {
+        kardexLedgerHeadRepository.lockProduct("PROD-1");
+        kardexLedgerHeadRepository.lockProduct("PROD-1");
+        kardexLedgerHeadRepository.lockProduct("PROD-2");
+        assertEquals(2, kardexLedgerHeadRepository.count());
+    }
+
+    @Test
+    void lockProduct_ShouldBumpTheLedgerVersionOnEveryWrite() {
+        kardexLedgerHeadRepository.lockProduct("PROD-3");
+        kardexLedgerHeadRepository.lockProduct("PROD-3");
+        assertEquals(2L, kardexLedgerHeadRepository.findWithLockByProductId("PROD-3").orElseThrow().getVersion());
+        assertTrue(kardexLedgerHeadRepository.findWithLockByProductId("PROD-4").isEmpty());
+    }
+}
@@ -0,0 +1,57 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.Kardex;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexOutboxEntity;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:kardexoutbox;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class KardexOutboxRepositoryTest {
+
+    @Autowired
+    private KardexOutboxRepository kardexOutboxRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void findAllByOrderByIdAsc_ShouldReturnTheOldestRecordsWithTheirMovement() {
+        kardexOutboxRepository.saveAll(List.of(record("PROD-1", 3), record("PROD-2", 5), record("PROD-3", 7)));
+        entityManager.flush();
+        entityManager.clear();
+
+        var pending = kardexOutboxRepository.findAllByOrderByIdAsc(Limit.of(2));
+
+        assertEquals(List.of("PROD-1", "PROD-2"), pending.stream().map(entity -> entity.getKardex().getProductId()).toList());
+        assertEquals(LocalDate.of(2024, 5, 2), pending.getFirst().getKardex().getMovementDate());
+        assertEquals(0, new BigDecimal("30.00").compareTo(pending.getFirst().getKardex().getTotalPrice()));
+    }
+
+    private KardexOutboxEntity record(String productId, int quantity) {
+        return KardexOutboxEntity.builder()
+                .kardex(Kardex.builder()
+                        .productId(productId)
+                        .typeMovement(TypeMove.OUTCOME)
+                        .quantity(quantity)
+                        .unitPrice(BigDecimal.TEN)
+                        .totalPrice(new BigDecimal("30.00"))
+                        .movementDate(LocalDate.of(2024, 5, 2))
+                        .build())
+                .build();
+    }
+}
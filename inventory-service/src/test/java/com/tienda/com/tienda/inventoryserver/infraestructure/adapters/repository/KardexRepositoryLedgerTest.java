@@ -0,0 +1,113 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexEntity;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest
+class KardexRepositoryLedgerTest {
+
+    @Autowired
+    private KardexRepository kardexRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final LocalDate today = LocalDate.of(2025, 3, 20);
+    private KardexEntity firstOfToday;
+    private KardexEntity secondOfToday;
+
+    @BeforeEach
+    void setUp() {
+        kardexRepository.save(kardex("PROD-001", today.minusDays(3), 1));
+        firstOfToday = kardexRepository.save(kardex("PROD-001", today, 2));
+        secondOfToday = kardexRepository.save(kardex("PROD-001", today, 3));
+        kardexRepository.save(kardex("PROD-002", today, 4));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findPrecedingInProduct_ShouldOrderSameDayRecordsByInsertion() {
+        var preceding = kardexRepository.findPrecedingInProduct("PROD-001", today, secondOfToday.getId(),
+                PageRequest.of(0, 1));
+        assertEquals(List.of(firstOfToday.getId()), preceding.stream().map(KardexEntity::getId).toList());
+    }
+
+    @Test
+    void findAllFromPositionInProduct_ShouldIncludeThePositionAndLaterRecords() {
+        var records = kardexRepository.findAllFromPositionInProduct("PROD-001", today, firstOfToday.getId());
+        assertEquals(List.of(2, 3), records.stream().map(KardexEntity::getQuantity).toList());
+    }
+
+    @Test
+    void findFirstByProductIdAsOf_ShouldReturnLastRecordUpToThatDay() {
+        assertEquals(secondOfToday.getId(), kardexRepository
+                .findFirstByProductIdAndMovementDateLessThanEqualOrderByMovementDateDescIdDesc("PROD-001", today)
+                .getId());
+        assertEquals(1, kardexRepository
+                .findFirstByProductIdAndMovementDateLessThanEqualOrderByMovementDateDescIdDesc("PROD-001",
+                        today.minusDays(1)).getQuantity());
+        assertNull(kardexRepository
+                .findFirstByProductIdAndMovementDateLessThanEqualOrderByMovementDateDescIdDesc("PROD-001",
+                        today.minusDays(10)));
+    }
+
+    @Test
+    void findAllProductIdsWithoutBalance_ShouldSkipProductsWithBalances() {
+        var withBalance = kardexRepository.findAllByProductIdOrderByMovementDateAscIdAsc("PROD-002").getFirst();
+        withBalance.setBalanceQuantity(4);
+        withBalance.setBalanceValue(BigDecimal.valueOf(40));
+        entityManager.flush();
+        assertEquals(List.of("PROD-001"), kardexRepository.findAllProductIdsWithoutBalance());
+    }
+
+    @Test
+    void findAllProductIdsWithoutBalance_ShouldIncludeSalesWithoutCostOfGoodsSold() {
+        var withBalance = kardexRepository.findAllByProductIdOrderByMovementDateAscIdAsc("PROD-002").getFirst();
+        withBalance.setBalanceQuantity(4);
+        withBalance.setBalanceValue(BigDecimal.valueOf(40));
+        withBalance.setTypeMovement(TypeMove.OUTCOME);
+        entityManager.flush();
+        assertEquals(List.of("PROD-001", "PROD-002"),
+                kardexRepository.findAllProductIdsWithoutBalance().stream().sorted().toList());
+    }
+
+    @Test
+    void summarizeDailyMovementsOf_ShouldSumCostOfGoodsSoldTreatingMissingAsZero() {
+        var sale = kardex("PROD-003", today, 2);
+        sale.setTypeMovement(TypeMove.OUTCOME);
+        sale.setCostOfGoodsSold(new BigDecimal("12.50"));
+        kardexRepository.save(sale);
+        var legacySale = kardex("PROD-003", today, 1);
+        legacySale.setTypeMovement(TypeMove.OUTCOME);
+        kardexRepository.save(legacySale);
+        entityManager.flush();
+        var rows = kardexRepository.summarizeDailyMovementsOf(today, "PROD-003", TypeMove.OUTCOME);
+        assertEquals(1, rows.size());
+        assertEquals(0, new BigDecimal("12.50").compareTo((BigDecimal) rows.getFirst()[7]));
+    }
+
+    private KardexEntity kardex(String productId, LocalDate movementDate, int quantity) {
+        return KardexEntity.builder()
+                .typeMovement(TypeMove.INCOME)
+                .quantity(quantity)
+                .productId(productId)
+                .unitPrice(BigDecimal.TEN)
+                .totalPrice(BigDecimal.TEN.multiply(BigDecimal.valueOf(quantity)))
+                .movementDate(movementDate)
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.TypeMove;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexEntity;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "inventory.kardex.export.fetch-size=500")
+class KardexRepositoryStreamTest {
+
+    @Autowired
+    private KardexRepository kardexRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final LocalDate today = LocalDate.of(2025, 3, 20);
+
+    @BeforeEach
+    void setUp() {
+        kardexRepository.saveAll(List.of(
+                kardex("PROD-001", today),
+                kardex("PROD-002", today.minusDays(2)),
+                kardex("PROD-001", today.minusDays(5)),
+                kardex("PROD-001", today.minusDays(40))));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void streamAllByMovementDateBetween_ShouldStreamEveryProductOrderedByDate() {
+        try (var kardex = kardexRepository.streamAllByMovementDateBetween(today.minusDays(10), today, null)) {
+            assertEquals(List.of(today.minusDays(5), today.minusDays(2), today),
+                    kardex.map(KardexEntity::getMovementDate).toList());
+        }
+    }
+
+    @Test
+    void streamAllByMovementDateBetween_WithProduct_ShouldOnlyStreamThatProduct() {
+        try (var kardex = kardexRepository.streamAllByMovementDateBetween(today.minusDays(10), today, "PROD-001")) {
+            assertEquals(List.of(today.minusDays(5), today), kardex.map(KardexEntity::getMovementDate).toList());
+        }
+    }
+
+    @Test
+    void streamAllByProductId_ShouldStreamWholeHistoryMostRecentFirst() {
+        try (var kardex = kardexRepository.streamAllByProductId("PROD-001")) {
+            assertEquals(List.of(today, today.minusDays(5), today.minusDays(40)),
+                    kardex.map(KardexEntity::getMovementDate).toList());
+        }
+    }
+
+    private KardexEntity kardex(String productId, LocalDate movementDate) {
+        return KardexEntity.builder()
+                .typeMovement(TypeMove.OUTCOME)
+                .quantity(1)
+                .productId(productId)
+                .unitPrice(BigDecimal.TEN)
+                .totalPrice(BigDecimal.TEN)
+                .movementDate(movementDate)
+                .build();
+    }
+}
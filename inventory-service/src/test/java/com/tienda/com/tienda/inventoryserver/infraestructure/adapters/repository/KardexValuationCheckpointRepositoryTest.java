@@ -0,0 +1,57 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.FifoLayer;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.KardexValuationCheckpointEntity;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest
+class KardexValuationCheckpointRepositoryTest {
+
+    @Autowired
+    private KardexValuationCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final LocalDate january = LocalDate.of(2025, 1, 31);
+    private final LocalDate february = LocalDate.of(2025, 2, 28);
+
+    @BeforeEach
+    void setUp() {
+        checkpointRepository.saveAll(List.of(
+                new KardexValuationCheckpointEntity("PROD-001", january,
+                        List.of(new FifoLayer(5, new BigDecimal("8.50")), new FifoLayer(3, new BigDecimal("9.00")))),
+                new KardexValuationCheckpointEntity("PROD-001", february, List.of())));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findFirstByProductIdAsOf_ShouldReturnLatestCheckpointWithItsLayers() {
+        var checkpoint = checkpointRepository
+                .findFirstByProductIdAndAsOfLessThanEqualOrderByAsOfDesc("PROD-001", february.minusDays(1));
+        assertEquals(january, checkpoint.getAsOf());
+        assertEquals(List.of(new FifoLayer(5, new BigDecimal("8.50")), new FifoLayer(3, new BigDecimal("9.00"))),
+                checkpoint.getLayers());
+    }
+
+    @Test
+    void deleteAllFromDay_ShouldOnlyDropLaterCheckpoints() {
+        assertEquals(1, checkpointRepository.deleteAllFromDay("PROD-001", february));
+        assertEquals(january, checkpointRepository
+                .findFirstByProductIdAndAsOfLessThanEqualOrderByAsOfDesc("PROD-001", february).getAsOf());
+        assertNull(checkpointRepository
+                .findFirstByProductIdAndAsOfLessThanEqualOrderByAsOfDesc("PROD-001", january.minusDays(1)));
+    }
+}
@@ -0,0 +1,36 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservationhold;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ReservationHoldRepositoryTest {
+
+    @Autowired
+    private ReservationHoldRepository reservationHoldRepository;
+
+    @Test
+    void addHeld_ShouldCreateTheCounterOnceAndAccumulateItsUnits() {
+        reservationHoldRepository.addHeld("PROD-1", 4);
+        reservationHoldRepository.addHeld("PROD-1", 3);
+        reservationHoldRepository.addHeld("PROD-1", -2);
+        reservationHoldRepository.addHeld("PROD-2", 1);
+
+        var held = reservationHoldRepository.findHeldForUpdate(List.of("PROD-1", "PROD-2", "PROD-3"));
+
+        assertEquals(2, held.size());
+        assertEquals("PROD-1", held.getFirst()[0]);
+        assertEquals(5, ((Number) held.getFirst()[1]).intValue());
+        assertEquals(1, ((Number) held.getLast()[1]).intValue());
+    }
+}
@@ -0,0 +1,72 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository;
+
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.StockEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class StockRepositoryQueryCountTest {
+
+    private static final int PRODUCTS = 10;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1000})
+    void summarizeStockByProduct_ShouldRunOneQuery_RegardlessOfLotCount(int lots) {
+        var today = LocalDate.now();
+        List<StockEntity> stockEntities = new ArrayList<>();
+        for (int i = 0; i < lots; i++)
+            stockEntities.add(StockEntity.builder()
+                    .quantity(2)
+                    .purchaseUnitCost(BigDecimal.TEN)
+                    .totalPurchaseCost(BigDecimal.valueOf(20))
+                    .providerId(UUID.randomUUID())
+                    .productId("PROD-" + (i % PRODUCTS))
+                    .purchaseDate(today.minusMonths(1))
+                    .expiryDate(i % 2 == 0 ? today.plusMonths(1) : today.minusDays(1))
+                    .build());
+        stockRepository.saveAll(stockEntities);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        var summary = stockRepository.summarizeStockByProduct(today);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(PRODUCTS, summary.size());
+        assertEquals(lots, summary.stream().mapToLong(row -> ((Number) row[1]).longValue()).sum());
+        assertEquals(lots, summary.stream().mapToLong(row -> ((Number) row[2]).longValue()).sum());
+        assertEquals(lots, summary.stream().mapToLong(row -> ((Number) row[3]).longValue()).sum());
+        assertEquals(today.plusMonths(1), summary.getFirst()[4]);
+    }
+}
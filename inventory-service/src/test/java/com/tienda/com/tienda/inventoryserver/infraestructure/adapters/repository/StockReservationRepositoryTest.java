@@ -0,0 +1,70 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository;
+
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.ReservationStatus;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.entity.StockReservationEntity;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservation;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class StockReservationRepositoryTest {
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void findReservationIdsDue_ShouldOnlyReturnActiveReservationsWhoseTimePassed() {
+        var now = LocalDateTime.now();
+        var expired = line("PROD-1", 7, ReservationStatus.ACTIVE, now.minusSeconds(1));
+        var otherLine = line("PROD-2", 2, ReservationStatus.ACTIVE, now.minusSeconds(1));
+        otherLine.setReservationId(expired.getReservationId());
+        stockReservationRepository.saveAll(List.of(expired, otherLine,
+                line("PROD-1", 4, ReservationStatus.ACTIVE, now.plusMinutes(5)),
+                line("PROD-1", 9, ReservationStatus.RELEASED, now.minusMinutes(5))));
+
+        assertEquals(List.of(expired.getReservationId()),
+                stockReservationRepository.findReservationIdsDue(ReservationStatus.ACTIVE, now, Limit.of(10)));
+    }
+
+    @Test
+    void updateStatus_ShouldOnlyMoveTheLinesStillInTheExpectedStatus() {
+        var now = LocalDateTime.now();
+        var active = stockReservationRepository.save(line("PROD-1", 4, ReservationStatus.ACTIVE, now.plusMinutes(5)));
+
+        assertEquals(1, stockReservationRepository.updateStatus(active.getReservationId(), ReservationStatus.ACTIVE,
+                ReservationStatus.RELEASED));
+        assertEquals(0, stockReservationRepository.updateStatus(active.getReservationId(), ReservationStatus.ACTIVE,
+                ReservationStatus.EXPIRED));
+        entityManager.clear();
+        assertEquals(ReservationStatus.RELEASED, stockReservationRepository.findById(active.getId()).orElseThrow().getStatus());
+    }
+
+    private StockReservationEntity line(String productId, int quantity, ReservationStatus status,
+                                        LocalDateTime expiresAt) {
+        return StockReservationEntity.builder()
+                .reservationId(UUID.randomUUID())
+                .productId(productId)
+                .quantity(quantity)
+                .unitPrice(BigDecimal.TEN)
+                .status(status)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
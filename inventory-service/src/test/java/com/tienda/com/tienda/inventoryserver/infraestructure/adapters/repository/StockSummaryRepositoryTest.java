@@ -0,0 +1,52 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.adapters.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:summary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class StockSummaryRepositoryTest {
+
+    @Autowired
+    private StockSummaryRepository stockSummaryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void applyDelta_ShouldCreateRowThenAddChangesOnTop() {
+        var today = LocalDate.now();
+        stockSummaryRepository.applyDelta("PROD-1", 10, 0, 1, 10L, new BigDecimal("100.00"), today.plusDays(9));
+        stockSummaryRepository.applyDelta("PROD-1", 10, 0, 1, 10L, new BigDecimal("200.00"), today.plusDays(3));
+        stockSummaryRepository.applyDelta("PROD-1", -4, 0, 0, -4L, new BigDecimal("-40.00"), today.plusDays(5));
+        entityManager.clear();
+
+        var summary = stockSummaryRepository.findById("PROD-1").orElseThrow();
+        assertEquals(16, summary.getValidQuantity());
+        assertEquals(2, summary.getLotCount());
+        assertEquals(16L, summary.getTotalQuantity());
+        assertEquals(0, new BigDecimal("260.00").compareTo(summary.getTotalCost()));
+        assertEquals(0, new BigDecimal("16.25").compareTo(summary.getWeightedAverageCost()));
+        assertEquals(today.plusDays(3), summary.getOldestExpiryDate());
+    }
+
+    @Test
+    void deleteIfNoLots_ShouldDropSummaryOfProductWithoutStock() {
+        stockSummaryRepository.applyDelta("PROD-2", 0, 0, 0, 0L, BigDecimal.ZERO, null);
+        stockSummaryRepository.deleteIfNoLots("PROD-2");
+        entityManager.clear();
+        assertTrue(stockSummaryRepository.findById("PROD-2").isEmpty());
+    }
+}
@@ -1,25 +1,41 @@
 package com.tienda.com.tienda.inventoryserver.infraestructure.rest.controller;
 
 import com.tienda.com.tienda.inventoryserver.application.services.EarningsReport;
+import com.tienda.com.tienda.inventoryserver.application.services.InventoryValuation;
+import com.tienda.com.tienda.inventoryserver.application.services.KardexExporter;
 import com.tienda.com.tienda.inventoryserver.application.services.KardexService;
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.ExportFormat;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.KardexRequest;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.InventoryValuationResponse;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.KardexBalanceResponse;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.KardexResponse;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.ReportInventoryResponse;
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.exception.ExportLimitExceeded;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +47,12 @@ class KardexControllerTest {
     @Mock
     private EarningsReport earningsReport;
 
+    @Mock
+    private KardexExporter kardexExporter;
+
+    @Mock
+    private InventoryValuation inventoryValuation;
+
     @InjectMocks
     private KardexController kardexController;
 
@@ -101,4 +123,62 @@ class KardexControllerTest {
         ResponseEntity<ReportInventoryResponse> response = kardexController.earningsBetweenDatesDetailsProducts(startDate, endDate);
         assertNotNull(response.getBody());
     }
+
+    @Test
+    void rebuildDailyRollups_ShouldReturnGeneratedCount() {
+        when(kardexService.rebuildDailyRollups(null, null)).thenReturn(Map.of("Registros resumidos", 3));
+        ResponseEntity<Map<String, Integer>> response = kardexController.rebuildDailyRollups(null, null);
+        assertEquals(Map.of("Registros resumidos", 3), response.getBody());
+    }
+
+    @Test
+    void getBalanceAsOf_ShouldReturnBalance() {
+        LocalDate asOf = LocalDate.of(2025, 1, 31);
+        var balance = new KardexBalanceResponse("PROD-001", asOf, 12, new BigDecimal("240.00"));
+        when(kardexService.getBalanceAsOf("PROD-001", asOf)).thenReturn(balance);
+        ResponseEntity<KardexBalanceResponse> response = kardexController.getBalanceAsOf("PROD-001", asOf);
+        assertEquals(balance, response.getBody());
+    }
+
+    @Test
+    void valueInventoryAsOf_ShouldReturnValuation() {
+        LocalDate asOf = LocalDate.of(2025, 1, 31);
+        var valuation = InventoryValuationResponse.builder().asOf(asOf).totalQuantity(0)
+                .totalValue(BigDecimal.ZERO).products(List.of()).build();
+        when(inventoryValuation.valueInventoryAsOf(asOf)).thenReturn(valuation);
+        ResponseEntity<InventoryValuationResponse> response = kardexController.valueInventoryAsOf(asOf);
+        assertEquals(valuation, response.getBody());
+    }
+
+    @Test
+    void exportInventoryMovements_ShouldStreamCsvAttachment() throws Exception {
+        LocalDate startDate = LocalDate.of(2025, 1, 1);
+        LocalDate endDate = LocalDate.of(2025, 12, 31);
+        ResponseEntity<StreamingResponseBody> response =
+                kardexController.exportInventoryMovements(startDate, endDate, null, ExportFormat.CSV);
+        assertEquals(MediaType.parseMediaType("text/csv"), response.getHeaders().getContentType());
+        assertEquals("attachment; filename=\"kardex-2025-01-01-2025-12-31.csv\"",
+                response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        var output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+        verify(kardexExporter).writeInventoryMovements(startDate, endDate, null, ExportFormat.CSV, output);
+    }
+
+    @Test
+    void exportProductHistory_ShouldStreamNdjsonAttachment() throws Exception {
+        ResponseEntity<StreamingResponseBody> response =
+                kardexController.exportProductHistory("PROD-001", ExportFormat.NDJSON);
+        assertEquals(MediaType.parseMediaType("application/x-ndjson"), response.getHeaders().getContentType());
+        var output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+        verify(kardexExporter).writeProductHistory("PROD-001", ExportFormat.NDJSON, output);
+    }
+
+    @Test
+    void exportProductHistory_WhenTooManyExportsRunning_ShouldRefuseBeforeStreaming() throws Exception {
+        when(kardexExporter.acquirePermit()).thenThrow(new ExportLimitExceeded("limite"));
+        assertThrows(ExportLimitExceeded.class,
+                () -> kardexController.exportProductHistory("PROD-001", ExportFormat.NDJSON));
+        verify(kardexExporter, never()).writeProductHistory(any(), any(), any());
+    }
 }
@@ -1,5 +1,6 @@
 package com.tienda.com.tienda.inventoryserver.infraestructure.rest.controller;
 
+import com.tienda.com.tienda.inventoryserver.application.services.IdempotencyGuard;
 import com.tienda.com.tienda.inventoryserver.application.services.ManagementInventory;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.PurchaseInventoryRequest;
 import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.SaleInventoryRequest;
@@ -13,6 +14,8 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.function.Supplier;
+
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -26,12 +29,17 @@ class MovementsControllerTest {
     @Mock
     private ManagementInventory managementInventory;
 
+    @Mock
+    private IdempotencyGuard idempotencyGuard;
+
     @InjectMocks
     private MovementsController movementsController;
 
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders.standaloneSetup(movementsController).build();
+        lenient().when(idempotencyGuard.execute(any(), anyString(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<String>>getArgument(3).get());
     }
 
     @Test
@@ -49,6 +57,19 @@ class MovementsControllerTest {
         verify(managementInventory, times(1)).registerInputInventory(any(PurchaseInventoryRequest.class));
     }
 
+    @Test
+    void registerInputInventoryBatch_ShouldReturnSuccess() throws Exception {
+        String responseMessage = "Purchase registered successfully";
+        when(managementInventory.registerInputInventoryBatch(anyList())).thenReturn(responseMessage);
+        mockMvc.perform(post("/inventory/register-purchase-batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"productId\":\"P1\",\"quantity\":2,\"purchaseUnitCost\":10}]"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(responseMessage));
+
+        verify(managementInventory, times(1)).registerInputInventoryBatch(argThat(requests -> requests.size() == 1));
+    }
+
     @Test
     void registerOutputInventory_ShouldReturnSuccess() throws Exception {
         SaleInventoryRequest request = new SaleInventoryRequest();
@@ -63,4 +84,29 @@ class MovementsControllerTest {
 
         verify(managementInventory, times(1)).registerOutputInventory(any(SaleInventoryRequest.class));
     }
+
+    @Test
+    void registerOutputInventoryBatch_ShouldReturnSuccess() throws Exception {
+        String responseMessage = "Sale registered successfully";
+        when(managementInventory.registerOutputInventoryBatch(anyList())).thenReturn(responseMessage);
+        mockMvc.perform(post("/inventory/register-sale-batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"productId\":\"P1\",\"quantity\":2,\"unitPrice\":10},{\"productId\":\"P2\",\"quantity\":1,\"unitPrice\":5}]"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(responseMessage));
+
+        verify(managementInventory, times(1)).registerOutputInventoryBatch(argThat(requests -> requests.size() == 2));
+    }
+
+    @Test
+    void registerOutputInventoryBatch_WithIdempotencyKey_ShouldRunThroughTheGuard() throws Exception {
+        when(managementInventory.registerOutputInventoryBatch(anyList())).thenReturn("Sale registered successfully");
+        mockMvc.perform(post("/inventory/register-sale-batch")
+                        .header("Idempotency-Key", "sale-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"productId\":\"P1\",\"quantity\":2,\"unitPrice\":10}]"))
+                .andExpect(status().isOk());
+
+        verify(idempotencyGuard).execute(eq("sale-1"), eq("register-sale-batch"), anyList(), any());
+    }
 }
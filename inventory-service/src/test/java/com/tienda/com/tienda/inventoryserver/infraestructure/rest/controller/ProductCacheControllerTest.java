@@ -0,0 +1,36 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.rest.controller;
+
+import com.tienda.com.tienda.inventoryserver.infraestructure.adapters.client.CachedProductFeignClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCacheControllerTest {
+
+    @Mock
+    private CachedProductFeignClient cachedProductFeignClient;
+
+    @InjectMocks
+    private ProductCacheController productCacheController;
+
+    @Test
+    void evictProduct_ShouldInvalidateTheProduct() {
+        var response = productCacheController.evictProduct("PROD-001");
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        verify(cachedProductFeignClient).invalidate("PROD-001");
+    }
+
+    @Test
+    void evictAllProducts_ShouldInvalidateEveryProduct() {
+        var response = productCacheController.evictAllProducts();
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        verify(cachedProductFeignClient).invalidateAll();
+    }
+}
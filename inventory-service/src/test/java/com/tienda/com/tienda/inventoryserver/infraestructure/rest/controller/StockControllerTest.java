@@ -76,6 +76,14 @@ class StockControllerTest {
         assertEquals(204, response.getStatusCodeValue());
     }
 
+    @Test
+    void rebuildStockSummary_ShouldReturnSummarizedProductCount() {
+        Map<String, Integer> summary = Map.of("Productos resumidos", 4);
+        when(stockService.rebuildStockSummary()).thenReturn(summary);
+        ResponseEntity<Map<String, Integer>> response = stockController.rebuildStockSummary();
+        assertEquals(summary, response.getBody());
+    }
+
     @Test
     void getTotalStock_ShouldReturnStockTotal() {
         String productId = "123";
@@ -0,0 +1,53 @@
+package com.tienda.com.tienda.inventoryserver.infraestructure.rest.controller;
+
+import com.tienda.com.tienda.inventoryserver.application.services.StockReservationService;
+import com.tienda.com.tienda.inventoryserver.domain.model.constant.ReservationStatus;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.request.ReservationRequest;
+import com.tienda.com.tienda.inventoryserver.domain.model.dto.response.ReservationResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationControllerTest {
+
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @InjectMocks
+    private StockReservationController stockReservationController;
+
+    private final UUID reservationId = UUID.randomUUID();
+
+    @Test
+    void reserve_ShouldReturnCreatedReservation() {
+        var request = new ReservationRequest();
+        var reservation = ReservationResponse.builder().reservationId(reservationId).status(ReservationStatus.ACTIVE).build();
+        when(stockReservationService.reserve(request)).thenReturn(reservation);
+        var response = stockReservationController.reserve(request);
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(reservation, response.getBody());
+    }
+
+    @Test
+    void commit_ShouldReturnCommittedReservation() {
+        var reservation = ReservationResponse.builder().reservationId(reservationId).status(ReservationStatus.COMMITTED).build();
+        when(stockReservationService.commit(reservationId)).thenReturn(reservation);
+        assertEquals(reservation, stockReservationController.commit(reservationId).getBody());
+    }
+
+    @Test
+    void release_ShouldReturnReleasedReservation() {
+        var reservation = ReservationResponse.builder().reservationId(reservationId).status(ReservationStatus.RELEASED).build();
+        when(stockReservationService.release(reservationId)).thenReturn(reservation);
+        assertEquals(reservation, stockReservationController.release(reservationId).getBody());
+    }
+}
@@ -0,0 +1,40 @@
+package com.tienda.productoservice.application.services;
+
+import com.tienda.productoservice.infrastructure.adapters.client.InventoryFeignClient;
+import com.tienda.productoservice.infrastructure.adapters.client.InventoryFeignClientFactory;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Slf4j
+@Service
+@AllArgsConstructor
+public class ProductChangeNotifier {
+
+    private final InventoryFeignClientFactory inventoryFeignClientFactory;
+
+    /**
+     * Notifies every inventory instance that a product was updated or deleted, each one keeps its own cache
+     * The notification is best effort, an instance that misses it keeps the cached copy until it expires
+     *
+     * @param cod Product code
+     */
+    public void productChanged(String cod) {
+        List<InventoryFeignClient> instances;
+        try {
+            instances = inventoryFeignClientFactory.allInstances();
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron obtener las instancias del servicio de inventario para el producto {}", cod, e);
+            return;
+        }
+        for (InventoryFeignClient instance : instances) {
+            try {
+                instance.evictProduct(cod);
+            } catch (RuntimeException e) {
+                log.warn("No se pudo notificar a una instancia del servicio de inventario el cambio del producto {}", cod, e);
+            }
+        }
+    }
+}
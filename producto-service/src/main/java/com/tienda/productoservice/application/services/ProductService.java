@@ -20,6 +20,7 @@ import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -31,6 +32,7 @@ public class ProductService implements ProductUseCases {
     private final CategoryPersistancePort categoryPersistancePort;
     private final BrandPersistancePort brandPersistancePort;
     private final ProductDomainMapper productMapper;
+    private final ProductChangeNotifier productChangeNotifier;
 
     /**
      * Retrieve all products
@@ -77,7 +79,7 @@ public class ProductService implements ProductUseCases {
     }
 
     /**
-     * Update an existing product entity
+     * Update an existing product entity and notify the inventory service so it drops its cached copy
      *
      * @param request ProductRequest object containing updated product details
      * @param cod Product code
@@ -87,11 +89,12 @@ public class ProductService implements ProductUseCases {
     public ProductResponse updateEntity(ProductRequest request, String cod) {
         validateExistProduct(cod);
         var product = productPersistancePort.update(productMapper.toDomainFromReq(request), cod);
+        productChangeNotifier.productChanged(cod);
         return productMapper.toResponse(product);
     }
 
     /**
-     * Delete a product entity by its code.
+     * Delete a product entity by its code and notify the inventory service so it drops its cached copy
      *
      * @param cod Product code
      */
@@ -99,6 +102,7 @@ public class ProductService implements ProductUseCases {
     public void deleteEntityById(String cod) {
         validateExistProduct(cod);
         productPersistancePort.deleteById(cod);
+        productChangeNotifier.productChanged(cod);
     }
 
     /**
@@ -172,6 +176,21 @@ public class ProductService implements ProductUseCases {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Retrieve several products by their codes with a single lookup
+     *
+     * @param cods Product codes, duplicates are ignored
+     * @return List of ProductResponse objects for the codes found, missing codes are skipped
+     */
+    @Override
+    public List<ProductResponse> findAllByCods(List<String> cods) {
+        if (cods == null || cods.isEmpty()) return List.of();
+        var products = productPersistancePort.findAllByCods(new LinkedHashSet<>(cods));
+        return products.stream()
+                .map(productMapper::toResponse)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Validate if a product exists by its code
      *
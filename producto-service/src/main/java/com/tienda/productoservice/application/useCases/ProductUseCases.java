@@ -11,4 +11,5 @@ public interface ProductUseCases extends CrudService<ProductRequest, ProductResp
     String createProductCod(ProductRequest productRequest);
     List<ProductResponse> findAllByCategoryBrandAndPrice(String category, String brand, BigDecimal min, BigDecimal max);
     List<ProductResponse> findAllByWord(String word);
+    List<ProductResponse> findAllByCods(List<String> cods);
 }
@@ -56,8 +56,7 @@ public class BrandPersistanceAdapter implements BrandPersistancePort {
     public Brand update(Brand request, Long id) {
         var existingBrand = brandRepository.findById(id)
                 .orElseThrow(() -> new BrandNotFoundException("Marca no encontrada"));
-        var requestEntity = brandMapper.toEntity(request);
-        UpdateHelper.updateNonNullFields(requestEntity, existingBrand);
+        brandMapper.updateEntity(request, existingBrand);
         var brandUpdated = brandRepository.save(existingBrand);
         return brandMapper.toDomain(brandUpdated);
     }
@@ -56,8 +56,7 @@ public class CategoryPersistanceAdapter implements CategoryPersistancePort {
     public Category update(Category request, Long id) {
         var categoryToUpdate = categoryRepository.findById(id).orElseThrow(
                 () -> new CategoryNotFoundException("Categoria no encontrada"));
-        var requestEntity = categoryMapper.toEntity(request);
-        UpdateHelper.updateNonNullFields(requestEntity, categoryToUpdate);
+        categoryMapper.updateEntity(request, categoryToUpdate);
         var categoryUpdated = categoryRepository.save(categoryToUpdate);
         return categoryMapper.toDomain(categoryUpdated);
     }
@@ -2,6 +2,9 @@ package com.tienda.productoservice.infrastructure.adapters.adapterimpl;
 
 import com.tienda.productoservice.domain.model.dto.Product;
 import com.tienda.productoservice.domain.port.ProductPersistancePort;
+import com.tienda.productoservice.infrastructure.adapters.entity.ProductEntity;
+import com.tienda.productoservice.infrastructure.adapters.exception.BrandNotFoundException;
+import com.tienda.productoservice.infrastructure.adapters.exception.CategoryNotFoundException;
 import com.tienda.productoservice.infrastructure.adapters.exception.ProductNotFoundException;
 import com.tienda.productoservice.infrastructure.adapters.mapper.ProductMapper;
 import com.tienda.productoservice.infrastructure.adapters.repository.BrandRepository;
@@ -11,6 +14,7 @@ import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -61,9 +65,8 @@ public class ProductPersistanceAdapter implements ProductPersistancePort {
     public Product update(Product request, String id) {
         var productToUpdate = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException("Producto no encontrado"));
-        var productEntity = productMapper.toEntity(request);
-        UpdateHelper.updateNonNullFields(productEntity, productToUpdate);
-        UpdateHelper.updateObjectsFields(request, categoryRepository, brandRepository, productToUpdate);
+        productMapper.updateEntity(request, productToUpdate);
+        updateCategoryAndBrand(request, productToUpdate);
         var productUpdated = productRepository.save(productToUpdate);
         return productMapper.toDomain(productUpdated);
     }
@@ -117,4 +120,34 @@ public class ProductPersistanceAdapter implements ProductPersistancePort {
                 .map(productMapper::toDomain)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Get the products matching the given codes, with their category and brand, in a single query
+     *
+     * @param cods the codes of the products to retrieve
+     * @return a list of the products found, codes without a product are skipped
+     */
+    @Override
+    public List<Product> findAllByCods(Collection<String> cods) {
+        return productRepository.findAllByCodIn(cods).stream()
+                .map(productMapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Update the category and brand of a product, looking them up by the names given in the request
+     *
+     * @param request the product request object
+     * @param productToUpdate the product entity to update
+     */
+    private void updateCategoryAndBrand(Product request, ProductEntity productToUpdate) {
+        if (request.getCategory() != null && request.getCategory().getName() != null) {
+            productToUpdate.setCategory(categoryRepository.findByName(request.getCategory().getName())
+                    .orElseThrow(() -> new CategoryNotFoundException("Categoria no encontrada")));
+        }
+        if (request.getBrand() != null && request.getBrand().getName() != null) {
+            productToUpdate.setBrand(brandRepository.findByName(request.getBrand().getName())
+                    .orElseThrow(() -> new BrandNotFoundException("Marca no encontrada")));
+        }
+    }
 }
@@ -0,0 +1,19 @@
+package com.tienda.productoservice.infrastructure.adapters.client;
+
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+/**
+ * Feign contract of the inventory service, built per instance by {@link InventoryFeignClientFactory}
+ * so a call reaches a specific instance instead of a load balanced one
+ */
+public interface InventoryFeignClient {
+
+    /**
+     * Asks the inventory service to drop its cached copy of a product
+     *
+     * @param cod Product code
+     */
+    @DeleteMapping("product-cache/{cod}")
+    void evictProduct(@PathVariable String cod);
+}
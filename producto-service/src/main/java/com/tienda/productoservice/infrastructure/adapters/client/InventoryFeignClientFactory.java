@@ -0,0 +1,50 @@
+package com.tienda.productoservice.infrastructure.adapters.client;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.openfeign.FeignClientBuilder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class InventoryFeignClientFactory {
+
+    static final String INVENTORY_SERVICE = "inventory-service";
+
+    private final DiscoveryClient discoveryClient;
+    private final FeignClientBuilder feignClientBuilder;
+    private final Map<String, InventoryFeignClient> clientsByUri = new ConcurrentHashMap<>();
+
+    public InventoryFeignClientFactory(DiscoveryClient discoveryClient, ApplicationContext applicationContext) {
+        this.discoveryClient = discoveryClient;
+        this.feignClientBuilder = new FeignClientBuilder(applicationContext);
+    }
+
+    /**
+     * Returns one client per registered inventory instance, each bound to that instance's address
+     *
+     * @return The clients of every inventory instance, empty if none is registered
+     */
+    public List<InventoryFeignClient> allInstances() {
+        return discoveryClient.getInstances(INVENTORY_SERVICE).stream()
+                .map(ServiceInstance::getUri)
+                .map(uri -> clientsByUri.computeIfAbsent(uri.toString(), this::build))
+                .toList();
+    }
+
+    /**
+     * Builds a client with a fixed url, which skips the load balancer
+     *
+     * @param uri Base uri of the instance
+     * @return The client bound to the instance
+     */
+    private InventoryFeignClient build(String uri) {
+        return feignClientBuilder.forType(InventoryFeignClient.class, INVENTORY_SERVICE)
+                .url(uri)
+                .build();
+    }
+}
@@ -3,9 +3,12 @@ package com.tienda.productoservice.infrastructure.adapters.mapper;
 
 import com.tienda.productoservice.domain.model.dto.Brand;
 import com.tienda.productoservice.infrastructure.adapters.entity.BrandEntity;
+import org.mapstruct.BeanMapping;
 import org.mapstruct.InheritInverseConfiguration;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 
 @Mapper(componentModel = "spring")
 public interface BrandMapper {
@@ -29,4 +32,15 @@ public interface BrandMapper {
      */
     @InheritInverseConfiguration
     BrandEntity toEntity(Brand brand);
+
+    /**
+     * Copy the non-null fields of a Brand onto an existing BrandEntity
+     *
+     * @param brand the brand domain object with the new values
+     * @param brandEntity the brand entity to update
+     */
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "products", ignore = true)
+    void updateEntity(Brand brand, @MappingTarget BrandEntity brandEntity);
 }
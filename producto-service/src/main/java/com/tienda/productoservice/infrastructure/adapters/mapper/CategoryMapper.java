@@ -3,9 +3,12 @@ package com.tienda.productoservice.infrastructure.adapters.mapper;
 
 import com.tienda.productoservice.domain.model.dto.Category;
 import com.tienda.productoservice.infrastructure.adapters.entity.CategoryEntity;
+import org.mapstruct.BeanMapping;
 import org.mapstruct.InheritInverseConfiguration;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 
 @Mapper(componentModel = "spring")
 public interface CategoryMapper {
@@ -29,4 +32,15 @@ public interface CategoryMapper {
      */
     @InheritInverseConfiguration
     CategoryEntity toEntity(Category category);
+
+    /**
+     * Copy the non-null fields of a Category onto an existing CategoryEntity
+     *
+     * @param category the category domain object with the new values
+     * @param categoryEntity the category entity to update
+     */
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "products", ignore = true)
+    void updateEntity(Category category, @MappingTarget CategoryEntity categoryEntity);
 }
@@ -2,8 +2,11 @@ package com.tienda.productoservice.infrastructure.adapters.mapper;
 
 import com.tienda.productoservice.domain.model.dto.Product;
 import com.tienda.productoservice.infrastructure.adapters.entity.ProductEntity;
+import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 
 @Mapper(componentModel = "spring")
 public interface ProductMapper {
@@ -38,4 +41,18 @@ public interface ProductMapper {
     @Mapping(source = "salePrice", target = "salePrice")
     @Mapping(source = "discount", target = "discount")
     ProductEntity toEntity(Product product);
+
+    /**
+     * Copy the non-null fields of a Product onto an existing ProductEntity
+     * Category and brand are resolved by name by the persistence adapter
+     *
+     * @param product the product domain object with the new values
+     * @param productEntity the product entity to update
+     */
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "cod", ignore = true)
+    @Mapping(target = "category", ignore = true)
+    @Mapping(target = "brand", ignore = true)
+    @Mapping(target = "creationDate", ignore = true)
+    void updateEntity(Product product, @MappingTarget ProductEntity productEntity);
 }
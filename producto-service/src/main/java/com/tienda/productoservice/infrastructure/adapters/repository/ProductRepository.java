@@ -2,10 +2,16 @@ package com.tienda.productoservice.infrastructure.adapters.repository;
 
 import com.tienda.productoservice.infrastructure.adapters.entity.ProductEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductRepository extends JpaRepository<ProductEntity, String> {
     List<ProductEntity> findByCategoryNameAndBrandName(String category, String brand);
     List<ProductEntity> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(String name, String description);
+
+    @Query("SELECT p FROM products p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.brand WHERE p.cod IN :cods")
+    List<ProductEntity> findAllByCodIn(@Param("cods") Collection<String> cods);
 }
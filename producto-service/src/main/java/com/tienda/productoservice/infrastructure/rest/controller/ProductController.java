@@ -43,6 +43,18 @@ public class ProductController {
         return ResponseEntity.ok(productResponse);
     }
 
+    /**
+     * Fetch several products by their codes in a single request
+     *
+     * @param cods the codes of the products to fetch
+     * @return ResponseEntity containing the ProductResponse objects found, codes without a product are skipped
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ProductResponse>> getProductsByCods(@RequestBody List<String> cods) {
+        var products = productService.findAllByCods(cods);
+        return ResponseEntity.ok(products);
+    }
+
     /**
      * Create a new product based on the provided request data
      *
@@ -0,0 +1,53 @@
+package com.tienda.productoservice.application.services;
+
+import com.tienda.productoservice.infrastructure.adapters.client.InventoryFeignClient;
+import com.tienda.productoservice.infrastructure.adapters.client.InventoryFeignClientFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductChangeNotifierTest {
+
+    @Mock
+    private InventoryFeignClientFactory inventoryFeignClientFactory;
+
+    @Mock
+    private InventoryFeignClient firstInstance;
+
+    @Mock
+    private InventoryFeignClient secondInstance;
+
+    @InjectMocks
+    private ProductChangeNotifier productChangeNotifier;
+
+    @Test
+    void productChanged_ShouldAskEveryInventoryInstanceToEvictTheProduct() {
+        when(inventoryFeignClientFactory.allInstances()).thenReturn(List.of(firstInstance, secondInstance));
+        productChangeNotifier.productChanged("PRD1234");
+        verify(firstInstance, times(1)).evictProduct("PRD1234");
+        verify(secondInstance, times(1)).evictProduct("PRD1234");
+    }
+
+    @Test
+    void productChanged_WhenOneInstanceIsUnavailable_ShouldStillNotifyTheOthers() {
+        when(inventoryFeignClientFactory.allInstances()).thenReturn(List.of(firstInstance, secondInstance));
+        doThrow(new IllegalStateException("inventory-service no disponible"))
+                .when(firstInstance).evictProduct("PRD1234");
+        assertDoesNotThrow(() -> productChangeNotifier.productChanged("PRD1234"));
+        verify(secondInstance, times(1)).evictProduct("PRD1234");
+    }
+
+    @Test
+    void productChanged_WhenDiscoveryFails_ShouldNotFail() {
+        when(inventoryFeignClientFactory.allInstances()).thenThrow(new IllegalStateException("eureka no disponible"));
+        assertDoesNotThrow(() -> productChangeNotifier.productChanged("PRD1234"));
+    }
+}
@@ -20,6 +20,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -39,6 +41,9 @@ class ProductServiceTest {
     @Mock
     private ProductDomainMapper productMapper;
 
+    @Mock
+    private ProductChangeNotifier productChangeNotifier;
+
     @InjectMocks
     private ProductService productService;
 
@@ -126,6 +131,36 @@ class ProductServiceTest {
 
         assertDoesNotThrow(() -> productService.deleteEntityById("PRD1234"));
         verify(productPersistancePort, times(1)).deleteById("PRD1234");
+        verify(productChangeNotifier, times(1)).productChanged("PRD1234");
+    }
+
+    @Test
+    void findAllByCods_ShouldLookUpDistinctCodesOnce() {
+        when(productPersistancePort.findAllByCods(new LinkedHashSet<>(List.of("PRD1234", "PRD5678"))))
+                .thenReturn(List.of(product));
+        when(productMapper.toResponse(product)).thenReturn(productResponse);
+
+        List<ProductResponse> result = productService.findAllByCods(List.of("PRD1234", "PRD5678", "PRD1234"));
+
+        assertEquals(List.of(productResponse), result);
+        verify(productPersistancePort, never()).readById(anyString());
+    }
+
+    @Test
+    void findAllByCods_ShouldReturnEmptyList_WhenNoCodesGiven() {
+        assertTrue(productService.findAllByCods(List.of()).isEmpty());
+        verifyNoInteractions(productPersistancePort);
+    }
+
+    @Test
+    void updateEntity_ShouldNotifyInventoryOfTheChange() {
+        when(productPersistancePort.readById("PRD1234")).thenReturn(product);
+        when(productMapper.toDomainFromReq(productRequest)).thenReturn(product);
+        when(productPersistancePort.update(product, "PRD1234")).thenReturn(product);
+        when(productMapper.toResponse(product)).thenReturn(productResponse);
+
+        assertEquals(productResponse, productService.updateEntity(productRequest, "PRD1234"));
+        verify(productChangeNotifier, times(1)).productChanged("PRD1234");
     }
 
     @Test
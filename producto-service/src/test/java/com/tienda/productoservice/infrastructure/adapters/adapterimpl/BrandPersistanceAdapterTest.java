@@ -87,7 +87,6 @@ class BrandPersistanceAdapterTest {
         Brand updatedBrand = new Brand(1L, "Dell Updated", "Updated Brand Description");
 
         when(brandRepository.findById(1L)).thenReturn(Optional.of(brandEntity));
-        when(brandMapper.toEntity(updatedBrand)).thenReturn(brandEntity);
         when(brandRepository.save(brandEntity)).thenReturn(brandEntity);
         when(brandMapper.toDomain(brandEntity)).thenReturn(updatedBrand);
 
@@ -100,7 +99,7 @@ class BrandPersistanceAdapterTest {
 
         verify(brandRepository, times(1)).findById(1L);
         verify(brandRepository, times(1)).save(brandEntity);
-        verify(brandMapper, times(1)).toEntity(updatedBrand);
+        verify(brandMapper, times(1)).updateEntity(updatedBrand, brandEntity);
         verify(brandMapper, times(1)).toDomain(brandEntity);
     }
 
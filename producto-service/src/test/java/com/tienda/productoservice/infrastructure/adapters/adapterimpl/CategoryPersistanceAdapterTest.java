@@ -88,7 +88,6 @@ class CategoryPersistanceAdapterTest {
         Category updatedCategory = new Category(1L, "Electronics Updated", "Updated Description");
 
         when(categoryRepository.findById(1L)).thenReturn(Optional.of(categoryEntity));
-        when(categoryMapper.toEntity(updatedCategory)).thenReturn(categoryEntity);
         when(categoryRepository.save(categoryEntity)).thenReturn(categoryEntity);
         when(categoryMapper.toDomain(categoryEntity)).thenReturn(updatedCategory);
 
@@ -101,7 +100,7 @@ class CategoryPersistanceAdapterTest {
 
         verify(categoryRepository, times(1)).findById(1L);
         verify(categoryRepository, times(1)).save(categoryEntity);
-        verify(categoryMapper, times(1)).toEntity(updatedCategory);
+        verify(categoryMapper, times(1)).updateEntity(updatedCategory, categoryEntity);
         verify(categoryMapper, times(1)).toDomain(categoryEntity);
     }
 
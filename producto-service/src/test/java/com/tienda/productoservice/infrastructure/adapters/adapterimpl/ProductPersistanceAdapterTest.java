@@ -1,7 +1,12 @@
 package com.tienda.productoservice.infrastructure.adapters.adapterimpl;
 
+import com.tienda.productoservice.domain.model.dto.Brand;
+import com.tienda.productoservice.domain.model.dto.Category;
 import com.tienda.productoservice.domain.model.dto.Product;
+import com.tienda.productoservice.infrastructure.adapters.entity.BrandEntity;
+import com.tienda.productoservice.infrastructure.adapters.entity.CategoryEntity;
 import com.tienda.productoservice.infrastructure.adapters.entity.ProductEntity;
+import com.tienda.productoservice.infrastructure.adapters.exception.CategoryNotFoundException;
 import com.tienda.productoservice.infrastructure.adapters.exception.ProductNotFoundException;
 import com.tienda.productoservice.infrastructure.adapters.mapper.ProductMapper;
 import com.tienda.productoservice.infrastructure.adapters.repository.BrandRepository;
@@ -114,25 +119,41 @@ class ProductPersistanceAdapterTest {
                 BigDecimal.valueOf(100),
                 LocalDateTime.now()
         );
-        ProductEntity updatedProductEntity = new ProductEntity(
-                "123",
-                "Updated Name",
-                "Test Description",
-                BigDecimal.valueOf(10),
-                null,
-                null,
-                BigDecimal.valueOf(100),
-                LocalDateTime.now()
-        );
 
         when(productRepository.findById("123")).thenReturn(Optional.of(mockProductEntity));
-        when(productMapper.toEntity(updatedProduct)).thenReturn(updatedProductEntity);
-        when(productRepository.save(updatedProductEntity)).thenReturn(updatedProductEntity);
-        when(productMapper.toDomain(updatedProductEntity)).thenReturn(updatedProduct);
+        when(productRepository.save(mockProductEntity)).thenReturn(mockProductEntity);
+        when(productMapper.toDomain(mockProductEntity)).thenReturn(updatedProduct);
         Product result = productPersistanceAdapter.update(updatedProduct, "123");
         assertNotNull(result);
         assertEquals(updatedProduct.getName(), result.getName());
-        verify(productRepository, times(1)).save(updatedProductEntity);
+        verify(productMapper, times(1)).updateEntity(updatedProduct, mockProductEntity);
+        verify(productRepository, times(1)).save(mockProductEntity);
+        verifyNoInteractions(categoryRepository, brandRepository);
+    }
+
+    @Test
+    void update_WithCategoryAndBrandNames_ShouldResolveThemByName() {
+        CategoryEntity categoryEntity = CategoryEntity.builder().id(2L).name("Bebidas").build();
+        BrandEntity brandEntity = BrandEntity.builder().id(3L).name("Pil").build();
+        mockProduct.setCategory(Category.builder().name("Bebidas").build());
+        mockProduct.setBrand(Brand.builder().name("Pil").build());
+        when(productRepository.findById("123")).thenReturn(Optional.of(mockProductEntity));
+        when(categoryRepository.findByName("Bebidas")).thenReturn(Optional.of(categoryEntity));
+        when(brandRepository.findByName("Pil")).thenReturn(Optional.of(brandEntity));
+        when(productRepository.save(mockProductEntity)).thenReturn(mockProductEntity);
+        when(productMapper.toDomain(mockProductEntity)).thenReturn(mockProduct);
+        productPersistanceAdapter.update(mockProduct, "123");
+        assertEquals(categoryEntity, mockProductEntity.getCategory());
+        assertEquals(brandEntity, mockProductEntity.getBrand());
+    }
+
+    @Test
+    void update_WithUnknownCategory_ShouldThrowCategoryNotFoundException() {
+        mockProduct.setCategory(Category.builder().name("Inexistente").build());
+        when(productRepository.findById("123")).thenReturn(Optional.of(mockProductEntity));
+        when(categoryRepository.findByName("Inexistente")).thenReturn(Optional.empty());
+        assertThrows(CategoryNotFoundException.class, () -> productPersistanceAdapter.update(mockProduct, "123"));
+        verify(productRepository, never()).save(any());
     }
 
     @Test
@@ -175,4 +196,16 @@ class ProductPersistanceAdapterTest {
         assertEquals(1, result.size());
         verify(productRepository, times(1)).findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase("Test", "Test");
     }
+
+    @Test
+    void findAllByCods_ShouldReturnProductsFromOneQuery() {
+        when(productRepository.findAllByCodIn(List.of("123", "456"))).thenReturn(List.of(mockProductEntity));
+        when(productMapper.toDomain(mockProductEntity)).thenReturn(mockProduct);
+
+        List<Product> result = productPersistanceAdapter.findAllByCods(List.of("123", "456"));
+
+        assertEquals(List.of(mockProduct), result);
+        verify(productRepository, times(1)).findAllByCodIn(List.of("123", "456"));
+        verify(productRepository, never()).findById(anyString());
+    }
 }
\ No newline at end of file
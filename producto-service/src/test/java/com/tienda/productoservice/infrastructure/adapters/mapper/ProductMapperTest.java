@@ -0,0 +1,65 @@
+package com.tienda.productoservice.infrastructure.adapters.mapper;
+
+import com.tienda.productoservice.domain.model.dto.Category;
+import com.tienda.productoservice.domain.model.dto.Product;
+import com.tienda.productoservice.infrastructure.adapters.entity.CategoryEntity;
+import com.tienda.productoservice.infrastructure.adapters.entity.ProductEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductMapperTest {
+
+    private final ProductMapper productMapper = Mappers.getMapper(ProductMapper.class);
+    private final LocalDateTime creationDate = LocalDateTime.of(2024, 1, 1, 10, 0);
+    private final CategoryEntity categoryEntity = CategoryEntity.builder().id(1L).name("Lacteos").build();
+    private ProductEntity targetProduct;
+
+    @BeforeEach
+    void setUp() {
+        targetProduct = ProductEntity.builder()
+                .cod("123")
+                .name("Test Product")
+                .description("Test Description")
+                .discount(BigDecimal.valueOf(10))
+                .category(categoryEntity)
+                .salePrice(BigDecimal.valueOf(100))
+                .creationDate(creationDate)
+                .build();
+    }
+
+    @Test
+    void updateEntity_ShouldCopyEveryNonNullFieldExceptKeyRelationsAndCreationDate() {
+        var product = Product.builder()
+                .cod("999")
+                .name("Updated Name")
+                .description("Updated Description")
+                .category(Category.builder().name("Bebidas").build())
+                .discount(BigDecimal.valueOf(5))
+                .salePrice(BigDecimal.valueOf(80))
+                .creationDate(LocalDateTime.now())
+                .build();
+        productMapper.updateEntity(product, targetProduct);
+        assertEquals("123", targetProduct.getCod());
+        assertEquals("Updated Name", targetProduct.getName());
+        assertEquals("Updated Description", targetProduct.getDescription());
+        assertEquals(BigDecimal.valueOf(5), targetProduct.getDiscount());
+        assertEquals(BigDecimal.valueOf(80), targetProduct.getSalePrice());
+        assertEquals(categoryEntity, targetProduct.getCategory());
+        assertEquals(creationDate, targetProduct.getCreationDate());
+    }
+
+    @Test
+    void updateEntity_ShouldKeepFieldsThatAreNullInTheRequest() {
+        productMapper.updateEntity(Product.builder().salePrice(BigDecimal.valueOf(120)).build(), targetProduct);
+        assertEquals("Test Product", targetProduct.getName());
+        assertEquals("Test Description", targetProduct.getDescription());
+        assertEquals(BigDecimal.valueOf(10), targetProduct.getDiscount());
+        assertEquals(BigDecimal.valueOf(120), targetProduct.getSalePrice());
+    }
+}
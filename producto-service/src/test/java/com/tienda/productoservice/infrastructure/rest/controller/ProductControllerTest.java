@@ -111,6 +111,17 @@ class ProductControllerTest {
         assertEquals(1, Objects.requireNonNull(response.getBody()).size());
     }
 
+    @Test
+    void getProductsByCods_ShouldReturnProductsFound() {
+        when(productService.findAllByCods(List.of("P001", "P002"))).thenReturn(List.of(productResponse));
+
+        ResponseEntity<List<ProductResponse>> response = productController.getProductsByCods(List.of("P001", "P002"));
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(productResponse), response.getBody());
+    }
+
     @Test
     void getProductsByWord_ShouldReturnProductsMatchingWord() {
         List<ProductResponse> productResponses = List.of(productResponse);
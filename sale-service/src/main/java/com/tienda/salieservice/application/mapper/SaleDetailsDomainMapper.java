@@ -1,37 +1,36 @@
 package com.tienda.salieservice.application.mapper;
 
-import com.tienda.salieservice.application.validator.FeignValidator;
 import com.tienda.salieservice.domain.model.dto.Product;
 import com.tienda.salieservice.domain.model.dto.SaleDetails;
 import com.tienda.salieservice.domain.model.dto.request.SaleDetailsRequest;
 import com.tienda.salieservice.domain.model.dto.response.SaleDetailsResponse;
 import com.tienda.salieservice.infrastructure.adapters.exception.ValidationException;
+import org.mapstruct.Context;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
-import org.springframework.beans.factory.annotation.Autowired;
 
 import java.math.BigDecimal;
+import java.util.Map;
 
 @Mapper(componentModel = "spring")
 public abstract class SaleDetailsDomainMapper {
 
-    @Autowired
-    protected FeignValidator feignValidator;
-
     /**
      * Converts a SaleDetailsRequest to a SaleDetails entity
      *
      * @param request The SaleDetailsRequest object containing sale details
+     * @param products The products of the request, already resolved and indexed by their code
      * @return A SaleDetails entity object populated with the provided data
      */
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "productId", source = "productId")
     @Mapping(target = "quantity", source = "quantity")
-    @Mapping(target = "unitPrice", expression = "java(getProductPrice(request))")
-    @Mapping(target = "subtotal", expression = "java(calculateSubtotal(request))")
+    @Mapping(target = "unitPrice", expression = "java(getProductPrice(request, products))")
+    @Mapping(target = "subtotal", expression = "java(calculateSubtotal(request, products))")
     @Mapping(target = "sale", ignore = true)
-    public abstract SaleDetails saleDetailsRequestToSaleDetails(SaleDetailsRequest request);
+    public abstract SaleDetails saleDetailsRequestToSaleDetails(SaleDetailsRequest request,
+                                                                @Context Map<String, Product> products);
 
     /**
      * Converts a SaleDetails entity to a SaleDetailsResponse object
@@ -50,12 +49,12 @@ public abstract class SaleDetailsDomainMapper {
      * Retrieves the price of the product, considering any discounts provided in the request
      *
      * @param request The SaleDetailsRequest object containing the product and discount details
+     * @param products The resolved products indexed by their code
      * @return The price of the product, adjusted for any discounts
      */
     @Named("getProductPrice")
-    protected BigDecimal getProductPrice(SaleDetailsRequest request) {
-        String productId = request.getProductId();
-        Product product = feignValidator.verifyExistingProduct(productId);
+    protected BigDecimal getProductPrice(SaleDetailsRequest request, Map<String, Product> products) {
+        Product product = products.get(request.getProductId());
         BigDecimal discount = request.getDiscount() != null ? request.getDiscount() : BigDecimal.ZERO;
         if (request.getUnitPrice() != null)
             return request.getUnitPrice().subtract(discount);
@@ -66,14 +65,14 @@ public abstract class SaleDetailsDomainMapper {
      * Calculates the subtotal for the sale, considering the quantity, unit price, and any discounts
      *
      * @param request The SaleDetailsRequest object containing the product and quantity details
+     * @param products The resolved products indexed by their code
      * @return The calculated subtotal for the sale
      * @throws ValidationException if the discount is greater than the unit price
      */
     @Named("calculateSubtotal")
-    protected BigDecimal calculateSubtotal(SaleDetailsRequest request) {
-        String productId = request.getProductId();
+    protected BigDecimal calculateSubtotal(SaleDetailsRequest request, Map<String, Product> products) {
         Integer quantity = request.getQuantity();
-        Product product = feignValidator.verifyExistingProduct(productId);
+        Product product = products.get(request.getProductId());
         BigDecimal unitPrice = request.getUnitPrice() != null ? request.getUnitPrice() : product.getSalePrice();
         BigDecimal discount = request.getDiscount() != null ? request.getDiscount() : BigDecimal.ZERO;
         if (unitPrice.compareTo(discount) < 0)
@@ -1,37 +1,37 @@
 package com.tienda.salieservice.application.mapper;
 
-import com.tienda.salieservice.application.validator.FeignValidator;
+import com.tienda.salieservice.domain.model.dto.Product;
 import com.tienda.salieservice.domain.model.dto.Sale;
 import com.tienda.salieservice.domain.model.dto.request.SaleDetailsRequest;
 import com.tienda.salieservice.domain.model.dto.request.SaleRequest;
 import com.tienda.salieservice.domain.model.dto.response.SaleResponse;
+import org.mapstruct.Context;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
-import org.springframework.beans.factory.annotation.Autowired;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Mapper(componentModel = "spring", uses = {SaleDetailsDomainMapper.class})
 public abstract class SaleDomainMapper {
 
-    @Autowired
-    protected FeignValidator feignValidator;
-
     /**
      * Converts a SaleRequest to a Sale entity
      *
      * @param request The SaleRequest object containing sale information
+     * @param products The products of the request, already resolved and indexed by their code
      * @return A Sale entity populated with the provided data
      */
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "saleDate", expression = "java(getCurrentDateTime())")
-    @Mapping(target = "totalAmount", expression = "java(calculateTotalAmount(request.getSaleDetails()))")
+    @Mapping(target = "totalAmount", expression = "java(calculateTotalAmount(request.getSaleDetails(), products))")
     @Mapping(target = "saleDetails", source = "saleDetails")
-    @Mapping(target = "totalDiscount", expression = "java(calculateTotalDiscount(request.getSaleDetails()))")
-    public abstract Sale saleRequestToSale(SaleRequest request);
+    @Mapping(target = "totalDiscount", expression = "java(calculateTotalDiscount(request.getSaleDetails(), products))")
+    @Mapping(target = "inventoryStatus", ignore = true)
+    public abstract Sale saleRequestToSale(SaleRequest request, @Context Map<String, Product> products);
 
     /**
      * Converts a Sale entity to a SaleResponse object
@@ -46,6 +46,7 @@ public abstract class SaleDomainMapper {
     @Mapping(target = "paymentMethod", source = "paymentMethod")
     @Mapping(target = "totalDiscount", source = "totalDiscount")
     @Mapping(target = "saleDetails", source = "saleDetails")
+    @Mapping(target = "inventoryStatus", source = "inventoryStatus")
     public abstract SaleResponse saleToSaleResponse(Sale sale);
 
     /**
@@ -61,16 +62,17 @@ public abstract class SaleDomainMapper {
      * Calculates the total amount for the sale based on sale details
      *
      * @param details The list of SaleDetailsRequest objects
+     * @param products The resolved products indexed by their code
      * @return The total amount of the sale, considering all details
      */
     @Named("calculateTotalAmount")
-    protected BigDecimal calculateTotalAmount(List<SaleDetailsRequest> details) {
+    protected BigDecimal calculateTotalAmount(List<SaleDetailsRequest> details, Map<String, Product> products) {
         if (details == null || details.isEmpty()) {
             return BigDecimal.ZERO;
         }
         BigDecimal total = BigDecimal.ZERO;
         for (var detail : details) {
-            var product = feignValidator.verifyExistingProduct(detail.getProductId());
+            var product = products.get(detail.getProductId());
             BigDecimal unitPrice = detail.getUnitPrice() != null ? detail.getUnitPrice() : product.getSalePrice();
             BigDecimal discount = detail.getDiscount() != null ? detail.getDiscount() : BigDecimal.ZERO;
             BigDecimal subtotal = unitPrice.subtract(discount).multiply(BigDecimal.valueOf(detail.getQuantity()));
@@ -85,15 +87,16 @@ public abstract class SaleDomainMapper {
      * Calculates the total discount for the sale based on sale details
      *
      * @param details The list of SaleDetailsRequest objects
+     * @param products The resolved products indexed by their code
      * @return The total discount of the sale, considering all details
      */
     @Named("calculateTotalDiscount")
-    protected BigDecimal calculateTotalDiscount(List<SaleDetailsRequest> details) {
+    protected BigDecimal calculateTotalDiscount(List<SaleDetailsRequest> details, Map<String, Product> products) {
         if (details == null || details.isEmpty())
             return BigDecimal.ZERO;
         var total = BigDecimal.ZERO;
         for (var detail : details) {
-            var product = feignValidator.verifyExistingProduct(detail.getProductId());
+            var product = products.get(detail.getProductId());
             var discount = detail.getDiscount() != null ? detail.getDiscount() : product.getDiscount();
             if (discount == null) discount = BigDecimal.ZERO;
             var quantity = detail.getQuantity();
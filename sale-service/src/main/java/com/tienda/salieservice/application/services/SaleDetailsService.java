@@ -2,6 +2,7 @@ package com.tienda.salieservice.application.services;
 
 
 import com.tienda.salieservice.application.mapper.SaleDetailsDomainMapper;
+import com.tienda.salieservice.application.validator.FeignValidator;
 import com.tienda.salieservice.domain.model.dto.request.SaleDetailsRequest;
 import com.tienda.salieservice.domain.model.dto.response.SaleDetailsResponse;
 import com.tienda.salieservice.domain.port.SaleDetailsPersistancePort;
@@ -9,12 +10,15 @@ import com.tienda.salieservice.application.useCases.SaleDetailsUseCases;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @AllArgsConstructor
 public class SaleDetailsService implements SaleDetailsUseCases {
 
     private final SaleDetailsPersistancePort saleDetailsPersistancePort;
     private final SaleDetailsDomainMapper saleDetailsDomainMapper;
+    private final FeignValidator feignValidator;
 
     /**
      * Retrieves a SaleDetail by its ID
@@ -36,7 +40,8 @@ public class SaleDetailsService implements SaleDetailsUseCases {
      */
     @Override
     public SaleDetailsResponse createEntity(SaleDetailsRequest request) {
-        var detail = saleDetailsDomainMapper.saleDetailsRequestToSaleDetails(request);
+        var detail = saleDetailsDomainMapper.saleDetailsRequestToSaleDetails(request,
+                feignValidator.verifyExistingProducts(List.of(request.getProductId())));
         var savedDetail = saleDetailsPersistancePort.create(detail);
         return saleDetailsDomainMapper.saleDetailsToSaleDetailsResponse(savedDetail);
     }
@@ -50,7 +55,8 @@ public class SaleDetailsService implements SaleDetailsUseCases {
      */
     @Override
     public SaleDetailsResponse updateEntity(SaleDetailsRequest request, Long aLong) {
-        var detail = saleDetailsDomainMapper.saleDetailsRequestToSaleDetails(request);
+        var detail = saleDetailsDomainMapper.saleDetailsRequestToSaleDetails(request,
+                feignValidator.verifyExistingProducts(List.of(request.getProductId())));
         var updatedDetail = saleDetailsPersistancePort.update(detail, aLong);
         return saleDetailsDomainMapper.saleDetailsToSaleDetailsResponse(updatedDetail);
     }
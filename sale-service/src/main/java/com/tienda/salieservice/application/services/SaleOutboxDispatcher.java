@@ -0,0 +1,147 @@
+package com.tienda.salieservice.application.services;
+
+import com.tienda.salieservice.application.validator.FeignValidator;
+import com.tienda.salieservice.domain.model.dto.SaleOutboxMessage;
+import com.tienda.salieservice.domain.model.dto.request.SaleInventoryRequest;
+import com.tienda.salieservice.domain.port.SaleOutboxPersistancePort;
+import com.tienda.salieservice.infrastructure.adapters.client.InventoryFeignClient;
+import feign.FeignException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+public class SaleOutboxDispatcher {
+
+    private final SaleOutboxPersistancePort saleOutboxPersistancePort;
+    private final InventoryFeignClient inventoryFeignClient;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    public SaleOutboxDispatcher(SaleOutboxPersistancePort saleOutboxPersistancePort,
+                                InventoryFeignClient inventoryFeignClient,
+                                @Value("${sale.outbox.batch-size:100}") int batchSize,
+                                @Value("${sale.outbox.max-attempts:10}") int maxAttempts,
+                                @Value("${sale.outbox.initial-backoff-ms:1000}") long initialBackoffMs,
+                                @Value("${sale.outbox.max-backoff-ms:300000}") long maxBackoffMs,
+                                @Value("${sale.outbox.lease-ms:120000}") long leaseMs) {
+        this.saleOutboxPersistancePort = saleOutboxPersistancePort;
+        this.inventoryFeignClient = inventoryFeignClient;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        this.lease = Duration.ofMillis(leaseMs);
+    }
+
+    /**
+     * Claims the outbox messages due for delivery and delivers them to inventory in the order they were written
+     * A message written earlier that is not settled yet, because it waits for a retry, is claimed by another
+     * dispatcher or failed, holds back the later messages of its products, so stock of a product is always
+     * registered in sale order
+     * Held messages are postponed so they do not keep other messages from being claimed
+     */
+    @Scheduled(fixedDelayString = "${sale.outbox.poll-interval-ms:1000}")
+    public void dispatchPending() {
+        var now = LocalDateTime.now();
+        var claimed = saleOutboxPersistancePort.claimDue(batchSize, now, now.plus(lease)).stream()
+                .sorted(Comparator.comparing(SaleOutboxMessage::getId)).toList();
+        if (claimed.isEmpty()) return;
+        Map<String, Long> unsettled = new HashMap<>(saleOutboxPersistancePort.findOldestUnsettledByProduct(
+                claimed.getLast().getId(), claimed.stream().map(SaleOutboxMessage::getId).toList()));
+        for (var message : claimed) {
+            var productIds = productIdsOf(message);
+            boolean held = productIds.stream()
+                    .anyMatch(productId -> unsettled.getOrDefault(productId, Long.MAX_VALUE) < message.getId());
+            if (held) saleOutboxPersistancePort.defer(message.getId(), now.plus(initialBackoff));
+            if (held || !dispatch(message, now))
+                productIds.forEach(productId -> unsettled.merge(productId, message.getId(), Math::min));
+        }
+    }
+
+    /**
+     * Sends one message to inventory with its idempotency key and records the outcome
+     * Rejections that a retry cannot fix and messages out of attempts are marked as failed, together with their sale
+     *
+     * @param message The message to deliver
+     * @param now     The moment of the delivery
+     * @return true if the message was delivered, false if it waits for a retry or failed
+     */
+    boolean dispatch(SaleOutboxMessage message, LocalDateTime now) {
+        try {
+            inventoryFeignClient.registerOutputInventoryBatch(message.getIdempotencyKey(), message.getLines());
+            saleOutboxPersistancePort.markSent(message.getId());
+            return true;
+        } catch (RuntimeException ex) {
+            var attempts = message.getAttempts() + 1;
+            var error = describe(ex);
+            if (isPermanent(ex) || attempts >= maxAttempts) {
+                log.error("Venta {} no registrada en inventario tras {} intentos: {}",
+                        message.getSaleId(), attempts, error);
+                saleOutboxPersistancePort.markFailed(message.getId(), attempts, error);
+                return false;
+            }
+            log.warn("Venta {} no registrada en inventario, intento {}: {}", message.getSaleId(), attempts, error);
+            saleOutboxPersistancePort.scheduleRetry(message.getId(), attempts, now.plus(backoff(attempts)), error);
+            return false;
+        }
+    }
+
+    /**
+     * Computes the wait before the next delivery, doubling with every attempt up to the maximum
+     *
+     * @param attempts The number of deliveries attempted so far
+     * @return The wait before the next delivery
+     */
+    Duration backoff(int attempts) {
+        var factor = 1L << Math.min(attempts - 1, 20);
+        var delay = initialBackoff.multipliedBy(factor);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    /**
+     * Indicates whether inventory rejected the message for a reason a retry cannot fix
+     *
+     * @param ex The delivery error
+     * @return true for client errors other than timeouts, conflicts and throttling
+     */
+    private boolean isPermanent(RuntimeException ex) {
+        if (!(ex instanceof FeignException feignException)) return false;
+        int status = feignException.status();
+        return status >= 400 && status < 500 && status != 408 && status != 409 && status != 429;
+    }
+
+    /**
+     * Describes a delivery error for the outbox record
+     *
+     * @param ex The delivery error
+     * @return The status and message of the error
+     */
+    private String describe(RuntimeException ex) {
+        if (ex instanceof FeignException feignException)
+            return feignException.status() + " " + FeignValidator.extractErrorMessage(feignException);
+        return ex.getClass().getSimpleName() + " " + ex.getMessage();
+    }
+
+    /**
+     * Collects the products of a message
+     *
+     * @param message The outbox message
+     * @return The product codes of its lines
+     */
+    private List<String> productIdsOf(SaleOutboxMessage message) {
+        return message.getLines().stream().map(SaleInventoryRequest::getProductId).toList();
+    }
+}
@@ -2,27 +2,40 @@ package com.tienda.salieservice.application.services;
 
 import com.tienda.salieservice.application.mapper.SaleDomainMapper;
 import com.tienda.salieservice.application.validator.FeignValidator;
+import com.tienda.salieservice.domain.model.dto.Product;
 import com.tienda.salieservice.domain.model.dto.Sale;
+import com.tienda.salieservice.domain.model.dto.request.SaleDetailsRequest;
 import com.tienda.salieservice.domain.model.dto.request.SaleInventoryRequest;
 import com.tienda.salieservice.domain.model.dto.request.SaleRequest;
 import com.tienda.salieservice.domain.model.dto.response.SaleResponse;
 import com.tienda.salieservice.domain.port.SalePersistancePort;
 import com.tienda.salieservice.application.useCases.SaleUseCases;
-import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
-@AllArgsConstructor
 public class SaleService implements SaleUseCases {
 
     private final SalePersistancePort salePersistancePort;
     private final SaleDomainMapper saleDomainMapper;
     private final FeignValidator feignValidator;
+    private final boolean asyncCheckout;
+
+    public SaleService(SalePersistancePort salePersistancePort,
+                       SaleDomainMapper saleDomainMapper,
+                       FeignValidator feignValidator,
+                       @Value("${sale.checkout.async:false}") boolean asyncCheckout) {
+        this.salePersistancePort = salePersistancePort;
+        this.saleDomainMapper = saleDomainMapper;
+        this.feignValidator = feignValidator;
+        this.asyncCheckout = asyncCheckout;
+    }
 
     /**
      * Retrieves all sales that occurred between the specified start and end dates
@@ -120,29 +133,59 @@ public class SaleService implements SaleUseCases {
 
     /**
      * Creates a new sale entity
+     * In asynchronous checkout the sale is stored with an outbox message and registered in inventory later,
+     * otherwise inventory registers it before the sale is stored
      *
      * @param request A `SaleRequest` object containing the information to create the sale
      * @return A `SaleResponse` object containing the details of the newly created sale
      */
     @Override
     public SaleResponse createEntity(SaleRequest request) {
-        Sale saleDomain = saleDomainMapper.saleRequestToSale(request);
+        Sale saleDomain = saleDomainMapper.saleRequestToSale(request, resolveProducts(request));
+        if (asyncCheckout) {
+            Sale createdSale = salePersistancePort.createWithInventoryOutbox(saleDomain, toInventoryRequests(saleDomain));
+            return saleDomainMapper.saleToSaleResponse(createdSale);
+        }
         registerSaleInventoryService(saleDomain);
         Sale createdSale = salePersistancePort.create(saleDomain);
         return saleDomainMapper.saleToSaleResponse(createdSale);
     }
 
+    /**
+     * Resolves every distinct product of the sale with a single request to the product service
+     *
+     * @param request The sale request
+     * @return The products of the sale indexed by their code
+     */
+    private Map<String, Product> resolveProducts(SaleRequest request) {
+        if (request.getSaleDetails() == null) return Map.of();
+        return feignValidator.verifyExistingProducts(request.getSaleDetails().stream()
+                .map(SaleDetailsRequest::getProductId).distinct().toList());
+    }
+
     /**
      * Registers the sale details in the inventory service
      *
      * @param createdSale The sale entity to register in the inventory service
      */
     public void registerSaleInventoryService(Sale createdSale) {
-        createdSale.getSaleDetails().forEach(saleDetails ->
-                feignValidator.registerSale(SaleInventoryRequest.builder()
+        if (createdSale.getSaleDetails().isEmpty()) return;
+        feignValidator.registerSaleBatch(toInventoryRequests(createdSale));
+    }
+
+    /**
+     * Builds the inventory registration of every line of a sale
+     *
+     * @param sale The sale
+     * @return One inventory request per sale detail
+     */
+    private List<SaleInventoryRequest> toInventoryRequests(Sale sale) {
+        return sale.getSaleDetails().stream()
+                .map(saleDetails -> SaleInventoryRequest.builder()
                         .unitPrice(saleDetails.getUnitPrice())
                         .quantity(saleDetails.getQuantity())
-                        .productId(saleDetails.getProductId()).build()));
+                        .productId(saleDetails.getProductId()).build())
+                .toList();
     }
 
     /**
@@ -154,11 +197,23 @@ public class SaleService implements SaleUseCases {
      */
     @Override
     public SaleResponse updateEntity(SaleRequest request, UUID uuid) {
-        Sale saleDomain = saleDomainMapper.saleRequestToSale(request);
+        Sale saleDomain = saleDomainMapper.saleRequestToSale(request, resolveProducts(request));
         Sale updatedSale = salePersistancePort.update(saleDomain, uuid);
         return saleDomainMapper.saleToSaleResponse(updatedSale);
     }
 
+    /**
+     * Queues again the inventory registration of a sale that failed in asynchronous checkout
+     *
+     * @param uuid The unique identifier of the sale
+     * @return A `SaleResponse` object with the sale, waiting again for inventory
+     */
+    @Override
+    public SaleResponse retryInventoryRegistration(UUID uuid) {
+        salePersistancePort.retryInventoryRegistration(uuid);
+        return getById(uuid);
+    }
+
     /**
      * Deletes a sale entity by its unique identifier
      *
@@ -18,4 +18,5 @@ public interface SaleUseCases extends CrudService<SaleRequest, SaleResponse, UUI
     List<Sale> findAllSalesByCustomer(String customerName, LocalDate startDate, LocalDate endDate);
     List<Sale> findAllSalesGreatPriceThan(Double price);
     List<Sale> findAllSalesGreatPriceLess(Double price);
+    SaleResponse retryInventoryRegistration(UUID uuid);
 }
@@ -11,6 +11,13 @@ import feign.FeignException;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @AllArgsConstructor
 @Service
 public class FeignValidator {
@@ -32,6 +39,29 @@ public class FeignValidator {
         }
     }
 
+    /**
+     * Verifies that all the products exist, fetching them with a single request
+     *
+     * @param cods the product codes
+     * @return the products indexed by their code
+     */
+    public Map<String, Product> verifyExistingProducts(Collection<String> cods) {
+        if (cods.isEmpty()) return Map.of();
+        Map<String, Product> products;
+        try {
+            products = productFeignClient.getProductsByCods(new LinkedHashSet<>(cods)).stream()
+                    .collect(Collectors.toMap(Product::getCod, Function.identity(), (first, second) -> first));
+        } catch (FeignException e) {
+            throw new ValidationException("Error con el producto: " + String.join(", ", cods) + " "
+                    + extractErrorMessage(e));
+        }
+        var missingCods = cods.stream().filter(cod -> !products.containsKey(cod)).distinct().toList();
+        if (!missingCods.isEmpty())
+            throw new ValidationException("Error con el producto: " + String.join(", ", missingCods)
+                    + " Producto no encontrado");
+        return products;
+    }
+
     /**
      * Extracts the error message from a FeignException
      *
@@ -63,4 +93,17 @@ public class FeignValidator {
                     " " + extractErrorMessage(e));
         }
     }
+
+    /**
+     * Registers all lines of a sale in the inventory system with a single request
+     *
+     * @param requests the sale inventory requests
+     */
+    public void registerSaleBatch(List<SaleInventoryRequest> requests) {
+        try {
+            inventoryFeignClient.registerOutputInventoryBatch(requests);
+        } catch (FeignException e) {
+            throw new ValidationException("Error al registrar la venta en inventario: " + extractErrorMessage(e));
+        }
+    }
 }
@@ -0,0 +1,7 @@
+package com.tienda.salieservice.domain.model.constant;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -1,5 +1,6 @@
 package com.tienda.salieservice.domain.model.dto;
 
+import com.tienda.salieservice.domain.model.constant.InventoryStatus;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
@@ -21,4 +22,5 @@ public class Sale {
     String paymentMethod;
     BigDecimal totalDiscount;
     List<SaleDetails> saleDetails;
+    InventoryStatus inventoryStatus;
 }
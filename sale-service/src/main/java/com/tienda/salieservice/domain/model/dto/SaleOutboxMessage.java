@@ -0,0 +1,26 @@
+package com.tienda.salieservice.domain.model.dto;
+
+import com.tienda.salieservice.domain.model.constant.OutboxStatus;
+import com.tienda.salieservice.domain.model.dto.request.SaleInventoryRequest;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SaleOutboxMessage {
+    Long id;
+    UUID saleId;
+    String idempotencyKey;
+    List<SaleInventoryRequest> lines;
+    OutboxStatus status;
+    Integer attempts;
+    LocalDateTime nextAttemptAt;
+    String lastError;
+}
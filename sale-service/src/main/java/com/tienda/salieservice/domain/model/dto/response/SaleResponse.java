@@ -1,6 +1,7 @@
 package com.tienda.salieservice.domain.model.dto.response;
 
 
+import com.tienda.salieservice.domain.model.constant.InventoryStatus;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
@@ -22,4 +23,5 @@ public class SaleResponse {
     String paymentMethod;
     BigDecimal totalDiscount;
     List<SaleDetailsResponse> saleDetails;
+    InventoryStatus inventoryStatus;
 }
@@ -0,0 +1,17 @@
+package com.tienda.salieservice.domain.port;
+
+import com.tienda.salieservice.domain.model.dto.SaleOutboxMessage;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface SaleOutboxPersistancePort {
+    List<SaleOutboxMessage> claimDue(int limit, LocalDateTime now, LocalDateTime leaseUntil);
+    Map<String, Long> findOldestUnsettledByProduct(Long beforeId, Collection<Long> excludedIds);
+    void defer(Long id, LocalDateTime nextAttemptAt);
+    void markSent(Long id);
+    void scheduleRetry(Long id, int attempts, LocalDateTime nextAttemptAt, String error);
+    void markFailed(Long id, int attempts, String error);
+}
@@ -2,6 +2,7 @@ package com.tienda.salieservice.domain.port;
 
 import com.tienda.salieservice.domain.abstractions.PersistancePort;
 import com.tienda.salieservice.domain.model.dto.Sale;
+import com.tienda.salieservice.domain.model.dto.request.SaleInventoryRequest;
 import com.tienda.salieservice.infrastructure.adapters.entity.SaleEntity;
 
 import java.math.BigDecimal;
@@ -17,4 +18,6 @@ public interface SalePersistancePort extends PersistancePort<Sale, UUID> {
     List<Sale> findAllSalesByCustomer(String customerName, LocalDate startDate, LocalDate endDate);
     List<Sale> findAllSalesGreatPriceThan(BigDecimal price);
     List<Sale> findAllSalesGreatPriceLess(BigDecimal price);
+    Sale createWithInventoryOutbox(Sale sale, List<SaleInventoryRequest> inventoryRequests);
+    void retryInventoryRegistration(UUID uuid);
 }
@@ -0,0 +1,152 @@
+package com.tienda.salieservice.infrastructure.adapters.adaptersimpl;
+
+import com.tienda.salieservice.domain.model.constant.InventoryStatus;
+import com.tienda.salieservice.domain.model.constant.OutboxStatus;
+import com.tienda.salieservice.domain.model.dto.SaleOutboxMessage;
+import com.tienda.salieservice.domain.port.SaleOutboxPersistancePort;
+import com.tienda.salieservice.infrastructure.adapters.entity.SaleOutboxEntity;
+import com.tienda.salieservice.infrastructure.adapters.mapper.SaleOutboxMapper;
+import com.tienda.salieservice.infrastructure.adapters.repository.SaleOutboxRepository;
+import com.tienda.salieservice.infrastructure.adapters.repository.SaleRepository;
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@Transactional
+@Service
+@AllArgsConstructor
+public class SaleOutboxPersistanceAdapter implements SaleOutboxPersistancePort {
+
+    private final SaleOutboxRepository repository;
+    private final SaleOutboxMapper mapper;
+    private final SaleRepository saleRepository;
+
+    /**
+     * Claims the pending messages whose next delivery is due, the ones due first first
+     * Rows locked by another dispatcher are skipped, the claimed ones are leased so no other dispatcher
+     * picks them up until the lease runs out or their outcome is recorded
+     *
+     * @param limit the maximum number of messages to claim
+     * @param now the current moment
+     * @param leaseUntil the moment the claim runs out
+     * @return the claimed messages, as they were before the claim
+     */
+    @Override
+    public List<SaleOutboxMessage> claimDue(int limit, LocalDateTime now, LocalDateTime leaseUntil) {
+        var entities = repository.findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAscIdAsc(
+                OutboxStatus.PENDING, now, Limit.of(limit));
+        var messages = entities.stream().map(mapper::toDomain).toList();
+        entities.forEach(entity -> entity.setNextAttemptAt(leaseUntil));
+        repository.saveAll(entities);
+        return messages;
+    }
+
+    /**
+     * Finds, for each product, the oldest message written before a given one that is not settled yet,
+     * either waiting for a delivery or failed
+     *
+     * @param beforeId the ID of the message
+     * @param excludedIds the IDs of the messages to leave out
+     * @return the ID of the oldest unsettled message by product code
+     */
+    @Override
+    public Map<String, Long> findOldestUnsettledByProduct(Long beforeId, Collection<Long> excludedIds) {
+        Map<String, Long> oldest = new HashMap<>();
+        repository.findByStatusInAndIdLessThanAndIdNotIn(
+                        List.of(OutboxStatus.PENDING, OutboxStatus.FAILED), beforeId, excludedIds)
+                .forEach(entity -> entity.getLines().forEach(line ->
+                        oldest.merge(line.getProductId(), entity.getId(), Math::min)));
+        return oldest;
+    }
+
+    /**
+     * Postpones a message without counting a delivery attempt
+     *
+     * @param id the ID of the message
+     * @param nextAttemptAt the moment of the next delivery
+     */
+    @Override
+    public void defer(Long id, LocalDateTime nextAttemptAt) {
+        update(id, entity -> entity.setNextAttemptAt(nextAttemptAt));
+    }
+
+    /**
+     * Marks a message as delivered and its sale as registered in inventory
+     *
+     * @param id the ID of the message
+     */
+    @Override
+    public void markSent(Long id) {
+        update(id, entity -> {
+            entity.setStatus(OutboxStatus.SENT);
+            entity.setLastError(null);
+            saleRepository.updateInventoryStatus(entity.getSaleId(), InventoryStatus.REGISTERED);
+        });
+    }
+
+    /**
+     * Records a failed delivery and the moment the message may be retried
+     *
+     * @param id the ID of the message
+     * @param attempts the number of deliveries attempted so far
+     * @param nextAttemptAt the moment of the next delivery
+     * @param error the reason of the failure
+     */
+    @Override
+    public void scheduleRetry(Long id, int attempts, LocalDateTime nextAttemptAt, String error) {
+        update(id, entity -> {
+            entity.setAttempts(attempts);
+            entity.setNextAttemptAt(nextAttemptAt);
+            entity.setLastError(truncate(error));
+        });
+    }
+
+    /**
+     * Marks a message as failed so it is no longer delivered, and its sale as not registered in inventory
+     *
+     * @param id the ID of the message
+     * @param attempts the number of deliveries attempted
+     * @param error the reason of the last failure
+     */
+    @Override
+    public void markFailed(Long id, int attempts, String error) {
+        update(id, entity -> {
+            entity.setStatus(OutboxStatus.FAILED);
+            entity.setAttempts(attempts);
+            entity.setLastError(truncate(error));
+            saleRepository.updateInventoryStatus(entity.getSaleId(), InventoryStatus.FAILED);
+        });
+    }
+
+    /**
+     * Applies a change to a message if it still exists
+     *
+     * @param id the ID of the message
+     * @param change the change to apply
+     */
+    private void update(Long id, Consumer<SaleOutboxEntity> change) {
+        repository.findById(id).ifPresent(entity -> {
+            change.accept(entity);
+            repository.save(entity);
+        });
+    }
+
+    /**
+     * Shortens an error message to the size of its column
+     *
+     * @param error the error message
+     * @return the error message, cut to the column length
+     */
+    private String truncate(String error) {
+        if (error == null || error.length() <= SaleOutboxEntity.MAX_ERROR_LENGTH) return error;
+        return error.substring(0, SaleOutboxEntity.MAX_ERROR_LENGTH);
+    }
+}
@@ -1,11 +1,16 @@
 package com.tienda.salieservice.infrastructure.adapters.adaptersimpl;
 
+import com.tienda.salieservice.domain.model.constant.InventoryStatus;
+import com.tienda.salieservice.domain.model.constant.OutboxStatus;
 import com.tienda.salieservice.domain.model.dto.Sale;
+import com.tienda.salieservice.domain.model.dto.request.SaleInventoryRequest;
 import com.tienda.salieservice.domain.port.SalePersistancePort;
 import com.tienda.salieservice.infrastructure.adapters.entity.SaleDetailsEntity;
 import com.tienda.salieservice.infrastructure.adapters.entity.SaleEntity;
+import com.tienda.salieservice.infrastructure.adapters.entity.SaleOutboxEntity;
 import com.tienda.salieservice.infrastructure.adapters.exception.SaleNotFOund;
 import com.tienda.salieservice.infrastructure.adapters.mapper.SaleMapper;
+import com.tienda.salieservice.infrastructure.adapters.repository.SaleOutboxRepository;
 import com.tienda.salieservice.infrastructure.adapters.repository.SaleRepository;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
@@ -25,6 +30,7 @@ public class SalePersistanceAdapter implements SalePersistancePort {
 
     private final SaleRepository repository;
     private final SaleMapper mapper;
+    private final SaleOutboxRepository outboxRepository;
 
     /**
      * Finds all sales that occurred between the specified start and end dates
@@ -140,7 +146,7 @@ public class SalePersistanceAdapter implements SalePersistancePort {
     }
 
     /**
-     * Creates a new sale
+     * Creates a new sale, registered in inventory unless stated otherwise
      *
      * @param sale the Sale object to be created
      * @return the created Sale object
@@ -148,6 +154,7 @@ public class SalePersistanceAdapter implements SalePersistancePort {
     @Override
     public Sale create(Sale sale) {
         SaleEntity saleEntity = mapper.toEntity(sale);
+        if (saleEntity.getInventoryStatus() == null) saleEntity.setInventoryStatus(InventoryStatus.REGISTERED);
         if (saleEntity.getSaleDetails() != null) {
             for (SaleDetailsEntity detail : saleEntity.getSaleDetails()) {
                 detail.setSale(saleEntity);
@@ -157,6 +164,29 @@ public class SalePersistanceAdapter implements SalePersistancePort {
         return mapper.toDomain(savedEntity);
     }
 
+    /**
+     * Creates a new sale and, in the same transaction, the outbox message that registers it in inventory
+     *
+     * @param sale the Sale object to be created
+     * @param inventoryRequests the lines to register in inventory, no message is written when empty
+     * @return the created Sale object
+     */
+    @Override
+    public Sale createWithInventoryOutbox(Sale sale, List<SaleInventoryRequest> inventoryRequests) {
+        if (!inventoryRequests.isEmpty()) sale.setInventoryStatus(InventoryStatus.PENDING);
+        var createdSale = create(sale);
+        if (inventoryRequests.isEmpty()) return createdSale;
+        outboxRepository.save(SaleOutboxEntity.builder()
+                .saleId(createdSale.getId())
+                .idempotencyKey("sale-" + createdSale.getId())
+                .lines(inventoryRequests)
+                .status(OutboxStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+        return createdSale;
+    }
+
     /**
      * Updates an existing sale with the provided details
      *
@@ -170,14 +200,34 @@ public class SalePersistanceAdapter implements SalePersistancePort {
         return repository.findById(uuid)
                 .map(existingEntity -> {
                     request.setId(uuid);
+                    request.setInventoryStatus(existingEntity.getInventoryStatus());
                     var updated = repository.save(mapper.toEntity(request));
                     return mapper.toDomain(updated);
                 })
                 .orElseThrow(() -> new SaleNotFOund("Venta no encontrada"));
     }
 
+    /**
+     * Queues again the inventory registration of a sale whose outbox message failed
+     *
+     * @param uuid the ID of the sale
+     * @throws SaleNotFOund if the sale has no failed inventory registration
+     */
+    @Override
+    public void retryInventoryRegistration(UUID uuid) {
+        var message = outboxRepository.findBySaleIdAndStatus(uuid, OutboxStatus.FAILED).orElseThrow(
+                () -> new SaleNotFOund("Venta sin registro de inventario fallido"));
+        message.setStatus(OutboxStatus.PENDING);
+        message.setAttempts(0);
+        message.setNextAttemptAt(LocalDateTime.now());
+        outboxRepository.save(message);
+        repository.updateInventoryStatus(uuid, InventoryStatus.PENDING);
+    }
+
     /**
      * Deletes a sale by its ID
+     * A failed inventory registration of the sale is dropped with it, so it no longer holds back
+     * the later sales of its products
      *
      * @param uuid the ID of the sale to be deleted
      * @throws SaleNotFOund if the sale is not found
@@ -186,6 +236,7 @@ public class SalePersistanceAdapter implements SalePersistancePort {
     public void deleteById(UUID uuid) {
         repository.findById(uuid).orElseThrow(
                 () -> new SaleNotFOund("Venta no encontrada"));
+        outboxRepository.deleteBySaleIdAndStatus(uuid, OutboxStatus.FAILED);
         repository.deleteById(uuid);
     }
 }
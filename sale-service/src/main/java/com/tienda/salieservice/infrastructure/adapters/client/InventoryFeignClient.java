@@ -4,6 +4,9 @@ import com.tienda.salieservice.domain.model.dto.request.SaleInventoryRequest;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+import java.util.List;
 
 
 @FeignClient(name = "inventory-service")
@@ -11,4 +14,11 @@ public interface InventoryFeignClient {
 
     @PostMapping("inventory/register-sale")
     void registerOutputInventory(@RequestBody SaleInventoryRequest request);
+
+    @PostMapping("inventory/register-sale-batch")
+    void registerOutputInventoryBatch(@RequestBody List<SaleInventoryRequest> requests);
+
+    @PostMapping("inventory/register-sale-batch")
+    void registerOutputInventoryBatch(@RequestHeader("Idempotency-Key") String idempotencyKey,
+                                      @RequestBody List<SaleInventoryRequest> requests);
 }
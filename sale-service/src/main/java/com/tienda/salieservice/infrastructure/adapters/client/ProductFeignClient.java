@@ -4,10 +4,18 @@ import com.tienda.salieservice.domain.model.dto.Product;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.Collection;
+import java.util.List;
 
 @FeignClient(name = "producto-service")
 public interface ProductFeignClient {
 
     @GetMapping("/product/{cod}")
     Product getProductByCod(@PathVariable String cod);
+
+    @PostMapping("/product/batch")
+    List<Product> getProductsByCods(@RequestBody Collection<String> cods);
 }
@@ -1,6 +1,7 @@
 package com.tienda.salieservice.infrastructure.adapters.entity;
 
 
+import com.tienda.salieservice.domain.model.constant.InventoryStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -21,7 +22,7 @@ import java.util.UUID;
 public class SaleEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false, name = "sale_date")
@@ -42,4 +43,8 @@ public class SaleEntity {
 
     @OneToMany(mappedBy = "sale", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<SaleDetailsEntity> saleDetails;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10, name = "inventory_status")
+    private InventoryStatus inventoryStatus;
 }
@@ -18,6 +18,7 @@ public interface SaleMapper {
     @Mapping(target = "paymentMethod", source = "paymentMethod")
     @Mapping(target = "totalDiscount", source = "totalDiscount")
     @Mapping(target = "saleDetails", source = "saleDetails")
+    @Mapping(target = "inventoryStatus", source = "inventoryStatus")
     Sale toDomain(SaleEntity saleEntity);
 
     @Mapping(target = "id", source = "id")
@@ -27,5 +28,6 @@ public interface SaleMapper {
     @Mapping(target = "paymentMethod", source = "paymentMethod")
     @Mapping(target = "totalDiscount", source = "totalDiscount")
     @Mapping(target = "saleDetails", source = "saleDetails")
+    @Mapping(target = "inventoryStatus", source = "inventoryStatus")
     SaleEntity toEntity(Sale sale);
 }
@@ -0,0 +1,11 @@
+package com.tienda.salieservice.infrastructure.adapters.mapper;
+
+import com.tienda.salieservice.domain.model.dto.SaleOutboxMessage;
+import com.tienda.salieservice.infrastructure.adapters.entity.SaleOutboxEntity;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface SaleOutboxMapper {
+
+    SaleOutboxMessage toDomain(SaleOutboxEntity saleOutboxEntity);
+}
@@ -0,0 +1,35 @@
+package com.tienda.salieservice.infrastructure.adapters.repository;
+
+import com.tienda.salieservice.domain.model.constant.OutboxStatus;
+import com.tienda.salieservice.infrastructure.adapters.entity.SaleOutboxEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface SaleOutboxRepository extends JpaRepository<SaleOutboxEntity, Long> {
+
+    /**
+     * Locks the messages due for delivery, skipping the rows another dispatcher holds locked
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    List<SaleOutboxEntity> findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAscIdAsc(
+            OutboxStatus status, LocalDateTime now, Limit limit);
+
+    List<SaleOutboxEntity> findByStatusInAndIdLessThanAndIdNotIn(Collection<OutboxStatus> statuses, Long id,
+                                                                 Collection<Long> excludedIds);
+
+    Optional<SaleOutboxEntity> findBySaleIdAndStatus(UUID saleId, OutboxStatus status);
+
+    void deleteBySaleIdAndStatus(UUID saleId, OutboxStatus status);
+}
@@ -1,7 +1,11 @@
 package com.tienda.salieservice.infrastructure.adapters.repository;
 
+import com.tienda.salieservice.domain.model.constant.InventoryStatus;
 import com.tienda.salieservice.infrastructure.adapters.entity.SaleEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -18,4 +22,8 @@ public interface SaleRepository extends JpaRepository<SaleEntity, UUID> {
             String customerName, LocalDateTime startDate, LocalDateTime endDateTime);
     List<SaleEntity> findByTotalAmountGreaterThanEqual(BigDecimal price);
     List<SaleEntity> findByTotalAmountLessThanEqual(BigDecimal price);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE sales s SET s.inventoryStatus = :status WHERE s.id = :id")
+    int updateInventoryStatus(@Param("id") UUID id, @Param("status") InventoryStatus status);
 }
@@ -61,6 +61,17 @@ public class SaleController {
         return ResponseEntity.ok(saleResponse);
     }
 
+    /**
+     * Queues again the inventory registration of a sale that failed in asynchronous checkout
+     *
+     * @param id the UUID of the sale
+     * @return the sale, waiting again for inventory
+     */
+    @PostMapping("/{id}/inventory-retry")
+    public ResponseEntity<SaleResponse> retryInventoryRegistration(@PathVariable UUID id) {
+        return ResponseEntity.ok(saleService.retryInventoryRegistration(id));
+    }
+
     /**
      * Deletes a sale by its unique identifier
      *
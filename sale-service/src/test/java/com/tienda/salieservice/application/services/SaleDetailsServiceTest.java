@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import com.tienda.salieservice.application.mapper.SaleDetailsDomainMapper;
+import com.tienda.salieservice.application.validator.FeignValidator;
 import com.tienda.salieservice.domain.model.dto.request.SaleDetailsRequest;
 import com.tienda.salieservice.domain.model.dto.response.SaleDetailsResponse;
 import com.tienda.salieservice.domain.model.dto.SaleDetails;
@@ -16,6 +17,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.Map;
 
 @ExtendWith(MockitoExtension.class)
 class SaleDetailsServiceTest {
@@ -26,6 +28,9 @@ class SaleDetailsServiceTest {
     @Mock
     private SaleDetailsDomainMapper saleDetailsDomainMapper;
 
+    @Mock
+    private FeignValidator feignValidator;
+
     @InjectMocks
     private SaleDetailsService saleDetailsService;
 
@@ -73,7 +78,7 @@ class SaleDetailsServiceTest {
 
     @Test
     void testCreateEntity() {
-        when(saleDetailsDomainMapper.saleDetailsRequestToSaleDetails(request)).thenReturn(saleDetails);
+        when(saleDetailsDomainMapper.saleDetailsRequestToSaleDetails(request, Map.of())).thenReturn(saleDetails);
         when(saleDetailsPersistancePort.create(saleDetails)).thenReturn(saleDetails);
         when(saleDetailsDomainMapper.saleDetailsToSaleDetailsResponse(saleDetails)).thenReturn(response);
 
@@ -86,7 +91,7 @@ class SaleDetailsServiceTest {
 
     @Test
     void testUpdateEntity() {
-        when(saleDetailsDomainMapper.saleDetailsRequestToSaleDetails(request)).thenReturn(saleDetails);
+        when(saleDetailsDomainMapper.saleDetailsRequestToSaleDetails(request, Map.of())).thenReturn(saleDetails);
         when(saleDetailsPersistancePort.update(saleDetails, 1L)).thenReturn(saleDetails);
         when(saleDetailsDomainMapper.saleDetailsToSaleDetailsResponse(saleDetails)).thenReturn(response);
 
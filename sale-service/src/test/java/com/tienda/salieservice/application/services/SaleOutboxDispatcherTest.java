@@ -0,0 +1,163 @@
+package com.tienda.salieservice.application.services;
+
+import com.tienda.salieservice.domain.model.constant.OutboxStatus;
+import com.tienda.salieservice.domain.model.dto.SaleOutboxMessage;
+import com.tienda.salieservice.domain.model.dto.request.SaleInventoryRequest;
+import com.tienda.salieservice.domain.port.SaleOutboxPersistancePort;
+import com.tienda.salieservice.infrastructure.adapters.client.InventoryFeignClient;
+import feign.FeignException;
+import feign.Request;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SaleOutboxDispatcherTest {
+
+    @Mock
+    private SaleOutboxPersistancePort saleOutboxPersistancePort;
+
+    @Mock
+    private InventoryFeignClient inventoryFeignClient;
+
+    private SaleOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new SaleOutboxDispatcher(saleOutboxPersistancePort, inventoryFeignClient, 100, 3, 1000, 5000,
+                60000);
+    }
+
+    @Test
+    void dispatchPending_ShouldSendEachMessageWithItsIdempotencyKey() {
+        var message = message(1L, "P1", 0, LocalDateTime.now().minusSeconds(1));
+        when(saleOutboxPersistancePort.claimDue(eq(100), any(), any())).thenReturn(List.of(message));
+
+        dispatcher.dispatchPending();
+
+        verify(inventoryFeignClient).registerOutputInventoryBatch("sale-1", message.getLines());
+        verify(saleOutboxPersistancePort).markSent(1L);
+    }
+
+    @Test
+    void dispatchPending_FailedMessage_ShouldHoldLaterMessagesOfTheSameProduct() {
+        var first = message(1L, "P1", 0, LocalDateTime.now().minusSeconds(1));
+        var second = message(2L, "P1", 0, LocalDateTime.now().minusSeconds(1));
+        var other = message(3L, "P2", 0, LocalDateTime.now().minusSeconds(1));
+        when(saleOutboxPersistancePort.claimDue(eq(100), any(), any())).thenReturn(List.of(other, second, first));
+        doThrow(feignError(503)).when(inventoryFeignClient).registerOutputInventoryBatch("sale-1", first.getLines());
+
+        dispatcher.dispatchPending();
+
+        verify(saleOutboxPersistancePort).scheduleRetry(eq(1L), eq(1), any(), anyString());
+        verify(inventoryFeignClient, never()).registerOutputInventoryBatch("sale-2", second.getLines());
+        verify(saleOutboxPersistancePort).defer(eq(2L), any());
+        verify(saleOutboxPersistancePort).markSent(3L);
+    }
+
+    @Test
+    void dispatchPending_OlderUnsettledMessage_ShouldHoldLaterMessagesOfTheSameProduct() {
+        var later = message(5L, "P1", 0, LocalDateTime.now().minusSeconds(1));
+        var other = message(6L, "P2", 0, LocalDateTime.now().minusSeconds(1));
+        when(saleOutboxPersistancePort.claimDue(eq(100), any(), any())).thenReturn(List.of(later, other));
+        when(saleOutboxPersistancePort.findOldestUnsettledByProduct(6L, List.of(5L, 6L)))
+                .thenReturn(Map.of("P1", 2L, "P2", 7L));
+
+        dispatcher.dispatchPending();
+
+        verify(inventoryFeignClient, never()).registerOutputInventoryBatch("sale-5", later.getLines());
+        verify(saleOutboxPersistancePort).defer(eq(5L), any());
+        verify(saleOutboxPersistancePort).markSent(6L);
+    }
+
+    @Test
+    void dispatchPending_FailedMessage_ShouldKeepHoldingLaterMessagesOfTheSameProduct() {
+        var first = message(1L, "P1", 0, LocalDateTime.now().minusSeconds(1));
+        var second = message(2L, "P1", 0, LocalDateTime.now().minusSeconds(1));
+        when(saleOutboxPersistancePort.claimDue(eq(100), any(), any())).thenReturn(List.of(first, second));
+        doThrow(feignError(400)).when(inventoryFeignClient).registerOutputInventoryBatch("sale-1", first.getLines());
+
+        dispatcher.dispatchPending();
+
+        verify(saleOutboxPersistancePort).markFailed(eq(1L), eq(1), anyString());
+        verify(inventoryFeignClient, never()).registerOutputInventoryBatch("sale-2", second.getLines());
+        verify(saleOutboxPersistancePort).defer(eq(2L), any());
+    }
+
+    @Test
+    void dispatchPending_NothingDue_ShouldNotLookForHeldProducts() {
+        when(saleOutboxPersistancePort.claimDue(eq(100), any(), any())).thenReturn(List.of());
+
+        dispatcher.dispatchPending();
+
+        verify(saleOutboxPersistancePort, never()).findOldestUnsettledByProduct(any(), any());
+        verifyNoInteractions(inventoryFeignClient);
+    }
+
+    @Test
+    void dispatch_ClientError_ShouldMarkMessageAsFailed() {
+        var message = message(1L, "P1", 0, LocalDateTime.now());
+        doThrow(feignError(400)).when(inventoryFeignClient).registerOutputInventoryBatch("sale-1", message.getLines());
+
+        var delivered = dispatcher.dispatch(message, LocalDateTime.now());
+
+        assertFalse(delivered);
+        verify(saleOutboxPersistancePort).markFailed(eq(1L), eq(1), anyString());
+        verify(saleOutboxPersistancePort, never()).scheduleRetry(anyLong(), anyInt(), any(), anyString());
+    }
+
+    @Test
+    void dispatch_LastAttempt_ShouldMarkMessageAsFailed() {
+        var message = message(1L, "P1", 2, LocalDateTime.now());
+        doThrow(feignError(503)).when(inventoryFeignClient).registerOutputInventoryBatch("sale-1", message.getLines());
+
+        dispatcher.dispatch(message, LocalDateTime.now());
+
+        verify(saleOutboxPersistancePort).markFailed(eq(1L), eq(3), anyString());
+    }
+
+    @Test
+    void backoff_ShouldDoubleUpToTheMaximum() {
+        assertEquals(Duration.ofSeconds(1), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(4), dispatcher.backoff(3));
+        assertEquals(Duration.ofSeconds(5), dispatcher.backoff(10));
+    }
+
+    private SaleOutboxMessage message(Long id, String productId, int attempts, LocalDateTime nextAttemptAt) {
+        return SaleOutboxMessage.builder()
+                .id(id)
+                .saleId(UUID.randomUUID())
+                .idempotencyKey("sale-" + id)
+                .lines(List.of(new SaleInventoryRequest(1, productId, BigDecimal.TEN)))
+                .status(OutboxStatus.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(nextAttemptAt)
+                .build();
+    }
+
+    private FeignException feignError(int status) {
+        var request = Request.create(Request.HttpMethod.POST, "inventory/register-sale-batch", new HashMap<>(),
+                null, StandardCharsets.UTF_8, null);
+        return FeignException.errorStatus("registerOutputInventoryBatch", feign.Response.builder()
+                .status(status).reason("error").request(request).headers(new HashMap<>()).build());
+    }
+}
@@ -2,14 +2,17 @@ package com.tienda.salieservice.application.services;
 
 import com.tienda.salieservice.application.mapper.SaleDomainMapper;
 import com.tienda.salieservice.application.validator.FeignValidator;
+import com.tienda.salieservice.domain.model.dto.Product;
 import com.tienda.salieservice.domain.model.dto.Sale;
+import com.tienda.salieservice.domain.model.dto.SaleDetails;
+import com.tienda.salieservice.domain.model.dto.request.SaleDetailsRequest;
+import com.tienda.salieservice.domain.model.dto.request.SaleInventoryRequest;
 import com.tienda.salieservice.domain.model.dto.request.SaleRequest;
 import com.tienda.salieservice.domain.model.dto.response.SaleResponse;
 import com.tienda.salieservice.domain.port.SalePersistancePort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -17,6 +20,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,7 +37,6 @@ class SaleServiceTest {
     @Mock
     private FeignValidator feignValidator;
 
-    @InjectMocks
     private SaleService saleService;
 
     private UUID saleId;
@@ -43,8 +46,10 @@ class SaleServiceTest {
 
     @BeforeEach
     void setUp() {
+        saleService = new SaleService(salePersistancePort, saleDomainMapper, feignValidator, false);
         saleId = UUID.randomUUID();
-        sale = new Sale(saleId, null, BigDecimal.TEN, "John Doe", "Credit Card", BigDecimal.ONE, Collections.emptyList());
+        sale = new Sale(saleId, null, BigDecimal.TEN, "John Doe", "Credit Card", BigDecimal.ONE, Collections.emptyList(),
+                null);
         saleResponse = new SaleResponse();
         saleRequest = new SaleRequest("John Doe", "Credit Card", Collections.emptyList());
     }
@@ -63,28 +68,79 @@ class SaleServiceTest {
 
     @Test
     void testCreateEntity() {
-        when(saleDomainMapper.saleRequestToSale(saleRequest)).thenReturn(sale);
+        when(saleDomainMapper.saleRequestToSale(saleRequest, Map.of())).thenReturn(sale);
         when(salePersistancePort.create(sale)).thenReturn(sale);
         when(saleDomainMapper.saleToSaleResponse(sale)).thenReturn(saleResponse);
 
         SaleResponse result = saleService.createEntity(saleRequest);
 
         assertNotNull(result);
-        verify(saleDomainMapper).saleRequestToSale(saleRequest);
+        verify(saleDomainMapper).saleRequestToSale(saleRequest, Map.of());
         verify(salePersistancePort).create(sale);
         verify(saleDomainMapper).saleToSaleResponse(sale);
+        verify(feignValidator, never()).registerSaleBatch(any());
+    }
+
+    @Test
+    void testCreateEntity_ResolvesEachProductOnceForTheWholeSale() {
+        var product = new Product();
+        product.setCod("P1");
+        var products = Map.of("P1", product);
+        saleRequest.setSaleDetails(List.of(
+                SaleDetailsRequest.builder().productId("P1").quantity(1).build(),
+                SaleDetailsRequest.builder().productId("P1").quantity(2).build()));
+        when(feignValidator.verifyExistingProducts(List.of("P1"))).thenReturn(products);
+        when(saleDomainMapper.saleRequestToSale(saleRequest, products)).thenReturn(sale);
+        when(salePersistancePort.create(sale)).thenReturn(sale);
+        when(saleDomainMapper.saleToSaleResponse(sale)).thenReturn(saleResponse);
+
+        saleService.createEntity(saleRequest);
+
+        verify(feignValidator, times(1)).verifyExistingProducts(any());
+        verify(feignValidator, never()).verifyExistingProduct(any());
+        verify(saleDomainMapper).saleRequestToSale(saleRequest, products);
+    }
+
+    @Test
+    void testCreateEntity_AsyncCheckout_StoresOutboxMessageInsteadOfCallingInventory() {
+        saleService = new SaleService(salePersistancePort, saleDomainMapper, feignValidator, true);
+        sale.setSaleDetails(List.of(
+                SaleDetails.builder().productId("P1").quantity(2).unitPrice(BigDecimal.TEN).build()));
+        when(saleDomainMapper.saleRequestToSale(saleRequest, Map.of())).thenReturn(sale);
+        when(salePersistancePort.createWithInventoryOutbox(sale, List.of(new SaleInventoryRequest(2, "P1", BigDecimal.TEN))))
+                .thenReturn(sale);
+        when(saleDomainMapper.saleToSaleResponse(sale)).thenReturn(saleResponse);
+
+        SaleResponse result = saleService.createEntity(saleRequest);
+
+        assertSame(saleResponse, result);
+        verify(feignValidator, never()).registerSaleBatch(any());
+        verify(salePersistancePort, never()).create(any());
+    }
+
+    @Test
+    void testRegisterSaleInventoryService_SendsAllDetailsInOneRequest() {
+        sale.setSaleDetails(List.of(
+                SaleDetails.builder().productId("P1").quantity(2).unitPrice(BigDecimal.TEN).build(),
+                SaleDetails.builder().productId("P2").quantity(3).unitPrice(BigDecimal.ONE).build()));
+
+        saleService.registerSaleInventoryService(sale);
+
+        verify(feignValidator).registerSaleBatch(List.of(
+                new SaleInventoryRequest(2, "P1", BigDecimal.TEN),
+                new SaleInventoryRequest(3, "P2", BigDecimal.ONE)));
     }
 
     @Test
     void testUpdateEntity() {
-        when(saleDomainMapper.saleRequestToSale(saleRequest)).thenReturn(sale);
+        when(saleDomainMapper.saleRequestToSale(saleRequest, Map.of())).thenReturn(sale);
         when(salePersistancePort.update(sale, saleId)).thenReturn(sale);
         when(saleDomainMapper.saleToSaleResponse(sale)).thenReturn(saleResponse);
 
         SaleResponse result = saleService.updateEntity(saleRequest, saleId);
 
         assertNotNull(result);
-        verify(saleDomainMapper).saleRequestToSale(saleRequest);
+        verify(saleDomainMapper).saleRequestToSale(saleRequest, Map.of());
         verify(salePersistancePort).update(sale, saleId);
         verify(saleDomainMapper).saleToSaleResponse(sale);
     }
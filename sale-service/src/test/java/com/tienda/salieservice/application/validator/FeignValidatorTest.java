@@ -15,6 +15,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -60,6 +63,24 @@ class FeignValidatorTest {
         assertTrue(exception.getMessage().contains("Error con el producto"));
     }
 
+    @Test
+    void verifyExistingProducts_Success() {
+        when(productFeignClient.getProductsByCods(Set.of("P123"))).thenReturn(List.of(product));
+        Map<String, Product> result = feignValidator.verifyExistingProducts(List.of("P123", "P123"));
+        assertEquals(Map.of("P123", product), result);
+        verify(productFeignClient, never()).getProductByCod(anyString());
+    }
+
+    @Test
+    void verifyExistingProducts_ThrowsValidationException_WhenProductIsMissing() {
+        when(productFeignClient.getProductsByCods(Set.of("P123", "P999"))).thenReturn(List.of(product));
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> feignValidator.verifyExistingProducts(List.of("P123", "P999")));
+
+        assertEquals("Error con el producto: P999 Producto no encontrado", exception.getMessage());
+    }
+
     @Test
     void registerSale_Success() {
         SaleInventoryRequest request = new SaleInventoryRequest(5, "P123", new BigDecimal("100.00"));
@@ -77,4 +98,22 @@ class FeignValidatorTest {
 
         assertTrue(exception.getMessage().contains("Error en informacion del producto"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void registerSaleBatch_Success() {
+        List<SaleInventoryRequest> requests = List.of(new SaleInventoryRequest(5, "P123", new BigDecimal("100.00")));
+        doNothing().when(inventoryFeignClient).registerOutputInventoryBatch(requests);
+        assertDoesNotThrow(() -> feignValidator.registerSaleBatch(requests));
+    }
+
+    @Test
+    void registerSaleBatch_ThrowsValidationException() {
+        List<SaleInventoryRequest> requests = List.of(new SaleInventoryRequest(5, "P123", new BigDecimal("100.00")));
+        doThrow(mock(FeignException.class)).when(inventoryFeignClient).registerOutputInventoryBatch(requests);
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> feignValidator.registerSaleBatch(requests));
+
+        assertTrue(exception.getMessage().contains("Error al registrar la venta en inventario"));
+    }
+}
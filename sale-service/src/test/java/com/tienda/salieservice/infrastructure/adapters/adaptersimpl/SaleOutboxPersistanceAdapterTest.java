@@ -0,0 +1,93 @@
+package com.tienda.salieservice.infrastructure.adapters.adaptersimpl;
+
+import com.tienda.salieservice.domain.model.constant.InventoryStatus;
+import com.tienda.salieservice.domain.model.constant.OutboxStatus;
+import com.tienda.salieservice.domain.model.dto.SaleOutboxMessage;
+import com.tienda.salieservice.domain.model.dto.request.SaleInventoryRequest;
+import com.tienda.salieservice.infrastructure.adapters.entity.SaleOutboxEntity;
+import com.tienda.salieservice.infrastructure.adapters.mapper.SaleOutboxMapper;
+import com.tienda.salieservice.infrastructure.adapters.repository.SaleOutboxRepository;
+import com.tienda.salieservice.infrastructure.adapters.repository.SaleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SaleOutboxPersistanceAdapterTest {
+
+    @Mock
+    private SaleOutboxRepository repository;
+
+    @Mock
+    private SaleOutboxMapper mapper;
+
+    @Mock
+    private SaleRepository saleRepository;
+
+    @InjectMocks
+    private SaleOutboxPersistanceAdapter adapter;
+
+    @Test
+    void claimDue_ShouldLeaseTheClaimedMessages() {
+        var now = LocalDateTime.now();
+        var leaseUntil = now.plusMinutes(2);
+        var entity = outbox(1L, "P1", OutboxStatus.PENDING);
+        var message = SaleOutboxMessage.builder().id(1L).build();
+        when(repository.findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAscIdAsc(
+                OutboxStatus.PENDING, now, Limit.of(10))).thenReturn(List.of(entity));
+        when(mapper.toDomain(entity)).thenReturn(message);
+
+        var claimed = adapter.claimDue(10, now, leaseUntil);
+
+        assertEquals(List.of(message), claimed);
+        assertEquals(leaseUntil, entity.getNextAttemptAt());
+        verify(repository).saveAll(List.of(entity));
+    }
+
+    @Test
+    void findOldestUnsettledByProduct_ShouldKeepTheOldestMessageOfEachProduct() {
+        when(repository.findByStatusInAndIdLessThanAndIdNotIn(List.of(OutboxStatus.PENDING, OutboxStatus.FAILED),
+                9L, List.of(9L))).thenReturn(List.of(outbox(4L, "P1", OutboxStatus.PENDING),
+                outbox(2L, "P1", OutboxStatus.FAILED), outbox(3L, "P2", OutboxStatus.PENDING)));
+
+        var oldest = adapter.findOldestUnsettledByProduct(9L, List.of(9L));
+
+        assertEquals(Map.of("P1", 2L, "P2", 3L), oldest);
+    }
+
+    @Test
+    void markFailed_ShouldFlagTheSaleAsNotRegistered() {
+        var entity = outbox(1L, "P1", OutboxStatus.PENDING);
+        when(repository.findById(1L)).thenReturn(Optional.of(entity));
+
+        adapter.markFailed(1L, 3, "400 Stock insuficiente");
+
+        assertEquals(OutboxStatus.FAILED, entity.getStatus());
+        verify(saleRepository).updateInventoryStatus(entity.getSaleId(), InventoryStatus.FAILED);
+    }
+
+    private SaleOutboxEntity outbox(Long id, String productId, OutboxStatus status) {
+        return SaleOutboxEntity.builder()
+                .id(id)
+                .saleId(UUID.randomUUID())
+                .lines(List.of(new SaleInventoryRequest(1, productId, BigDecimal.TEN)))
+                .status(status)
+                .attempts(0)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -1,24 +1,34 @@
 package com.tienda.salieservice.infrastructure.adapters.adaptersimpl;
 
+import com.tienda.salieservice.domain.model.constant.InventoryStatus;
+import com.tienda.salieservice.domain.model.constant.OutboxStatus;
 import com.tienda.salieservice.domain.model.dto.Sale;
+import com.tienda.salieservice.domain.model.dto.request.SaleInventoryRequest;
 import com.tienda.salieservice.infrastructure.adapters.entity.SaleEntity;
+import com.tienda.salieservice.infrastructure.adapters.entity.SaleOutboxEntity;
 import com.tienda.salieservice.infrastructure.adapters.exception.SaleNotFOund;
 import com.tienda.salieservice.infrastructure.adapters.mapper.SaleMapper;
+import com.tienda.salieservice.infrastructure.adapters.repository.SaleOutboxRepository;
 import com.tienda.salieservice.infrastructure.adapters.repository.SaleRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +39,9 @@ class SalePersistanceAdapterTest {
     @Mock
     private SaleMapper mapper;
 
+    @Mock
+    private SaleOutboxRepository outboxRepository;
+
     @InjectMocks
     private SalePersistanceAdapter adapter;
 
@@ -86,6 +99,37 @@ class SalePersistanceAdapterTest {
 
         assertNotNull(result);
         assertEquals(saleId, result.getId());
+        assertEquals(InventoryStatus.REGISTERED, saleEntity.getInventoryStatus());
+    }
+
+    @Test
+    void testCreateWithInventoryOutbox_ShouldStorePendingMessageKeyedBySale() {
+        var lines = List.of(new SaleInventoryRequest(2, "P1", BigDecimal.TEN));
+        when(mapper.toEntity(sale)).thenReturn(saleEntity);
+        when(repository.save(saleEntity)).thenReturn(saleEntity);
+        when(mapper.toDomain(saleEntity)).thenReturn(sale);
+
+        adapter.createWithInventoryOutbox(sale, lines);
+
+        var captor = ArgumentCaptor.forClass(SaleOutboxEntity.class);
+        verify(outboxRepository).save(captor.capture());
+        assertEquals(saleId, captor.getValue().getSaleId());
+        assertEquals("sale-" + saleId, captor.getValue().getIdempotencyKey());
+        assertEquals(lines, captor.getValue().getLines());
+        assertEquals(OutboxStatus.PENDING, captor.getValue().getStatus());
+        assertEquals(0, captor.getValue().getAttempts());
+        assertEquals(InventoryStatus.PENDING, sale.getInventoryStatus());
+    }
+
+    @Test
+    void testCreateWithInventoryOutbox_WithoutLines_ShouldNotStoreMessage() {
+        when(mapper.toEntity(sale)).thenReturn(saleEntity);
+        when(repository.save(saleEntity)).thenReturn(saleEntity);
+        when(mapper.toDomain(saleEntity)).thenReturn(sale);
+
+        adapter.createWithInventoryOutbox(sale, List.of());
+
+        verify(outboxRepository, never()).save(any());
     }
 
     @Test
@@ -114,6 +158,28 @@ class SalePersistanceAdapterTest {
         doNothing().when(repository).deleteById(saleId);
 
         assertDoesNotThrow(() -> adapter.deleteById(saleId));
+        verify(outboxRepository).deleteBySaleIdAndStatus(saleId, OutboxStatus.FAILED);
+    }
+
+    @Test
+    void testRetryInventoryRegistration_ShouldQueueFailedMessageAgain() {
+        var message = SaleOutboxEntity.builder().id(1L).saleId(saleId).status(OutboxStatus.FAILED).attempts(10)
+                .nextAttemptAt(LocalDateTime.now().minusDays(1)).build();
+        when(outboxRepository.findBySaleIdAndStatus(saleId, OutboxStatus.FAILED)).thenReturn(Optional.of(message));
+
+        adapter.retryInventoryRegistration(saleId);
+
+        assertEquals(OutboxStatus.PENDING, message.getStatus());
+        assertEquals(0, message.getAttempts());
+        verify(outboxRepository).save(message);
+        verify(repository).updateInventoryStatus(saleId, InventoryStatus.PENDING);
+    }
+
+    @Test
+    void testRetryInventoryRegistration_WithoutFailedMessage_ShouldReturnNotFound() {
+        when(outboxRepository.findBySaleIdAndStatus(saleId, OutboxStatus.FAILED)).thenReturn(Optional.empty());
+
+        assertThrows(SaleNotFOund.class, () -> adapter.retryInventoryRegistration(saleId));
     }
 
     @Test
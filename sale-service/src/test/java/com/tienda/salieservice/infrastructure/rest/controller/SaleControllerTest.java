@@ -60,6 +60,14 @@ class SaleControllerTest {
         assertEquals(saleResponse, response.getBody());
     }
 
+    @Test
+    void retryInventoryRegistration_ShouldReturnSaleResponse() {
+        when(saleService.retryInventoryRegistration(saleId)).thenReturn(saleResponse);
+        ResponseEntity<SaleResponse> response = saleController.retryInventoryRegistration(saleId);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(saleResponse, response.getBody());
+    }
+
     @Test
     void updateSale_ShouldReturnUpdatedSaleResponse() {
         when(saleService.updateEntity(saleRequest, saleId)).thenReturn(saleResponse);